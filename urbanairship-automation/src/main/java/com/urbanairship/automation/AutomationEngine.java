@@ -36,9 +36,11 @@ import com.urbanairship.automation.storage.AutomationDao;
 import com.urbanairship.automation.storage.AutomationDaoWrapper;
 import com.urbanairship.automation.storage.AutomationDatabase;
 import com.urbanairship.automation.storage.FullSchedule;
+import com.urbanairship.automation.storage.IndexedAutomationDao;
 import com.urbanairship.automation.storage.LegacyDataMigrator;
 import com.urbanairship.automation.storage.ScheduleEntity;
 import com.urbanairship.automation.storage.ScheduleState;
+import com.urbanairship.automation.storage.ScheduleSummary;
 import com.urbanairship.automation.storage.TriggerEntity;
 import com.urbanairship.config.AirshipRuntimeConfig;
 import com.urbanairship.iam.InAppActivityMonitor;
@@ -79,6 +81,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class AutomationEngine {
 
     private long SCHEDULE_LIMIT = 1000;
+
+    /**
+     * Delay before pending trigger progress is written to the database.
+     */
+    private static final long TRIGGER_FLUSH_DELAY_MS = 3000;
+
     private final List<Integer> COMPOUND_TRIGGER_TYPES = Arrays.asList(Trigger.ACTIVE_SESSION, Trigger.VERSION);
 
     /**
@@ -118,7 +126,16 @@ public class AutomationEngine {
     private Subject<TriggerUpdate> stateObservableUpdates;
     private Subscription compoundTriggerSubscription;
     private Scheduler backgroundScheduler;
-    private final AutomationDao dao;
+    private final IndexedAutomationDao dao;
+    private boolean isTriggerFlushScheduled;
+
+    private final Runnable flushTriggersRunnable = new Runnable() {
+        @Override
+        public void run() {
+            isTriggerFlushScheduled = false;
+            dao.flushPendingTriggerUpdates();
+        }
+    };
 
     private final ApplicationListener applicationListener = new ApplicationListener() {
         @Override
@@ -131,6 +148,7 @@ public class AutomationEngine {
         public void onBackground(long time) {
             AutomationEngine.this.onEventAdded(JsonValue.NULL, Trigger.LIFE_CYCLE_BACKGROUND, 1.00);
             onScheduleConditionsChanged();
+            backgroundHandler.post(flushTriggersRunnable);
         }
     };
 
@@ -261,7 +279,7 @@ public class AutomationEngine {
         this.activityMonitor = activityMonitor;
         this.scheduler = scheduler;
         this.mainHandler = new Handler(Looper.getMainLooper());
-        this.dao = dao;
+        this.dao = new IndexedAutomationDao(dao);
         this.legacyDataMigrator = legacyDataMigrator;
         this.pausedManager = new PausedManager();
     }
@@ -338,6 +356,7 @@ public class AutomationEngine {
         networkMonitor.teardown();
         cancelAlarms();
         backgroundThread.quit();
+        dao.flushPendingTriggerUpdates();
         backgroundThread = null;
         isStarted = false;
     }
@@ -640,43 +659,111 @@ public class AutomationEngine {
                     return;
                 }
 
-                applyEdits(entry, edits);
+                long stateChangeTimeStamp = entry.schedule.executionStateChangeDate;
+                boolean subscribeForStateChanges = applyEditsAndUpdateState(entry, edits);
 
-                boolean subscribeForStateChanges = false;
-                long stateChangeTimeStamp = -1;
+                dao.update(entry);
 
-                boolean isOverLimit = isOverLimit(entry);
-                boolean isExpired = isExpired(entry);
+                if (subscribeForStateChanges) {
+                    subscribeStateObservables(entry, stateChangeTimeStamp);
+                }
 
-                // Check if the schedule needs to be rehabilitated or finished due to the edits
-                if (entry.schedule.executionState == ScheduleState.FINISHED && !isOverLimit && !isExpired) {
-                    subscribeForStateChanges = true;
-                    stateChangeTimeStamp = entry.schedule.executionStateChangeDate;
-                    updateExecutionState(entry, ScheduleState.IDLE);
-                } else if (entry.schedule.executionState != ScheduleState.FINISHED && (isOverLimit || isExpired)) {
-                    updateExecutionState(entry, ScheduleState.FINISHED);
+                Logger.verbose("Updated schedule: %s", scheduleId);
+                pendingResult.setResult(true);
+            }
+        });
+
+        return pendingResult;
+    }
+
+    /**
+     * Schedules new schedules and edits existing schedules in a single database transaction.
+     * <p>
+     * Edits for schedules that no longer exist are ignored. If the new schedules would exceed the
+     * schedule limit, none of them are inserted but the edits are still applied.
+     *
+     * @param schedules The new schedules.
+     * @param edits The schedule edits by schedule ID.
+     * @return Pending result with the result. {@code false} if the new schedules were rejected.
+     */
+    @NonNull
+    public PendingResult<Boolean> sync(@NonNull final List<Schedule<? extends ScheduleData>> schedules,
+                                       @NonNull final Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+        final PendingResult<Boolean> pendingResult = new PendingResult<>();
+
+        backgroundHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                cleanSchedules();
 
-                    if (isOverLimit) {
-                        notifyScheduleLimitReached(entry);
-                    } else {
-                        notifyExpiredSchedules(Collections.singleton(entry));
+                List<FullSchedule> inserts;
+                boolean isOverLimit = dao.getScheduleCount() + schedules.size() > SCHEDULE_LIMIT;
+                if (isOverLimit) {
+                    Logger.error("AutomationEngine - Unable to insert schedules due to schedule exceeded limit.");
+                    inserts = Collections.emptyList();
+                } else {
+                    inserts = ScheduleConverters.convertSchedules(schedules);
+                }
+
+                List<FullSchedule> updates = edits.isEmpty() ? Collections.<FullSchedule>emptyList() : dao.getSchedules(edits.keySet());
+                Map<FullSchedule, Long> rehabilitated = new HashMap<>();
+
+                for (FullSchedule entry : updates) {
+                    long stateChangeTimeStamp = entry.schedule.executionStateChangeDate;
+                    if (applyEditsAndUpdateState(entry, edits.get(entry.schedule.scheduleId))) {
+                        rehabilitated.put(entry, stateChangeTimeStamp);
                     }
                 }
 
-                dao.update(entry);
+                dao.sync(inserts, updates);
 
-                if (subscribeForStateChanges) {
-                    subscribeStateObservables(entry, stateChangeTimeStamp);
+                subscribeStateObservables(inserts);
+                for (Map.Entry<FullSchedule, Long> entry : rehabilitated.entrySet()) {
+                    subscribeStateObservables(entry.getKey(), entry.getValue());
                 }
 
-                Logger.verbose("Updated schedule: %s", scheduleId);
-                pendingResult.setResult(true);
+                if (!inserts.isEmpty()) {
+                    notifyNewSchedule(convertSchedulesUnknownTypes(inserts));
+                }
+
+                Logger.verbose("Synced schedules, inserted: %s updated: %s", inserts.size(), updates.size());
+                pendingResult.setResult(!isOverLimit);
             }
         });
 
         return pendingResult;
     }
 
+    /**
+     * Applies the edits to the schedule entry and rehabilitates or finishes the schedule if needed.
+     *
+     * @param entry The schedule entry.
+     * @param edits The schedule edits.
+     * @return {@code true} if the schedule was rehabilitated and needs to be subscribed for state changes.
+     */
+    private boolean applyEditsAndUpdateState(@NonNull FullSchedule entry, @NonNull ScheduleEdits<? extends ScheduleData> edits) {
+        applyEdits(entry, edits);
+
+        boolean isOverLimit = isOverLimit(entry);
+        boolean isExpired = isExpired(entry);
+
+        // Check if the schedule needs to be rehabilitated or finished due to the edits
+        if (entry.schedule.executionState == ScheduleState.FINISHED && !isOverLimit && !isExpired) {
+            updateExecutionState(entry, ScheduleState.IDLE);
+            return true;
+        } else if (entry.schedule.executionState != ScheduleState.FINISHED && (isOverLimit || isExpired)) {
+            updateExecutionState(entry, ScheduleState.FINISHED);
+
+            if (isOverLimit) {
+                notifyScheduleLimitReached(entry);
+            } else {
+                notifyExpiredSchedules(Collections.singleton(entry));
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Triggers the engine to recheck all pending schedules.
      */
@@ -705,6 +792,25 @@ public class AutomationEngine {
         return pendingResult;
     }
 
+    /**
+     * Gets the ID, type and metadata of all schedules without loading the schedule data or triggers.
+     *
+     * @return A pending result.
+     */
+    @NonNull
+    public PendingResult<Collection<ScheduleSummary>> getScheduleSummaries() {
+        final PendingResult<Collection<ScheduleSummary>> pendingResult = new PendingResult<>();
+
+        backgroundHandler.post(new Runnable() {
+            @Override
+            public void run() {
+                pendingResult.setResult(dao.getScheduleSummaries());
+            }
+        });
+
+        return pendingResult;
+    }
+
     /**
      * Sets the schedule listener.
      *
@@ -1084,7 +1190,7 @@ public class AutomationEngine {
             @Override
             public void run() {
                 Logger.debug("Updating triggers with type: %s", type);
-                List<TriggerEntity> triggerEntities = dao.getActiveTriggers(type);
+                List<TriggerEntity> triggerEntities = dao.getActiveTriggersForEvent(type, json);
                 if (triggerEntities.isEmpty()) {
                     return;
                 }
@@ -1116,8 +1222,11 @@ public class AutomationEngine {
 
                 List<TriggerEntity> triggersToUpdate = new ArrayList<>();
 
+                // Convert once instead of once per trigger
+                JsonValue jsonValue = json.toJsonValue();
+
                 for (TriggerEntity trigger : triggerEntities) {
-                    if (trigger.jsonPredicate != null && !trigger.jsonPredicate.apply(json)) {
+                    if (trigger.jsonPredicate != null && !trigger.jsonPredicate.apply(jsonValue)) {
                         continue;
                     }
 
@@ -1132,12 +1241,13 @@ public class AutomationEngine {
                             cancelScheduleAlarms(Collections.singletonList(trigger.parentScheduleId));
                         } else {
                             triggeredSchedules.add(trigger.parentScheduleId);
-                            triggerContextMap.put(trigger.parentScheduleId, new TriggerContext(ScheduleConverters.convert(trigger), json.toJsonValue()));
+                            triggerContextMap.put(trigger.parentScheduleId, new TriggerContext(ScheduleConverters.convert(trigger), jsonValue));
                         }
                     }
                 }
 
                 dao.updateTriggers(triggersToUpdate);
+                scheduleTriggerFlush();
 
                 if (!cancelledSchedules.isEmpty()) {
                     handleCancelledSchedules(dao.getSchedules(cancelledSchedules));
@@ -1150,6 +1260,19 @@ public class AutomationEngine {
         });
     }
 
+    /**
+     * Schedules writing any pending trigger progress to the database.
+     */
+    @WorkerThread
+    private void scheduleTriggerFlush() {
+        if (isTriggerFlushScheduled || !dao.hasPendingTriggerUpdates()) {
+            return;
+        }
+
+        isTriggerFlushScheduled = true;
+        backgroundHandler.postDelayed(flushTriggersRunnable, TRIGGER_FLUSH_DELAY_MS);
+    }
+
     /**
      * Processes a list of cancelled schedule entries.
      *
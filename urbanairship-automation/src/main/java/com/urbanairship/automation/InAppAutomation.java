@@ -22,6 +22,7 @@ import com.urbanairship.automation.deferred.DeferredScheduleClient;
 import com.urbanairship.automation.limits.FrequencyChecker;
 import com.urbanairship.automation.limits.FrequencyConstraint;
 import com.urbanairship.automation.limits.FrequencyLimitManager;
+import com.urbanairship.automation.storage.ScheduleSummary;
 import com.urbanairship.automation.tags.AudienceManager;
 import com.urbanairship.channel.AirshipChannel;
 import com.urbanairship.config.AirshipRuntimeConfig;
@@ -40,6 +41,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -109,20 +111,24 @@ public class InAppAutomation extends AirshipComponent implements InAppAutomation
     private final InAppRemoteDataObserver.Delegate remoteDataObserverDelegate = new InAppRemoteDataObserver.Delegate() {
         @Override
         @NonNull
-        public PendingResult<Collection<Schedule<? extends ScheduleData>>> getSchedules() {
-            return InAppAutomation.this.getSchedules();
+        public PendingResult<Collection<ScheduleSummary>> getScheduleSummaries() {
+            ensureStarted();
+            return automationEngine.getScheduleSummaries();
         }
 
         @Override
         @NonNull
-        public PendingResult<Boolean> editSchedule(@NonNull String scheduleId, @NonNull ScheduleEdits<? extends ScheduleData> edits) {
-            return InAppAutomation.this.editSchedule(scheduleId, edits);
+        public PendingResult<Collection<Schedule<? extends ScheduleData>>> getSchedules(@NonNull Set<String> scheduleIds) {
+            ensureStarted();
+            return automationEngine.getSchedules(scheduleIds);
         }
 
         @NonNull
         @Override
-        public PendingResult<Boolean> schedule(@NonNull List<Schedule<? extends ScheduleData>> schedules) {
-            return InAppAutomation.this.schedule(schedules);
+        public PendingResult<Boolean> sync(@NonNull List<Schedule<? extends ScheduleData>> schedules,
+                                           @NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+            ensureStarted();
+            return automationEngine.sync(schedules, edits);
         }
 
         @Override
@@ -13,6 +13,7 @@ import com.urbanairship.UAirship;
 import com.urbanairship.automation.actions.Actions;
 import com.urbanairship.automation.deferred.Deferred;
 import com.urbanairship.automation.limits.FrequencyConstraint;
+import com.urbanairship.automation.storage.ScheduleSummary;
 import com.urbanairship.iam.InAppMessage;
 import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonList;
@@ -31,8 +32,10 @@ import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -107,13 +110,14 @@ class InAppRemoteDataObserver {
     interface Delegate {
 
         @NonNull
-        PendingResult<Collection<Schedule<? extends ScheduleData>>> getSchedules();
+        PendingResult<Collection<ScheduleSummary>> getScheduleSummaries();
 
         @NonNull
-        PendingResult<Boolean> editSchedule(@NonNull String scheduleId, @NonNull ScheduleEdits<? extends ScheduleData> edits);
+        PendingResult<Collection<Schedule<? extends ScheduleData>>> getSchedules(@NonNull Set<String> scheduleIds);
 
         @NonNull
-        PendingResult<Boolean> schedule(@NonNull List<Schedule<? extends ScheduleData>> schedules);
+        PendingResult<Boolean> sync(@NonNull List<Schedule<? extends ScheduleData>> schedules,
+                                    @NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits);
 
         Future<Boolean> updateConstraints(@NonNull Collection<FrequencyConstraint> constraints);
 
@@ -215,8 +219,9 @@ class InAppRemoteDataObserver {
 
         boolean isMetadataUpToDate = payload.getMetadata().equals(lastPayloadMetadata);
         List<Schedule<? extends ScheduleData>> newSchedules = new ArrayList<>();
+        Map<String, ScheduleEdits<? extends ScheduleData>> scheduleEdits = new HashMap<>();
         List<String> incomingScheduleIds = new ArrayList<>();
-        Set<String> scheduledRemoteIds = filterRemoteSchedules(delegate.getSchedules().get());
+        Set<String> scheduledRemoteIds = getRemoteScheduleIds(delegate);
         Collection<FrequencyConstraint> constraints = parseConstraints(payload.getData().opt(CONSTRAINTS_JSON_KEY).optList());
 
         // Update constraints
@@ -253,10 +258,8 @@ class InAppRemoteDataObserver {
             if (scheduledRemoteIds.contains(scheduleId)) {
                 try {
                     ScheduleEdits<?> edits = parseEdits(messageJson, scheduleMetadata);
-                    Boolean edited = delegate.editSchedule(scheduleId, edits).get();
-                    if (edited != null && edited) {
-                        Logger.debug("Updated in-app automation: %s with edits: %s", scheduleId, edits);
-                    }
+                    scheduleEdits.put(scheduleId, edits);
+                    Logger.debug("Updating in-app automation: %s with edits: %s", scheduleId, edits);
                 } catch (JsonException e) {
                     Logger.error(e, "Failed to parse in-app automation edits: %s", scheduleId);
                 }
@@ -276,11 +279,6 @@ class InAppRemoteDataObserver {
             }
         }
 
-        // Schedule new in-app messages
-        if (!newSchedules.isEmpty()) {
-            delegate.schedule(newSchedules).get();
-        }
-
         // End any messages that are no longer in the listing
         Set<String> schedulesToRemove = new HashSet<>(scheduledRemoteIds);
         schedulesToRemove.removeAll(incomingScheduleIds);
@@ -297,7 +295,15 @@ class InAppRemoteDataObserver {
                                                                        .build();
 
             for (String scheduleId : schedulesToRemove) {
-                delegate.editSchedule(scheduleId, edits).get();
+                scheduleEdits.put(scheduleId, edits);
+            }
+        }
+
+        // Schedule new in-app messages and apply the edits in a single transaction
+        if (!newSchedules.isEmpty() || !scheduleEdits.isEmpty()) {
+            Boolean synced = delegate.sync(newSchedules, scheduleEdits).get();
+            if (synced == null || !synced) {
+                Logger.error("Failed to schedule new in-app automations: %s", newSchedules.size());
             }
         }
 
@@ -433,6 +439,41 @@ class InAppRemoteDataObserver {
         }
     }
 
+    /**
+     * Gets the IDs of the schedules that came from remote data.
+     * <p>
+     * Only the schedule summaries are loaded. In-app messages from older SDK versions are missing the
+     * remote data metadata and only mark the source on the message, so any in-app message schedules
+     * without the metadata are loaded to check the message source.
+     *
+     * @param delegate The delegate.
+     * @return The remote schedule IDs.
+     */
+    @NonNull
+    private Set<String> getRemoteScheduleIds(@NonNull Delegate delegate) throws ExecutionException, InterruptedException {
+        Collection<ScheduleSummary> summaries = delegate.getScheduleSummaries().get();
+        if (summaries == null) {
+            return Collections.emptySet();
+        }
+
+        Set<String> scheduleIds = new HashSet<>();
+        Set<String> legacyScheduleIds = new HashSet<>();
+
+        for (ScheduleSummary summary : summaries) {
+            if (summary.metadata != null && summary.metadata.containsKey(REMOTE_DATA_METADATA)) {
+                scheduleIds.add(summary.scheduleId);
+            } else if (Schedule.TYPE_IN_APP_MESSAGE.equals(summary.scheduleType)) {
+                legacyScheduleIds.add(summary.scheduleId);
+            }
+        }
+
+        if (!legacyScheduleIds.isEmpty()) {
+            scheduleIds.addAll(filterRemoteSchedules(delegate.getSchedules(legacyScheduleIds).get()));
+        }
+
+        return scheduleIds;
+    }
+
     @NonNull
     private Set<String> filterRemoteSchedules(@Nullable Collection<Schedule<? extends ScheduleData>> schedules) {
         if (schedules == null) {
@@ -42,9 +42,10 @@ public class FrequencyLimitManager {
 
     /*
      * A frequency checker will have a strong reference to the list of constraints entities. Once
-     * the checker is cleaned up this should remove the values from the map.
+     * the checker is cleaned up this should remove the values from the map. Each constraint only
+     * keeps the most recent occurrences up to its count.
      */
-    private final Map<ConstraintEntity, List<OccurrenceEntity>> occurrencesMap = new WeakHashMap<>();
+    private final Map<ConstraintEntity, OccurrenceBuffer> occurrencesMap = new WeakHashMap<>();
 
     /*
      * List of pending occurrences to write to the database.
@@ -57,7 +58,7 @@ public class FrequencyLimitManager {
     private final Executor executor;
 
     public FrequencyLimitManager(@NonNull Context context, @NonNull AirshipRuntimeConfig config) {
-        this(FrequencyLimitDatabase.createDatabase(context, config).getDao(), Clock.DEFAULT_CLOCK, AirshipExecutors.newSerialExecutor());
+        this(FrequencyLimitDatabase.createDatabase(context, config).getDao(), Clock.DEFAULT_CLOCK, AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_DISK));
     }
 
     @VisibleForTesting
@@ -199,10 +200,10 @@ public class FrequencyLimitManager {
             pendingOccurrences.add(occurrence);
 
             // Update any constraints that are still active
-            for (Map.Entry<ConstraintEntity, List<OccurrenceEntity>> entry : occurrencesMap.entrySet()) {
+            for (Map.Entry<ConstraintEntity, OccurrenceBuffer> entry : occurrencesMap.entrySet()) {
                 ConstraintEntity constraint = entry.getKey();
                 if (constraint != null && id.equals(constraint.constraintId)) {
-                    entry.getValue().add(occurrence);
+                    entry.getValue().add(timeMillis);
                 }
             }
         }
@@ -225,11 +226,15 @@ public class FrequencyLimitManager {
         Collection<ConstraintEntity> constraints = dao.getConstraints(constraintIds);
 
         for (ConstraintEntity constraint : constraints) {
-            List<OccurrenceEntity> occurrences = dao.getOccurrences(constraint.constraintId);
+            OccurrenceBuffer occurrences = new OccurrenceBuffer(constraint.count);
+            for (OccurrenceEntity entity : dao.getRecentOccurrences(constraint.constraintId, constraint.count)) {
+                occurrences.add(entity.timeStamp);
+            }
+
             synchronized (lock) {
                 for (OccurrenceEntity entity : pendingOccurrences) {
                     if (entity.parentConstraintId.equals(constraint.constraintId)) {
-                        occurrences.add(entity);
+                        occurrences.add(entity.timeStamp);
                     }
                 }
                 occurrencesMap.put(constraint, occurrences);
@@ -246,23 +251,57 @@ public class FrequencyLimitManager {
             pendingOccurrences.clear();
         }
 
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Set<String> constraintIds = new HashSet<>();
         for (OccurrenceEntity occurrence : pending) {
-            try {
-                dao.insert(occurrence);
-            } catch (SQLiteException e) {
-                Logger.verbose(e);
+            constraintIds.add(occurrence.parentConstraintId);
+        }
+
+        try {
+            dao.insert(pending);
+        } catch (SQLiteException e) {
+            // Constraint was removed, insert individually to keep the rest
+            Logger.verbose(e);
+            for (OccurrenceEntity occurrence : pending) {
+                try {
+                    dao.insert(occurrence);
+                } catch (SQLiteException ex) {
+                    Logger.verbose(ex);
+                }
+            }
+        }
+
+        pruneOccurrences(constraintIds);
+    }
+
+    /**
+     * Removes occurrences that are outside of the constraint's range. Occurrences past the most
+     * recent {@code count} are kept since the count might be raised by a later update.
+     *
+     * @param constraintIds The constraint IDs.
+     */
+    private void pruneOccurrences(@NonNull Collection<String> constraintIds) {
+        long now = clock.currentTimeMillis();
+        try {
+            for (ConstraintEntity constraint : dao.getConstraints(constraintIds)) {
+                dao.pruneOccurrences(constraint.constraintId, now - constraint.range);
             }
+        } catch (SQLiteException e) {
+            Logger.debug(e, "Failed to prune occurrences");
         }
     }
 
     private boolean isConstraintOverLimit(@NonNull ConstraintEntity constraint) {
-        List<OccurrenceEntity> occurrences = occurrencesMap.get(constraint);
+        OccurrenceBuffer occurrences = occurrencesMap.get(constraint);
 
         if (occurrences == null || occurrences.size() < constraint.count) {
             return false;
         }
 
-        long timeSinceOccurrence = clock.currentTimeMillis() - occurrences.get(occurrences.size() - constraint.count).timeStamp;
+        long timeSinceOccurrence = clock.currentTimeMillis() - occurrences.getOldest();
         return timeSinceOccurrence <= constraint.range;
     }
 
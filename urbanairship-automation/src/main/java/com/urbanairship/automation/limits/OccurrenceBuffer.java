@@ -0,0 +1,67 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation.limits;
+
+/**
+ * Fixed capacity ring buffer of occurrence time stamps. Only the most recent occurrences up to
+ * the constraint's count are needed to check the constraint, so older ones are overwritten.
+ */
+class OccurrenceBuffer {
+
+    private final long[] timeStamps;
+    private int next;
+    private int size;
+
+    /**
+     * Default constructor.
+     *
+     * @param capacity The max number of occurrences to keep.
+     */
+    OccurrenceBuffer(int capacity) {
+        this.timeStamps = new long[Math.max(1, capacity)];
+    }
+
+    /**
+     * Adds an occurrence, replacing the oldest one if the buffer is full.
+     *
+     * @param timeStamp The occurrence time stamp.
+     */
+    void add(long timeStamp) {
+        timeStamps[next] = timeStamp;
+        next = (next + 1) % timeStamps.length;
+        if (size < timeStamps.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Checks if the buffer is full.
+     *
+     * @return {@code true} if the buffer is full, otherwise {@code false}.
+     */
+    boolean isFull() {
+        return size == timeStamps.length;
+    }
+
+    /**
+     * Gets the oldest occurrence in the buffer.
+     *
+     * @return The oldest time stamp, or 0 if the buffer is empty.
+     */
+    long getOldest() {
+        if (size == 0) {
+            return 0;
+        }
+        return isFull() ? timeStamps[next] : timeStamps[0];
+    }
+
+    /**
+     * Gets the number of occurrences in the buffer.
+     *
+     * @return The number of occurrences.
+     */
+    int size() {
+        return size;
+    }
+
+}
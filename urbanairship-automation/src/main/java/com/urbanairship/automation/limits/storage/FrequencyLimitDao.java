@@ -31,6 +31,9 @@ public interface FrequencyLimitDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     void insert(@NonNull OccurrenceEntity occurrence);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insert(@NonNull List<OccurrenceEntity> occurrences);
+
     @Query("SELECT * FROM constraints WHERE (constraintId IN (:constraintIds))")
     List<ConstraintEntity> getConstraints(Collection<String> constraintIds);
 
@@ -40,6 +43,25 @@ public interface FrequencyLimitDao {
     @Query("SELECT * FROM occurrences WHERE parentConstraintId = :constraintId ORDER BY timeStamp ASC")
     List<OccurrenceEntity> getOccurrences(String constraintId);
 
+    /**
+     * Gets the most recent occurrences for a constraint, oldest first.
+     *
+     * @param constraintId The constraint ID.
+     * @param count The max number of occurrences.
+     * @return The occurrences.
+     */
+    @Query("SELECT * FROM (SELECT * FROM occurrences WHERE parentConstraintId = :constraintId ORDER BY timeStamp DESC, id DESC LIMIT :count) ORDER BY timeStamp ASC, id ASC")
+    List<OccurrenceEntity> getRecentOccurrences(String constraintId, int count);
+
+    /**
+     * Deletes the occurrences for a constraint that are older than the given time stamp.
+     *
+     * @param constraintId The constraint ID.
+     * @param minTimeStamp The oldest time stamp to keep.
+     */
+    @Query("DELETE FROM occurrences WHERE parentConstraintId = :constraintId AND timeStamp < :minTimeStamp")
+    void pruneOccurrences(String constraintId, long minTimeStamp);
+
     @Delete
     @Transaction
     void delete(ConstraintEntity entity);
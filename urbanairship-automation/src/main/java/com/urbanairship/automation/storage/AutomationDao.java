@@ -2,6 +2,7 @@
 
 package com.urbanairship.automation.storage;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
@@ -26,6 +27,11 @@ import androidx.room.Update;
 @Dao
 public abstract class AutomationDao {
 
+    /**
+     * Max IDs bound in a single query. SQLite before 3.32 allows at most 999 bound variables.
+     */
+    private static final int MAX_QUERY_IDS = 500;
+
     @Transaction
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     public abstract void insert(@NonNull ScheduleEntity entity, @NonNull List<TriggerEntity> entities);
@@ -44,6 +50,10 @@ public abstract class AutomationDao {
     @Query("SELECT COUNT(*) FROM schedules")
     public abstract int getScheduleCount();
 
+    @Query("SELECT scheduleId, scheduleType, metadata FROM schedules")
+    @NonNull
+    public abstract List<ScheduleSummary> getScheduleSummaries();
+
     @Transaction
     @Query("SELECT * FROM schedules")
     @NonNull
@@ -67,13 +77,47 @@ public abstract class AutomationDao {
     @Transaction
     @Query("SELECT * FROM schedules WHERE (scheduleId IN (:scheduleIds))")
     @NonNull
-    public abstract List<FullSchedule> getSchedules(@NonNull Collection<String> scheduleIds);
-
+    protected abstract List<FullSchedule> getSchedulesBatch(@NonNull Collection<String> scheduleIds);
 
     @Transaction
     @Query("SELECT * FROM schedules WHERE (scheduleId IN (:scheduleIds)) AND (scheduleType = :type)")
     @NonNull
-    public abstract List<FullSchedule> getSchedules(@NonNull Collection<String> scheduleIds, @NonNull String type);
+    protected abstract List<FullSchedule> getSchedulesBatch(@NonNull Collection<String> scheduleIds, @NonNull String type);
+
+    /**
+     * Gets the schedules with the given IDs. The IDs are queried in batches in a single transaction
+     * to stay under the SQLite bound variable limit.
+     *
+     * @param scheduleIds The schedule IDs.
+     * @return The schedules.
+     */
+    @Transaction
+    @NonNull
+    public List<FullSchedule> getSchedules(@NonNull Collection<String> scheduleIds) {
+        List<FullSchedule> schedules = new ArrayList<>();
+        for (List<String> batch : batch(scheduleIds)) {
+            schedules.addAll(getSchedulesBatch(batch));
+        }
+        return schedules;
+    }
+
+    /**
+     * Gets the schedules with the given IDs and type. The IDs are queried in batches in a single
+     * transaction to stay under the SQLite bound variable limit.
+     *
+     * @param scheduleIds The schedule IDs.
+     * @param type The schedule type.
+     * @return The schedules.
+     */
+    @Transaction
+    @NonNull
+    public List<FullSchedule> getSchedules(@NonNull Collection<String> scheduleIds, @NonNull String type) {
+        List<FullSchedule> schedules = new ArrayList<>();
+        for (List<String> batch : batch(scheduleIds)) {
+            schedules.addAll(getSchedulesBatch(batch, type));
+        }
+        return schedules;
+    }
 
     @Transaction
     @Query("SELECT * FROM schedules WHERE (`group` == :group) AND (scheduleType = :type)")
@@ -138,6 +182,18 @@ public abstract class AutomationDao {
         }
     }
 
+    /**
+     * Inserts and updates schedules in a single transaction.
+     *
+     * @param inserts The schedules to insert.
+     * @param updates The schedules to update.
+     */
+    @Transaction
+    public void sync(@NonNull Collection<FullSchedule> inserts, @NonNull Collection<FullSchedule> updates) {
+        insert(inserts);
+        updateSchedules(updates);
+    }
+
     public void update(@NonNull FullSchedule entry) {
         update(entry.schedule, entry.triggers);
     }
@@ -154,4 +210,20 @@ public abstract class AutomationDao {
         }
     }
 
+    /**
+     * Splits the IDs into batches that fit in a single query.
+     *
+     * @param ids The IDs.
+     * @return The batches.
+     */
+    @NonNull
+    private static List<List<String>> batch(@NonNull Collection<String> ids) {
+        List<String> list = new ArrayList<>(ids);
+        List<List<String>> batches = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += MAX_QUERY_IDS) {
+            batches.add(list.subList(i, Math.min(i + MAX_QUERY_IDS, list.size())));
+        }
+        return batches;
+    }
+
 }
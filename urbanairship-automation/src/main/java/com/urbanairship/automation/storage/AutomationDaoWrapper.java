@@ -72,6 +72,26 @@ public class AutomationDaoWrapper extends AutomationDao {
         }
     }
 
+    @NonNull
+    @Override
+    public List<ScheduleSummary> getScheduleSummaries() {
+        try {
+            return dao.getScheduleSummaries();
+        } catch (Exception e) {
+            Logger.error(e, "Failed to get schedule summaries");
+            return Collections.emptyList();
+        }
+    }
+
+    @Override
+    public void sync(@NonNull Collection<FullSchedule> inserts, @NonNull Collection<FullSchedule> updates) {
+        try {
+            dao.sync(inserts, updates);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to sync schedules inserts %s updates %s", inserts, updates);
+        }
+    }
+
     @NonNull
     @Override
     public List<FullSchedule> getSchedules() {
@@ -116,6 +136,18 @@ public class AutomationDaoWrapper extends AutomationDao {
         }
     }
 
+    @NonNull
+    @Override
+    protected List<FullSchedule> getSchedulesBatch(@NonNull Collection<String> scheduleIds) {
+        return getSchedules(scheduleIds);
+    }
+
+    @NonNull
+    @Override
+    protected List<FullSchedule> getSchedulesBatch(@NonNull Collection<String> scheduleIds, @NonNull String type) {
+        return getSchedules(scheduleIds, type);
+    }
+
     @NonNull
     @Override
     public List<FullSchedule> getSchedules(@NonNull Collection<String> scheduleIds) {
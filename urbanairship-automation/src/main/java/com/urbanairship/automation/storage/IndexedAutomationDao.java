@@ -0,0 +1,592 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation.storage;
+
+import com.urbanairship.analytics.CustomEvent;
+import com.urbanairship.automation.Trigger;
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonPredicate;
+import com.urbanairship.json.JsonSerializable;
+import com.urbanairship.json.JsonValue;
+import com.urbanairship.json.matchers.ExactValueMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * AutomationDao that keeps an in-memory index of the schedule triggers.
+ *
+ * Active trigger lookups are served from the index instead of querying the database. Triggers are
+ * indexed by type, and custom event triggers that match on an exact event name are also indexed by
+ * that event name so only the triggers that can match the event are returned. Trigger progress
+ * updates are kept in memory and written to the database in a single batch when
+ * {@link #flushPendingTriggerUpdates()} is called or before any schedules are read back from
+ * the database.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class IndexedAutomationDao extends AutomationDao {
+
+    private static final String KEY = "key";
+    private static final String VALUE = "value";
+    private static final String SCOPE = "scope";
+    private static final String IGNORE_CASE = "ignore_case";
+
+    private final AutomationDao dao;
+    private final Object lock = new Object();
+
+    private final Map<String, IndexedSchedule> schedules = new HashMap<>();
+    private final Map<Integer, List<IndexedTrigger>> typeIndex = new HashMap<>();
+    private final Map<Integer, Map<String, List<IndexedTrigger>>> eventNameIndex = new HashMap<>();
+    private final Map<Integer, TriggerEntity> pendingTriggerUpdates = new LinkedHashMap<>();
+    private boolean isLoaded = false;
+
+    public IndexedAutomationDao(@NonNull AutomationDao dao) {
+        this.dao = dao;
+    }
+
+    /**
+     * Writes any pending trigger progress updates to the database.
+     */
+    public void flushPendingTriggerUpdates() {
+        List<TriggerEntity> entities;
+        synchronized (lock) {
+            if (pendingTriggerUpdates.isEmpty()) {
+                return;
+            }
+            entities = new ArrayList<>(pendingTriggerUpdates.values());
+            pendingTriggerUpdates.clear();
+        }
+
+        dao.updateTriggers(entities);
+    }
+
+    /**
+     * Checks if there are trigger progress updates that have not been written to the database.
+     *
+     * @return {@code true} if there are pending updates, otherwise {@code false}.
+     */
+    public boolean hasPendingTriggerUpdates() {
+        synchronized (lock) {
+            return !pendingTriggerUpdates.isEmpty();
+        }
+    }
+
+    /**
+     * Gets the active triggers for the given type that could match the event. For custom event
+     * triggers, only triggers without an exact event name match or with an event name that matches
+     * the event's name are returned.
+     *
+     * @param type The trigger type.
+     * @param event The event.
+     * @return A list of trigger entities.
+     */
+    @NonNull
+    public List<TriggerEntity> getActiveTriggersForEvent(int type, @NonNull JsonSerializable event) {
+        if (!isEventNameIndexed(type)) {
+            return getActiveTriggers(type);
+        }
+
+        String eventName = event.toJsonValue().optMap().opt(CustomEvent.EVENT_NAME).getString();
+        long now = System.currentTimeMillis();
+
+        synchronized (lock) {
+            ensureLoaded();
+
+            List<TriggerEntity> result = new ArrayList<>();
+            collectActive(typeIndex.get(type), now, result);
+
+            Map<String, List<IndexedTrigger>> byName = eventNameIndex.get(type);
+            if (eventName != null && byName != null) {
+                collectActive(byName.get(eventName), now, result);
+            }
+            return result;
+        }
+    }
+
+    @Override
+    public void insert(@NonNull ScheduleEntity entity, @NonNull List<TriggerEntity> entities) {
+        dao.insert(entity, entities);
+        synchronized (lock) {
+            if (isLoaded) {
+                // Reload to pick up the generated trigger IDs
+                FullSchedule inserted = dao.getSchedule(entity.scheduleId);
+                removeFromIndex(entity.scheduleId);
+                if (inserted != null) {
+                    addToIndex(inserted.schedule, inserted.triggers);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void insert(@NonNull Collection<FullSchedule> entries) {
+        dao.insert(entries);
+        synchronized (lock) {
+            if (isLoaded) {
+                reindexInserted(entries);
+            }
+        }
+    }
+
+    @Override
+    public void sync(@NonNull Collection<FullSchedule> inserts, @NonNull Collection<FullSchedule> updates) {
+        synchronized (lock) {
+            // The full update replaces any pending progress for the schedules' triggers
+            for (FullSchedule entry : updates) {
+                if (entry != null) {
+                    for (TriggerEntity trigger : entry.triggers) {
+                        pendingTriggerUpdates.remove(trigger.id);
+                    }
+                }
+            }
+        }
+
+        dao.sync(inserts, updates);
+
+        synchronized (lock) {
+            if (!isLoaded) {
+                return;
+            }
+
+            for (FullSchedule entry : updates) {
+                if (entry != null) {
+                    removeFromIndex(entry.schedule.scheduleId);
+                    addToIndex(entry.schedule, entry.triggers);
+                }
+            }
+
+            reindexInserted(inserts);
+        }
+    }
+
+    @Override
+    public void update(@NonNull ScheduleEntity entity, @NonNull List<TriggerEntity> entities) {
+        synchronized (lock) {
+            // The full update replaces any pending progress for the schedule's triggers
+            for (TriggerEntity trigger : entities) {
+                pendingTriggerUpdates.remove(trigger.id);
+            }
+        }
+
+        dao.update(entity, entities);
+
+        synchronized (lock) {
+            if (isLoaded) {
+                removeFromIndex(entity.scheduleId);
+                addToIndex(entity, entities);
+            }
+        }
+    }
+
+    @Override
+    public void updateTriggers(@NonNull List<TriggerEntity> entities) {
+        synchronized (lock) {
+            if (!isLoaded) {
+                dao.updateTriggers(entities);
+                return;
+            }
+
+            for (TriggerEntity entity : entities) {
+                IndexedSchedule schedule = schedules.get(entity.parentScheduleId);
+                IndexedTrigger trigger = schedule == null ? null : schedule.triggers.get(entity.id);
+                if (trigger == null) {
+                    continue;
+                }
+
+                trigger.entity.progress = entity.progress;
+                pendingTriggerUpdates.put(entity.id, copy(trigger.entity));
+            }
+        }
+    }
+
+    @Override
+    public void delete(@NonNull ScheduleEntity entity) {
+        dao.delete(entity);
+        synchronized (lock) {
+            removeFromIndex(entity.scheduleId);
+        }
+    }
+
+    @Override
+    public int getScheduleCount() {
+        return dao.getScheduleCount();
+    }
+
+    @NonNull
+    @Override
+    public List<ScheduleSummary> getScheduleSummaries() {
+        return dao.getScheduleSummaries();
+    }
+
+    @NonNull
+    @Override
+    public List<FullSchedule> getSchedules() {
+        flushPendingTriggerUpdates();
+        return dao.getSchedules();
+    }
+
+    @NonNull
+    @Override
+    public List<FullSchedule> getSchedulesByType(@NonNull String type) {
+        flushPendingTriggerUpdates();
+        return dao.getSchedulesByType(type);
+    }
+
+    @Nullable
+    @Override
+    public FullSchedule getSchedule(@NonNull String scheduleId) {
+        flushPendingTriggerUpdates();
+        return dao.getSchedule(scheduleId);
+    }
+
+    @Nullable
+    @Override
+    public FullSchedule getSchedule(@NonNull String scheduleId, @NonNull String type) {
+        flushPendingTriggerUpdates();
+        return dao.getSchedule(scheduleId, type);
+    }
+
+    @NonNull
+    @Override
+    protected List<FullSchedule> getSchedulesBatch(@NonNull Collection<String> scheduleIds) {
+        return getSchedules(scheduleIds);
+    }
+
+    @NonNull
+    @Override
+    protected List<FullSchedule> getSchedulesBatch(@NonNull Collection<String> scheduleIds, @NonNull String type) {
+        return getSchedules(scheduleIds, type);
+    }
+
+    @NonNull
+    @Override
+    public List<FullSchedule> getSchedules(@NonNull Collection<String> scheduleIds) {
+        flushPendingTriggerUpdates();
+        return dao.getSchedules(scheduleIds);
+    }
+
+    @NonNull
+    @Override
+    public List<FullSchedule> getSchedules(@NonNull Collection<String> scheduleIds, @NonNull String type) {
+        flushPendingTriggerUpdates();
+        return dao.getSchedules(scheduleIds, type);
+    }
+
+    @NonNull
+    @Override
+    public List<FullSchedule> getSchedulesWithGroup(@NonNull String group, @NonNull String type) {
+        flushPendingTriggerUpdates();
+        return dao.getSchedulesWithGroup(group, type);
+    }
+
+    @NonNull
+    @Override
+    public List<FullSchedule> getSchedulesWithGroup(@NonNull String group) {
+        flushPendingTriggerUpdates();
+        return dao.getSchedulesWithGroup(group);
+    }
+
+    @NonNull
+    @Override
+    public List<FullSchedule> getSchedulesWithStates(int... executionStates) {
+        flushPendingTriggerUpdates();
+        return dao.getSchedulesWithStates(executionStates);
+    }
+
+    @NonNull
+    @Override
+    public List<FullSchedule> getActiveExpiredSchedules() {
+        flushPendingTriggerUpdates();
+        return dao.getActiveExpiredSchedules();
+    }
+
+    @NonNull
+    @Override
+    public List<TriggerEntity> getActiveTriggers(int type, @NonNull String scheduleId) {
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            ensureLoaded();
+
+            List<TriggerEntity> result = new ArrayList<>();
+            IndexedSchedule schedule = schedules.get(scheduleId);
+            if (schedule == null) {
+                return result;
+            }
+
+            for (IndexedTrigger trigger : schedule.triggers.values()) {
+                if (trigger.entity.triggerType == type && trigger.isActive(now)) {
+                    result.add(copy(trigger.entity));
+                }
+            }
+            return result;
+        }
+    }
+
+    @NonNull
+    @Override
+    public List<TriggerEntity> getActiveTriggers(int type) {
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            ensureLoaded();
+
+            List<TriggerEntity> result = new ArrayList<>();
+            collectActive(typeIndex.get(type), now, result);
+
+            Map<String, List<IndexedTrigger>> byName = eventNameIndex.get(type);
+            if (byName != null) {
+                for (List<IndexedTrigger> triggers : byName.values()) {
+                    collectActive(triggers, now, result);
+                }
+            }
+            return result;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (isLoaded) {
+            return;
+        }
+
+        for (FullSchedule entry : dao.getSchedules()) {
+            addToIndex(entry.schedule, entry.triggers);
+        }
+        isLoaded = true;
+    }
+
+    private void addToIndex(@NonNull ScheduleEntity entity, @Nullable List<TriggerEntity> triggers) {
+        IndexedSchedule schedule = new IndexedSchedule(entity.scheduleId, entity.executionState, entity.scheduleStart);
+        schedules.put(entity.scheduleId, schedule);
+
+        if (triggers == null) {
+            return;
+        }
+
+        for (TriggerEntity triggerEntity : triggers) {
+            IndexedTrigger trigger = new IndexedTrigger(schedule, copy(triggerEntity));
+            schedule.triggers.put(triggerEntity.id, trigger);
+            bucket(trigger, true).add(trigger);
+        }
+    }
+
+    private void reindexInserted(@NonNull Collection<FullSchedule> entries) {
+        Set<String> ids = new HashSet<>();
+        for (FullSchedule entry : entries) {
+            if (entry != null) {
+                ids.add(entry.schedule.scheduleId);
+                removeFromIndex(entry.schedule.scheduleId);
+            }
+        }
+
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        // Reload to pick up the generated trigger IDs
+        for (FullSchedule inserted : dao.getSchedules(ids)) {
+            addToIndex(inserted.schedule, inserted.triggers);
+        }
+    }
+
+    private void removeFromIndex(@NonNull String scheduleId) {
+        IndexedSchedule schedule = schedules.remove(scheduleId);
+        if (schedule == null) {
+            return;
+        }
+
+        for (IndexedTrigger trigger : schedule.triggers.values()) {
+            pendingTriggerUpdates.remove(trigger.entity.id);
+            List<IndexedTrigger> bucket = bucket(trigger, false);
+            if (bucket != null) {
+                bucket.remove(trigger);
+            }
+        }
+    }
+
+    @Nullable
+    private List<IndexedTrigger> bucket(@NonNull IndexedTrigger trigger, boolean create) {
+        int type = trigger.entity.triggerType;
+        if (trigger.eventName == null) {
+            List<IndexedTrigger> list = typeIndex.get(type);
+            if (list == null && create) {
+                list = new ArrayList<>();
+                typeIndex.put(type, list);
+            }
+            return list;
+        }
+
+        Map<String, List<IndexedTrigger>> byName = eventNameIndex.get(type);
+        if (byName == null) {
+            if (!create) {
+                return null;
+            }
+            byName = new HashMap<>();
+            eventNameIndex.put(type, byName);
+        }
+
+        List<IndexedTrigger> list = byName.get(trigger.eventName);
+        if (list == null && create) {
+            list = new ArrayList<>();
+            byName.put(trigger.eventName, list);
+        }
+        return list;
+    }
+
+    private static void collectActive(@Nullable List<IndexedTrigger> triggers, long now, @NonNull List<TriggerEntity> result) {
+        if (triggers == null) {
+            return;
+        }
+
+        for (IndexedTrigger trigger : triggers) {
+            if (trigger.isActive(now)) {
+                result.add(copy(trigger.entity));
+            }
+        }
+    }
+
+    private static boolean isEventNameIndexed(int type) {
+        return type == Trigger.CUSTOM_EVENT_COUNT || type == Trigger.CUSTOM_EVENT_VALUE;
+    }
+
+    /**
+     * Finds the event name that a custom event trigger predicate requires. Only predicates that
+     * require an exact, case sensitive event name match are indexed.
+     *
+     * @param triggerType The trigger type.
+     * @param predicate The trigger predicate.
+     * @return The required event name, or {@code null} if the trigger can match any event name.
+     */
+    @VisibleForTesting
+    @Nullable
+    static String requiredEventName(int triggerType, @Nullable JsonPredicate predicate) {
+        if (predicate == null || !isEventNameIndexed(triggerType)) {
+            return null;
+        }
+
+        return requiredEventName(predicate.toJsonValue().optMap());
+    }
+
+    @Nullable
+    private static String requiredEventName(@NonNull JsonMap json) {
+        JsonList items;
+        if (json.containsKey(JsonPredicate.AND_PREDICATE_TYPE)) {
+            items = json.opt(JsonPredicate.AND_PREDICATE_TYPE).optList();
+        } else if (json.containsKey(JsonPredicate.OR_PREDICATE_TYPE)) {
+            items = json.opt(JsonPredicate.OR_PREDICATE_TYPE).optList();
+            // An OR predicate only requires the event name if it has a single item
+            if (items.size() != 1) {
+                return null;
+            }
+        } else if (json.containsKey(JsonPredicate.NOT_PREDICATE_TYPE)) {
+            return null;
+        } else {
+            return matcherEventName(json);
+        }
+
+        for (JsonValue item : items) {
+            String eventName = requiredEventName(item.optMap());
+            if (eventName != null) {
+                return eventName;
+            }
+        }
+
+        return null;
+    }
+
+    @Nullable
+    private static String matcherEventName(@NonNull JsonMap matcher) {
+        if (!CustomEvent.EVENT_NAME.equals(matcher.opt(KEY).getString())) {
+            return null;
+        }
+
+        if (!matcher.opt(SCOPE).optList().isEmpty() || matcher.opt(IGNORE_CASE).getBoolean(false)) {
+            return null;
+        }
+
+        JsonMap value = matcher.opt(VALUE).optMap();
+        if (value.size() != 1 || !value.containsKey(ExactValueMatcher.EQUALS_VALUE_KEY)) {
+            return null;
+        }
+
+        return value.opt(ExactValueMatcher.EQUALS_VALUE_KEY).getString();
+    }
+
+    @NonNull
+    private static TriggerEntity copy(@NonNull TriggerEntity entity) {
+        TriggerEntity copy = new TriggerEntity();
+        copy.id = entity.id;
+        copy.triggerType = entity.triggerType;
+        copy.goal = entity.goal;
+        copy.jsonPredicate = entity.jsonPredicate;
+        copy.isCancellation = entity.isCancellation;
+        copy.progress = entity.progress;
+        copy.parentScheduleId = entity.parentScheduleId;
+        return copy;
+    }
+
+    /**
+     * Indexed schedule state.
+     */
+    private static class IndexedSchedule {
+
+        final String scheduleId;
+        final int executionState;
+        final long scheduleStart;
+        final Map<Integer, IndexedTrigger> triggers = new LinkedHashMap<>();
+
+        IndexedSchedule(@NonNull String scheduleId, int executionState, long scheduleStart) {
+            this.scheduleId = scheduleId;
+            this.executionState = executionState;
+            this.scheduleStart = scheduleStart;
+        }
+
+    }
+
+    /**
+     * Indexed trigger.
+     */
+    private static class IndexedTrigger {
+
+        final IndexedSchedule schedule;
+        final TriggerEntity entity;
+        final String eventName;
+
+        IndexedTrigger(@NonNull IndexedSchedule schedule, @NonNull TriggerEntity entity) {
+            this.schedule = schedule;
+            this.entity = entity;
+            this.eventName = requiredEventName(entity.triggerType, entity.jsonPredicate);
+        }
+
+        /**
+         * Mirrors the active trigger query in {@link AutomationDao#getActiveTriggers(int)}.
+         */
+        boolean isActive(long now) {
+            if (schedule.scheduleStart >= 0 && schedule.scheduleStart > now) {
+                return false;
+            }
+
+            if (entity.isCancellation) {
+                return schedule.executionState == ScheduleState.WAITING_SCHEDULE_CONDITIONS
+                        || schedule.executionState == ScheduleState.TIME_DELAYED
+                        || schedule.executionState == ScheduleState.PREPARING_SCHEDULE;
+            }
+
+            return schedule.executionState == ScheduleState.IDLE;
+        }
+
+    }
+
+}
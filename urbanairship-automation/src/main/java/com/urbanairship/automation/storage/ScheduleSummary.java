@@ -0,0 +1,30 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation.storage;
+
+import com.urbanairship.json.JsonMap;
+
+import androidx.annotation.RestrictTo;
+
+/**
+ * Schedule ID, type and metadata, without the schedule data or triggers.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class ScheduleSummary {
+
+    public String scheduleId;
+    public String scheduleType;
+    public JsonMap metadata;
+
+    @Override
+    public String toString() {
+        return "ScheduleSummary{" +
+                "scheduleId='" + scheduleId + '\'' +
+                ", scheduleType='" + scheduleType + '\'' +
+                ", metadata=" + metadata +
+                '}';
+    }
+
+}
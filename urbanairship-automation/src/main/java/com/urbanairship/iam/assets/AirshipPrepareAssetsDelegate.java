@@ -18,7 +18,6 @@ import com.urbanairship.util.UAHttpStatusUtil;
 
 import java.io.File;
 import java.io.IOException;
-import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -57,12 +56,19 @@ public class AirshipPrepareAssetsDelegate implements PrepareAssetsDelegate {
     @Override
     @AssetManager.PrepareResult
     public int onPrepare(@NonNull String scheduleId, @NonNull InAppMessage message, @NonNull Assets assets) {
-        List<String> cacheableUrls = getCacheableUrls(message);
-        for (String url : cacheableUrls) {
-            if (assets.file(url).exists()) {
-                continue;
+        List<String> cacheableUrls = new ArrayList<>();
+        for (String url : getCacheableUrls(message)) {
+            if (!assets.file(url).exists() && !cacheableUrls.contains(url)) {
+                cacheableUrls.add(url);
             }
+        }
+
+        // Start all downloads up front so they run in parallel
+        for (String url : cacheableUrls) {
+            assets.prefetch(url);
+        }
 
+        for (String url : cacheableUrls) {
             try {
                 FileUtils.DownloadResult result = cacheImage(assets, url);
                 if (!result.isSuccess) {
@@ -92,7 +98,7 @@ public class AirshipPrepareAssetsDelegate implements PrepareAssetsDelegate {
     @NonNull
     protected FileUtils.DownloadResult cacheImage(@NonNull Assets assets, @NonNull String url) throws IOException {
         File file = assets.file(url);
-        FileUtils.DownloadResult result = FileUtils.downloadFile(new URL(url), file);
+        FileUtils.DownloadResult result = assets.download(url);
 
         if (result.isSuccess) {
             // Cache the width and height for view resizing
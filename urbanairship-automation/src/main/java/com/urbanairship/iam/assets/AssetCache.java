@@ -24,9 +24,17 @@ import androidx.annotation.WorkerThread;
 class AssetCache {
 
     private static final String CACHE_DIRECTORY = "com.urbanairship.iam.assets";
+    private static final String STORE_DIRECTORY = "com.urbanairship.iam.asset_store";
     private final File storageDirectory;
     private final StorageManager storageManager;
 
+    /**
+     * Shared store for downloaded files. Schedule assets link to the stored files so assets used
+     * by several schedules are only downloaded once.
+     */
+    @NonNull
+    private final AssetStore assetStore;
+
     /**
      * A map of active schedule IDs to assets. Prevents needed to load the asset's metadata
      * from a file each time its accessed.
@@ -43,6 +51,7 @@ class AssetCache {
     AssetCache(@NonNull Context context) {
         this.storageDirectory = new File(context.getCacheDir(), CACHE_DIRECTORY);
         this.storageManager = findStorageManager(context);
+        this.assetStore = new AssetStore(new File(context.getCacheDir(), STORE_DIRECTORY));
     }
 
     /**
@@ -57,7 +66,7 @@ class AssetCache {
         synchronized (activeAssets) {
             Assets assets = activeAssets.get(scheduleId);
             if (assets == null) {
-                assets = Assets.load(getAssetsDirectory(scheduleId));
+                assets = Assets.load(getAssetsDirectory(scheduleId), assetStore);
                 activeAssets.put(scheduleId, assets);
             }
             return assets;
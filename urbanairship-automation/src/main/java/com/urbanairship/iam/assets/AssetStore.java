@@ -0,0 +1,407 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.iam.assets;
+
+import android.system.Os;
+
+import com.urbanairship.AirshipExecutors;
+import com.urbanairship.Logger;
+import com.urbanairship.util.FileUtils;
+import com.urbanairship.util.HttpCacheMetadata;
+import com.urbanairship.util.UAStringUtil;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+/**
+ * Shared store for downloaded assets.
+ * <p>
+ * Files are stored once by the SHA-256 of their URL, so an asset used by several schedules is
+ * only downloaded once. Downloads run on the network lane of the Airship executors and concurrent
+ * requests for the same URL share the in-flight download. Interrupted downloads are kept as
+ * partial files and resumed with a range request. Stored files are used until the response's
+ * max-age expires, then revalidated with a conditional request. If revalidating fails, the stale
+ * file is used. Schedule assets are hard linked to the stored file when possible, so the store can
+ * be trimmed without affecting assets that are already prepared.
+ */
+class AssetStore {
+
+    private static final String PARTIAL_EXTENSION = ".partial";
+    private static final String METADATA_EXTENSION = ".metadata";
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final int BUFFER_SIZE = 8192;
+
+    /**
+     * Max size of the store before the least recently used files are removed.
+     */
+    @VisibleForTesting
+    static final long MAX_STORE_SIZE_BYTES = 25 * 1024 * 1024;
+
+    /**
+     * Downloads a URL to a file.
+     */
+    interface Downloader {
+
+        @NonNull
+        @WorkerThread
+        FileUtils.DownloadResult download(@NonNull URL url, @NonNull File file, boolean resume,
+                                          @Nullable HttpCacheMetadata cachedMetadata) throws IOException;
+
+    }
+
+    private static final Downloader DEFAULT_DOWNLOADER = new Downloader() {
+        @NonNull
+        @Override
+        public FileUtils.DownloadResult download(@NonNull URL url, @NonNull File file, boolean resume,
+                                                 @Nullable HttpCacheMetadata cachedMetadata) throws IOException {
+            return FileUtils.downloadFile(url, file, resume, cachedMetadata);
+        }
+    };
+
+    private final File directory;
+    private final Executor executor;
+    private final Downloader downloader;
+    private final long maxSizeBytes;
+    private final Map<String, Future<FileUtils.DownloadResult>> inFlight = new HashMap<>();
+
+    /**
+     * Default constructor.
+     *
+     * @param directory The store directory.
+     */
+    AssetStore(@NonNull File directory) {
+        this(directory, AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_NETWORK), DEFAULT_DOWNLOADER, MAX_STORE_SIZE_BYTES);
+    }
+
+    @VisibleForTesting
+    AssetStore(@NonNull File directory, @NonNull Executor executor, @NonNull Downloader downloader, long maxSizeBytes) {
+        this.directory = directory;
+        this.executor = executor;
+        this.downloader = downloader;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    /**
+     * Starts downloading the URL into the store if it is not already stored or being downloaded.
+     * Expired files are revalidated.
+     *
+     * @param url The URL.
+     * @return The download future.
+     */
+    @NonNull
+    Future<FileUtils.DownloadResult> prefetch(@NonNull final String url) {
+        synchronized (inFlight) {
+            Future<FileUtils.DownloadResult> future = inFlight.get(url);
+            if (future != null) {
+                return future;
+            }
+
+            final File file = storedFile(url);
+            final HttpCacheMetadata metadata = file.exists() ? HttpCacheMetadata.read(metadataFile(file)) : null;
+            if (metadata != null && !metadata.isExpired(System.currentTimeMillis())) {
+                FutureTask<FileUtils.DownloadResult> completed = new FutureTask<>(new Callable<FileUtils.DownloadResult>() {
+                    @Override
+                    public FileUtils.DownloadResult call() {
+                        return new FileUtils.DownloadResult(true, 0);
+                    }
+                });
+                completed.run();
+                return completed;
+            }
+
+            FutureTask<FileUtils.DownloadResult> task = new FutureTask<FileUtils.DownloadResult>(new Callable<FileUtils.DownloadResult>() {
+                @Override
+                public FileUtils.DownloadResult call() throws IOException {
+                    return downloadToStore(url, file, metadata);
+                }
+            }) {
+                @Override
+                protected void done() {
+                    synchronized (inFlight) {
+                        inFlight.remove(url);
+                    }
+                }
+            };
+
+            inFlight.put(url, task);
+            executor.execute(task);
+            return task;
+        }
+    }
+
+    /**
+     * Fetches the URL from the store into the destination file, waiting for the download if
+     * needed.
+     *
+     * @param url The URL.
+     * @param destination The destination file.
+     * @return The download result.
+     * @throws IOException If the download or copying the file failed.
+     */
+    @NonNull
+    @WorkerThread
+    FileUtils.DownloadResult fetch(@NonNull String url, @NonNull File destination) throws IOException {
+        FileUtils.DownloadResult result;
+        try {
+            result = prefetch(url).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while downloading " + url, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to download " + url, e.getCause());
+        }
+
+        if (result.isSuccess) {
+            File file = storedFile(url);
+            if (!file.exists()) {
+                // Trimmed before it could be linked, the prepare step will be retried
+                throw new IOException("Asset removed from store: " + url);
+            }
+
+            // Keep recently used files from being trimmed
+            file.setLastModified(System.currentTimeMillis());
+            link(file, destination);
+        }
+
+        return result;
+    }
+
+    @NonNull
+    @WorkerThread
+    private FileUtils.DownloadResult downloadToStore(@NonNull String url, @NonNull File file,
+                                                     @Nullable HttpCacheMetadata cachedMetadata) throws IOException {
+        prepareDirectory();
+
+        if (file.exists()) {
+            try {
+                FileUtils.DownloadResult result = revalidate(url, file, cachedMetadata);
+                if (result.isSuccess) {
+                    return result;
+                }
+                Logger.verbose("Failed to revalidate asset, using the stored file: %s", url);
+            } catch (IOException e) {
+                Logger.debug(e, "Failed to revalidate asset, using the stored file: %s", url);
+            }
+
+            return new FileUtils.DownloadResult(true, 0);
+        }
+
+        File partial = new File(directory, file.getName() + PARTIAL_EXTENSION);
+        FileUtils.DownloadResult result = downloader.download(new URL(url), partial, true, null);
+
+        if (!result.isSuccess && result.statusCode == HTTP_RANGE_NOT_SATISFIABLE) {
+            // The partial file is no longer valid for the remote file, start over
+            partial.delete();
+            result = downloader.download(new URL(url), partial, true, null);
+        }
+
+        if (result.isSuccess) {
+            store(url, partial, file, result.cacheMetadata);
+        }
+
+        return result;
+    }
+
+    /**
+     * Downloads a stored file again, conditional on it having changed. The stored file is only
+     * replaced once the new download completes.
+     *
+     * @param url The URL.
+     * @param file The stored file.
+     * @param cachedMetadata The stored file's metadata, or {@code null} if it has none.
+     * @return The download result.
+     * @throws IOException If the download failed.
+     */
+    @NonNull
+    @WorkerThread
+    private FileUtils.DownloadResult revalidate(@NonNull String url, @NonNull File file,
+                                                @Nullable HttpCacheMetadata cachedMetadata) throws IOException {
+        File partial = new File(directory, file.getName() + PARTIAL_EXTENSION);
+        partial.delete();
+
+        FileUtils.DownloadResult result = downloader.download(new URL(url), partial, false, cachedMetadata);
+        if (!result.isSuccess) {
+            partial.delete();
+            return result;
+        }
+
+        if (result.statusCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            partial.delete();
+            if (result.cacheMetadata != null) {
+                result.cacheMetadata.write(metadataFile(file));
+            }
+            return result;
+        }
+
+        store(url, partial, file, result.cacheMetadata);
+        return result;
+    }
+
+    /**
+     * Moves a completed download into the store.
+     *
+     * @param url The URL.
+     * @param partial The downloaded file.
+     * @param file The stored file.
+     * @param metadata The response's cache metadata.
+     * @throws IOException If the file could not be stored.
+     */
+    @WorkerThread
+    private void store(@NonNull String url, @NonNull File partial, @NonNull File file,
+                       @Nullable HttpCacheMetadata metadata) throws IOException {
+        File metadataFile = metadataFile(file);
+        metadataFile.delete();
+
+        if (!partial.renameTo(file)) {
+            partial.delete();
+            throw new IOException("Failed to store asset: " + url);
+        }
+
+        if (metadata != null) {
+            metadata.write(metadataFile);
+        }
+
+        trim(file);
+    }
+
+    /**
+     * Removes the least recently used files until the store is under the max size.
+     *
+     * @param keep The newly stored file that should not be removed.
+     */
+    @WorkerThread
+    private void trim(@NonNull File keep) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+
+        if (size <= maxSizeBytes) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lh, File rh) {
+                return Long.compare(lh.lastModified(), rh.lastModified());
+            }
+        });
+
+        for (File file : files) {
+            if (size <= maxSizeBytes) {
+                break;
+            }
+
+            // Metadata is removed with its file
+            if (file.equals(keep) || file.getName().endsWith(METADATA_EXTENSION)) {
+                continue;
+            }
+
+            // Partial files and their stored validators
+            if (file.getName().contains(PARTIAL_EXTENSION)) {
+                synchronized (inFlight) {
+                    if (!inFlight.isEmpty()) {
+                        // Partial files might still be written to
+                        continue;
+                    }
+                }
+            }
+
+            long length = file.length();
+            if (file.delete()) {
+                size -= length;
+
+                File metadataFile = metadataFile(file);
+                long metadataLength = metadataFile.length();
+                if (metadataFile.delete()) {
+                    size -= metadataLength;
+                }
+            }
+        }
+    }
+
+    @NonNull
+    private File storedFile(@NonNull String url) {
+        return new File(directory, UAStringUtil.sha256(url));
+    }
+
+    @NonNull
+    private File metadataFile(@NonNull File file) {
+        return new File(directory, file.getName() + METADATA_EXTENSION);
+    }
+
+    private void prepareDirectory() {
+        if (!directory.exists() && !directory.mkdirs()) {
+            Logger.error("Failed to create asset store directory: %s", directory.getAbsoluteFile());
+        }
+    }
+
+    /**
+     * Hard links the source file to the destination, falling back to a copy if the file system
+     * does not support links.
+     *
+     * @param source The source file.
+     * @param destination The destination file.
+     * @throws IOException If the file could not be linked or copied.
+     */
+    private static void link(@NonNull File source, @NonNull File destination) throws IOException {
+        if (destination.exists() && !destination.delete()) {
+            throw new IOException("Unable to replace file: " + destination.getAbsolutePath());
+        }
+
+        try {
+            Os.link(source.getAbsolutePath(), destination.getAbsolutePath());
+            return;
+        } catch (Exception e) {
+            Logger.verbose("Unable to link %s, copying instead: %s", source.getAbsolutePath(), e.getMessage());
+        }
+
+        InputStream inputStream = new FileInputStream(source);
+        try {
+            OutputStream outputStream = new FileOutputStream(destination);
+            try {
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int bytesRead;
+                while ((bytesRead = inputStream.read(buffer)) != -1) {
+                    outputStream.write(buffer, 0, bytesRead);
+                }
+            } catch (IOException e) {
+                destination.delete();
+                throw e;
+            } finally {
+                outputStream.close();
+            }
+        } finally {
+            inputStream.close();
+        }
+    }
+
+}
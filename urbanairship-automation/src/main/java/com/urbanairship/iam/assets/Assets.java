@@ -15,6 +15,7 @@ import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonSerializable;
 import com.urbanairship.json.JsonValue;
+import com.urbanairship.util.FileUtils;
 import com.urbanairship.util.UAStringUtil;
 
 import java.io.BufferedReader;
@@ -24,6 +25,7 @@ import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.net.URL;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.Executor;
@@ -55,7 +57,7 @@ public class Assets implements Parcelable {
                 parsedMap = JsonMap.EMPTY_MAP;
             }
 
-            return new Assets(new File(in.readString()), parsedMap);
+            return new Assets(new File(in.readString()), parsedMap, null);
         }
 
         @NonNull
@@ -83,17 +85,21 @@ public class Assets implements Parcelable {
     private final Map<String, JsonValue> metadata;
     private final Object metadataLock = new Object();
 
+    @Nullable
+    private final AssetStore store;
+
     /**
      * Loads assets from a directory.
      *
      * @param root The assets' root directory.
+     * @param store The shared asset store used to download files.
      * @return The assets.
      */
     @WorkerThread
     @NonNull
-    static Assets load(@NonNull File root) {
+    static Assets load(@NonNull File root, @Nullable AssetStore store) {
         File metadata = new File(root, METADATA_FILE);
-        return new Assets(root, readJson(metadata).optMap());
+        return new Assets(root, readJson(metadata).optMap(), store);
     }
 
     /**
@@ -101,13 +107,15 @@ public class Assets implements Parcelable {
      *
      * @param root The assets' root directory.
      * @param metadata The metadata.
+     * @param store The shared asset store.
      */
-    private Assets(@NonNull File root, @NonNull JsonMap metadata) {
+    private Assets(@NonNull File root, @NonNull JsonMap metadata, @Nullable AssetStore store) {
         this.rootDirectory = root;
+        this.store = store;
         this.filesDirectory = new File(root, FILES_DIRECTORY);
         this.metadataFile = new File(root, METADATA_FILE);
         this.metadata = new HashMap<>(metadata.getMap());
-        this.executor = AirshipExecutors.newSerialExecutor();
+        this.executor = AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_NETWORK);
     }
 
     @Override
@@ -135,6 +143,36 @@ public class Assets implements Parcelable {
         return new File(filesDirectory, UAStringUtil.sha256(key));
     }
 
+    /**
+     * Starts downloading the URL in the background so a later call to {@link #download(String)}
+     * does not have to wait for the full download.
+     *
+     * @param url The URL.
+     */
+    void prefetch(@NonNull String url) {
+        if (store != null) {
+            store.prefetch(url);
+        }
+    }
+
+    /**
+     * Downloads the URL to the asset's file for the URL.
+     *
+     * @param url The URL.
+     * @return The download result.
+     * @throws IOException If the URL is invalid or the download failed.
+     */
+    @WorkerThread
+    @NonNull
+    FileUtils.DownloadResult download(@NonNull String url) throws IOException {
+        File file = file(url);
+        if (store != null) {
+            return store.fetch(url, file);
+        }
+
+        return FileUtils.downloadFile(new URL(url), file);
+    }
+
     /**
      * Gets metadata for a key.
      *
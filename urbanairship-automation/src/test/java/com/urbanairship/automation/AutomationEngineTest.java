@@ -23,6 +23,7 @@ import com.urbanairship.automation.storage.AutomationDatabase;
 import com.urbanairship.automation.storage.FullSchedule;
 import com.urbanairship.automation.storage.LegacyDataMigrator;
 import com.urbanairship.automation.storage.ScheduleState;
+import com.urbanairship.automation.storage.ScheduleSummary;
 import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonValue;
 import com.urbanairship.json.ValueMatcher;
@@ -713,6 +714,73 @@ public class AutomationEngineTest {
         assertEquals(edits.getEnd().longValue(), updated.getEnd());
     }
 
+    @Test
+    public void testSync() throws Exception {
+        Schedule<Actions> existing = Schedule.newBuilder(this.schedule)
+                                             .setId("existing")
+                                             .build();
+        schedule(existing);
+
+        Schedule<Actions> newSchedule = Schedule.newBuilder(this.schedule)
+                                                .setId("new")
+                                                .build();
+
+        Map<String, ScheduleEdits<? extends ScheduleData>> edits = new HashMap<>();
+        edits.put("existing", ScheduleEdits.newBuilder().setEnd(System.currentTimeMillis()).build());
+        edits.put("missing", ScheduleEdits.newBuilder().setPriority(10).build());
+
+        Future<Boolean> future = automationEngine.sync(Collections.<Schedule<? extends ScheduleData>>singletonList(newSchedule), edits);
+        runLooperTasks();
+        assertEquals(Boolean.TRUE, future.get());
+
+        // Verify the new schedule is inserted and the existing schedule is ended
+        verifyState(newSchedule, ScheduleState.IDLE);
+        verifyState(existing, ScheduleState.FINISHED);
+        assertNull(dao.getSchedule("missing"));
+    }
+
+    @Test
+    public void testSyncOverLimitAppliesEdits() throws Exception {
+        Schedule<Actions> existing = Schedule.newBuilder(this.schedule)
+                                             .setId("existing")
+                                             .build();
+        schedule(existing);
+
+        List<Schedule<? extends ScheduleData>> newSchedules = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            newSchedules.add(Schedule.newBuilder(this.schedule)
+                                     .setId("new " + i)
+                                     .build());
+        }
+
+        Map<String, ScheduleEdits<? extends ScheduleData>> edits = new HashMap<>();
+        edits.put("existing", ScheduleEdits.newBuilder().setEnd(System.currentTimeMillis()).build());
+
+        Future<Boolean> future = automationEngine.sync(newSchedules, edits);
+        runLooperTasks();
+        assertEquals(Boolean.FALSE, future.get());
+
+        // Verify the new schedules are rejected but the existing schedule is still ended
+        assertEquals(1, dao.getScheduleCount());
+        verifyState(existing, ScheduleState.FINISHED);
+    }
+
+    @Test
+    public void testGetScheduleSummaries() throws Exception {
+        schedule(schedule);
+
+        Future<Collection<ScheduleSummary>> future = automationEngine.getScheduleSummaries();
+        runLooperTasks();
+
+        Collection<ScheduleSummary> summaries = future.get();
+        assertEquals(1, summaries.size());
+
+        ScheduleSummary summary = summaries.iterator().next();
+        assertEquals(schedule.getId(), summary.scheduleId);
+        assertEquals(Schedule.TYPE_ACTION, summary.scheduleType);
+        assertEquals(schedule.getMetadata(), summary.metadata);
+    }
+
     @Test
     public void testInterval() throws Exception {
         final Schedule schedule = Schedule.newBuilder(this.schedule)
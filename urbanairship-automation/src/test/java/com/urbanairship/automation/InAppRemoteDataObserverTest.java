@@ -11,6 +11,7 @@ import com.urbanairship.TestApplication;
 import com.urbanairship.automation.actions.Actions;
 import com.urbanairship.automation.deferred.Deferred;
 import com.urbanairship.automation.limits.FrequencyConstraint;
+import com.urbanairship.automation.storage.ScheduleSummary;
 import com.urbanairship.iam.InAppMessage;
 import com.urbanairship.iam.custom.CustomDisplayContent;
 import com.urbanairship.json.JsonMap;
@@ -34,6 +35,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
@@ -41,6 +43,7 @@ import androidx.annotation.NonNull;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -314,6 +317,47 @@ public class InAppRemoteDataObserverTest {
         ScheduleEdits<? extends ScheduleData> edits = delegate.getScheduleEdits("bar");
         assertEquals(Long.valueOf(payload.getTimestamp()), edits.getEnd());
         assertEquals(Long.valueOf(payload.getTimestamp()), edits.getStart());
+
+        // Verify each payload was synced at once
+        assertEquals(2, delegate.syncCount);
+    }
+
+    @Test
+    public void testEndLegacyMessages() {
+        Schedule<InAppMessage> legacySchedule = Schedule.newBuilder(InAppMessage.newBuilder()
+                                                                                .setName("legacy")
+                                                                                .setSource(InAppMessage.SOURCE_REMOTE_DATA)
+                                                                                .setDisplayContent(new CustomDisplayContent(JsonValue.NULL))
+                                                                                .build())
+                                                        .addTrigger(Triggers.newAppInitTriggerBuilder()
+                                                                            .setGoal(1)
+                                                                            .build())
+                                                        .setId("legacy")
+                                                        .build();
+
+        Schedule<InAppMessage> appSchedule = Schedule.newBuilder(InAppMessage.newBuilder()
+                                                                             .setName("app")
+                                                                             .setDisplayContent(new CustomDisplayContent(JsonValue.NULL))
+                                                                             .build())
+                                                     .addTrigger(Triggers.newAppInitTriggerBuilder()
+                                                                         .setGoal(1)
+                                                                         .build())
+                                                     .setId("app")
+                                                     .build();
+
+        delegate.schedules.put("legacy", legacySchedule);
+        delegate.schedules.put("app", appSchedule);
+
+        RemoteDataPayload payload = new TestPayloadBuilder()
+                .setMetadata(JsonMap.newBuilder().putOpt("meta", "data").build())
+                .build();
+
+        updates.onNext(payload);
+
+        // Verify only the remote data message was ended
+        ScheduleEdits<? extends ScheduleData> edits = delegate.getScheduleEdits("legacy");
+        assertEquals(Long.valueOf(payload.getTimestamp()), edits.getEnd());
+        assertNull(delegate.getScheduleEdits("app"));
     }
 
     @Test
@@ -646,17 +690,27 @@ public class InAppRemoteDataObserverTest {
         private final Map<String, Schedule<? extends ScheduleData>> schedules = new HashMap<>();
         private final Map<String, ScheduleEdits<? extends ScheduleData>> scheduleEdits = new HashMap<>();
         private final List<Collection<FrequencyConstraint>> constraintUpdates = new ArrayList<>();
+        private int syncCount = 0;
 
         @NonNull
         @Override
-        public PendingResult<Boolean> schedule(@NonNull List<Schedule<? extends ScheduleData>> schedules) {
+        public PendingResult<Boolean> sync(@NonNull List<Schedule<? extends ScheduleData>> schedules,
+                                           @NonNull Map<String, ScheduleEdits<? extends ScheduleData>> edits) {
+            syncCount++;
+
             for (Schedule<? extends ScheduleData> schedule : schedules) {
                 this.schedules.put(schedule.getId(), schedule);
             }
 
-            PendingResult<Boolean> scheduleResult = new PendingResult<>();
-            scheduleResult.setResult(true);
-            return scheduleResult;
+            for (Map.Entry<String, ScheduleEdits<? extends ScheduleData>> entry : edits.entrySet()) {
+                if (this.schedules.containsKey(entry.getKey())) {
+                    scheduleEdits.put(entry.getKey(), entry.getValue());
+                }
+            }
+
+            PendingResult<Boolean> syncResult = new PendingResult<>();
+            syncResult.setResult(true);
+            return syncResult;
         }
 
         @Override
@@ -668,26 +722,35 @@ public class InAppRemoteDataObserverTest {
 
         @NonNull
         @Override
-        public PendingResult<Collection<Schedule<? extends ScheduleData>>> getSchedules() {
-            PendingResult<Collection<Schedule<? extends ScheduleData>>> pendingResult = new PendingResult<>();
-            pendingResult.setResult(schedules.values());
+        public PendingResult<Collection<ScheduleSummary>> getScheduleSummaries() {
+            List<ScheduleSummary> summaries = new ArrayList<>();
+            for (Schedule<? extends ScheduleData> schedule : schedules.values()) {
+                ScheduleSummary summary = new ScheduleSummary();
+                summary.scheduleId = schedule.getId();
+                summary.scheduleType = schedule.getType();
+                summary.metadata = schedule.getMetadata();
+                summaries.add(summary);
+            }
+
+            PendingResult<Collection<ScheduleSummary>> pendingResult = new PendingResult<>();
+            pendingResult.setResult(summaries);
             return pendingResult;
         }
 
         @NonNull
         @Override
-        public PendingResult<Boolean> editSchedule(@NonNull String scheduleId, @NonNull ScheduleEdits<? extends ScheduleData> edits) {
-            PendingResult<Boolean> result = new PendingResult<>();
-            Schedule<?> schedule = schedules.get(scheduleId);
-
-            if (schedule != null) {
-                scheduleEdits.put(scheduleId, edits);
-                result.setResult(true);
-            } else {
-                result.setResult(false);
+        public PendingResult<Collection<Schedule<? extends ScheduleData>>> getSchedules(@NonNull Set<String> scheduleIds) {
+            List<Schedule<? extends ScheduleData>> result = new ArrayList<>();
+            for (String scheduleId : scheduleIds) {
+                Schedule<? extends ScheduleData> schedule = schedules.get(scheduleId);
+                if (schedule != null) {
+                    result.add(schedule);
+                }
             }
 
-            return result;
+            PendingResult<Collection<Schedule<? extends ScheduleData>>> pendingResult = new PendingResult<>();
+            pendingResult.setResult(result);
+            return pendingResult;
         }
 
         public ScheduleEdits<? extends ScheduleData> getScheduleEdits(@NonNull String scheduleId) {
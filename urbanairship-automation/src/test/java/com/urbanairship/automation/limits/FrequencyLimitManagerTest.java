@@ -22,6 +22,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
@@ -92,11 +93,11 @@ public class FrequencyLimitManagerTest {
         executor.shutdown();
         executor.awaitTermination(10, TimeUnit.SECONDS);
 
+        // Only the last 2 occurrences are kept
         List<OccurrenceEntity> occurrenceEntityList = dao.getOccurrences("some-id");
-        assertEquals(3, occurrenceEntityList.size());
-        assertEquals(0, occurrenceEntityList.get(0).timeStamp);
-        assertEquals(1, occurrenceEntityList.get(1).timeStamp);
-        assertEquals(11, occurrenceEntityList.get(2).timeStamp);
+        assertEquals(2, occurrenceEntityList.size());
+        assertEquals(1, occurrenceEntityList.get(0).timeStamp);
+        assertEquals(11, occurrenceEntityList.get(1).timeStamp);
     }
 
     @Test
@@ -134,11 +135,11 @@ public class FrequencyLimitManagerTest {
         executor.shutdown();
         executor.awaitTermination(10, TimeUnit.SECONDS);
 
+        // Only the last 2 occurrences are kept
         List<OccurrenceEntity> occurrenceEntityList = dao.getOccurrences("some-id");
-        assertEquals(3, occurrenceEntityList.size());
-        assertEquals(0, occurrenceEntityList.get(0).timeStamp);
-        assertEquals(1, occurrenceEntityList.get(1).timeStamp);
-        assertEquals(11, occurrenceEntityList.get(2).timeStamp);
+        assertEquals(2, occurrenceEntityList.size());
+        assertEquals(1, occurrenceEntityList.get(0).timeStamp);
+        assertEquals(11, occurrenceEntityList.get(1).timeStamp);
     }
 
     @Test
@@ -192,16 +193,13 @@ public class FrequencyLimitManagerTest {
         executor.awaitTermination(10, TimeUnit.SECONDS);
 
         List<OccurrenceEntity> fooList = dao.getOccurrences("foo");
-        assertEquals(3, fooList.size());
-        assertEquals(0, fooList.get(0).timeStamp);
-        assertEquals(3, fooList.get(1).timeStamp);
-        assertEquals(11, fooList.get(2).timeStamp);
+        assertEquals(2, fooList.size());
+        assertEquals(3, fooList.get(0).timeStamp);
+        assertEquals(11, fooList.get(1).timeStamp);
 
         List<OccurrenceEntity> barList = dao.getOccurrences("bar");
-        assertEquals(3, barList.size());
-        assertEquals(0, barList.get(0).timeStamp);
-        assertEquals(3, barList.get(1).timeStamp);
-        assertEquals(11, barList.get(2).timeStamp);
+        assertEquals(1, barList.size());
+        assertEquals(11, barList.get(0).timeStamp);
     }
 
     @Test
@@ -298,6 +296,116 @@ public class FrequencyLimitManagerTest {
         assertEquals(1, dao.getOccurrences("foo").size());
     }
 
+    @Test
+    public void testPruneOccurrencesOutsideRange() throws ExecutionException, InterruptedException {
+        this.limitManager = new FrequencyLimitManager(dao, clock, new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                command.run();
+            }
+        });
+
+        limitManager.updateConstraints(Collections.singletonList(FrequencyConstraint.newBuilder()
+                                                                                    .setCount(3)
+                                                                                    .setRange(TimeUnit.MILLISECONDS, 10)
+                                                                                    .setId("foo")
+                                                                                    .build()));
+
+        FrequencyChecker checker = limitManager.getFrequencyChecker(ids("foo")).get();
+
+        clock.currentTimeMillis = 0;
+        assertTrue(checker.checkAndIncrement());
+        clock.currentTimeMillis = 5;
+        assertTrue(checker.checkAndIncrement());
+        clock.currentTimeMillis = 12;
+        assertTrue(checker.checkAndIncrement());
+
+        List<OccurrenceEntity> occurrences = dao.getOccurrences("foo");
+        assertEquals(2, occurrences.size());
+        assertEquals(5, occurrences.get(0).timeStamp);
+        assertEquals(12, occurrences.get(1).timeStamp);
+    }
+
+    @Test
+    public void testRaisingCountKeepsOccurrences() throws ExecutionException, InterruptedException {
+        final List<Runnable> tasks = new ArrayList<>();
+        this.limitManager = new FrequencyLimitManager(dao, clock, new Executor() {
+            @Override
+            public void execute(@NonNull Runnable command) {
+                tasks.add(command);
+            }
+        });
+
+        limitManager.updateConstraints(Collections.singletonList(FrequencyConstraint.newBuilder()
+                                                                                    .setCount(3)
+                                                                                    .setRange(TimeUnit.MILLISECONDS, 100)
+                                                                                    .setId("foo")
+                                                                                    .build()));
+        runTasks(tasks);
+
+        Future<FrequencyChecker> future = limitManager.getFrequencyChecker(ids("foo"));
+        runTasks(tasks);
+        FrequencyChecker checker = future.get();
+
+        clock.currentTimeMillis = 10;
+        assertTrue(checker.checkAndIncrement());
+        assertTrue(checker.checkAndIncrement());
+        assertTrue(checker.checkAndIncrement());
+
+        // Lower the count before the occurrences are written
+        limitManager.updateConstraints(Collections.singletonList(FrequencyConstraint.newBuilder()
+                                                                                    .setCount(1)
+                                                                                    .setRange(TimeUnit.MILLISECONDS, 100)
+                                                                                    .setId("foo")
+                                                                                    .build()));
+        tasks.remove(tasks.size() - 1).run();
+        runTasks(tasks);
+
+        // Raise it again
+        limitManager.updateConstraints(Collections.singletonList(FrequencyConstraint.newBuilder()
+                                                                                    .setCount(3)
+                                                                                    .setRange(TimeUnit.MILLISECONDS, 100)
+                                                                                    .setId("foo")
+                                                                                    .build()));
+        runTasks(tasks);
+
+        assertEquals(3, dao.getOccurrences("foo").size());
+
+        future = limitManager.getFrequencyChecker(ids("foo"));
+        runTasks(tasks);
+        assertTrue(future.get().isOverLimit());
+    }
+
+    @Test
+    public void testCheckerLoadsRecentOccurrences() throws ExecutionException, InterruptedException {
+        limitManager.updateConstraints(Collections.singletonList(FrequencyConstraint.newBuilder()
+                                                                                    .setCount(2)
+                                                                                    .setRange(TimeUnit.MILLISECONDS, 10)
+                                                                                    .setId("foo")
+                                                                                    .build())).get();
+
+        for (long timeStamp : new long[] { 0, 4, 5 }) {
+            OccurrenceEntity occurrence = new OccurrenceEntity();
+            occurrence.parentConstraintId = "foo";
+            occurrence.timeStamp = timeStamp;
+            dao.insert(occurrence);
+        }
+
+        // Over the limit from the last 2 occurrences only
+        clock.currentTimeMillis = 12;
+        FrequencyChecker checker = limitManager.getFrequencyChecker(ids("foo")).get();
+        assertTrue(checker.isOverLimit());
+
+        clock.currentTimeMillis = 16;
+        assertFalse(checker.isOverLimit());
+    }
+
+    private static void runTasks(List<Runnable> tasks) {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
     private static Collection<String> ids(String... ids) {
         return Arrays.asList(ids);
     }
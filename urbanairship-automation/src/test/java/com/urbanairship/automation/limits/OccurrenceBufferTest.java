@@ -0,0 +1,53 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation.limits;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class OccurrenceBufferTest {
+
+    @Test
+    public void testAdd() {
+        OccurrenceBuffer buffer = new OccurrenceBuffer(3);
+        assertEquals(0, buffer.size());
+        assertFalse(buffer.isFull());
+
+        buffer.add(10);
+        buffer.add(20);
+        assertEquals(2, buffer.size());
+        assertFalse(buffer.isFull());
+        assertEquals(10, buffer.getOldest());
+
+        buffer.add(30);
+        assertTrue(buffer.isFull());
+        assertEquals(10, buffer.getOldest());
+    }
+
+    @Test
+    public void testWrapsAround() {
+        OccurrenceBuffer buffer = new OccurrenceBuffer(2);
+        buffer.add(10);
+        buffer.add(20);
+        buffer.add(30);
+        assertEquals(2, buffer.size());
+        assertEquals(20, buffer.getOldest());
+
+        buffer.add(40);
+        buffer.add(50);
+        assertEquals(40, buffer.getOldest());
+    }
+
+    @Test
+    public void testMinCapacity() {
+        OccurrenceBuffer buffer = new OccurrenceBuffer(0);
+        buffer.add(10);
+        buffer.add(20);
+        assertTrue(buffer.isFull());
+        assertEquals(20, buffer.getOldest());
+    }
+
+}
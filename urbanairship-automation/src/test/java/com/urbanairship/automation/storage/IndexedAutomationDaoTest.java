@@ -0,0 +1,236 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.automation.storage;
+
+import com.urbanairship.analytics.CustomEvent;
+import com.urbanairship.automation.Schedule;
+import com.urbanairship.automation.Trigger;
+import com.urbanairship.automation.Triggers;
+import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonMatcher;
+import com.urbanairship.json.JsonPredicate;
+import com.urbanairship.json.JsonValue;
+import com.urbanairship.json.ValueMatcher;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.room.Room;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4.class)
+public class IndexedAutomationDaoTest {
+
+    private AutomationDatabase database;
+    private AutomationDao roomDao;
+    private IndexedAutomationDao dao;
+
+    @Before
+    public void setUp() {
+        database = Room.inMemoryDatabaseBuilder(ApplicationProvider.getApplicationContext(), AutomationDatabase.class)
+                       .allowMainThreadQueries()
+                       .build();
+        roomDao = database.getScheduleDao();
+        dao = new IndexedAutomationDao(roomDao);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void testActiveTriggersByEventName() {
+        dao.insert(createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, eventNamePredicate("foo")));
+        dao.insert(createSchedule("bar", Trigger.CUSTOM_EVENT_COUNT, eventNamePredicate("bar")));
+        dao.insert(createSchedule("any", Trigger.CUSTOM_EVENT_COUNT, null));
+
+        List<TriggerEntity> triggers = dao.getActiveTriggersForEvent(Trigger.CUSTOM_EVENT_COUNT, event("foo"));
+        assertEquals(2, triggers.size());
+        assertEquals(roomDao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT).size(), dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT).size());
+    }
+
+    @Test
+    public void testGetSchedulesOverQueryLimit() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            String id = "schedule-" + i;
+            FullSchedule schedule = createSchedule(id, Trigger.SCREEN_VIEW, null);
+            schedule.schedule.scheduleType = Schedule.TYPE_IN_APP_MESSAGE;
+            roomDao.insert(schedule);
+            ids.add(id);
+        }
+
+        assertEquals(1200, roomDao.getSchedules(ids).size());
+        assertEquals(1200, dao.getSchedules(ids).size());
+        assertEquals(1200, dao.getSchedules(ids, Schedule.TYPE_IN_APP_MESSAGE).size());
+        assertEquals(0, dao.getSchedules(ids, Schedule.TYPE_ACTION).size());
+    }
+
+    @Test
+    public void testIndexLoadedFromDatabase() {
+        roomDao.insert(createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, eventNamePredicate("foo")));
+        roomDao.insert(createSchedule("screen", Trigger.SCREEN_VIEW, null));
+
+        assertEquals(1, dao.getActiveTriggersForEvent(Trigger.CUSTOM_EVENT_COUNT, event("foo")).size());
+        assertEquals(1, dao.getActiveTriggers(Trigger.SCREEN_VIEW).size());
+        assertEquals(0, dao.getActiveTriggers(Trigger.LIFE_CYCLE_FOREGROUND).size());
+    }
+
+    @Test
+    public void testExecutionStateUpdatesIndex() {
+        dao.insert(createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, eventNamePredicate("foo")));
+        assertEquals(1, dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT).size());
+
+        FullSchedule entry = dao.getSchedule("foo");
+        entry.schedule.executionState = ScheduleState.EXECUTING;
+        dao.update(entry);
+
+        assertEquals(0, dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT).size());
+        assertEquals(0, dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT, "foo").size());
+    }
+
+    @Test
+    public void testFutureStartNotActive() {
+        FullSchedule entry = createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, null);
+        entry.schedule.scheduleStart = System.currentTimeMillis() + 100000;
+        dao.insert(entry);
+
+        assertEquals(0, dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT).size());
+    }
+
+    @Test
+    public void testDeleteRemovesTriggers() {
+        dao.insert(createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, eventNamePredicate("foo")));
+        dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT);
+
+        dao.delete(dao.getSchedule("foo"));
+        assertEquals(0, dao.getActiveTriggersForEvent(Trigger.CUSTOM_EVENT_COUNT, event("foo")).size());
+    }
+
+    @Test
+    public void testSyncUpdatesIndex() {
+        dao.insert(createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, eventNamePredicate("foo")));
+        assertEquals(1, dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT).size());
+
+        FullSchedule foo = dao.getSchedule("foo");
+        foo.schedule.executionState = ScheduleState.FINISHED;
+
+        dao.sync(Collections.singletonList(createSchedule("bar", Trigger.CUSTOM_EVENT_COUNT, eventNamePredicate("bar"))),
+                Collections.singletonList(foo));
+
+        assertEquals(ScheduleState.FINISHED, roomDao.getSchedule("foo").schedule.executionState);
+        assertEquals(0, dao.getActiveTriggersForEvent(Trigger.CUSTOM_EVENT_COUNT, event("foo")).size());
+        assertEquals(1, dao.getActiveTriggersForEvent(Trigger.CUSTOM_EVENT_COUNT, event("bar")).size());
+        assertEquals(2, dao.getScheduleSummaries().size());
+    }
+
+    @Test
+    public void testTriggerProgressWriteBehind() {
+        dao.insert(createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, null));
+
+        List<TriggerEntity> triggers = dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT);
+        triggers.get(0).progress = 1;
+        dao.updateTriggers(triggers);
+
+        triggers = dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT);
+        triggers.get(0).progress = 2;
+        dao.updateTriggers(triggers);
+
+        assertTrue(dao.hasPendingTriggerUpdates());
+        assertEquals(0.0, roomDao.getSchedule("foo").triggers.get(0).progress);
+        assertEquals(2.0, dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT).get(0).progress);
+
+        dao.flushPendingTriggerUpdates();
+        assertFalse(dao.hasPendingTriggerUpdates());
+        assertEquals(2.0, roomDao.getSchedule("foo").triggers.get(0).progress);
+    }
+
+    @Test
+    public void testReadFlushesPendingProgress() {
+        dao.insert(createSchedule("foo", Trigger.CUSTOM_EVENT_COUNT, null));
+
+        List<TriggerEntity> triggers = dao.getActiveTriggers(Trigger.CUSTOM_EVENT_COUNT);
+        triggers.get(0).progress = 1;
+        dao.updateTriggers(triggers);
+
+        assertEquals(1.0, dao.getSchedule("foo").triggers.get(0).progress);
+        assertFalse(dao.hasPendingTriggerUpdates());
+    }
+
+    @Test
+    public void testRequiredEventName() throws JsonException {
+        assertEquals("foo", IndexedAutomationDao.requiredEventName(Trigger.CUSTOM_EVENT_VALUE, eventNamePredicate("foo")));
+        assertEquals("foo", IndexedAutomationDao.requiredEventName(Trigger.CUSTOM_EVENT_COUNT,
+                Triggers.newCustomEventTriggerBuilder().setEventName("foo").setCountGoal(1).build().getPredicate()));
+
+        // Ignore case
+        JsonPredicate ignoreCase = JsonPredicate.parse(JsonMap.newBuilder()
+                                                              .put("key", CustomEvent.EVENT_NAME)
+                                                              .put("value", JsonMap.newBuilder().put("equals", "foo").build())
+                                                              .put("ignore_case", true)
+                                                              .build()
+                                                              .toJsonValue());
+        assertNull(IndexedAutomationDao.requiredEventName(Trigger.CUSTOM_EVENT_COUNT, ignoreCase));
+
+        // Not predicate
+        JsonPredicate not = JsonPredicate.newBuilder()
+                                         .setPredicateType(JsonPredicate.NOT_PREDICATE_TYPE)
+                                         .addPredicate(eventNamePredicate("foo"))
+                                         .build();
+        assertNull(IndexedAutomationDao.requiredEventName(Trigger.CUSTOM_EVENT_COUNT, not));
+
+        // Other trigger types are not indexed by name
+        assertNull(IndexedAutomationDao.requiredEventName(Trigger.SCREEN_VIEW, eventNamePredicate("foo")));
+    }
+
+    @NonNull
+    private static JsonPredicate eventNamePredicate(@NonNull String eventName) {
+        return JsonPredicate.newBuilder()
+                            .setPredicateType(JsonPredicate.AND_PREDICATE_TYPE)
+                            .addMatcher(JsonMatcher.newBuilder()
+                                                   .setKey(CustomEvent.EVENT_NAME)
+                                                   .setValueMatcher(ValueMatcher.newValueMatcher(JsonValue.wrap(eventName)))
+                                                   .build())
+                            .build();
+    }
+
+    @NonNull
+    private static JsonValue event(@NonNull String eventName) {
+        return CustomEvent.newBuilder(eventName).build().toJsonValue();
+    }
+
+    @NonNull
+    private static FullSchedule createSchedule(@NonNull String scheduleId, int triggerType, @Nullable JsonPredicate predicate) {
+        ScheduleEntity scheduleEntity = new ScheduleEntity();
+        scheduleEntity.scheduleId = scheduleId;
+        scheduleEntity.scheduleStart = -1;
+        scheduleEntity.scheduleEnd = -1;
+        scheduleEntity.executionState = ScheduleState.IDLE;
+
+        TriggerEntity triggerEntity = new TriggerEntity();
+        triggerEntity.triggerType = triggerType;
+        triggerEntity.goal = 10;
+        triggerEntity.jsonPredicate = predicate;
+        triggerEntity.parentScheduleId = scheduleId;
+
+        List<TriggerEntity> triggers = new ArrayList<>(Collections.singletonList(triggerEntity));
+        return new FullSchedule(scheduleEntity, triggers);
+    }
+
+}
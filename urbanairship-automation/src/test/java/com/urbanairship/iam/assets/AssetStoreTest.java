@@ -0,0 +1,268 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.iam.assets;
+
+import com.urbanairship.util.FileUtils;
+import com.urbanairship.util.HttpCacheMetadata;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link AssetStore}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class AssetStoreTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private TestExecutor executor;
+    private TestDownloader downloader;
+    private File storeDirectory;
+    private AssetStore store;
+
+    @Before
+    public void setup() throws IOException {
+        executor = new TestExecutor();
+        downloader = new TestDownloader();
+        storeDirectory = new File(temporaryFolder.getRoot(), "store");
+        store = new AssetStore(storeDirectory, executor, downloader, 10);
+    }
+
+    /**
+     * Test concurrent requests for the same URL share a single download.
+     */
+    @Test
+    public void testPrefetchDedupesInFlightDownloads() {
+        Future<FileUtils.DownloadResult> first = store.prefetch("https://example.com/image.png");
+        Future<FileUtils.DownloadResult> second = store.prefetch("https://example.com/image.png");
+        store.prefetch("https://example.com/other.png");
+
+        assertSame(first, second);
+        assertEquals(2, executor.runnables.size());
+
+        executor.runAll();
+        assertEquals(2, downloader.requests.size());
+    }
+
+    /**
+     * Test fetching a stored URL for another schedule does not download it again.
+     */
+    @Test
+    public void testFetchReusesStoredFile() throws IOException {
+        downloader.cacheMetadata = new HttpCacheMetadata(Long.MAX_VALUE, null, null);
+        File first = temporaryFolder.newFile("first");
+        File second = temporaryFolder.newFile("second");
+
+        store.prefetch("https://example.com/image.png");
+        executor.runAll();
+
+        assertTrue(store.fetch("https://example.com/image.png", first).isSuccess);
+        assertTrue(store.fetch("https://example.com/image.png", second).isSuccess);
+
+        assertEquals(1, downloader.requests.size());
+        assertEquals(4, first.length());
+        assertEquals(4, second.length());
+    }
+
+    /**
+     * Test failed downloads are not stored and are retried on the next fetch.
+     */
+    @Test
+    public void testFailedDownload() throws IOException {
+        File destination = temporaryFolder.newFile("destination");
+        executor.runImmediately = true;
+        downloader.statusCode = 404;
+
+        FileUtils.DownloadResult result = store.fetch("https://example.com/image.png", destination);
+        assertFalse(result.isSuccess);
+        assertEquals(404, result.statusCode);
+
+        downloader.statusCode = 200;
+        assertTrue(store.fetch("https://example.com/image.png", destination).isSuccess);
+        assertEquals(2, downloader.requests.size());
+    }
+
+    /**
+     * Test downloads always request a resume of any partial file.
+     */
+    @Test
+    public void testDownloadResumes() {
+        store.prefetch("https://example.com/image.png");
+        executor.runAll();
+
+        assertTrue(downloader.resumed.get(0));
+    }
+
+    /**
+     * Test an expired file is revalidated with its stored metadata.
+     */
+    @Test
+    public void testRevalidatesExpiredFile() throws IOException {
+        downloader.cacheMetadata = new HttpCacheMetadata(0, "\"etag\"", null);
+        store.prefetch("https://example.com/image.png");
+        executor.runAll();
+
+        downloader.statusCode = HttpURLConnection.HTTP_NOT_MODIFIED;
+        downloader.cacheMetadata = new HttpCacheMetadata(Long.MAX_VALUE, "\"etag\"", null);
+        File destination = temporaryFolder.newFile("destination");
+        executor.runImmediately = true;
+
+        FileUtils.DownloadResult result = store.fetch("https://example.com/image.png", destination);
+        assertTrue(result.isSuccess);
+        assertEquals(2, downloader.requests.size());
+        assertFalse(downloader.resumed.get(1));
+        assertNull(downloader.cachedMetadata.get(0));
+
+        HttpURLConnection conn = mock(HttpURLConnection.class);
+        downloader.cachedMetadata.get(1).applyValidators(conn);
+        verify(conn).setRequestProperty("If-None-Match", "\"etag\"");
+
+        assertEquals(4, destination.length());
+
+        // Fresh after revalidating
+        assertTrue(store.fetch("https://example.com/image.png", destination).isSuccess);
+        assertEquals(2, downloader.requests.size());
+    }
+
+    /**
+     * Test a changed file replaces the stored file.
+     */
+    @Test
+    public void testRevalidateReplacesChangedFile() throws IOException {
+        downloader.cacheMetadata = new HttpCacheMetadata(0, null, null);
+        store.prefetch("https://example.com/image.png");
+        executor.runAll();
+
+        downloader.size = 8;
+        File destination = temporaryFolder.newFile("destination");
+        executor.runImmediately = true;
+
+        assertTrue(store.fetch("https://example.com/image.png", destination).isSuccess);
+        assertEquals(2, downloader.requests.size());
+        assertEquals(8, destination.length());
+    }
+
+    /**
+     * Test the stale file is used if revalidating fails.
+     */
+    @Test
+    public void testRevalidateFailureUsesStoredFile() throws IOException {
+        downloader.cacheMetadata = new HttpCacheMetadata(0, null, null);
+        store.prefetch("https://example.com/image.png");
+        executor.runAll();
+
+        downloader.statusCode = 500;
+        File destination = temporaryFolder.newFile("destination");
+        executor.runImmediately = true;
+
+        assertTrue(store.fetch("https://example.com/image.png", destination).isSuccess);
+        assertEquals(2, downloader.requests.size());
+        assertEquals(4, destination.length());
+    }
+
+    /**
+     * Test the store removes the least recently used files once it is over the max size.
+     */
+    @Test
+    public void testTrim() throws IOException {
+        store.prefetch("https://example.com/1.png");
+        executor.runAll();
+        File[] files = storeDirectory.listFiles();
+        assertEquals(1, files.length);
+        files[0].setLastModified(1000);
+
+        store.prefetch("https://example.com/2.png");
+        executor.runAll();
+        store.prefetch("https://example.com/3.png");
+        executor.runAll();
+
+        // 3 files of 4 bytes with a max of 10 bytes
+        assertEquals(2, storeDirectory.listFiles().length);
+        assertFalse(files[0].exists());
+    }
+
+    private static class TestExecutor implements Executor {
+
+        final List<Runnable> runnables = new ArrayList<>();
+        boolean runImmediately = false;
+
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            if (runImmediately) {
+                runnable.run();
+            } else {
+                runnables.add(runnable);
+            }
+        }
+
+        void runAll() {
+            List<Runnable> pending = new ArrayList<>(runnables);
+            runnables.clear();
+            for (Runnable runnable : pending) {
+                runnable.run();
+            }
+        }
+
+    }
+
+    private static class TestDownloader implements AssetStore.Downloader {
+
+        final List<URL> requests = new ArrayList<>();
+        final List<Boolean> resumed = new ArrayList<>();
+        final List<HttpCacheMetadata> cachedMetadata = new ArrayList<>();
+        int statusCode = 200;
+        int size = 4;
+        HttpCacheMetadata cacheMetadata;
+
+        @NonNull
+        @Override
+        public FileUtils.DownloadResult download(@NonNull URL url, @NonNull File file, boolean resume,
+                                                 @Nullable HttpCacheMetadata cached) throws IOException {
+            requests.add(url);
+            resumed.add(resume);
+            cachedMetadata.add(cached);
+
+            if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return new FileUtils.DownloadResult(true, statusCode, cacheMetadata);
+            }
+
+            if (statusCode != 200) {
+                return new FileUtils.DownloadResult(false, statusCode);
+            }
+
+            FileOutputStream outputStream = new FileOutputStream(file);
+            outputStream.write(new byte[size]);
+            outputStream.close();
+            return new FileUtils.DownloadResult(true, statusCode, cacheMetadata);
+        }
+
+    }
+
+}
@@ -0,0 +1,89 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship;
+
+import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+/**
+ * Reading a large JSON preference, like a pending tag group mutation queue, by parsing the stored
+ * string on every read versus through the parsed value cache in
+ * {@link PreferenceDataStore#getJsonValue(String)}.
+ */
+@RunWith(AndroidJUnit4.class)
+public class PreferenceDataStoreBenchmark {
+
+    private static final String KEY = "com.urbanairship.benchmark.QUEUE";
+    private static final int QUEUE_SIZE_CHARS = 50 * 1024;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private PreferenceDataStore dataStore;
+
+    @Before
+    public void setUp() {
+        dataStore = PreferenceDataStore.inMemoryStore(ApplicationProvider.getApplicationContext());
+        dataStore.put(KEY, createQueue());
+    }
+
+    @After
+    public void tearDown() {
+        dataStore.tearDown();
+    }
+
+    @Test
+    public void parseOnRead() throws JsonException {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            JsonValue.parseString(dataStore.getString(KEY, null));
+        }
+    }
+
+    @Test
+    public void cachedRead() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            dataStore.getJsonValue(KEY);
+        }
+    }
+
+    private static JsonValue createQueue() {
+        List<JsonValue> mutations = new ArrayList<>();
+        int size = 0;
+
+        for (int i = 0; size < QUEUE_SIZE_CHARS; i++) {
+            JsonValue mutation = JsonMap.newBuilder()
+                                        .put("add", JsonMap.newBuilder()
+                                                           .put("device", JsonList.EMPTY_LIST)
+                                                           .put("group_" + i, JsonValue.wrapOpt(new String[] { "tag_" + i, "another_tag_" + i }))
+                                                           .build())
+                                        .put("remove", JsonMap.newBuilder()
+                                                              .put("group_" + i, JsonValue.wrapOpt(new String[] { "old_tag_" + i }))
+                                                              .build())
+                                        .build()
+                                        .toJsonValue();
+            mutations.add(mutation);
+            size += mutation.toString().length() + 1;
+        }
+
+        return JsonValue.wrapOpt(mutations);
+    }
+
+}
@@ -0,0 +1,140 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.job;
+
+import com.urbanairship.util.Clock;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+/**
+ * Tracking and checking a busy rate limit with the ring buffer in {@link RateLimiter} versus the
+ * previous implementation, which kept every hit in a list and filtered it on each call.
+ */
+@RunWith(AndroidJUnit4.class)
+public class RateLimiterBenchmark {
+
+    private static final String LIMIT_ID = "benchmark";
+    private static final int RATE = 100;
+    private static final long DURATION_MS = 60000;
+    private static final long HIT_INTERVAL_MS = 10;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private final BenchmarkClock clock = new BenchmarkClock();
+
+    @Test
+    public void ringBuffer() {
+        RateLimiter rateLimiter = new RateLimiter(clock);
+        rateLimiter.setLimit(LIMIT_ID, RATE, DURATION_MS, TimeUnit.MILLISECONDS);
+
+        // Fill the window first so only the steady state is measured
+        for (long i = 0; i < DURATION_MS / HIT_INTERVAL_MS; i++) {
+            clock.time += HIT_INTERVAL_MS;
+            rateLimiter.track(LIMIT_ID);
+        }
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            clock.time += HIT_INTERVAL_MS;
+            rateLimiter.track(LIMIT_ID);
+            rateLimiter.status(LIMIT_ID);
+        }
+    }
+
+    @Test
+    public void list() {
+        ListRateLimiter rateLimiter = new ListRateLimiter(clock);
+        rateLimiter.setLimit(LIMIT_ID, RATE, DURATION_MS);
+
+        // Fill the window first so only the steady state is measured
+        for (long i = 0; i < DURATION_MS / HIT_INTERVAL_MS; i++) {
+            clock.time += HIT_INTERVAL_MS;
+            rateLimiter.track(LIMIT_ID);
+        }
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            clock.time += HIT_INTERVAL_MS;
+            rateLimiter.track(LIMIT_ID);
+            rateLimiter.status(LIMIT_ID);
+        }
+    }
+
+    private static class BenchmarkClock extends Clock {
+
+        long time;
+
+        @Override
+        public long currentTimeMillis() {
+            return time;
+        }
+
+    }
+
+    /**
+     * The previous list based rate limiter, kept here only as the baseline.
+     */
+    private static class ListRateLimiter {
+
+        private final Clock clock;
+        private final Map<String, List<Long>> hits = new HashMap<>();
+        private final Map<String, Long> durations = new HashMap<>();
+        private final Map<String, Integer> rates = new HashMap<>();
+
+        ListRateLimiter(Clock clock) {
+            this.clock = clock;
+        }
+
+        synchronized void setLimit(String limitId, int rate, long durationMs) {
+            rates.put(limitId, rate);
+            durations.put(limitId, durationMs);
+            hits.put(limitId, new ArrayList<Long>());
+        }
+
+        synchronized void track(String limitId) {
+            List<Long> hits = this.hits.get(limitId);
+            long currentTime = clock.currentTimeMillis();
+            hits.add(currentTime);
+            filter(hits, durations.get(limitId), currentTime);
+        }
+
+        synchronized RateLimiter.Status status(String limitId) {
+            List<Long> hits = this.hits.get(limitId);
+            int rate = rates.get(limitId);
+            long durationMs = durations.get(limitId);
+            long currentTime = clock.currentTimeMillis();
+
+            filter(hits, durationMs, currentTime);
+
+            if (hits.size() >= rate) {
+                long nextExpired = durationMs - (currentTime - hits.get(hits.size() - rate));
+                return new RateLimiter.Status(RateLimiter.LimitStatus.OVER, nextExpired);
+            } else {
+                return new RateLimiter.Status(RateLimiter.LimitStatus.UNDER, 0);
+            }
+        }
+
+        private void filter(List<Long> hits, long durationMs, long currentTimeMs) {
+            for (long hit : new ArrayList<>(hits)) {
+                if (currentTimeMs >= (hit + durationMs)) {
+                    hits.remove(hit);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+/**
+ * Parsing and writing representative remote-data and inbox payloads with {@link JsonValue} versus
+ * the org.json tokenizer and serializer that it used to wrap.
+ */
+@RunWith(Parameterized.class)
+public class JsonBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameter
+    public String payloadName;
+
+    private String json;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> payloads() {
+        return Arrays.asList(new Object[][] { { "remote-data" }, { "inbox" } });
+    }
+
+    @Before
+    public void setUp() {
+        json = payloadName.equals("inbox") ? createInboxPayload(500) : createRemoteDataPayload(200);
+    }
+
+    @Test
+    public void parseOrgJson() throws JSONException, JsonException {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            JsonValue.wrap(new JSONTokener(json).nextValue());
+        }
+    }
+
+    @Test
+    public void parse() throws JsonException {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            JsonValue.parse(new StringReader(json));
+        }
+    }
+
+    @Test
+    public void writeOrgJson() throws JSONException {
+        Object value = new JSONTokener(json).nextValue();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            value.toString();
+        }
+    }
+
+    @Test
+    public void write() throws JsonException, IOException {
+        JsonValue value = JsonValue.parseString(json);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            value.write(new StringWriter(json.length()));
+        }
+    }
+
+    @NonNull
+    private static String createRemoteDataPayload(int count) {
+        List<JsonValue> schedules = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            JsonMap trigger = JsonMap.newBuilder()
+                                     .put("type", "custom_event_count")
+                                     .put("goal", 1.0)
+                                     .put("predicate", JsonMap.newBuilder()
+                                                              .put("key", "event_name")
+                                                              .put("value", JsonMap.newBuilder().put("equals", "event_" + i).build())
+                                                              .build())
+                                     .build();
+
+            JsonMap message = JsonMap.newBuilder()
+                                     .put("display_type", "banner")
+                                     .put("display", JsonMap.newBuilder()
+                                                            .put("body", JsonMap.newBuilder().put("text", "Message body " + i + " with some \"quoted\" text").build())
+                                                            .put("duration", 15)
+                                                            .put("placement", "bottom")
+                                                            .build())
+                                     .put("actions", JsonMap.newBuilder().put("^d", "https://example.com/path/" + i).build())
+                                     .build();
+
+            schedules.add(JsonMap.newBuilder()
+                                 .put("id", "schedule_" + i)
+                                 .put("created", "2021-01-01T00:00:00")
+                                 .put("last_updated", "2021-01-02T00:00:00")
+                                 .put("triggers", JsonValue.wrapOpt(Collections.singletonList(trigger)))
+                                 .put("message", message)
+                                 .build()
+                                 .toJsonValue());
+        }
+
+        JsonMap payload = JsonMap.newBuilder()
+                                 .put("type", "in_app_messages")
+                                 .put("timestamp", "2021-01-02T00:00:00")
+                                 .put("data", JsonMap.newBuilder().put("in_app_messages", new JsonList(schedules)).build())
+                                 .build();
+
+        return JsonMap.newBuilder()
+                      .put("ok", true)
+                      .put("payloads", JsonValue.wrapOpt(Collections.singletonList(payload)))
+                      .build()
+                      .toString();
+    }
+
+    @NonNull
+    private static String createInboxPayload(int count) {
+        List<JsonValue> messages = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            messages.add(JsonMap.newBuilder()
+                                .put("message_id", "message_id_" + i)
+                                .put("message_url", "https://dl.urbanairship.com/aaa/message_id_" + i)
+                                .put("message_body_url", "https://dl.urbanairship.com/aaa/message_id_" + i + "/body/")
+                                .put("message_read_url", "https://dl.urbanairship.com/aaa/message_id_" + i + "/read/")
+                                .put("unread", i % 2 == 0)
+                                .put("message_sent", "2021-01-01 00:00:00")
+                                .put("title", "Message title " + i)
+                                .put("extra", JsonMap.newBuilder().put("some_key", "some value").build())
+                                .put("content_type", "text/html")
+                                .put("content_size", 128 + i)
+                                .build()
+                                .toJsonValue());
+        }
+
+        return JsonMap.newBuilder()
+                      .put("messages", new JsonList(messages))
+                      .build()
+                      .toString();
+    }
+
+}
@@ -0,0 +1,124 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+
+/**
+ * Evaluating custom event trigger and app version predicates with the compiled predicate used by
+ * {@link JsonPredicate#apply(JsonSerializable)} versus walking the predicate tree.
+ */
+@RunWith(Parameterized.class)
+public class JsonPredicateBenchmark {
+
+    private static final int PREDICATE_COUNT = 200;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Parameterized.Parameter
+    public String predicateType;
+
+    private final List<JsonPredicate> predicates = new ArrayList<>();
+    private JsonSerializable value;
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> predicateTypes() {
+        return Arrays.asList(new Object[][] { { "custom-event" }, { "app-version" } });
+    }
+
+    @Before
+    public void setUp() throws JsonException {
+        if (predicateType.equals("app-version")) {
+            for (int i = 0; i < PREDICATE_COUNT; i++) {
+                predicates.add(JsonPredicate.parse(JsonValue.parseString(
+                        "{\"value\":{\"version_matches\":\"[" + (i % 10) + ".0," + (i % 10 + 2) + ".0[\"},\"scope\":[\"android\"],\"key\":\"version\"}")));
+            }
+            value = JsonValue.parseString("{\"android\":{\"version\":\"5.2.1\"}}");
+        } else {
+            for (int i = 0; i < PREDICATE_COUNT; i++) {
+                predicates.add(createEventPredicate(i));
+            }
+
+            // Converted to JSON on each matcher, like a CustomEvent
+            value = new JsonSerializable() {
+                @NonNull
+                @Override
+                public JsonValue toJsonValue() {
+                    return createEvent(PREDICATE_COUNT / 2);
+                }
+            };
+        }
+    }
+
+    @Test
+    public void compiled() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (JsonPredicate predicate : predicates) {
+                predicate.apply(value);
+            }
+        }
+    }
+
+    @Test
+    public void treeWalk() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            for (JsonPredicate predicate : predicates) {
+                predicate.applyUncompiled(value);
+            }
+        }
+    }
+
+    @NonNull
+    private static JsonPredicate createEventPredicate(int index) throws JsonException {
+        String json = "{\"and\":["
+                + "{\"value\":{\"equals\":\"event_" + index + "\"},\"key\":\"event_name\",\"ignore_case\":true},"
+                + "{\"and\":["
+                + "{\"value\":{\"at_least\":" + index + "},\"key\":\"event_value\"},"
+                + "{\"value\":{\"equals\":\"category_" + (index % 5) + "\"},\"scope\":[\"properties\",\"product\"],\"key\":\"category\"}"
+                + "]},"
+                + "{\"value\":{\"array_contains\":{\"value\":{\"equals\":\"sku_" + index + "\"}}},\"scope\":[\"properties\"],\"key\":\"skus\"},"
+                + "{\"value\":{\"is_present\":true},\"key\":\"interaction_id\"}"
+                + "]}";
+        return JsonPredicate.parse(JsonValue.parseString(json));
+    }
+
+    @NonNull
+    private static JsonValue createEvent(int index) {
+        List<JsonValue> skus = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            skus.add(JsonValue.wrap("sku_" + (index + i)));
+        }
+
+        return JsonMap.newBuilder()
+                      .put("event_name", "EVENT_" + index)
+                      .put("event_value", index * 2)
+                      .put("interaction_id", "interaction")
+                      .put("interaction_type", "ua_mcrap")
+                      .put("properties", JsonMap.newBuilder()
+                                                .put("product", JsonMap.newBuilder()
+                                                                       .put("category", "category_" + (index % 5))
+                                                                       .put("name", "product")
+                                                                       .build())
+                                                .put("skus", new JsonList(skus))
+                                                .build())
+                      .build()
+                      .toJsonValue();
+    }
+
+}
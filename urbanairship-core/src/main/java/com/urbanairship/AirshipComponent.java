@@ -44,7 +44,7 @@ public abstract class AirshipComponent {
     /**
      * Default job executor.
      */
-    private final Executor jobExecutor = AirshipExecutors.newSerialExecutor();
+    private final Executor jobExecutor = AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_NETWORK);
 
     /**
      * Initialize the manager.
@@ -27,6 +27,7 @@ import java.util.regex.Pattern;
 
 import androidx.annotation.ColorInt;
 import androidx.annotation.DrawableRes;
+import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
@@ -118,6 +119,7 @@ public class AirshipConfigOptions {
     private static final int DEFAULT_PRODUCTION_LOG_LEVEL = Log.ERROR;
     private static final int DEFAULT_DEVELOPMENT_LOG_LEVEL = Log.DEBUG;
     private static final long DEFAULT_BG_REPORTING_INTERVAL_MS = 24 * 60 * 60 * 1000; // 24 hours
+    private static final int DEFAULT_CANONICAL_ID_HISTORY_SIZE = 100;
 
     private static final Pattern APP_CREDENTIAL_PATTERN = Pattern.compile("^[a-zA-Z0-9\\-_]{22}$");
 
@@ -380,6 +382,14 @@ public class AirshipConfigOptions {
      */
     public final boolean extendedBroadcastsEnabled;
 
+    /**
+     * The number of canonical push IDs to remember. Pushes with a canonical ID in the history
+     * are dropped as duplicates.
+     * <p>
+     * Defaults to 100.
+     */
+    public final int canonicalIdHistorySize;
+
     /**
      * Notification icon.
      */
@@ -475,6 +485,7 @@ public class AirshipConfigOptions {
         this.dataCollectionOptInEnabled = builder.dataCollectionOptInEnabled;
         this.enabledFeatures = builder.enabledFeatures;
         this.extendedBroadcastsEnabled = builder.extendedBroadcastsEnabled;
+        this.canonicalIdHistorySize = builder.canonicalIdHistorySize;
         this.requireInitialRemoteConfigEnabled = builder.requireInitialRemoteConfigEnabled;
         this.fcmFirebaseAppName = builder.fcmFirebaseAppName;
     }
@@ -634,6 +645,7 @@ public class AirshipConfigOptions {
         private static final String FIELD_SITE = "site";
         private static final String FIELD_DATA_COLLECTION_OPT_IN_ENABLED = "dataCollectionOptInEnabled";
         private static final String FIELD_EXTENDED_BROADCASTS_ENABLED = "extendedBroadcastsEnabled";
+        private static final String FIELD_CANONICAL_ID_HISTORY_SIZE = "canonicalIdHistorySize";
         private static final String FIELD_SUPPRESS_ALLOW_LIST_ERROR = "suppressAllowListError";
         private static final String FIELD_REQUIRE_INITIAL_REMOTE_CONFIG_ENABLED = "requireInitialRemoteConfigEnabled";
         private static final String FIELD_ENABLED_FEATURES = "enabledFeatures";
@@ -671,6 +683,7 @@ public class AirshipConfigOptions {
         private Uri appStoreUri;
         private boolean dataCollectionOptInEnabled;
         private boolean extendedBroadcastsEnabled;
+        private int canonicalIdHistorySize = DEFAULT_CANONICAL_ID_HISTORY_SIZE;
         private @Site
         String site = SITE_US;
 
@@ -974,6 +987,10 @@ public class AirshipConfigOptions {
                             this.setExtendedBroadcastsEnabled(configParser.getBoolean(name, false));
                             break;
 
+                        case FIELD_CANONICAL_ID_HISTORY_SIZE:
+                            this.setCanonicalIdHistorySize(configParser.getInt(name, canonicalIdHistorySize));
+                            break;
+
                         case FIELD_SUPPRESS_ALLOW_LIST_ERROR:
                             this.setSuppressAllowListError(configParser.getBoolean(name, false));
                             break;
@@ -1542,6 +1559,19 @@ public class AirshipConfigOptions {
             return this;
         }
 
+        /**
+         * Sets the number of canonical push IDs to remember. Pushes with a canonical ID in the
+         * history are dropped as duplicates.
+         *
+         * @param canonicalIdHistorySize The history size.
+         * @return The config options builder.
+         */
+        @NonNull
+        public Builder setCanonicalIdHistorySize(@IntRange(from = 1) int canonicalIdHistorySize) {
+            this.canonicalIdHistorySize = canonicalIdHistorySize;
+            return this;
+        }
+
         /**
          * Sets the default enabled SDK features. See {@link PrivacyManager} for more info.
          *
@@ -3,12 +3,15 @@
 package com.urbanairship;
 
 import com.urbanairship.util.AirshipThreadFactory;
+import com.urbanairship.util.PriorityExecutor;
 import com.urbanairship.util.SerialExecutor;
 
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
+import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
 
@@ -20,20 +23,91 @@ import androidx.annotation.RestrictTo;
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class AirshipExecutors {
 
+    @IntDef({ PRIORITY_UI_CRITICAL, PRIORITY_NETWORK, PRIORITY_DISK, PRIORITY_BACKGROUND, PRIORITY_BLOCKING })
+    @Retention(RetentionPolicy.SOURCE)
+    public @interface Priority {}
+
+    /**
+     * Work the user is waiting on, like takeOff, running actions and handling notification
+     * responses. Tasks must not wait on the network or on other tasks, use
+     * {@link #PRIORITY_BLOCKING} for those.
+     */
+    public static final int PRIORITY_UI_CRITICAL = 0;
+
+    /**
+     * Network requests and jobs. Runs on the blocking pool, so requests waiting on the network
+     * never hold the shared threads.
+     */
+    public static final int PRIORITY_NETWORK = 1;
+
+    /**
+     * Preference and database writes.
+     */
+    public static final int PRIORITY_DISK = 2;
+
+    /**
+     * Everything else.
+     */
+    public static final int PRIORITY_BACKGROUND = 3;
+
+    /**
+     * Work someone is waiting on that blocks on the network or on other tasks, like processing an
+     * incoming push or loading an image. Runs on the blocking pool ahead of network work.
+     */
+    public static final int PRIORITY_BLOCKING = 4;
+
+    private static final int MAX_THREADS = Math.max(4, Math.min(Runtime.getRuntime().availableProcessors() * 2, 8));
+    private static final int RESERVED_THREADS = 2;
+    private static final int MAX_BLOCKING_THREADS = 16;
+    private static final int RESERVED_BLOCKING_THREADS = 2;
+    private static final long KEEP_ALIVE_MS = 30000;
+
+    // Shared pool lanes
+    private static final int UI_CRITICAL_LANE = 0;
+    private static final int DISK_LANE = 1;
+    private static final int BACKGROUND_LANE = 2;
+
+    // Blocking pool lanes
+    private static final int BLOCKING_LANE = 0;
+    private static final int NETWORK_LANE = 1;
+
+    /**
+     * Short tasks that never wait on other tasks or the network.
+     */
+    @NonNull
+    private static final PriorityExecutor THREAD_POOL_EXECUTOR = new PriorityExecutor(AirshipThreadFactory.DEFAULT_THREAD_FACTORY,
+            3, MAX_THREADS, RESERVED_THREADS, KEEP_ALIVE_MS);
+
+    /**
+     * Tasks that block. Its threads do not count against the shared pool, so blocked tasks can't
+     * starve disk and background work, and tasks waiting on the shared pool can't deadlock it.
+     */
     @NonNull
-    private static final ExecutorService THREAD_POOL_EXECUTOR =
-            Executors.newCachedThreadPool(AirshipThreadFactory.DEFAULT_THREAD_FACTORY);
+    private static final PriorityExecutor BLOCKING_EXECUTOR = new PriorityExecutor(AirshipThreadFactory.DEFAULT_THREAD_FACTORY,
+            2, MAX_BLOCKING_THREADS, RESERVED_BLOCKING_THREADS, KEEP_ALIVE_MS);
 
     /**
-     * The shared thread pool executor.
+     * The shared thread pool executor. Tasks run with {@link #PRIORITY_BACKGROUND}.
      */
     @NonNull
     public static ExecutorService threadPoolExecutor() {
         return THREAD_POOL_EXECUTOR;
     }
 
+    /**
+     * Gets an executor that runs tasks on the thread pool for the given priority.
+     *
+     * @param priority The priority.
+     * @return The executor.
+     */
+    @NonNull
+    public static ExecutorService threadPoolExecutor(@Priority int priority) {
+        return executor(priority).getLaneExecutor(lane(priority));
+    }
+
     /**
      * Creates a new serial executor that shares threads with the {@link #THREAD_POOL_EXECUTOR}.
+     * Tasks run with {@link #PRIORITY_BACKGROUND}.
      *
      * @return A new serial executor.
      */
@@ -41,4 +115,54 @@ public class AirshipExecutors {
     public static Executor newSerialExecutor() {
         return new SerialExecutor(THREAD_POOL_EXECUTOR);
     }
+
+    /**
+     * Creates a new serial executor that shares threads with the thread pool for the given priority.
+     *
+     * @param priority The priority.
+     * @return A new serial executor.
+     */
+    @NonNull
+    public static Executor newSerialExecutor(@Priority int priority) {
+        return new SerialExecutor(threadPoolExecutor(priority));
+    }
+
+    /**
+     * Gets the queue metrics of the shared thread pool for a priority.
+     *
+     * @param priority The priority.
+     * @return The queue metrics.
+     */
+    @NonNull
+    public static PriorityExecutor.QueueMetrics getQueueMetrics(@Priority int priority) {
+        return executor(priority).getQueueMetrics(lane(priority));
+    }
+
+    @NonNull
+    private static PriorityExecutor executor(@Priority int priority) {
+        switch (priority) {
+            case PRIORITY_NETWORK:
+            case PRIORITY_BLOCKING:
+                return BLOCKING_EXECUTOR;
+            default:
+                return THREAD_POOL_EXECUTOR;
+        }
+    }
+
+    private static int lane(@Priority int priority) {
+        switch (priority) {
+            case PRIORITY_UI_CRITICAL:
+                return UI_CRITICAL_LANE;
+            case PRIORITY_NETWORK:
+                return NETWORK_LANE;
+            case PRIORITY_DISK:
+                return DISK_LANE;
+            case PRIORITY_BLOCKING:
+                return BLOCKING_LANE;
+            case PRIORITY_BACKGROUND:
+            default:
+                return BACKGROUND_LANE;
+        }
+    }
+
 }
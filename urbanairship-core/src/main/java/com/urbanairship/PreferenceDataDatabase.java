@@ -22,7 +22,7 @@ import androidx.sqlite.db.SupportSQLiteDatabase;
  * @hide
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
-@Database(entities = {PreferenceData.class}, version = 2, exportSchema = false)
+@Database(entities = {PreferenceData.class, QueueData.class}, version = 3, exportSchema = false)
 public abstract class PreferenceDataDatabase extends RoomDatabase {
 
     private static final String DATABASE_DIRECTORY_NAME = "com.urbanairship.databases";
@@ -34,6 +34,8 @@ public abstract class PreferenceDataDatabase extends RoomDatabase {
 
     public abstract PreferenceDataDao getDao();
 
+    public abstract QueueDataDao getQueueDao();
+
     static final Migration MIGRATION_1_2 = new Migration(1, 2) {
         @Override
         public void migrate(SupportSQLiteDatabase database) {
@@ -55,13 +57,25 @@ public abstract class PreferenceDataDatabase extends RoomDatabase {
         }
     };
 
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(SupportSQLiteDatabase database) {
+            database.execSQL("CREATE TABLE IF NOT EXISTS `queue_items` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`queue` TEXT NOT NULL, "
+                    + "`value` TEXT NOT NULL)");
+
+            database.execSQL("CREATE INDEX IF NOT EXISTS `index_queue_items_queue_id` ON `queue_items` (`queue`, `id`)");
+        }
+    };
+
     public static PreferenceDataDatabase createDatabase(@NonNull Context context, @NonNull AirshipConfigOptions config) {
         String name = config.appKey + "_" + DATABASE_NAME;
         File urbanAirshipNoBackupDirectory = new File(ContextCompat.getNoBackupFilesDir(context), DATABASE_DIRECTORY_NAME);
         String path = new File(urbanAirshipNoBackupDirectory, name).getAbsolutePath();
 
         return Room.databaseBuilder(context, PreferenceDataDatabase.class, path)
-                   .addMigrations(MIGRATION_1_2)
+                   .addMigrations(MIGRATION_1_2, MIGRATION_2_3)
                    .fallbackToDestructiveMigrationOnDowngrade()
                    .build();
     }
@@ -4,6 +4,7 @@ package com.urbanairship;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.os.Handler;
 
 import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonSerializable;
@@ -12,6 +13,7 @@ import com.urbanairship.util.UAStringUtil;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
@@ -39,10 +41,33 @@ public final class PreferenceDataStore {
             "com.urbanairship.iam.tags.TAG_PREFER_LOCAL_DATA_TIME"
     };
 
-    Executor executor = AirshipExecutors.newSerialExecutor();
+    /**
+     * Window used to coalesce preference writes before they are flushed to the database.
+     */
+    private static final long FLUSH_DELAY_MS = 100;
+
+    Executor executor = AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_DISK);
     private final Map<String, Preference> preferences = new HashMap<>();
 
+    private final Map<String, Preference> pendingWrites = new LinkedHashMap<>();
+    private final Object flushLock = new Object();
+    private boolean isFlushScheduled = false;
+    private Handler flushHandler;
+
+    private final Runnable flushRunnable = new Runnable() {
+        @Override
+        public void run() {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    flush();
+                }
+            });
+        }
+    };
+
     private final PreferenceDataDao dao;
+    private final QueueDataDao queueDao;
     private final PreferenceDataDatabase db;
 
     private final List<PreferenceChangeListener> listeners = new ArrayList<>();
@@ -84,6 +109,17 @@ public final class PreferenceDataStore {
     PreferenceDataStore(@NonNull PreferenceDataDatabase dataDatabase) {
         this.db = dataDatabase;
         this.dao = dataDatabase.getDao();
+        this.queueDao = dataDatabase.getQueueDao();
+    }
+
+    /**
+     * Gets the DAO for queues stored alongside the preferences.
+     *
+     * @return The queue DAO.
+     */
+    @NonNull
+    public QueueDataDao getQueueDao() {
+        return queueDao;
     }
 
     /**
@@ -175,6 +211,7 @@ public final class PreferenceDataStore {
      */
     public void tearDown() {
         listeners.clear();
+        flush();
         db.close();
     }
 
@@ -264,7 +301,7 @@ public final class PreferenceDataStore {
     @NonNull
     public JsonValue getJsonValue(@NonNull String key) {
         try {
-            return JsonValue.parseString(getPreference(key).get());
+            return getPreference(key).getJsonValue();
         } catch (JsonException e) {
             // Should never happen
             Logger.debug(e, "Unable to parse preference value: %s", key);
@@ -344,7 +381,7 @@ public final class PreferenceDataStore {
         if (value == null) {
             remove(key);
         } else {
-            getPreference(key).put(value.toString());
+            getPreference(key).put(value.toString(), value);
         }
     }
 
@@ -375,6 +412,79 @@ public final class PreferenceDataStore {
         return getPreference(key).putSync(value);
     }
 
+    /**
+     * Writes any pending preference changes to the database in a single transaction. This
+     * method will block on the database write.
+     *
+     * @return <code>true</code> if the pending changes were successfully saved to
+     * the database, otherwise <code>false</code>
+     */
+    public boolean flush() {
+        synchronized (flushLock) {
+            List<Preference> pending;
+            synchronized (pendingWrites) {
+                isFlushScheduled = false;
+                if (pendingWrites.isEmpty()) {
+                    return true;
+                }
+                pending = new ArrayList<>(pendingWrites.values());
+                pendingWrites.clear();
+            }
+
+            List<PreferenceData> upserts = new ArrayList<>();
+            List<String> deletes = new ArrayList<>();
+            for (Preference preference : pending) {
+                String value = preference.get();
+                if (value == null) {
+                    deletes.add(preference.key);
+                } else {
+                    upserts.add(new PreferenceData(preference.key, value));
+                }
+            }
+
+            try {
+                Logger.verbose("Saving %s preferences, removing %s preferences", upserts.size(), deletes.size());
+                dao.write(upserts, deletes);
+                return true;
+            } catch (Exception e) {
+                Logger.error(e, "Failed to write preferences. Saving: %s Removing: %s", upserts.size(), deletes.size());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Marks the preference as needing to be written and schedules a flush.
+     *
+     * @param preference The preference.
+     */
+    private void onPreferenceDirty(@NonNull Preference preference) {
+        synchronized (pendingWrites) {
+            pendingWrites.put(preference.key, preference);
+            if (isFlushScheduled) {
+                return;
+            }
+
+            isFlushScheduled = true;
+            if (flushHandler == null) {
+                flushHandler = new Handler(AirshipLoopers.getBackgroundLooper());
+            }
+        }
+
+        flushHandler.postDelayed(flushRunnable, FLUSH_DELAY_MS);
+    }
+
+    /**
+     * Removes any pending write for the preference.
+     *
+     * @param preference The preference.
+     */
+    private void onPreferenceWritten(@NonNull Preference preference) {
+        synchronized (pendingWrites) {
+            pendingWrites.remove(preference.key);
+        }
+    }
+
     /**
      * Called when a preference changes in value.
      *
@@ -415,6 +525,9 @@ public final class PreferenceDataStore {
         private final String key;
         private String value;
 
+        // Parsed value, lazily created and cleared whenever the value changes
+        private JsonValue jsonValue;
+
         Preference(String key, String value) {
             this.key = key;
             this.value = value;
@@ -432,18 +545,41 @@ public final class PreferenceDataStore {
         }
 
         /**
-         * Put a new value for the preference.
+         * Get the current value of the preference as a {@link JsonValue}. The parsed value
+         * is cached until the preference value changes.
+         *
+         * @return The parsed value of the preference.
+         * @throws JsonException If the value is not valid JSON.
+         */
+        @NonNull
+        JsonValue getJsonValue() throws JsonException {
+            synchronized (this) {
+                if (jsonValue == null) {
+                    jsonValue = JsonValue.parseString(value);
+                }
+                return jsonValue;
+            }
+        }
+
+        /**
+         * Put a new value for the preference. The value will be written to the database
+         * with any other pending changes on the next flush.
          *
          * @param value Value of the preference.
          */
         void put(final String value) {
-            if (setValue(value)) {
-                executor.execute(new Runnable() {
-                    @Override
-                    public void run() {
-                        writeValue(value);
-                    }
-                });
+            put(value, null);
+        }
+
+        /**
+         * Put a new value for the preference along with its parsed JSON value.
+         *
+         * @param value Value of the preference.
+         * @param jsonValue The parsed value, or {@code null} to parse it on the next read.
+         */
+        void put(final String value, @Nullable JsonValue jsonValue) {
+            if (setValue(value, jsonValue)) {
+                onPreferenceDirty(this);
             }
         }
 
@@ -457,12 +593,16 @@ public final class PreferenceDataStore {
          * the database, otherwise <code>false</code>
          */
         boolean putSync(String value) {
-            synchronized (this) {
-                if (writeValue(value)) {
-                    setValue(value);
-                    return true;
+            // Hold the flush lock so a flush in progress can't overwrite the value
+            synchronized (flushLock) {
+                synchronized (this) {
+                    if (writeValue(value)) {
+                        setValue(value, null);
+                        onPreferenceWritten(this);
+                        return true;
+                    }
+                    return false;
                 }
-                return false;
             }
         }
 
@@ -471,14 +611,16 @@ public final class PreferenceDataStore {
          * method.
          *
          * @param value The value of the preference.
+         * @param jsonValue The parsed value, or {@code null} if not available.
          * @return {@code true} if the value changed, otherwise {@code false}.
          */
-        private boolean setValue(String value) {
+        private boolean setValue(String value, @Nullable JsonValue jsonValue) {
             synchronized (this) {
                 if (UAStringUtil.equals(value, this.value)) {
                     return false;
                 }
                 this.value = value;
+                this.jsonValue = jsonValue;
             }
             Logger.verbose("Preference updated: %s", key);
             onPreferenceChanged(key);
@@ -0,0 +1,56 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * A single item in a named queue.
+ *
+ * @hide
+ */
+@Entity(tableName = "queue_items", indices = { @Index(value = { "queue", "id" }) })
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class QueueData {
+
+    public QueueData(@NonNull String queue, @NonNull String value) {
+        this.queue = queue;
+        this.value = value;
+    }
+
+    @PrimaryKey(autoGenerate = true)
+    @ColumnInfo(name = "id")
+    protected long id;
+
+    @ColumnInfo(name = "queue")
+    @NonNull
+    protected String queue;
+
+    @ColumnInfo(name = "value")
+    @NonNull
+    protected String value;
+
+    @Ignore
+    public long getId() {
+        return id;
+    }
+
+    @Ignore
+    @NonNull
+    public String getQueue() {
+        return queue;
+    }
+
+    @Ignore
+    @NonNull
+    public String getValue() {
+        return value;
+    }
+
+}
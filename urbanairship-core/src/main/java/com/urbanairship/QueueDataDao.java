@@ -0,0 +1,76 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship;
+
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+/**
+ * Data Access Object for the queue items table.
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+@Dao
+public abstract class QueueDataDao {
+
+    @Insert
+    public abstract void insert(@NonNull QueueData entity);
+
+    @Insert
+    public abstract void insert(@NonNull List<QueueData> entities);
+
+    @Query("SELECT * FROM queue_items WHERE (queue == :queue) ORDER BY id ASC LIMIT :limit")
+    @NonNull
+    public abstract List<QueueData> peek(@NonNull String queue, int limit);
+
+    @Query("SELECT * FROM queue_items WHERE (queue == :queue) ORDER BY id ASC")
+    @NonNull
+    public abstract List<QueueData> getAll(@NonNull String queue);
+
+    @Query("SELECT COUNT(*) FROM queue_items WHERE (queue == :queue)")
+    public abstract int count(@NonNull String queue);
+
+    @Query("DELETE FROM queue_items WHERE (queue == :queue) AND (id <= :id)")
+    public abstract void deleteThrough(@NonNull String queue, long id);
+
+    @Query("DELETE FROM queue_items WHERE (queue == :queue)")
+    public abstract void deleteAll(@NonNull String queue);
+
+    /**
+     * Removes and returns the items at the head of the queue.
+     *
+     * @param queue The queue name.
+     * @param limit The max number of items to pop.
+     * @return The popped items in queue order.
+     */
+    @Transaction
+    @NonNull
+    public List<QueueData> pop(@NonNull String queue, int limit) {
+        List<QueueData> items = peek(queue, limit);
+        if (!items.isEmpty()) {
+            deleteThrough(queue, items.get(items.size() - 1).id);
+        }
+        return items;
+    }
+
+    /**
+     * Replaces all the items in the queue.
+     *
+     * @param queue The queue name.
+     * @param entities The new items.
+     */
+    @Transaction
+    public void replace(@NonNull String queue, @NonNull List<QueueData> entities) {
+        deleteAll(queue);
+        if (!entities.isEmpty()) {
+            insert(entities);
+        }
+    }
+
+}
@@ -28,6 +28,7 @@ import com.urbanairship.config.RemoteAirshipUrlConfigProvider;
 import com.urbanairship.contacts.Contact;
 import com.urbanairship.images.DefaultImageLoader;
 import com.urbanairship.images.ImageLoader;
+import com.urbanairship.job.JobDispatcher;
 import com.urbanairship.js.UrlAllowList;
 import com.urbanairship.locale.LocaleManager;
 import com.urbanairship.modules.Module;
@@ -373,7 +374,7 @@ public class UAirship {
 
             UAirship.application = application;
 
-            AirshipExecutors.threadPoolExecutor().execute(new Runnable() {
+            AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_UI_CRITICAL).execute(new Runnable() {
                 @Override
                 public void run() {
                     executeTakeOff(application, options, readyCallback);
@@ -696,6 +697,7 @@ public class UAirship {
 
         // Create and init the preference data store first
         this.preferenceDataStore = PreferenceDataStore.loadDataStore(getApplicationContext(), airshipConfigOptions);
+        JobDispatcher.shared(application).setDataStore(preferenceDataStore);
 
         this.privacyManager = new PrivacyManager(preferenceDataStore, airshipConfigOptions.enabledFeatures);
         this.privacyManager.migrateData();
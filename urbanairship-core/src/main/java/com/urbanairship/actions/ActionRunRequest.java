@@ -43,7 +43,7 @@ public class ActionRunRequest {
     private Action action;
     private ActionValue actionValue;
     private Bundle metadata;
-    private Executor executor = AirshipExecutors.threadPoolExecutor();
+    private Executor executor = AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_UI_CRITICAL);
     private @Action.Situation
     int situation = Action.SITUATION_MANUAL_INVOCATION;
 
@@ -169,7 +169,7 @@ public class ActionRunRequest {
     }
 
     /**
-     * Sets the executor.
+     * Sets the executor used to run the action asynchronously.
      *
      * @param executor The executor.
      * @return The request object.
@@ -183,7 +183,8 @@ public class ActionRunRequest {
     }
 
     /**
-     * Executes the action synchronously.
+     * Executes the action synchronously. Actions that do not need the main thread run on the
+     * calling thread.
      *
      * @return The action's result.
      */
@@ -200,12 +201,14 @@ public class ActionRunRequest {
             }
         };
 
-        if (shouldRunOnMain(arguments)) {
-            new Handler(Looper.getMainLooper()).post(runnable);
-        } else {
-            executor.execute(runnable);
+        if (!shouldRunOnMain(arguments)) {
+            // The caller is already a worker thread, blocking it on the executor would hold two threads
+            runnable.run();
+            return runnable.result;
         }
 
+        new Handler(Looper.getMainLooper()).post(runnable);
+
         try {
             semaphore.acquire();
         } catch (InterruptedException ex) {
@@ -56,7 +56,7 @@ public class WalletLoadingActivity extends ThemedActivity {
     }
 
     private void resolveWalletUrl(@NonNull final Uri url) {
-        AirshipExecutors.threadPoolExecutor().submit(new Runnable() {
+        AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_BLOCKING).submit(new Runnable() {
 
             @Override
             public void run() {
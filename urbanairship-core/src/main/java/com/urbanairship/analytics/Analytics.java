@@ -334,12 +334,8 @@ public class Analytics extends AirshipComponent {
 
         Logger.verbose("Adding event: %s", event.getType());
 
-        executor.execute(new Runnable() {
-            @Override
-            public void run() {
-                eventManager.addEvent(event, sessionId);
-            }
-        });
+        // Does not block, events are batched and stored in the background
+        eventManager.addEvent(event, sessionId);
 
         applyListeners(event);
     }
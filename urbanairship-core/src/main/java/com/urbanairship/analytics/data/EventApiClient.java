@@ -11,12 +11,7 @@ import com.urbanairship.http.RequestException;
 import com.urbanairship.http.RequestFactory;
 import com.urbanairship.http.Response;
 import com.urbanairship.http.ResponseParser;
-import com.urbanairship.json.JsonException;
-import com.urbanairship.json.JsonList;
-import com.urbanairship.json.JsonValue;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
@@ -58,14 +53,16 @@ public class EventApiClient {
     }
 
     /**
-     * Sends a collection of events.
+     * Sends a batch of events.
      *
-     * @param events Specified events
+     * @param payload The gzipped JSON array of events.
+     * @param eventCount The number of events in the payload.
      * @param headers Headers
      * @return eventResponse
      */
     @NonNull
-    Response<EventResponse> sendEvents(@NonNull List<JsonValue> events,
+    Response<EventResponse> sendEvents(@NonNull byte[] payload,
+                                       int eventCount,
                                        @NonNull @Size(min=1) Map<String, String> headers) throws RequestException {
 
         Uri url = runtimeConfig.getUrlConfig()
@@ -73,18 +70,16 @@ public class EventApiClient {
                                .appendEncodedPath(WARP9_PATH)
                                .build();
 
-        String payload = JsonValue.wrapOpt(events).toString();
         double sentAt = System.currentTimeMillis() / 1000.0;
 
         Request request = requestFactory.createRequest()
                                         .setOperation("POST", url)
-                                        .setRequestBody(payload, "application/json")
-                                        .setCompressRequestBody(true)
+                                        .setCompressedRequestBody(payload, "application/json")
                                         .setHeader("X-UA-Sent-At", String.format(Locale.US, "%.3f", sentAt))
                                         .setAirshipUserAgent(runtimeConfig)
                                         .addHeaders(headers);
 
-        Logger.debug("Sending analytics events. Request: %s Events: %s", request, events);
+        Logger.debug("Sending analytics events. Request: %s Events: %d Compressed size: %d", request, eventCount, payload.length);
         Response<EventResponse> response = request.execute(new ResponseParser<EventResponse>() {
             @Override
             public EventResponse parseResponse(int status, @Nullable Map<String, List<String>> headers, @Nullable String responseBody) {
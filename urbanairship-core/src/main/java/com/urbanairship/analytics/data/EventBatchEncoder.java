@@ -0,0 +1,154 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.analytics.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Encodes events into a gzipped JSON array one event at a time, so a batch never has to be
+ * built as a single String.
+ * <p>
+ * Events are added until the compressed payload would go over the max size. The compressed size
+ * is estimated from the bytes the deflater has written so far plus the raw size of any data it has
+ * not flushed yet, which never underestimates. The deflater is only flushed to get the exact size
+ * when the estimate reaches the limit.
+ */
+class EventBatchEncoder {
+
+    /**
+     * Deflate block marker, gzip trailer and closing bracket.
+     */
+    private static final int FINISH_OVERHEAD_BYTES = 16;
+
+    /**
+     * Worst case deflate overhead for data that does not compress, per stored block.
+     */
+    private static final int BLOCK_OVERHEAD_BYTES = 5;
+    private static final int MAX_STORED_BLOCK_SIZE = 65535;
+
+    private static final byte[] ARRAY_START = { '[' };
+    private static final byte[] ARRAY_END = { ']' };
+    private static final byte[] SEPARATOR = { ',' };
+
+    private final int maxCompressedSize;
+    private final int maxEventCount;
+
+    private final ByteArrayOutputStream output;
+    private final GZIPOutputStream gzipOutputStream;
+
+    private int eventCount;
+    private int minId = Integer.MAX_VALUE;
+    private int maxId = Integer.MIN_VALUE;
+    private long unflushedBytes;
+
+    /**
+     * Default constructor.
+     *
+     * @param maxCompressedSize The max size of the compressed payload in bytes.
+     * @param maxEventCount The max number of events.
+     * @throws IOException If the encoder failed to initialize.
+     */
+    EventBatchEncoder(int maxCompressedSize, int maxEventCount) throws IOException {
+        this.maxCompressedSize = maxCompressedSize;
+        this.maxEventCount = maxEventCount;
+        this.output = new ByteArrayOutputStream();
+        this.gzipOutputStream = new GZIPOutputStream(output, true);
+        write(ARRAY_START);
+    }
+
+    /**
+     * Adds an event to the batch. The first event is always added so an event larger than
+     * the max size does not block the events behind it.
+     *
+     * @param id The event's row ID.
+     * @param data The event's JSON payload.
+     * @return {@code true} if the event was added, {@code false} if the batch is full.
+     * @throws IOException If the event failed to encode.
+     */
+    boolean add(int id, @NonNull String data) throws IOException {
+        if (eventCount >= maxEventCount) {
+            return false;
+        }
+
+        byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+        if (eventCount > 0) {
+            int addedBytes = bytes.length + SEPARATOR.length;
+            if (estimatedSize(addedBytes) > maxCompressedSize) {
+                flush();
+                if (estimatedSize(addedBytes) > maxCompressedSize) {
+                    return false;
+                }
+            }
+
+            write(SEPARATOR);
+        }
+
+        write(bytes);
+        eventCount++;
+        minId = Math.min(minId, id);
+        maxId = Math.max(maxId, id);
+        return true;
+    }
+
+    /**
+     * Finishes the batch.
+     *
+     * @return The gzipped JSON array of events.
+     * @throws IOException If the payload failed to encode.
+     */
+    @NonNull
+    byte[] finish() throws IOException {
+        write(ARRAY_END);
+        gzipOutputStream.close();
+        return output.toByteArray();
+    }
+
+    /**
+     * Gets the number of events in the batch.
+     *
+     * @return The event count.
+     */
+    int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * Gets the lowest row ID in the batch.
+     *
+     * @return The min row ID.
+     */
+    int getMinId() {
+        return minId;
+    }
+
+    /**
+     * Gets the highest row ID in the batch.
+     *
+     * @return The max row ID.
+     */
+    int getMaxId() {
+        return maxId;
+    }
+
+    private long estimatedSize(int addedBytes) {
+        long pending = unflushedBytes + addedBytes;
+        long blockOverhead = (pending / MAX_STORED_BLOCK_SIZE) * BLOCK_OVERHEAD_BYTES;
+        return output.size() + pending + blockOverhead + FINISH_OVERHEAD_BYTES;
+    }
+
+    private void write(@NonNull byte[] bytes) throws IOException {
+        gzipOutputStream.write(bytes);
+        unflushedBytes += bytes.length;
+    }
+
+    private void flush() throws IOException {
+        gzipOutputStream.flush();
+        unflushedBytes = 0;
+    }
+
+}
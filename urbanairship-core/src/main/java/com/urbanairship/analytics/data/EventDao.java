@@ -3,6 +3,7 @@ package com.urbanairship.analytics.data;
 import com.urbanairship.Logger;
 import com.urbanairship.util.UAStringUtil;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import androidx.annotation.RestrictTo;
@@ -23,23 +24,43 @@ public abstract class EventDao {
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     public abstract void insert(EventEntity event);
 
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    public abstract void insert(List<EventEntity> events);
+
     @Transaction
     @Query("SELECT * FROM events ORDER BY id ASC")
     public abstract List<EventEntity> get();
 
+    /**
+     * Gets the next page of events after the given row ID, with the event JSON as stored.
+     *
+     * @param afterId Only events with a higher row ID are returned.
+     * @param limit The max number of events.
+     * @return The events in row order.
+     */
     @Transaction
-    @Query("SELECT id, eventId, data FROM events ORDER BY id ASC LIMIT :limit")
-    public abstract List<EventEntity.EventIdAndData> getBatch(int limit);
-
+    @Query("SELECT id, data FROM events WHERE id > :afterId ORDER BY id ASC LIMIT :limit")
+    public abstract List<EventEntity.EventIdAndRawData> getRawBatch(int afterId, int limit);
+
+    /**
+     * Deletes all events in the row ID range.
+     *
+     * @param minId The min row ID, inclusive.
+     * @param maxId The max row ID, inclusive.
+     * @return The total size of the deleted events.
+     */
     @Transaction
-    public void deleteBatch(List<EventEntity.EventIdAndData> events) {
-        for (EventEntity.EventIdAndData event : events) {
-            delete(event.eventId);
-        }
+    public int deleteBatch(int minId, int maxId) {
+        int deletedSize = databaseSize(minId, maxId);
+        deleteRange(minId, maxId);
+        return deletedSize;
     }
 
-    @Query("DELETE FROM events WHERE eventId = :eventId")
-    abstract void delete(String eventId);
+    @Query("SELECT IFNULL(SUM(eventSize), 0) FROM events WHERE id >= :minId AND id <= :maxId")
+    abstract int databaseSize(int minId, int maxId);
+
+    @Query("DELETE FROM events WHERE id >= :minId AND id <= :maxId")
+    abstract int deleteRange(int minId, int maxId);
 
     @Delete()
     public abstract void delete(EventEntity... events);
@@ -53,28 +74,48 @@ public abstract class EventDao {
     @Query("SELECT SUM(eventSize) FROM events")
     public abstract int databaseSize();
 
-    @Query("SELECT sessionId FROM events ORDER BY id ASC LIMIT 1")
-    abstract String oldestSessionId();
+    @Query("SELECT sessionId, SUM(eventSize) AS size FROM events GROUP BY sessionId ORDER BY MIN(id) ASC")
+    abstract List<EventEntity.SessionSize> sessionSizes();
+
+    @Query("DELETE FROM events WHERE sessionId IN (:sessionIds)")
+    abstract int deleteSessions(List<String> sessionIds);
+
+    /**
+     * Deletes the oldest sessions until the database is under the max size.
+     * <p>
+     * The session sizes are read in a single query and all the sessions that need to be removed
+     * are deleted together.
+     *
+     * @param maxDatabaseSize The max database size.
+     * @return The database size after trimming.
+     */
+    @Transaction
+    public int trimDatabase(int maxDatabaseSize) {
+        List<EventEntity.SessionSize> sessions = sessionSizes();
 
-    @Query("DELETE FROM events WHERE sessionId = :sessionId")
-    abstract int deleteSession(String sessionId);
+        int size = 0;
+        for (EventEntity.SessionSize session : sessions) {
+            size += session.size;
+        }
 
-    @Transaction
-    public void trimDatabase(int maxDatabaseSize) {
-        while (databaseSize() > maxDatabaseSize) {
-            String sessionId = oldestSessionId();
-            if (UAStringUtil.isEmpty(sessionId)) {
-                return;
+        List<String> sessionIds = new ArrayList<>();
+        for (EventEntity.SessionSize session : sessions) {
+            if (size <= maxDatabaseSize || UAStringUtil.isEmpty(session.sessionId)) {
+                break;
             }
 
-            Logger.debug("Event database size exceeded. Deleting oldest session: %s", sessionId);
-
-            int deleted = deleteSession(sessionId);
-            Logger.debug("Deleted %d rows with session ID %s", deleted, sessionId);
+            Logger.debug("Event database size exceeded. Deleting oldest session: %s", session.sessionId);
+            sessionIds.add(session.sessionId);
+            size -= session.size;
+        }
 
-            if (deleted == 0) {
-                return;
-            }
+        if (!sessionIds.isEmpty()) {
+            BatchedQueryHelper.runBatched(sessionIds, batch -> {
+                int deleted = deleteSessions(batch);
+                Logger.debug("Deleted %d rows with session IDs %s", deleted, batch);
+            });
         }
+
+        return size;
     }
 }
@@ -104,17 +104,28 @@ public class EventEntity {
     }
 
     /**
-     * Minimal wrapper for queries that only need to return the event ID and data fields.
+     * Minimal wrapper for queries that return the stored event JSON without parsing it.
      */
-    public static class EventIdAndData {
+    public static class EventIdAndRawData {
         public int id;
-        public String eventId;
-        public JsonValue data;
+        public String data;
 
-        public EventIdAndData(int id, String eventId, JsonValue data) {
+        public EventIdAndRawData(int id, String data) {
             this.id = id;
-            this.eventId = eventId;
             this.data = data;
         }
     }
+
+    /**
+     * Total event size for a session.
+     */
+    public static class SessionSize {
+        public String sessionId;
+        public int size;
+
+        public SessionSize(String sessionId, int size) {
+            this.sessionId = sessionId;
+            this.size = size;
+        }
+    }
 }
@@ -0,0 +1,144 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.analytics.data;
+
+import com.urbanairship.analytics.Event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Bounded lock-free ring buffer for events waiting to be stored.
+ * <p>
+ * Any thread can add events without blocking. A single consumer takes them out in order and
+ * stores them in batches. Each slot has a sequence number that tells producers and the consumer
+ * whether the slot is free or filled for the current lap around the ring.
+ * <p>
+ * When the buffer fills up, low priority events are turned away first so there is always room
+ * left for normal and high priority events.
+ */
+class EventIngestionBuffer {
+
+    /**
+     * An event with the session it was added in.
+     */
+    static final class PendingEvent {
+
+        final Event event;
+        final String sessionId;
+
+        PendingEvent(@NonNull Event event, @NonNull String sessionId) {
+            this.event = event;
+            this.sessionId = sessionId;
+        }
+
+    }
+
+    private final int mask;
+    private final int lowPriorityLimit;
+    private final AtomicReferenceArray<PendingEvent> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Default constructor.
+     *
+     * @param capacity The max number of events. Must be a power of two.
+     * @param lowPriorityLimit The max number of events when adding a low priority event.
+     */
+    EventIngestionBuffer(int capacity, int lowPriorityLimit) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+
+        this.mask = capacity - 1;
+        this.lowPriorityLimit = Math.min(lowPriorityLimit, capacity);
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Adds an event. Safe to call from any thread.
+     *
+     * @param event The event.
+     * @param sessionId The session ID.
+     * @return {@code true} if the event was added, {@code false} if the buffer is full.
+     */
+    boolean offer(@NonNull Event event, @NonNull String sessionId) {
+        if (event.getPriority() == Event.LOW_PRIORITY && size() >= lowPriorityLimit) {
+            return false;
+        }
+
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, new PendingEvent(event, sessionId));
+                    // Publish the slot to the consumer
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // Slot still holds an event from the previous lap
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Takes the oldest event. Must only be called by a single consumer at a time.
+     *
+     * @return The oldest event, or {@code null} if the buffer is empty.
+     */
+    @Nullable
+    PendingEvent poll() {
+        long position = head.get();
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            // Empty, or the producer has claimed the slot but not published it yet
+            return null;
+        }
+
+        PendingEvent pendingEvent = slots.get(index);
+        slots.set(index, null);
+        head.set(position + 1);
+
+        // Free the slot for the next lap
+        sequences.set(index, position + mask + 1);
+        return pendingEvent;
+    }
+
+    /**
+     * Removes all events.
+     */
+    void clear() {
+        while (poll() != null) {
+            // Drop
+        }
+    }
+
+    /**
+     * Gets the approximate number of events in the buffer.
+     *
+     * @return The number of events.
+     */
+    int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, mask + 1));
+    }
+
+}
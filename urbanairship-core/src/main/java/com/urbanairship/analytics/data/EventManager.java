@@ -2,6 +2,7 @@ package com.urbanairship.analytics.data;
 
 import android.content.Context;
 
+import com.urbanairship.AirshipExecutors;
 import com.urbanairship.Logger;
 import com.urbanairship.PreferenceDataStore;
 import com.urbanairship.analytics.Analytics;
@@ -14,14 +15,19 @@ import com.urbanairship.http.Response;
 import com.urbanairship.job.JobDispatcher;
 import com.urbanairship.job.JobInfo;
 import com.urbanairship.json.JsonException;
-import com.urbanairship.json.JsonValue;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
@@ -48,6 +54,26 @@ public class EventManager {
      */
     private static final int MAX_BATCH_EVENT_COUNT = 500;
 
+    /**
+     * Number of events read from the database at a time when encoding a batch.
+     */
+    private static final int BATCH_PAGE_SIZE = 50;
+
+    /**
+     * Max number of events waiting to be stored. Must be a power of two.
+     */
+    private static final int INGESTION_BUFFER_CAPACITY = 512;
+
+    /**
+     * Low priority events are dropped once this many events are waiting to be stored.
+     */
+    private static final int INGESTION_BUFFER_LOW_PRIORITY_LIMIT = 256;
+
+    /**
+     * Max number of events stored in a single transaction.
+     */
+    private static final int INGESTION_BATCH_SIZE = 100;
+
     /**
      * Batch delay for low priority events in milliseconds.
      */
@@ -74,17 +100,33 @@ public class EventManager {
     private final EventDao eventDao;
     private final EventApiClient apiClient;
     private final AirshipRuntimeConfig runtimeConfig;
+    private final Executor executor;
+    private final EventIngestionBuffer ingestionBuffer = new EventIngestionBuffer(INGESTION_BUFFER_CAPACITY, INGESTION_BUFFER_LOW_PRIORITY_LIMIT);
+
+    /**
+     * Normal and high priority events that did not fit in the ingestion buffer. These are never
+     * dropped.
+     */
+    private final Queue<EventIngestionBuffer.PendingEvent> overflowEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean isDrainScheduled = new AtomicBoolean(false);
 
     private final Object eventLock = new Object();
     private final Object scheduleLock = new Object();
 
     private boolean isScheduled;
 
+    /**
+     * Running total of the event sizes in the database, or -1 if it has not been read yet.
+     * Guarded by the event lock.
+     */
+    private int databaseSize = -1;
+
     public EventManager(@NonNull Context context,
                         @NonNull PreferenceDataStore preferenceDataStore,
                         @NonNull AirshipRuntimeConfig runtimeConfig) {
         this(preferenceDataStore, runtimeConfig, JobDispatcher.shared(context), GlobalActivityMonitor.shared(context),
-                AnalyticsDatabase.createDatabase(context, runtimeConfig).getEventDao(), new EventApiClient(runtimeConfig));
+                AnalyticsDatabase.createDatabase(context, runtimeConfig).getEventDao(), new EventApiClient(runtimeConfig),
+                AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_DISK));
     }
 
     @VisibleForTesting
@@ -93,7 +135,8 @@ public class EventManager {
                  @NonNull JobDispatcher jobDispatcher,
                  @NonNull ActivityMonitor activityMonitor,
                  @NonNull EventDao eventDao,
-                 @NonNull EventApiClient apiClient) {
+                 @NonNull EventApiClient apiClient,
+                 @NonNull Executor executor) {
 
         this.preferenceDataStore = preferenceDataStore;
         this.runtimeConfig = runtimeConfig;
@@ -101,7 +144,7 @@ public class EventManager {
         this.activityMonitor = activityMonitor;
         this.eventDao = eventDao;
         this.apiClient = apiClient;
-
+        this.executor = executor;
     }
 
     /**
@@ -148,30 +191,111 @@ public class EventManager {
     }
 
     /**
-     * Adds an event.
+     * Adds an event. Safe to call from any thread, the event is stored in the background together
+     * with any other events added around the same time.
      *
      * @param event The event.
      * @param sessionId The event's session ID.
      */
-    @WorkerThread
     public void addEvent(@NonNull Event event, @NonNull String sessionId) {
-        EventEntity entity;
-        try {
-            entity = EventEntity.create(event, sessionId);
-        } catch (JsonException e) {
-            Logger.error(e, "Analytics - Invalid event: %s", event);
-            return;
+        if (!ingestionBuffer.offer(event, sessionId)) {
+            if (event.getPriority() == Event.LOW_PRIORITY) {
+                Logger.warn("Analytics - Too many pending events, dropping low priority event: %s", event.getType());
+                return;
+            }
+
+            overflowEvents.add(new EventIngestionBuffer.PendingEvent(event, sessionId));
         }
 
+        if (isDrainScheduled.compareAndSet(false, true)) {
+            executor.execute(this::storePendingEvents);
+        }
+    }
+
+    /**
+     * Stores the events waiting in the ingestion buffer, one transaction per batch, and schedules
+     * a single upload for the highest priority event stored.
+     */
+    @WorkerThread
+    private void storePendingEvents() {
+        // Cleared before draining so any event added after this point schedules another drain
+        isDrainScheduled.set(false);
+
+        int highestPriority = -1;
+        while (true) {
+            int priority = storeNextBatch();
+            if (priority < 0) {
+                break;
+            }
+            highestPriority = Math.max(highestPriority, priority);
+        }
+
+        if (highestPriority >= 0) {
+            scheduleEventUpload(highestPriority);
+        }
+    }
+
+    /**
+     * Stores the next batch of events from the ingestion buffer.
+     *
+     * @return The highest priority of the stored events, or -1 if no events were stored.
+     */
+    @WorkerThread
+    private int storeNextBatch() {
         synchronized (eventLock) {
-            eventDao.insert(entity);
+            List<EventEntity> entities = new ArrayList<>();
+            int batchSize = 0;
+            int highestPriority = -1;
+
+            EventIngestionBuffer.PendingEvent pendingEvent;
+            while (entities.size() < INGESTION_BATCH_SIZE && (pendingEvent = pollPendingEvent()) != null) {
+                try {
+                    EventEntity entity = EventEntity.create(pendingEvent.event, pendingEvent.sessionId);
+                    entities.add(entity);
+                    batchSize += entity.eventSize;
+                    highestPriority = Math.max(highestPriority, pendingEvent.event.getPriority());
+                } catch (JsonException e) {
+                    Logger.error(e, "Analytics - Invalid event: %s", pendingEvent.event);
+                }
+            }
+
+            if (entities.isEmpty()) {
+                return -1;
+            }
+
+            int size = getDatabaseSize();
+            eventDao.insert(entities);
+            databaseSize = size + batchSize;
 
             // Handle database max size exceeded
             int maxSize = preferenceDataStore.getInt(MAX_TOTAL_DB_SIZE_KEY, EventResponse.MAX_TOTAL_DB_SIZE_BYTES);
-            eventDao.trimDatabase(maxSize);
+            if (databaseSize > maxSize) {
+                databaseSize = eventDao.trimDatabase(maxSize);
+            }
+
+            return highestPriority;
         }
+    }
+
+    /**
+     * Takes the next event waiting to be stored, from the ingestion buffer first and then from
+     * the overflow queue.
+     *
+     * @return The next event, or {@code null} if no events are waiting.
+     */
+    @Nullable
+    private EventIngestionBuffer.PendingEvent pollPendingEvent() {
+        EventIngestionBuffer.PendingEvent pendingEvent = ingestionBuffer.poll();
+        return pendingEvent != null ? pendingEvent : overflowEvents.poll();
+    }
 
-        switch (event.getPriority()) {
+    /**
+     * Schedules an upload for a newly stored event.
+     *
+     * @param priority The event priority.
+     */
+    private void scheduleEventUpload(@Event.Priority int priority) {
+        switch (priority) {
             case Event.HIGH_PRIORITY:
                 scheduleEventUpload(HIGH_PRIORITY_BATCH_DELAY, TimeUnit.MILLISECONDS);
                 break;
@@ -201,10 +325,62 @@ public class EventManager {
     @WorkerThread
     public void deleteEvents() {
         synchronized (eventLock) {
+            ingestionBuffer.clear();
+            overflowEvents.clear();
             eventDao.deleteAll();
+            databaseSize = 0;
         }
     }
 
+    /**
+     * Encodes the oldest events into a compressed batch. Events are read a page at a time and
+     * added until the compressed batch reaches the max batch size or the max event count.
+     *
+     * @return The batch encoder.
+     * @throws IOException If the events failed to encode.
+     */
+    @NonNull
+    @WorkerThread
+    private EventBatchEncoder encodeBatch() throws IOException {
+        int maxBatchSize = preferenceDataStore.getInt(MAX_BATCH_SIZE_KEY, EventResponse.MAX_BATCH_SIZE_BYTES);
+        EventBatchEncoder encoder = new EventBatchEncoder(maxBatchSize, MAX_BATCH_EVENT_COUNT);
+
+        int lastId = -1;
+        while (true) {
+            List<EventEntity.EventIdAndRawData> page;
+            synchronized (eventLock) {
+                page = eventDao.getRawBatch(lastId, BATCH_PAGE_SIZE);
+            }
+
+            for (EventEntity.EventIdAndRawData event : page) {
+                if (!encoder.add(event.id, event.data)) {
+                    return encoder;
+                }
+                lastId = event.id;
+            }
+
+            if (page.size() < BATCH_PAGE_SIZE) {
+                return encoder;
+            }
+        }
+    }
+
+    /**
+     * Gets the total size of the events in the database. The size is only read from the database
+     * once and then kept up to date as events are added and removed.
+     * <p>
+     * Must be called with the event lock held.
+     *
+     * @return The database size in bytes.
+     */
+    @WorkerThread
+    private int getDatabaseSize() {
+        if (databaseSize < 0) {
+            databaseSize = eventDao.databaseSize();
+        }
+        return databaseSize;
+    }
+
     /**
      * Gets the next upload delay in milliseconds. The next upload delay is calculated by the following:
      * Max(0, (Last Send Time + MIN_BATCH_INTERVAL) - Current Time)
@@ -232,35 +408,32 @@ public class EventManager {
         }
 
         int eventCount;
-        List<EventEntity.EventIdAndData> events;
-
         synchronized (eventLock) {
             eventCount = eventDao.count();
+        }
 
-            if (eventCount <= 0) {
-                Logger.debug("No events to send.");
-                return true;
-            }
-
-            final int avgSize = Math.max(1, eventDao.databaseSize() / eventCount);
-
-            //pull enough events to fill a batch (roughly)
-            int batchEventCount = Math.min(MAX_BATCH_EVENT_COUNT, preferenceDataStore.getInt(MAX_BATCH_SIZE_KEY, EventResponse.MAX_BATCH_SIZE_BYTES) / avgSize);
-            events = eventDao.getBatch(batchEventCount);
+        if (eventCount <= 0) {
+            Logger.debug("No events to send.");
+            return true;
         }
 
-        if (events.isEmpty()) {
-            Logger.verbose("No analytics events to send.");
+        EventBatchEncoder batch;
+        byte[] payload;
+        try {
+            batch = encodeBatch();
+            payload = batch.finish();
+        } catch (IOException e) {
+            Logger.error(e, "EventManager - Failed to encode events");
             return false;
         }
 
-        List<JsonValue> eventPayloads = new ArrayList<>(events.size());
-        for (EventEntity.EventIdAndData event : events) {
-            eventPayloads.add(event.data);
+        if (batch.getEventCount() == 0) {
+            Logger.verbose("No analytics events to send.");
+            return false;
         }
 
         try {
-            Response<EventResponse> response = apiClient.sendEvents(eventPayloads, headers);
+            Response<EventResponse> response = apiClient.sendEvents(payload, batch.getEventCount(), headers);
             if (!response.isSuccessful()) {
                 Logger.debug("Analytic upload failed.");
                 return false;
@@ -268,7 +441,8 @@ public class EventManager {
 
             Logger.debug("Analytic events uploaded.");
             synchronized (eventLock) {
-                eventDao.deleteBatch(events);
+                int deletedSize = eventDao.deleteBatch(batch.getMinId(), batch.getMaxId());
+                databaseSize = Math.max(0, getDatabaseSize() - deletedSize);
             }
 
             // Update preferences
@@ -277,7 +451,7 @@ public class EventManager {
             preferenceDataStore.put(MIN_BATCH_INTERVAL_KEY, response.getResult().getMinBatchInterval());
 
             // If there are still events left, schedule the next send
-            if (eventCount - events.size() > 0) {
+            if (eventCount - batch.getEventCount() > 0) {
                 scheduleEventUpload(MULTIPLE_BATCH_DELAY, TimeUnit.MILLISECONDS);
             }
 
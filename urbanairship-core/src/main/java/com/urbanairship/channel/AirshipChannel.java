@@ -102,6 +102,11 @@ public class AirshipChannel extends AirshipComponent {
     private final List<ChannelRegistrationPayloadExtender> channelRegistrationPayloadExtenders = new CopyOnWriteArrayList<>();
 
     private final Object tagLock = new Object();
+    private final Object lastRegistrationPayloadLock = new Object();
+
+    @Nullable
+    private ChannelRegistrationPayload lastRegistrationPayload;
+    private boolean isLastRegistrationPayloadLoaded;
 
     private final TagGroupRegistrar tagGroupRegistrar;
     private final AttributeRegistrar attributeRegistrar;
@@ -617,7 +622,7 @@ public class AirshipChannel extends AirshipComponent {
             result.setResult(cachedSubscriptions);
         } else {
             // Otherwise, fetch the current subscriptions over the network and update the cache.
-            AirshipExecutors.threadPoolExecutor().submit(new Runnable() {
+            AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_NETWORK).submit(new Runnable() {
                 @Override
                 public void run() {
                     Set<String> fetchedSubscriptions = subscriptionListRegistrar.fetchChannelSubscriptionLists();
@@ -838,28 +843,42 @@ public class AirshipChannel extends AirshipComponent {
      *
      * @param channelPayload A ChannelRegistrationPayload.
      */
-    private void setLastRegistrationPayload(ChannelRegistrationPayload channelPayload) {
-        getDataStore().put(LAST_REGISTRATION_PAYLOAD_KEY, channelPayload);
-        getDataStore().put(LAST_REGISTRATION_TIME_KEY, System.currentTimeMillis());
+    private void setLastRegistrationPayload(@Nullable ChannelRegistrationPayload channelPayload) {
+        synchronized (lastRegistrationPayloadLock) {
+            getDataStore().put(LAST_REGISTRATION_PAYLOAD_KEY, channelPayload);
+            getDataStore().put(LAST_REGISTRATION_TIME_KEY, System.currentTimeMillis());
+            lastRegistrationPayload = channelPayload;
+            isLastRegistrationPayloadLoaded = true;
+        }
     }
 
     /**
-     * Gets the last registration payload
+     * Gets the last registration payload. The payload is only parsed from the data store once.
      *
      * @return a ChannelRegistrationPayload
      */
     @Nullable
     private ChannelRegistrationPayload getLastRegistrationPayload() {
-        JsonValue jsonValue = getDataStore().getJsonValue(LAST_REGISTRATION_PAYLOAD_KEY);
-        if (jsonValue.isNull()) {
-            return null;
-        }
+        synchronized (lastRegistrationPayloadLock) {
+            if (isLastRegistrationPayloadLoaded) {
+                return lastRegistrationPayload;
+            }
 
-        try {
-            return ChannelRegistrationPayload.fromJson(jsonValue);
-        } catch (JsonException e) {
-            Logger.error(e, "AirshipChannel - Failed to parse payload from JSON.");
-            return null;
+            isLastRegistrationPayloadLoaded = true;
+            JsonValue jsonValue = getDataStore().getJsonValue(LAST_REGISTRATION_PAYLOAD_KEY);
+            if (jsonValue.isNull()) {
+                lastRegistrationPayload = null;
+                return null;
+            }
+
+            try {
+                lastRegistrationPayload = ChannelRegistrationPayload.fromJson(jsonValue);
+            } catch (JsonException e) {
+                Logger.error(e, "AirshipChannel - Failed to parse payload from JSON.");
+                lastRegistrationPayload = null;
+            }
+
+            return lastRegistrationPayload;
         }
     }
 
@@ -5,7 +5,7 @@ package com.urbanairship.channel;
 import com.urbanairship.PreferenceDataStore;
 import com.urbanairship.json.JsonSerializable;
 import com.urbanairship.json.JsonValue;
-import com.urbanairship.util.JsonDataStoreQueue;
+import com.urbanairship.util.JsonDatabaseQueue;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -13,7 +13,7 @@ import java.util.List;
 
 import androidx.arch.core.util.Function;
 
-class PendingAttributeMutationStore extends JsonDataStoreQueue<List<AttributeMutation>> {
+class PendingAttributeMutationStore extends JsonDatabaseQueue<List<AttributeMutation>> {
 
     /**
      * Default constructor.
@@ -3,7 +3,7 @@ package com.urbanairship.channel;
 import com.urbanairship.PreferenceDataStore;
 import com.urbanairship.json.JsonSerializable;
 import com.urbanairship.json.JsonValue;
-import com.urbanairship.util.JsonDataStoreQueue;
+import com.urbanairship.util.JsonDatabaseQueue;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -12,7 +12,7 @@ import java.util.List;
 import androidx.annotation.NonNull;
 import androidx.arch.core.util.Function;
 
-public class PendingSubscriptionListMutationStore extends JsonDataStoreQueue<List<SubscriptionListMutation>> {
+public class PendingSubscriptionListMutationStore extends JsonDatabaseQueue<List<SubscriptionListMutation>> {
 
     /**
      * Default constructor.
@@ -5,7 +5,7 @@ package com.urbanairship.channel;
 import com.urbanairship.PreferenceDataStore;
 import com.urbanairship.json.JsonSerializable;
 import com.urbanairship.json.JsonValue;
-import com.urbanairship.util.JsonDataStoreQueue;
+import com.urbanairship.util.JsonDatabaseQueue;
 
 import java.util.List;
 
@@ -14,7 +14,7 @@ import androidx.arch.core.util.Function;
 /**
  * Helper class to manage pending tag group mutations.
  */
-class PendingTagGroupMutationStore extends JsonDataStoreQueue<TagGroupsMutation> {
+class PendingTagGroupMutationStore extends JsonDatabaseQueue<TagGroupsMutation> {
 
     /**
      * Default constructor.
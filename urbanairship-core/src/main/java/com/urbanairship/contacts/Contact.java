@@ -1201,7 +1201,7 @@ public class Contact extends AirshipComponent {
             result.setResult(cachedSubscriptions);
         } else {
             // Otherwise, fetch the current subscriptions over the network and update the cache.
-            AirshipExecutors.threadPoolExecutor().submit(() -> {
+            AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_NETWORK).submit(() -> {
                 try {
                     Response<Map<String, Set<Scope>>> response = contactApiClient.getSubscriptionLists(contactId);
                     if (response.isSuccessful()) {
@@ -0,0 +1,34 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import java.net.URL;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.WorkerThread;
+
+/**
+ * Sends a {@link Request} over the network. Requests get their transport from the
+ * {@link RequestFactory} that created them.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public interface HttpTransport {
+
+    /**
+     * Performs the request.
+     *
+     * @param request The request.
+     * @param url The request URL.
+     * @param parser The response parser.
+     * @param <T> The result type.
+     * @return The response.
+     * @throws Exception If the request or parsing failed.
+     */
+    @NonNull
+    @WorkerThread
+    <T> Response<T> execute(@NonNull Request request, @NonNull URL url, @NonNull StreamingResponseParser<T> parser) throws Exception;
+
+}
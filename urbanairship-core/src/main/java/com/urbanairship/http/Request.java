@@ -3,31 +3,19 @@
 package com.urbanairship.http;
 
 import android.net.Uri;
-import android.util.Base64;
 
-import com.urbanairship.Logger;
 import com.urbanairship.UAirship;
 import com.urbanairship.config.AirshipRuntimeConfig;
 import com.urbanairship.json.JsonSerializable;
-import com.urbanairship.util.ConnectionUtils;
 import com.urbanairship.util.PlatformUtils;
-import com.urbanairship.util.UAStringUtil;
 
-import java.io.BufferedReader;
-import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.io.Writer;
-import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.zip.GZIPOutputStream;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -41,8 +29,6 @@ import androidx.annotation.RestrictTo;
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class Request {
 
-    private static final int NETWORK_TIMEOUT_MS = 60000;
-
     private static final ResponseParser<Void> EMPTY_RESPONSE_PARSER = new ResponseParser<Void>() {
         @Override
         public Void parseResponse(int status, @Nullable Map<String, List<String>> headers, @Nullable String responseBody) {
@@ -65,6 +51,9 @@ public class Request {
     @Nullable
     protected String body;
 
+    @Nullable
+    protected byte[] compressedBody;
+
     @Nullable
     protected String contentType;
 
@@ -77,6 +66,9 @@ public class Request {
     @NonNull
     protected final Map<String, String> responseProperties;
 
+    @NonNull
+    private final HttpTransport transport;
+
     private static final String USER_AGENT_FORMAT = "(UrbanAirshipLib-%s/%s; %s)";
 
     /**
@@ -92,6 +84,16 @@ public class Request {
     }
 
     public Request() {
+        this(UrlConnectionTransport.shared());
+    }
+
+    /**
+     * Creates a request that is sent with the given transport.
+     *
+     * @param transport The transport.
+     */
+    Request(@NonNull HttpTransport transport) {
+        this.transport = transport;
         responseProperties = new HashMap<>();
     }
 
@@ -156,6 +158,23 @@ public class Request {
     @NonNull
     public Request setRequestBody(@Nullable String body, @Nullable String contentType) {
         this.body = body;
+        this.compressedBody = null;
+        this.contentType = contentType;
+        return this;
+    }
+
+    /**
+     * Sets a request body that is already compressed with gzip. The body is written as is
+     * with a fixed content length.
+     *
+     * @param compressedBody The gzipped body.
+     * @param contentType The string content type.
+     * @return The request.
+     */
+    @NonNull
+    public Request setCompressedRequestBody(@NonNull byte[] compressedBody, @Nullable String contentType) {
+        this.body = null;
+        this.compressedBody = compressedBody;
         this.contentType = contentType;
         return this;
     }
@@ -250,7 +269,32 @@ public class Request {
      * @return The request response.
      */
     @NonNull
-    public <T> Response<T> execute(@NonNull ResponseParser<T> parser) throws RequestException {
+    public <T> Response<T> execute(@NonNull final ResponseParser<T> parser) throws RequestException {
+        Response<ParsedBody<T>> response = executeStreaming(new StreamingResponseParser<ParsedBody<T>>() {
+            @Override
+            public ParsedBody<T> parseResponse(int status, @Nullable Map<String, List<String>> headers, @Nullable InputStream responseBody) throws Exception {
+                String body = UrlConnectionTransport.readString(responseBody);
+                return new ParsedBody<>(body, parser.parseResponse(status, headers, body));
+            }
+        });
+
+        ParsedBody<T> parsedBody = response.getResult();
+        return new Response.Builder<T>(response.getStatus())
+                .setResponseHeaders(response.getResponseHeaders())
+                .setLastModified(response.getLastModifiedTime())
+                .setResponseBody(parsedBody.body)
+                .setResult(parsedBody.result)
+                .build();
+    }
+
+    /**
+     * Executes the request, parsing the response directly from the response body stream.
+     *
+     * @param parser The response parser.
+     * @return The request response.
+     */
+    @NonNull
+    public <T> Response<T> executeStreaming(@NonNull StreamingResponseParser<T> parser) throws RequestException {
         if (uri == null) {
             throw new RequestException("Unable to perform request: missing URL");
         }
@@ -266,105 +310,23 @@ public class Request {
             throw new RequestException("Unable to perform request: missing request method");
         }
 
-        HttpURLConnection conn = null;
-
         try {
-            conn = (HttpURLConnection) ConnectionUtils.openSecureConnection(UAirship.getApplicationContext(), url);
-            conn.setRequestMethod(requestMethod);
-            conn.setConnectTimeout(NETWORK_TIMEOUT_MS);
-
-            if (body != null) {
-                conn.setDoOutput(true);
-                conn.setRequestProperty("Content-Type", contentType);
-            }
-
-            conn.setDoInput(true);
-            conn.setUseCaches(false);
-            conn.setAllowUserInteraction(false);
-            conn.setInstanceFollowRedirects(followRedirects);
-
-            if (ifModifiedSince > 0) {
-                conn.setIfModifiedSince(ifModifiedSince);
-            }
-
-            for (String key : responseProperties.keySet()) {
-                conn.setRequestProperty(key, responseProperties.get(key));
-            }
-
-            if (!UAStringUtil.isEmpty(user) && !UAStringUtil.isEmpty(password)) {
-                String credentials = user + ":" + password;
-                conn.setRequestProperty("Authorization", "Basic " + Base64.encodeToString(credentials.getBytes(), Base64.NO_WRAP));
-            }
-
-            // Create the form content
-            if (body != null) {
-
-                if (compressRequestBody) {
-                    conn.setRequestProperty("Content-Encoding", "gzip");
-                    OutputStream out = conn.getOutputStream();
-                    GZIPOutputStream gos = new GZIPOutputStream(out);
-                    Writer writer = new OutputStreamWriter(gos, "UTF-8");
-                    writer.write(body);
-                    writer.close();
-                    gos.close();
-                    out.close();
-                } else {
-                    OutputStream out = conn.getOutputStream();
-                    Writer writer = new OutputStreamWriter(out, "UTF-8");
-                    writer.write(body);
-                    writer.close();
-                    out.close();
-                }
-            }
-
-            Response.Builder<T> responseBuilder = new Response.Builder<T>(conn.getResponseCode())
-                    .setResponseHeaders(conn.getHeaderFields())
-                    .setLastModified(conn.getLastModified());
-
-            String messageBody;
-            try {
-                messageBody = readEntireStream(conn.getInputStream());
-            } catch (IOException ex) {
-                messageBody = readEntireStream(conn.getErrorStream());
-            }
-
-            return responseBuilder.setResult(parser.parseResponse(conn.getResponseCode(), conn.getHeaderFields(), messageBody))
-                                  .setResponseBody(messageBody)
-                                  .build();
+            return transport.execute(this, url, parser);
         } catch (Exception e) {
             throw new RequestException(String.format(Locale.ROOT, "Request failed URL: %s method: %s", url, requestMethod), e);
-        } finally {
-            if (conn != null) {
-                conn.disconnect();
-            }
         }
     }
 
-    @Nullable
-    private String readEntireStream(@Nullable InputStream input) throws IOException {
-        if (input == null) {
-            return null;
-        }
+    private static class ParsedBody<T> {
 
-        BufferedReader br = new BufferedReader(new InputStreamReader(input));
-        StringBuilder sb = new StringBuilder();
+        private final String body;
+        private final T result;
 
-        try {
-            String inputLine;
-            while ((inputLine = br.readLine()) != null) {
-                sb.append(inputLine).append("\n");
-            }
-            br.close();
-        } finally {
-            try {
-                input.close();
-                br.close();
-            } catch (Exception e) {
-                Logger.error(e, "Failed to close streams");
-            }
+        ParsedBody(@Nullable String body, T result) {
+            this.body = body;
+            this.result = result;
         }
 
-        return sb.toString();
     }
 
 }
@@ -19,6 +19,24 @@ public class RequestFactory {
     @NonNull
     public static final RequestFactory DEFAULT_REQUEST_FACTORY = new RequestFactory();
 
+    private final HttpTransport transport;
+
+    /**
+     * Default constructor. Requests are sent with the shared {@link UrlConnectionTransport}.
+     */
+    public RequestFactory() {
+        this(UrlConnectionTransport.shared());
+    }
+
+    /**
+     * Creates a factory whose requests are sent with the given transport.
+     *
+     * @param transport The transport.
+     */
+    public RequestFactory(@NonNull HttpTransport transport) {
+        this.transport = transport;
+    }
+
     /**
      * Creates the request.
      *
@@ -26,7 +44,7 @@ public class RequestFactory {
      */
     @NonNull
     public Request createRequest() {
-        return new Request();
+        return new Request(transport);
     }
 
 }
@@ -0,0 +1,22 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Parses a response directly from the response body stream. The stream is decompressed and
+ * closed by the transport, and is only valid for the duration of the call.
+ *
+ * @param <T> The result type.
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public interface StreamingResponseParser<T> {
+    T parseResponse(int status, @Nullable Map<String, List<String>> headers, @Nullable InputStream responseBody) throws Exception;
+}
@@ -0,0 +1,243 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import android.util.Base64;
+
+import com.urbanairship.Logger;
+import com.urbanairship.UAirship;
+import com.urbanairship.util.ConnectionUtils;
+import com.urbanairship.util.UAStringUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+
+/**
+ * {@link HttpTransport} backed by {@link HttpURLConnection}.
+ * <p>
+ * Connections are kept alive and reused by the platform connection pool. To make that work the
+ * response body is always read to the end and closed instead of disconnecting the connection,
+ * which would close the socket. Responses are requested with gzip and decompressed before they
+ * are parsed.
+ * <p>
+ * Per-host concurrency limits are out of scope. {@link #execute(Request, URL, StreamingResponseParser)}
+ * is synchronous, so a limit could only be enforced by parking the calling thread, and a queue that
+ * dispatches when a slot frees up would need an asynchronous request API that callers don't have.
+ * Requests in flight are bounded overall by the network lane of the blocking thread pool.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class UrlConnectionTransport implements HttpTransport {
+
+    private static final int NETWORK_TIMEOUT_MS = 60000;
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final UrlConnectionTransport SHARED = new UrlConnectionTransport();
+
+    /**
+     * Default constructor.
+     */
+    @VisibleForTesting
+    public UrlConnectionTransport() {
+    }
+
+    /**
+     * Gets the shared transport.
+     *
+     * @return The shared transport.
+     */
+    @NonNull
+    public static UrlConnectionTransport shared() {
+        return SHARED;
+    }
+
+    @NonNull
+    @Override
+    @WorkerThread
+    public <T> Response<T> execute(@NonNull Request request, @NonNull URL url, @NonNull StreamingResponseParser<T> parser) throws Exception {
+        HttpURLConnection conn = null;
+        boolean isReusable = false;
+
+        try {
+            conn = (HttpURLConnection) ConnectionUtils.openSecureConnection(UAirship.getApplicationContext(), url);
+            conn.setRequestMethod(request.requestMethod);
+            conn.setConnectTimeout(NETWORK_TIMEOUT_MS);
+            conn.setReadTimeout(NETWORK_TIMEOUT_MS);
+
+            if (request.body != null || request.compressedBody != null) {
+                conn.setDoOutput(true);
+                conn.setRequestProperty("Content-Type", request.contentType);
+            }
+
+            conn.setDoInput(true);
+            conn.setUseCaches(false);
+            conn.setAllowUserInteraction(false);
+            conn.setInstanceFollowRedirects(request.followRedirects);
+
+            if (request.ifModifiedSince > 0) {
+                conn.setIfModifiedSince(request.ifModifiedSince);
+            }
+
+            // Setting the header turns off transparent decompression, the response is decompressed below
+            conn.setRequestProperty("Accept-Encoding", "gzip");
+
+            for (Map.Entry<String, String> header : request.responseProperties.entrySet()) {
+                conn.setRequestProperty(header.getKey(), header.getValue());
+            }
+
+            if (!UAStringUtil.isEmpty(request.user) && !UAStringUtil.isEmpty(request.password)) {
+                String credentials = request.user + ":" + request.password;
+                conn.setRequestProperty("Authorization", "Basic " + Base64.encodeToString(credentials.getBytes(), Base64.NO_WRAP));
+            }
+
+            writeBody(conn, request);
+
+            int status = conn.getResponseCode();
+            Response.Builder<T> responseBuilder = new Response.Builder<T>(status)
+                    .setResponseHeaders(conn.getHeaderFields())
+                    .setLastModified(conn.getLastModified());
+
+            InputStream responseStream;
+            try {
+                responseStream = conn.getInputStream();
+            } catch (IOException e) {
+                responseStream = conn.getErrorStream();
+            }
+
+            if (responseStream == null) {
+                isReusable = true;
+                return responseBuilder.setResult(parser.parseResponse(status, conn.getHeaderFields(), null))
+                                      .build();
+            }
+
+            try {
+                InputStream bodyStream = responseStream;
+                if ("gzip".equalsIgnoreCase(conn.getContentEncoding()) && hasBody(request, status)) {
+                    // Servers may still send the gzip header with an empty body, which is not a valid gzip stream
+                    PushbackInputStream pushbackStream = new PushbackInputStream(responseStream, 1);
+                    int firstByte = pushbackStream.read();
+                    if (firstByte == -1) {
+                        bodyStream = pushbackStream;
+                    } else {
+                        pushbackStream.unread(firstByte);
+                        bodyStream = new GZIPInputStream(pushbackStream, BUFFER_SIZE);
+                    }
+                }
+
+                T result = parser.parseResponse(status, conn.getHeaderFields(), bodyStream);
+
+                // Any unread bytes have to be consumed for the connection to go back to the pool
+                drain(responseStream);
+                isReusable = true;
+
+                return responseBuilder.setResult(result).build();
+            } finally {
+                try {
+                    responseStream.close();
+                } catch (IOException e) {
+                    Logger.error(e, "Failed to close streams");
+                }
+            }
+        } finally {
+            if (conn != null && !isReusable) {
+                conn.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Checks if the response can have a body. HEAD requests and 1xx, 204 and 304 responses never do.
+     *
+     * @param request The request.
+     * @param status The response status.
+     * @return {@code true} if the response can have a body, otherwise {@code false}.
+     */
+    private static boolean hasBody(@NonNull Request request, int status) {
+        if ("HEAD".equalsIgnoreCase(request.requestMethod)) {
+            return false;
+        }
+
+        return status >= 200
+                && status != HttpURLConnection.HTTP_NO_CONTENT
+                && status != HttpURLConnection.HTTP_NOT_MODIFIED;
+    }
+
+    private void writeBody(@NonNull HttpURLConnection conn, @NonNull Request request) throws IOException {
+        byte[] bytes;
+
+        if (request.compressedBody != null) {
+            conn.setRequestProperty("Content-Encoding", "gzip");
+            bytes = request.compressedBody;
+        } else if (request.body != null) {
+            bytes = request.body.getBytes("UTF-8");
+            if (request.compressRequestBody) {
+                conn.setRequestProperty("Content-Encoding", "gzip");
+                bytes = gzip(bytes);
+            }
+        } else {
+            return;
+        }
+
+        conn.setFixedLengthStreamingMode(bytes.length);
+        OutputStream out = conn.getOutputStream();
+        try {
+            out.write(bytes);
+        } finally {
+            out.close();
+        }
+    }
+
+    @NonNull
+    private static byte[] gzip(@NonNull byte[] bytes) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+        gzipOutputStream.write(bytes);
+        gzipOutputStream.close();
+        return outputStream.toByteArray();
+    }
+
+    private static void drain(@NonNull InputStream inputStream) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        while (inputStream.read(buffer) != -1) {
+            // Discard
+        }
+    }
+
+    /**
+     * Reads the entire stream as a UTF-8 string.
+     *
+     * @param inputStream The input stream.
+     * @return The string, or {@code null} if the stream is {@code null}.
+     * @throws IOException If reading the stream failed.
+     */
+    @Nullable
+    static String readString(@Nullable InputStream inputStream) throws IOException {
+        if (inputStream == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, count);
+        }
+        return outputStream.toString("UTF-8");
+    }
+
+}
@@ -30,7 +30,7 @@ public class DefaultImageLoader implements ImageLoader {
      */
     public DefaultImageLoader(@NonNull Context context) {
         this.requestMap = new WeakHashMap<>();
-        this.imageCache = new ImageCache(context);
+        this.imageCache = ImageCache.shared(context);
     }
 
     /**
@@ -2,21 +2,51 @@ package com.urbanairship.images;
 
 import android.content.Context;
 import android.graphics.drawable.Drawable;
-import android.net.http.HttpResponseCache;
 import android.util.LruCache;
+import android.webkit.URLUtil;
 
 import com.urbanairship.Logger;
+import com.urbanairship.util.FileUtils;
+import com.urbanairship.util.HttpCacheMetadata;
+import com.urbanairship.util.ImageUtils;
+import com.urbanairship.util.UAStringUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
 import androidx.annotation.WorkerThread;
 
-class ImageCache {
+/**
+ * Image memory and file cache.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class ImageCache {
 
-    private static final String CACHE_DIR = "urbanairship-cache";
+    private static final String IMAGE_CACHE_DIR = "urbanairship-image-cache";
+    private static final String TEMP_FILE_SUFFIX = ".temp";
+    private static final String METADATA_FILE_SUFFIX = ".metadata";
+
+    /**
+     * HttpResponseCache directory used by older SDK versions.
+     */
+    private static final String LEGACY_HTTP_CACHE_DIR = "urbanairship-cache";
 
     /**
      * Max amount of memory cache.
@@ -31,14 +61,41 @@ class ImageCache {
     /**
      * Disk cache size.
      */
-    private static final int DISK_CACHE_SIZE = 1024 * 1024 * 50; // 50MB
+    private static final long DISK_CACHE_SIZE = 1024 * 1024 * 50; // 50MB
+
+    private static ImageCache shared;
 
     private final LruCache<String, CacheEntry> memoryCache;
+    private final Map<String, FutureTask<ImageUtils.DrawableResult>> pendingLoads = new HashMap<>();
 
-    private final Context context;
+    private final File imageCacheDirectory;
+    @Nullable
+    private final File legacyCacheDirectory;
+    private final AtomicBoolean isLegacyCacheRemoved = new AtomicBoolean();
 
-    ImageCache(@NonNull Context context) {
-        this.context = context.getApplicationContext();
+    /**
+     * Gets the shared image cache.
+     *
+     * @param context The context.
+     * @return The shared image cache.
+     */
+    @NonNull
+    public static synchronized ImageCache shared(@NonNull Context context) {
+        if (shared == null) {
+            shared = new ImageCache(context);
+        }
+        return shared;
+    }
+
+    private ImageCache(@NonNull Context context) {
+        this(new File(context.getApplicationContext().getCacheDir(), IMAGE_CACHE_DIR),
+                new File(context.getApplicationContext().getCacheDir(), LEGACY_HTTP_CACHE_DIR));
+    }
+
+    @VisibleForTesting
+    ImageCache(@NonNull File imageCacheDirectory, @Nullable File legacyCacheDirectory) {
+        this.imageCacheDirectory = imageCacheDirectory;
+        this.legacyCacheDirectory = legacyCacheDirectory;
 
         // Memory Cache - 1/8 the available memory. Taken from https://developer.android.com/topic/performance/graphics/cache-bitmap
         int memCacheSize = (int) Math.min(MAX_MEM_CACHE_SIZE, Runtime.getRuntime().maxMemory() / 8);
@@ -71,21 +128,218 @@ class ImageCache {
     }
 
     /**
-     * Installs a HttpResponseCache if a cache is not already installed.
+     * Loads a drawable and caches it in memory. Concurrent loads for the same key share a single
+     * load, the first caller runs the loader and the rest wait for its result.
+     *
+     * @param key The memory cache key.
+     * @param loader The loader.
+     * @return The drawable, or {@code null} if it failed to load.
+     * @throws IOException If the load failed.
      */
+    @Nullable
     @WorkerThread
-    void installHttpCache() {
-        // URL Cache
-        File cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR);
-        if (!cacheDir.exists() && !cacheDir.mkdirs()) {
-            Logger.error("Failed to create the cache.");
+    Drawable loadDrawable(@NonNull final String key, @NonNull final Callable<ImageUtils.DrawableResult> loader) throws IOException {
+        Drawable cached = getDrawable(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        FutureTask<ImageUtils.DrawableResult> task;
+        boolean isOwner = false;
+        synchronized (pendingLoads) {
+            task = pendingLoads.get(key);
+            if (task == null) {
+                task = new FutureTask<>(new Callable<ImageUtils.DrawableResult>() {
+                    @Override
+                    public ImageUtils.DrawableResult call() throws Exception {
+                        ImageUtils.DrawableResult result = loader.call();
+                        if (result != null) {
+                            cacheDrawable(key, result.drawable, result.bytes);
+                        }
+                        return result;
+                    }
+                });
+                pendingLoads.put(key, task);
+                isOwner = true;
+            }
         }
 
-        if (HttpResponseCache.getInstalled() == null) {
+        if (isOwner) {
             try {
-                HttpResponseCache.install(cacheDir, DISK_CACHE_SIZE);
-            } catch (IOException e) {
-                Logger.error("Unable to install image loader cache");
+                task.run();
+            } finally {
+                synchronized (pendingLoads) {
+                    pendingLoads.remove(key);
+                }
+            }
+        }
+
+        try {
+            ImageUtils.DrawableResult result = task.get();
+            return result == null ? null : result.drawable;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading image", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to load image", e.getCause());
+        }
+    }
+
+    /**
+     * Gets the local file for an image URL, downloading it to the image file cache if it is not
+     * already cached. Files are stored by the SHA-256 of the URL and the least recently used files
+     * are removed once the cache is over its max size.
+     * <p>
+     * Cached files are used until the response's max-age expires, then revalidated with the
+     * response's ETag or Last-Modified date. If revalidating fails, the stale file is used.
+     *
+     * @param url The image URL.
+     * @return The image file, or {@code null} if it failed to download.
+     * @throws IOException If the download failed.
+     */
+    @Nullable
+    @WorkerThread
+    public File getImageFile(@NonNull URL url) throws IOException {
+        if (URLUtil.isFileUrl(url.toString())) {
+            try {
+                return new File(url.toURI());
+            } catch (URISyntaxException e) {
+                Logger.error("ImageCache - Invalid URL: %s ", url);
+                return null;
+            }
+        }
+
+        removeLegacyCache();
+
+        String name = UAStringUtil.sha256(url.toString());
+        if (name == null) {
+            return null;
+        }
+
+        File file = new File(imageCacheDirectory, name);
+        File metadataFile = new File(imageCacheDirectory, name + METADATA_FILE_SUFFIX);
+        boolean isCached = file.exists();
+        HttpCacheMetadata metadata = null;
+
+        if (isCached) {
+            file.setLastModified(System.currentTimeMillis());
+
+            metadata = HttpCacheMetadata.read(metadataFile);
+            if (metadata != null && !metadata.isExpired(System.currentTimeMillis())) {
+                return file;
+            }
+        }
+
+        if (!imageCacheDirectory.exists() && !imageCacheDirectory.mkdirs()) {
+            Logger.error("Failed to create the image cache.");
+            return null;
+        }
+
+        File tempFile = File.createTempFile("ua_", TEMP_FILE_SUFFIX, imageCacheDirectory);
+        try {
+            FileUtils.DownloadResult result = FileUtils.downloadFile(url, tempFile, false, metadata);
+            if (!result.isSuccess || result.cacheMetadata == null) {
+                if (isCached) {
+                    Logger.verbose("Failed to revalidate image, using the cached file: %s", url);
+                    return file;
+                }
+
+                Logger.verbose("Failed to fetch image from: %s", url);
+                return null;
+            }
+
+            // The temp file is only stored if the cached file changed. Another request might have
+            // stored the same URL in the meantime.
+            boolean isModified = result.statusCode != HttpURLConnection.HTTP_NOT_MODIFIED;
+            if (isModified && !tempFile.renameTo(file) && !file.exists()) {
+                Logger.error("Failed to cache image from: %s", url);
+                return null;
+            }
+
+            result.cacheMetadata.write(metadataFile);
+        } catch (IOException e) {
+            if (isCached) {
+                Logger.verbose("Failed to revalidate image, using the cached file: %s", url);
+                return file;
+            }
+            throw e;
+        } finally {
+            if (tempFile.exists() && !tempFile.delete()) {
+                Logger.verbose("Failed to delete temp file: %s", tempFile);
+            }
+        }
+
+        trimImageFiles(file, DISK_CACHE_SIZE);
+        return file;
+    }
+
+    /**
+     * Removes the HttpResponseCache directory that older SDK versions installed for images. The
+     * image file cache replaced it, so nothing reads it anymore.
+     */
+    @WorkerThread
+    private void removeLegacyCache() {
+        if (legacyCacheDirectory == null || isLegacyCacheRemoved.getAndSet(true)) {
+            return;
+        }
+
+        if (legacyCacheDirectory.exists() && !FileUtils.deleteRecursively(legacyCacheDirectory)) {
+            Logger.verbose("Failed to remove legacy image cache: %s", legacyCacheDirectory);
+        }
+    }
+
+    /**
+     * Removes the least recently used image files until the cache is under the max size.
+     *
+     * @param keep The file that was just stored, never removed.
+     * @param maxSize The max size in bytes.
+     */
+    @VisibleForTesting
+    @WorkerThread
+    void trimImageFiles(@NonNull File keep, long maxSize) {
+        File[] files = imageCacheDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        long size = 0;
+        for (File file : files) {
+            size += file.length();
+        }
+
+        if (size <= maxSize) {
+            return;
+        }
+
+        Arrays.sort(files, new Comparator<File>() {
+            @Override
+            public int compare(File lh, File rh) {
+                return Long.compare(lh.lastModified(), rh.lastModified());
+            }
+        });
+
+        for (File file : files) {
+            if (size <= maxSize) {
+                break;
+            }
+
+            // Skip the new file, metadata and any downloads in progress. Metadata is removed with its file.
+            if (file.equals(keep) || file.getName().endsWith(TEMP_FILE_SUFFIX) || file.getName().endsWith(METADATA_FILE_SUFFIX)) {
+                continue;
+            }
+
+            long length = file.length();
+            if (file.delete()) {
+                size -= length;
+
+                File metadataFile = new File(imageCacheDirectory, file.getName() + METADATA_FILE_SUFFIX);
+                long metadataLength = metadataFile.length();
+                if (metadataFile.delete()) {
+                    size -= metadataLength;
+                }
             }
         }
     }
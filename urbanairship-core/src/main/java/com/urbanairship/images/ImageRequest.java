@@ -14,6 +14,7 @@ import com.urbanairship.CancelableOperation;
 import com.urbanairship.Logger;
 import com.urbanairship.util.ImageUtils;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.ref.WeakReference;
 import java.net.URL;
@@ -30,7 +31,7 @@ import androidx.core.content.ContextCompat;
  */
 abstract class ImageRequest {
 
-    private final Executor EXECUTOR = AirshipExecutors.threadPoolExecutor();
+    private final Executor EXECUTOR = AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_BLOCKING);
 
     /**
      * Duration of the fade in animation when loading a bitmap into the image view in milliseconds.
@@ -192,8 +193,6 @@ abstract class ImageRequest {
     @Nullable
     @WorkerThread
     private Drawable fetchDrawableOnBackground() throws IOException {
-        imageCache.installHttpCache();
-
         if (imageViewReference.get() == null) {
             return null;
         }
@@ -202,16 +201,18 @@ abstract class ImageRequest {
             return null;
         }
 
-        int fallbackWidth = imageRequestOptions.getZeroWidthFallback();
-        int fallbackHeight = imageRequestOptions.getZeroHeightFallback();
-        ImageUtils.DrawableResult result = ImageUtils.fetchScaledDrawable(context, new URL(imageRequestOptions.getUrl()), width, height, fallbackWidth, fallbackHeight);
-
-        if (result == null) {
-            return null;
-        }
-        imageCache.cacheDrawable(getCacheKey(), result.drawable, result.bytes);
-        return result.drawable;
+        final URL url = new URL(imageRequestOptions.getUrl());
+        final int fallbackWidth = imageRequestOptions.getZeroWidthFallback();
+        final int fallbackHeight = imageRequestOptions.getZeroHeightFallback();
 
+        // Requests for the same URL and size share a single load
+        return imageCache.loadDrawable(getCacheKey(), () -> {
+            File imageFile = imageCache.getImageFile(url);
+            if (imageFile == null) {
+                return null;
+            }
+            return ImageUtils.decodeScaledDrawable(context, imageFile, width, height, fallbackWidth, fallbackHeight);
+        });
     }
 
     @MainThread
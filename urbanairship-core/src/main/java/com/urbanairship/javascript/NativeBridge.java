@@ -105,11 +105,11 @@ public class NativeBridge {
     }
 
     public NativeBridge() {
-        this(new ActionRunRequestFactory(), AirshipExecutors.newSerialExecutor());
+        this(new ActionRunRequestFactory(), AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_UI_CRITICAL));
     }
 
     public NativeBridge(@NonNull ActionRunRequestFactory actionRunRequestFactory) {
-        this(actionRunRequestFactory, AirshipExecutors.newSerialExecutor());
+        this(actionRunRequestFactory, AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_UI_CRITICAL));
     }
 
     @VisibleForTesting
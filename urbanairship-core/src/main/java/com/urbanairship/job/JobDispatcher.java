@@ -8,9 +8,19 @@ import android.os.Handler;
 import android.os.Looper;
 
 import com.urbanairship.Logger;
+import com.urbanairship.PreferenceDataStore;
+import com.urbanairship.analytics.Analytics;
+import com.urbanairship.channel.AirshipChannel;
+import com.urbanairship.contacts.Contact;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.IntRange;
@@ -31,6 +41,11 @@ public class JobDispatcher {
     static final long RESCHEDULE_RETRY_DELAY_MS = TimeUnit.HOURS.toMillis(1);
     private static final long RETRY_DELAY_MS = 1000;
 
+    private static final int ORDER_CHANNEL = 0;
+    private static final int ORDER_CONTACT = 1;
+    private static final int ORDER_DEFAULT = 2;
+    private static final int ORDER_EVENTS = 3;
+
     @SuppressLint("StaticFieldLeak")
     private static JobDispatcher instance;
 
@@ -48,6 +63,18 @@ public class JobDispatcher {
         }
     };
 
+    /*
+     * Immediate network jobs that replaced any other work with the same name and have not started
+     * yet, keyed by unique work name. These can run early with another network job.
+     */
+    private final Map<String, JobInfo> collapsibleJobs = new LinkedHashMap<>();
+
+    /*
+     * Unique work names of jobs that already ran with another network job. Their own work is
+     * skipped when it starts.
+     */
+    private final Set<String> collapsedJobs = new HashSet<>();
+
     /**
      * Gets the shared instance.
      *
@@ -107,16 +134,30 @@ public class JobDispatcher {
         this.rateLimiter.setLimit(limitId, rate, duration, durationUnit);
     }
 
+    /**
+     * Sets the data store used to persist rate limit hits across app restarts.
+     *
+     * @param dataStore The data store.
+     */
+    public void setDataStore(@NonNull PreferenceDataStore dataStore) {
+        this.rateLimiter.setDataStore(dataStore);
+    }
+
     /**
      * Dispatches a jobInfo to be performed immediately.
+     * <p>
+     * Each job is scheduled right away. When a network job starts, other immediate network jobs
+     * dispatched with {@link JobInfo#REPLACE} that are still waiting run in the same execution,
+     * like the channel, contact and inbox updates after a foreground.
      *
      * @param jobInfo The jobInfo.
      */
     public void dispatch(@NonNull JobInfo jobInfo) {
-       dispatch(jobInfo, getDelay(jobInfo));
+        dispatch(jobInfo, getDelay(jobInfo));
     }
 
     private void dispatch(@NonNull JobInfo jobInfo, long delayMs) {
+        trackCollapsible(jobInfo, delayMs);
         try {
             dispatchPending();
             scheduler.schedule(context, jobInfo, delayMs);
@@ -147,6 +188,34 @@ public class JobDispatcher {
     protected void onStartJob(@NonNull JobInfo jobInfo, long runAttempt, @NonNull Consumer<JobResult> callback) {
         Logger.verbose("Running job: %s, run attempt: %s", jobInfo, runAttempt);
 
+        String name = getUniqueName(jobInfo);
+        List<JobInfo> collapsed;
+        synchronized (collapsibleJobs) {
+            if (collapsedJobs.remove(name)) {
+                Logger.verbose("Job already ran with another network job: %s", jobInfo);
+                callback.accept(JobResult.SUCCESS);
+                return;
+            }
+
+            collapsibleJobs.remove(name);
+            collapsed = jobInfo.isNetworkAccessRequired() ? takeCollapsibleJobs() : Collections.emptyList();
+        }
+
+        if (collapsed.isEmpty()) {
+            runJob(jobInfo, runAttempt, callback);
+            return;
+        }
+
+        List<JobInfo> jobs = new ArrayList<>(collapsed);
+        jobs.add(jobInfo);
+
+        // Stable sort keeps the dispatch order within each group
+        Collections.sort(jobs, (lh, rh) -> Integer.compare(getOrder(lh), getOrder(rh)));
+
+        runJobs(jobs, 0, jobInfo, runAttempt, new JobResult[1], callback);
+    }
+
+    private void runJob(@NonNull JobInfo jobInfo, long runAttempt, @NonNull Consumer<JobResult> callback) {
         long rateLimitDelay = getRateLimitDelay(jobInfo);
         if (rateLimitDelay > 0) {
             callback.accept(JobResult.FAILURE);
@@ -170,6 +239,111 @@ public class JobDispatcher {
         });
     }
 
+    /**
+     * Runs the started job together with the collapsed jobs, one after another. A collapsed job
+     * that needs a retry is dispatched again on its own with its backoff.
+     */
+    private void runJobs(@NonNull List<JobInfo> jobs,
+                         int index,
+                         @NonNull JobInfo startedJob,
+                         long runAttempt,
+                         @NonNull JobResult[] startedJobResult,
+                         @NonNull Consumer<JobResult> callback) {
+        if (index >= jobs.size()) {
+            callback.accept(startedJobResult[0]);
+            return;
+        }
+
+        JobInfo jobInfo = jobs.get(index);
+        Runnable next = () -> runJobs(jobs, index + 1, startedJob, runAttempt, startedJobResult, callback);
+
+        if (jobInfo == startedJob) {
+            runJob(jobInfo, runAttempt, result -> {
+                startedJobResult[0] = result;
+                next.run();
+            });
+            return;
+        }
+
+        for (String rateLimitID : jobInfo.getRateLimitIds()) {
+            rateLimiter.track(rateLimitID);
+        }
+
+        jobRunner.run(jobInfo, (result) -> {
+            Logger.verbose("Collapsed job finished. Job info: %s, result: %s", jobInfo, result);
+            if (result == JobResult.RETRY) {
+                dispatch(jobInfo, jobInfo.getInitialBackOffMs());
+            }
+            next.run();
+        });
+    }
+
+    /**
+     * Takes the collapsible jobs that are not over their rate limit. Must be called with the
+     * collapsible jobs lock held.
+     */
+    @NonNull
+    private List<JobInfo> takeCollapsibleJobs() {
+        List<JobInfo> jobs = new ArrayList<>();
+        Iterator<Map.Entry<String, JobInfo>> iterator = collapsibleJobs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, JobInfo> entry = iterator.next();
+            if (getRateLimitDelay(entry.getValue()) > 0) {
+                // Left to its own work, which will reschedule it
+                continue;
+            }
+
+            iterator.remove();
+            collapsedJobs.add(entry.getKey());
+            jobs.add(entry.getValue());
+        }
+        return jobs;
+    }
+
+    /**
+     * Tracks which scheduled work can be collapsed. Only jobs dispatched with {@link JobInfo#REPLACE}
+     * are known to be the work scheduled for their name. {@link JobInfo#KEEP} and
+     * {@link JobInfo#APPEND} jobs may be kept behind existing work, so they always run on their own.
+     */
+    private void trackCollapsible(@NonNull JobInfo jobInfo, long delayMs) {
+        if (jobInfo.getConflictStrategy() != JobInfo.REPLACE) {
+            return;
+        }
+
+        String name = getUniqueName(jobInfo);
+        synchronized (collapsibleJobs) {
+            // The new work replaces any work that already ran early
+            collapsedJobs.remove(name);
+            if (delayMs <= 0 && jobInfo.isNetworkAccessRequired()) {
+                collapsibleJobs.put(name, jobInfo);
+            } else {
+                collapsibleJobs.remove(name);
+            }
+        }
+    }
+
+    @NonNull
+    private static String getUniqueName(@NonNull JobInfo jobInfo) {
+        return jobInfo.getAirshipComponentName() + ":" + jobInfo.getAction();
+    }
+
+    /**
+     * Dependency order for collapsed jobs: channel jobs first, then contact jobs, then everything
+     * else (inbox, remote data, ...), and events last.
+     */
+    private static int getOrder(@NonNull JobInfo jobInfo) {
+        String component = jobInfo.getAirshipComponentName();
+        if (AirshipChannel.class.getName().equals(component)) {
+            return ORDER_CHANNEL;
+        } else if (Contact.class.getName().equals(component)) {
+            return ORDER_CONTACT;
+        } else if (Analytics.class.getName().equals(component)) {
+            return ORDER_EVENTS;
+        } else {
+            return ORDER_DEFAULT;
+        }
+    }
+
     private long getDelay(@NonNull JobInfo jobInfo) {
         return Math.max(jobInfo.getMinDelayMs(), getRateLimitDelay(jobInfo));
     }
@@ -17,7 +17,7 @@ interface JobRunner {
     void run(@NonNull JobInfo jobInfo, @NonNull Consumer<JobResult> resultConsumer);
 
     class DefaultRunner implements JobRunner {
-        private final Executor executor = AirshipExecutors.newSerialExecutor();
+        private final Executor executor = AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_NETWORK);
         private static final long AIRSHIP_WAIT_TIME_MS = 5000; // 5 seconds.
 
         @Override
@@ -2,9 +2,13 @@
 
 package com.urbanairship.job;
 
+import com.urbanairship.PreferenceDataStore;
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonValue;
 import com.urbanairship.util.Clock;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,15 +22,23 @@ import androidx.annotation.VisibleForTesting;
 
 /**
  * Rate limit tracker.
+ * <p>
+ * Each rule only keeps the times of its last {@code rate} hits in a fixed size ring buffer, so
+ * memory is bounded by the rule and both tracking and checking the status are constant time. Once
+ * a data store is set, the hits are persisted so limits carry over app restarts.
  */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class RateLimiter {
 
+    private static final String KEY_PREFIX = "com.urbanairship.job.RateLimiter.";
+
     private final Clock clock;
-    private final Map<String, List<Long>> hits = new HashMap<>();
     private final Map<String, Rule> rules = new HashMap<>();
     private final Object lock = new Object();
 
+    @Nullable
+    private PreferenceDataStore dataStore;
+
     public RateLimiter() {
         this(Clock.DEFAULT_CLOCK);
     }
@@ -36,6 +48,30 @@ public class RateLimiter {
         this.clock = clock;
     }
 
+    /**
+     * Sets the data store used to persist hits. Persisted hits are restored for rules that are
+     * already set and for any rule set afterwards.
+     *
+     * @param dataStore The data store.
+     */
+    public void setDataStore(@NonNull PreferenceDataStore dataStore) {
+        synchronized (lock) {
+            this.dataStore = dataStore;
+            long currentTime = clock.currentTimeMillis();
+            for (Map.Entry<String, Rule> entry : rules.entrySet()) {
+                Rule rule = entry.getValue();
+                List<Long> hits = loadHits(entry.getKey(), currentTime);
+                hits.addAll(rule.getHits());
+                Collections.sort(hits);
+                rule.clear();
+                for (long hit : hits) {
+                    rule.add(hit);
+                }
+                saveHits(entry.getKey(), rule);
+            }
+        }
+    }
+
     /**
      * Tracks a rate limit.
      *
@@ -43,12 +79,10 @@ public class RateLimiter {
      */
     public void track(@NonNull String limitId) {
         synchronized (lock) {
-            List<Long> hits = this.hits.get(limitId);
             Rule rule = this.rules.get(limitId);
-            long currentTime = clock.currentTimeMillis();
-            if (hits != null && rule != null) {
-                hits.add(currentTime);
-                filter(hits, rule, currentTime);
+            if (rule != null) {
+                rule.add(clock.currentTimeMillis());
+                saveHits(limitId, rule);
             }
         }
     }
@@ -62,22 +96,21 @@ public class RateLimiter {
     @Nullable
     public Status status(@NonNull String limitId) {
         synchronized (lock) {
-            List<Long> hits = this.hits.get(limitId);
             Rule rule = this.rules.get(limitId);
-            long currentTime = clock.currentTimeMillis();
-
-            if (hits == null || rule == null) {
+            if (rule == null) {
                 return null;
             }
 
-            filter(hits, rule, currentTime);
-
-            if (hits.size() >= rule.rate) {
-                long nextExpired = rule.durationMs - (currentTime - hits.get(hits.size() - rule.rate));
-                return new Status(LimitStatus.OVER, nextExpired);
-            } else {
-                return new Status(LimitStatus.UNDER, 0);
+            long currentTime = clock.currentTimeMillis();
+            if (rule.isFull()) {
+                // The oldest of the last rate hits decides when the next slot opens up
+                long nextAvailable = rule.durationMs - (currentTime - rule.oldest());
+                if (nextAvailable > 0) {
+                    return new Status(LimitStatus.OVER, nextAvailable);
+                }
             }
+
+            return new Status(LimitStatus.UNDER, 0);
         }
     }
 
@@ -91,17 +124,52 @@ public class RateLimiter {
      */
     public void setLimit(@NonNull String limitId, @IntRange(from = 1) int rate, long duration, @NonNull TimeUnit durationUnit) {
         synchronized (lock) {
-            this.rules.put(limitId, new Rule(rate, durationUnit.toMillis(duration)));
-            this.hits.put(limitId, new ArrayList<>());
+            Rule rule = new Rule(rate, durationUnit.toMillis(duration));
+            if (dataStore != null) {
+                for (long hit : loadHits(limitId, clock.currentTimeMillis())) {
+                    rule.add(hit);
+                }
+            }
+            this.rules.put(limitId, rule);
         }
     }
 
-    private void filter(@NonNull List<Long> hits, @NonNull Rule rule, long currentTimeMs) {
-        for (long hit : new ArrayList<>(hits)) {
-            if (currentTimeMs >= (hit + rule.durationMs)) {
-                hits.remove(hit);
+    /**
+     * Loads the persisted hits that are not in the future, oldest first. Must be called with the
+     * lock held.
+     */
+    @NonNull
+    private List<Long> loadHits(@NonNull String limitId, long currentTime) {
+        List<Long> hits = new ArrayList<>();
+        if (dataStore == null) {
+            return hits;
+        }
+
+        for (JsonValue value : dataStore.getJsonValue(KEY_PREFIX + limitId).optList()) {
+            long hit = value.getLong(-1);
+            // Drop anything recorded in the future, the clock must have changed
+            if (hit >= 0 && hit <= currentTime) {
+                hits.add(hit);
             }
         }
+
+        Collections.sort(hits);
+        return hits;
+    }
+
+    /**
+     * Persists the hits of a rule. Must be called with the lock held.
+     */
+    private void saveHits(@NonNull String limitId, @NonNull Rule rule) {
+        if (dataStore == null) {
+            return;
+        }
+
+        List<JsonValue> values = new ArrayList<>();
+        for (long hit : rule.getHits()) {
+            values.add(JsonValue.wrap(hit));
+        }
+        dataStore.put(KEY_PREFIX + limitId, new JsonList(values));
     }
 
     /**
@@ -153,14 +221,55 @@ public class RateLimiter {
         }
     }
 
+    /**
+     * A rule and the times of its last {@code rate} hits.
+     */
     private static final class Rule {
 
         final long durationMs;
         final int rate;
 
+        private final long[] hits;
+        private int head;
+        private int size;
+
         Rule(int rate, long durationMs) {
             this.rate = rate;
             this.durationMs = durationMs;
+            this.hits = new long[rate];
+        }
+
+        void add(long time) {
+            if (size < rate) {
+                hits[(head + size) % rate] = time;
+                size++;
+            } else {
+                // Overwrite the oldest hit
+                hits[head] = time;
+                head = (head + 1) % rate;
+            }
+        }
+
+        boolean isFull() {
+            return size == rate;
+        }
+
+        long oldest() {
+            return hits[head];
+        }
+
+        void clear() {
+            head = 0;
+            size = 0;
+        }
+
+        @NonNull
+        List<Long> getHits() {
+            List<Long> result = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                result.add(hits[(head + i) % rate]);
+            }
+            return result;
         }
 
     }
@@ -0,0 +1,343 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.Predicate;
+import com.urbanairship.json.matchers.ExactValueMatcher;
+import com.urbanairship.json.matchers.NumberRangeMatcher;
+import com.urbanairship.json.matchers.PresenceMatcher;
+import com.urbanairship.json.matchers.VersionMatcher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Flattened form of a {@link JsonPredicate} that is cheaper to evaluate repeatedly.
+ * <p>
+ * Compiling the predicate:
+ * - Converts the value to JSON once per evaluation instead of once per matcher.
+ * - Merges nested groups of the same type and removes double negations.
+ * - Resolves each matcher's scope and key into a single path of interned keys.
+ * - Orders the children of each group by estimated cost so cheap checks short-circuit first.
+ * - Remembers the last version string checked by each version matcher.
+ * <p>
+ * Predicates have no side effects, so reordering the children does not change the result.
+ */
+final class CompiledJsonPredicate implements Predicate<JsonSerializable> {
+
+    private static final int COST_PRESENCE = 1;
+    private static final int COST_VALUE = 2;
+    private static final int COST_VERSION = 3;
+    // Array contains, deep equality and anything else that walks more than one value
+    private static final int COST_COMPLEX = 8;
+
+    private final Node root;
+
+    private CompiledJsonPredicate(@NonNull Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles a predicate.
+     *
+     * @param predicate The predicate.
+     * @return The compiled predicate.
+     */
+    @NonNull
+    static CompiledJsonPredicate compile(@NonNull JsonPredicate predicate) {
+        return new CompiledJsonPredicate(compileNode(predicate));
+    }
+
+    @Override
+    public boolean apply(@Nullable JsonSerializable value) {
+        return root.evaluate(value == null ? JsonValue.NULL : value.toJsonValue());
+    }
+
+    @NonNull
+    private static Node compileNode(@NonNull Predicate<JsonSerializable> predicate) {
+        if (predicate instanceof JsonMatcher) {
+            return compileMatcher((JsonMatcher) predicate);
+        }
+
+        if (!(predicate instanceof JsonPredicate)) {
+            return new PredicateNode(predicate);
+        }
+
+        JsonPredicate jsonPredicate = (JsonPredicate) predicate;
+        List<Predicate<JsonSerializable>> items = jsonPredicate.getItems();
+        if (items.isEmpty()) {
+            return new ConstantNode(true);
+        }
+
+        String type = jsonPredicate.getType();
+        if (JsonPredicate.NOT_PREDICATE_TYPE.equals(type)) {
+            Node child = compileNode(items.get(0));
+            if (child instanceof NotNode) {
+                return ((NotNode) child).child;
+            }
+            return new NotNode(child);
+        }
+
+        boolean isAnd = JsonPredicate.AND_PREDICATE_TYPE.equals(type);
+        List<Node> children = new ArrayList<>(items.size());
+        for (Predicate<JsonSerializable> item : items) {
+            Node child = compileNode(item);
+            if (child instanceof GroupNode && ((GroupNode) child).isAnd == isAnd) {
+                Collections.addAll(children, ((GroupNode) child).children);
+            } else {
+                children.add(child);
+            }
+        }
+
+        if (children.size() == 1) {
+            return children.get(0);
+        }
+
+        // Stable sort keeps the original order between children of the same cost
+        Collections.sort(children, new Comparator<Node>() {
+            @Override
+            public int compare(Node lh, Node rh) {
+                return Integer.compare(lh.cost, rh.cost);
+            }
+        });
+
+        return new GroupNode(isAnd, children.toArray(new Node[0]));
+    }
+
+    @NonNull
+    private static Node compileMatcher(@NonNull JsonMatcher matcher) {
+        List<String> scope = matcher.getScope();
+        String key = matcher.getKey();
+
+        String[] path = new String[scope.size() + (key == null ? 0 : 1)];
+        for (int i = 0; i < scope.size(); i++) {
+            path[i] = intern(scope.get(i));
+        }
+        if (key != null) {
+            path[path.length - 1] = intern(key);
+        }
+
+        ValueMatcher valueMatcher = matcher.getValueMatcher();
+        if (valueMatcher instanceof VersionMatcher) {
+            return new VersionNode(path, valueMatcher, matcher.isIgnoreCase());
+        }
+
+        return new MatcherNode(path, valueMatcher, matcher.isIgnoreCase(), getCost(valueMatcher) + path.length);
+    }
+
+    @Nullable
+    private static String intern(@Nullable String key) {
+        // Keys used by the SDK events are literals, so interned keys hit the map's identity check
+        return key == null ? null : key.intern();
+    }
+
+    private static int getCost(@NonNull ValueMatcher valueMatcher) {
+        if (valueMatcher instanceof PresenceMatcher) {
+            return COST_PRESENCE;
+        }
+        if (valueMatcher instanceof NumberRangeMatcher) {
+            return COST_VALUE;
+        }
+        if (valueMatcher instanceof ExactValueMatcher) {
+            JsonValue expected = ((ExactValueMatcher) valueMatcher).toJsonValue().optMap().opt(ExactValueMatcher.EQUALS_VALUE_KEY);
+            return expected.isJsonMap() || expected.isJsonList() ? COST_COMPLEX : COST_VALUE;
+        }
+        if (valueMatcher instanceof VersionMatcher) {
+            return COST_VERSION;
+        }
+        return COST_COMPLEX;
+    }
+
+    /**
+     * Compiled node.
+     */
+    private abstract static class Node {
+
+        final int cost;
+
+        Node(int cost) {
+            this.cost = cost;
+        }
+
+        abstract boolean evaluate(@NonNull JsonValue value);
+
+    }
+
+    /**
+     * Node that always returns the same result.
+     */
+    private static final class ConstantNode extends Node {
+
+        private final boolean result;
+
+        ConstantNode(boolean result) {
+            super(0);
+            this.result = result;
+        }
+
+        @Override
+        boolean evaluate(@NonNull JsonValue value) {
+            return result;
+        }
+
+    }
+
+    /**
+     * And/or node.
+     */
+    private static final class GroupNode extends Node {
+
+        final boolean isAnd;
+        final Node[] children;
+
+        GroupNode(boolean isAnd, @NonNull Node[] children) {
+            super(sumCost(children));
+            this.isAnd = isAnd;
+            this.children = children;
+        }
+
+        @Override
+        boolean evaluate(@NonNull JsonValue value) {
+            for (Node child : children) {
+                if (child.evaluate(value) != isAnd) {
+                    return !isAnd;
+                }
+            }
+            return isAnd;
+        }
+
+        private static int sumCost(@NonNull Node[] children) {
+            int cost = 0;
+            for (Node child : children) {
+                cost += child.cost;
+            }
+            return cost;
+        }
+
+    }
+
+    /**
+     * Not node.
+     */
+    private static final class NotNode extends Node {
+
+        final Node child;
+
+        NotNode(@NonNull Node child) {
+            super(child.cost);
+            this.child = child;
+        }
+
+        @Override
+        boolean evaluate(@NonNull JsonValue value) {
+            return !child.evaluate(value);
+        }
+
+    }
+
+    /**
+     * Node for predicates that are not part of the JSON predicate schema.
+     */
+    private static final class PredicateNode extends Node {
+
+        private final Predicate<JsonSerializable> predicate;
+
+        PredicateNode(@NonNull Predicate<JsonSerializable> predicate) {
+            super(COST_COMPLEX);
+            this.predicate = predicate;
+        }
+
+        @Override
+        boolean evaluate(@NonNull JsonValue value) {
+            return predicate.apply(value);
+        }
+
+    }
+
+    /**
+     * Matcher node with a pre-resolved path.
+     */
+    private static class MatcherNode extends Node {
+
+        private final String[] path;
+        private final ValueMatcher valueMatcher;
+        private final boolean ignoreCase;
+
+        MatcherNode(@NonNull String[] path, @NonNull ValueMatcher valueMatcher, boolean ignoreCase, int cost) {
+            super(cost);
+            this.path = path;
+            this.valueMatcher = valueMatcher;
+            this.ignoreCase = ignoreCase;
+        }
+
+        @Override
+        boolean evaluate(@NonNull JsonValue value) {
+            return match(resolve(value));
+        }
+
+        boolean match(@NonNull JsonValue value) {
+            return valueMatcher.apply(value, ignoreCase);
+        }
+
+        @NonNull
+        private JsonValue resolve(@NonNull JsonValue value) {
+            for (String segment : path) {
+                value = value.optMap().opt(segment);
+                if (value.isNull()) {
+                    break;
+                }
+            }
+            return value;
+        }
+
+    }
+
+    /**
+     * Version matcher node. The app version rarely changes between evaluations, so the last
+     * result is kept to skip parsing the version again.
+     */
+    private static final class VersionNode extends MatcherNode {
+
+        private volatile LastResult lastResult;
+
+        VersionNode(@NonNull String[] path, @NonNull ValueMatcher valueMatcher, boolean ignoreCase) {
+            super(path, valueMatcher, ignoreCase, COST_VERSION + path.length);
+        }
+
+        @Override
+        boolean match(@NonNull JsonValue value) {
+            String version = value.getString();
+            if (version == null) {
+                return super.match(value);
+            }
+
+            LastResult last = lastResult;
+            if (last != null && last.version.equals(version)) {
+                return last.result;
+            }
+
+            boolean result = super.match(value);
+            lastResult = new LastResult(version, result);
+            return result;
+        }
+
+    }
+
+    private static final class LastResult {
+
+        final String version;
+        final boolean result;
+
+        LastResult(@NonNull String version, boolean result) {
+            this.version = version;
+            this.result = result;
+        }
+
+    }
+
+}
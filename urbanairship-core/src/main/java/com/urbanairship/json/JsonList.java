@@ -4,9 +4,7 @@ package com.urbanairship.json;
 
 import com.urbanairship.Logger;
 
-import org.json.JSONException;
-import org.json.JSONStringer;
-
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -36,6 +34,22 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
         this.list = list == null ? new ArrayList<JsonValue>() : new ArrayList<>(list);
     }
 
+    private JsonList(@NonNull List<JsonValue> list, boolean copy) {
+        this.list = copy ? new ArrayList<>(list) : list;
+    }
+
+    /**
+     * Creates a JsonList that takes ownership of the list instead of copying it. The caller
+     * must not modify the list afterwards.
+     *
+     * @param list A list of JsonValues.
+     * @return The JsonList.
+     */
+    @NonNull
+    static JsonList ofOwned(@NonNull List<JsonValue> list) {
+        return new JsonList(list, false);
+    }
+
     /**
      * Tests whether this {@code List} contains the specified JSON value.
      *
@@ -151,30 +165,16 @@ public class JsonList implements Iterable<JsonValue>, JsonSerializable {
     @Override
     public String toString() {
         try {
-            JSONStringer stringer = new JSONStringer();
-            write(stringer);
-            return stringer.toString();
-        } catch (JSONException | StringIndexOutOfBoundsException e) {
+            StringBuilder builder = new StringBuilder();
+            new JsonWriter(builder).write(this);
+            return builder.toString();
+        } catch (IOException e) {
             // Should never happen
             Logger.error(e, "JsonList - Failed to create JSON String.");
             return "";
         }
     }
 
-    /**
-     * Helper method that is used to write the list as a JSON String.
-     *
-     * @param stringer The JSONStringer object.
-     * @throws org.json.JSONException If the value is unable to be written as JSON.
-     */
-    void write(@NonNull JSONStringer stringer) throws JSONException {
-        stringer.array();
-        for (JsonValue actionValue : this) {
-            actionValue.write(stringer);
-        }
-        stringer.endArray();
-    }
-
     @NonNull
     @Override
     public JsonValue toJsonValue() {
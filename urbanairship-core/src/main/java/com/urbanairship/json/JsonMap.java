@@ -4,9 +4,7 @@ package com.urbanairship.json;
 
 import com.urbanairship.Logger;
 
-import org.json.JSONException;
-import org.json.JSONStringer;
-
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -36,6 +34,22 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
         this.map = map == null ? new HashMap<String, JsonValue>() : new HashMap<>(map);
     }
 
+    private JsonMap(@NonNull Map<String, JsonValue> map, boolean copy) {
+        this.map = copy ? new HashMap<>(map) : map;
+    }
+
+    /**
+     * Creates a JsonMap that takes ownership of the map instead of copying it. The caller
+     * must not modify the map afterwards.
+     *
+     * @param map A map of strings to JsonValues.
+     * @return The JsonMap.
+     */
+    @NonNull
+    static JsonMap ofOwned(@NonNull Map<String, JsonValue> map) {
+        return new JsonMap(map, false);
+    }
+
     /**
      * Factory method to create a new JSON map builder.
      *
@@ -191,31 +205,16 @@ public class JsonMap implements Iterable<Map.Entry<String, JsonValue>>, JsonSeri
     @Override
     public String toString() {
         try {
-            JSONStringer stringer = new JSONStringer();
-            write(stringer);
-            return stringer.toString();
-        } catch (JSONException | StringIndexOutOfBoundsException e) {
+            StringBuilder builder = new StringBuilder();
+            new JsonWriter(builder).write(this);
+            return builder.toString();
+        } catch (IOException e) {
             // Should never happen
             Logger.error(e, "JsonMap - Failed to create JSON String.");
             return "";
         }
     }
 
-    /**
-     * Helper method that is used to write the value as a JSON String.
-     *
-     * @param stringer The JSONStringer object.
-     * @throws org.json.JSONException If the value is unable to be written as JSON.
-     */
-    void write(@NonNull JSONStringer stringer) throws JSONException {
-        stringer.object();
-        for (Map.Entry<String, JsonValue> entry : entrySet()) {
-            stringer.key(entry.getKey());
-            entry.getValue().write(stringer);
-        }
-        stringer.endObject();
-    }
-
     @NonNull
     @Override
     public Iterator<Map.Entry<String, JsonValue>> iterator() {
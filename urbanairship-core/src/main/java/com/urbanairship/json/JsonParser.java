@@ -0,0 +1,459 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Single pass JSON parser that builds {@link JsonMap}, {@link JsonList} and {@link JsonValue}
+ * instances directly from the input, without an intermediate org.json tree.
+ * <p>
+ * The parser accepts the same lenient syntax as {@code org.json.JSONTokener}: comments,
+ * single quoted and unquoted strings, {@code =} and {@code =>} as name separators, and {@code ;}
+ * as a value separator. Numbers are parsed to {@code Integer}, {@code Long} or {@code Double}
+ * using the same rules, and {@code null} values inside maps and lists are dropped just like
+ * {@link JsonValue#wrap(Object)} does for org.json objects.
+ */
+class JsonParser {
+
+    private static final int BUFFER_SIZE = 1024;
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int limit;
+    private int pos;
+    private int offset;
+    private int pushback = EOF;
+
+    private final StringBuilder stringBuilder = new StringBuilder();
+
+    /**
+     * Creates a parser for a JSON encoded String.
+     *
+     * @param json The JSON encoded String.
+     */
+    JsonParser(@NonNull String json) {
+        this.reader = null;
+        this.buffer = json.toCharArray();
+        this.limit = buffer.length;
+    }
+
+    /**
+     * Creates a parser that reads the JSON from a reader. The reader is not closed.
+     *
+     * @param reader The reader.
+     */
+    JsonParser(@NonNull Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[BUFFER_SIZE];
+        this.limit = 0;
+    }
+
+    /**
+     * Parses the next JSON value. Any input after the value is ignored.
+     *
+     * @return The parsed value.
+     * @throws JsonException If the JSON is invalid or the input could not be read.
+     */
+    @NonNull
+    JsonValue parse() throws JsonException {
+        try {
+            return nextValue();
+        } catch (IOException e) {
+            throw new JsonException("Unable to read JSON", e);
+        }
+    }
+
+    @NonNull
+    private JsonValue nextValue() throws JsonException, IOException {
+        int c = nextClean();
+        switch (c) {
+            case EOF:
+                throw syntaxError("End of input");
+
+            case '{':
+                return readObject();
+
+            case '[':
+                return readArray();
+
+            case '\'':
+            case '"':
+                return new JsonValue(readString((char) c));
+
+            default:
+                unread(c);
+                return readLiteral();
+        }
+    }
+
+    @NonNull
+    private JsonValue readObject() throws JsonException, IOException {
+        Map<String, JsonValue> map = new HashMap<>();
+
+        int first = nextClean();
+        if (first == '}') {
+            return new JsonValue(JsonMap.ofOwned(map));
+        } else if (first == EOF) {
+            throw syntaxError("Unterminated object");
+        }
+        unread(first);
+
+        while (true) {
+            JsonValue name = nextValue();
+            if (!name.isString()) {
+                if (name.isNull()) {
+                    throw syntaxError("Names cannot be null");
+                }
+                throw syntaxError("Names must be strings, but " + name + " is not a string");
+            }
+
+            int separator = nextClean();
+            if (separator != ':' && separator != '=') {
+                throw syntaxError("Expected ':' after " + name);
+            }
+
+            if (peek() == '>') {
+                read();
+            }
+
+            String key = name.optString();
+            JsonValue value = nextValue();
+            if (value.isNull()) {
+                // A null value replaces any previous value for the key and is then dropped
+                map.remove(key);
+            } else {
+                map.put(key, value);
+            }
+
+            switch (nextClean()) {
+                case '}':
+                    return new JsonValue(JsonMap.ofOwned(map));
+
+                case ';':
+                case ',':
+                    continue;
+
+                default:
+                    throw syntaxError("Unterminated object");
+            }
+        }
+    }
+
+    @NonNull
+    private JsonValue readArray() throws JsonException, IOException {
+        List<JsonValue> list = new ArrayList<>();
+
+        while (true) {
+            int c = nextClean();
+            switch (c) {
+                case EOF:
+                    throw syntaxError("Unterminated array");
+
+                case ']':
+                    return new JsonValue(JsonList.ofOwned(list));
+
+                case ',':
+                case ';':
+                    // Implicit null element, dropped
+                    continue;
+
+                default:
+                    unread(c);
+            }
+
+            JsonValue value = nextValue();
+            if (!value.isNull()) {
+                list.add(value);
+            }
+
+            switch (nextClean()) {
+                case ']':
+                    return new JsonValue(JsonList.ofOwned(list));
+
+                case ',':
+                case ';':
+                    continue;
+
+                default:
+                    throw syntaxError("Unterminated array");
+            }
+        }
+    }
+
+    @NonNull
+    private String readString(char quote) throws JsonException, IOException {
+        stringBuilder.setLength(0);
+
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw syntaxError("Unterminated string");
+            }
+
+            if (c == quote) {
+                return stringBuilder.toString();
+            }
+
+            if (c == '\\') {
+                stringBuilder.append(readEscapeCharacter());
+            } else {
+                stringBuilder.append((char) c);
+            }
+        }
+    }
+
+    private char readEscapeCharacter() throws JsonException, IOException {
+        int escaped = read();
+        switch (escaped) {
+            case EOF:
+                throw syntaxError("Unterminated escape sequence");
+
+            case 'u':
+                char[] hex = new char[4];
+                for (int i = 0; i < hex.length; i++) {
+                    int c = read();
+                    if (c == EOF) {
+                        throw syntaxError("Unterminated escape sequence");
+                    }
+                    hex[i] = (char) c;
+                }
+
+                try {
+                    return (char) Integer.parseInt(new String(hex), 16);
+                } catch (NumberFormatException e) {
+                    throw syntaxError("Invalid escape sequence: " + new String(hex));
+                }
+
+            case 't':
+                return '\t';
+
+            case 'b':
+                return '\b';
+
+            case 'n':
+                return '\n';
+
+            case 'r':
+                return '\r';
+
+            case 'f':
+                return '\f';
+
+            default:
+                return (char) escaped;
+        }
+    }
+
+    @NonNull
+    private JsonValue readLiteral() throws JsonException, IOException {
+        stringBuilder.setLength(0);
+
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                break;
+            }
+
+            if (isLiteralDelimiter(c)) {
+                unread(c);
+                break;
+            }
+
+            stringBuilder.append((char) c);
+        }
+
+        String literal = stringBuilder.toString();
+        if (literal.length() == 0) {
+            throw syntaxError("Expected literal value");
+        } else if ("null".equalsIgnoreCase(literal)) {
+            return JsonValue.NULL;
+        } else if ("true".equalsIgnoreCase(literal)) {
+            return new JsonValue(Boolean.TRUE);
+        } else if ("false".equalsIgnoreCase(literal)) {
+            return new JsonValue(Boolean.FALSE);
+        }
+
+        if (literal.indexOf('.') == -1) {
+            int base = 10;
+            String number = literal;
+            if (number.startsWith("0x") || number.startsWith("0X")) {
+                number = number.substring(2);
+                base = 16;
+            } else if (number.startsWith("0") && number.length() > 1) {
+                number = number.substring(1);
+                base = 8;
+            }
+
+            try {
+                long longValue = Long.parseLong(number, base);
+                if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+                    return new JsonValue((int) longValue);
+                }
+                return new JsonValue(longValue);
+            } catch (NumberFormatException e) {
+                // Not an integer, try a double
+            }
+        }
+
+        try {
+            Double doubleValue = Double.valueOf(literal);
+            if (doubleValue.isInfinite() || doubleValue.isNaN()) {
+                throw new JsonException("Invalid Double value: " + doubleValue);
+            }
+            return new JsonValue(doubleValue);
+        } catch (NumberFormatException e) {
+            // Unquoted string
+        }
+
+        return new JsonValue(literal);
+    }
+
+    /**
+     * Reads the next character that is not whitespace or part of a comment.
+     */
+    private int nextClean() throws JsonException, IOException {
+        while (true) {
+            int c = read();
+            switch (c) {
+                case '\t':
+                case ' ':
+                case '\n':
+                case '\r':
+                    continue;
+
+                case '/':
+                    int next = peek();
+                    if (next == '*') {
+                        read();
+                        skipBlockComment();
+                        continue;
+                    } else if (next == '/') {
+                        read();
+                        skipToEndOfLine();
+                        continue;
+                    }
+                    return c;
+
+                case '#':
+                    skipToEndOfLine();
+                    continue;
+
+                default:
+                    return c;
+            }
+        }
+    }
+
+    private void skipBlockComment() throws JsonException, IOException {
+        int previous = EOF;
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw syntaxError("Unterminated comment");
+            }
+
+            if (previous == '*' && c == '/') {
+                return;
+            }
+            previous = c;
+        }
+    }
+
+    private void skipToEndOfLine() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == EOF || c == '\r' || c == '\n') {
+                return;
+            }
+        }
+    }
+
+    private static boolean isLiteralDelimiter(int c) {
+        switch (c) {
+            case '{':
+            case '}':
+            case '[':
+            case ']':
+            case '/':
+            case '\\':
+            case ':':
+            case ',':
+            case '=':
+            case ';':
+            case '#':
+            case ' ':
+            case '\t':
+            case '\f':
+            case '\r':
+            case '\n':
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != EOF) {
+            int c = pushback;
+            pushback = EOF;
+            return c;
+        }
+
+        if (pos >= limit && !fill()) {
+            return EOF;
+        }
+
+        return buffer[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pushback != EOF) {
+            return pushback;
+        }
+
+        if (pos >= limit && !fill()) {
+            return EOF;
+        }
+
+        return buffer[pos];
+    }
+
+    private void unread(int c) {
+        if (c != EOF) {
+            pushback = c;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        if (reader == null) {
+            return false;
+        }
+
+        int read = reader.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+
+        offset += limit;
+        limit = read;
+        pos = 0;
+        return true;
+    }
+
+    @NonNull
+    private JsonException syntaxError(@NonNull String message) {
+        int position = offset + pos - (pushback == EOF ? 0 : 1);
+        return new JsonException(message + " at character " + position);
+    }
+
+}
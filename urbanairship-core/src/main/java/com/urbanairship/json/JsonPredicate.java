@@ -12,6 +12,7 @@ import java.util.List;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringDef;
+import androidx.annotation.VisibleForTesting;
 
 /**
  * Class abstracting a JSON predicate. The predicate is contained to the following schema:
@@ -50,6 +51,10 @@ public class JsonPredicate implements JsonSerializable, Predicate<JsonSerializab
     private final List<Predicate<JsonSerializable>> items;
     private final String type;
 
+    // Compiled on first use, predicates are immutable
+    @Nullable
+    private volatile CompiledJsonPredicate compiled;
+
     private JsonPredicate(Builder builder) {
         this.items = builder.items;
         this.type = builder.type;
@@ -139,17 +144,34 @@ public class JsonPredicate implements JsonSerializable, Predicate<JsonSerializab
 
     @Override
     public boolean apply(@Nullable JsonSerializable value) {
+        CompiledJsonPredicate compiled = this.compiled;
+        if (compiled == null) {
+            compiled = CompiledJsonPredicate.compile(this);
+            this.compiled = compiled;
+        }
+
+        return compiled.apply(value);
+    }
+
+    /**
+     * Applies the predicate by walking the predicate tree instead of using the compiled form.
+     *
+     * @param value The value.
+     * @return {@code true} if the value matches, otherwise {@code false}.
+     */
+    @VisibleForTesting
+    boolean applyUncompiled(@Nullable JsonSerializable value) {
         if (items.size() == 0) {
             return true;
         }
 
         switch (type) {
             case NOT_PREDICATE_TYPE:
-                return !items.get(0).apply(value);
+                return !applyUncompiled(items.get(0), value);
 
             case AND_PREDICATE_TYPE:
                 for (Predicate<JsonSerializable> item : items) {
-                    if (!item.apply(value)) {
+                    if (!applyUncompiled(item, value)) {
                         return false;
                     }
                 }
@@ -159,14 +181,31 @@ public class JsonPredicate implements JsonSerializable, Predicate<JsonSerializab
             case OR_PREDICATE_TYPE:
             default:
                 for (Predicate<JsonSerializable> item : items) {
-                    if (item.apply(value)) {
+                    if (applyUncompiled(item, value)) {
                         return true;
                     }
                 }
 
                 return false;
         }
+    }
 
+    private static boolean applyUncompiled(@NonNull Predicate<JsonSerializable> item, @Nullable JsonSerializable value) {
+        if (item instanceof JsonPredicate) {
+            return ((JsonPredicate) item).applyUncompiled(value);
+        }
+        return item.apply(value);
+    }
+
+    @NonNull
+    @PredicateType
+    String getType() {
+        return type;
+    }
+
+    @NonNull
+    List<Predicate<JsonSerializable>> getItems() {
+        return items;
     }
 
     /**
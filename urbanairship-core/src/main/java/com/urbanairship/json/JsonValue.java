@@ -11,9 +11,13 @@ import com.urbanairship.util.UAStringUtil;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
-import org.json.JSONStringer;
-import org.json.JSONTokener;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -48,7 +52,7 @@ public class JsonValue implements Parcelable, JsonSerializable {
      *
      * @param value The wrapped value.
      */
-    private JsonValue(@Nullable Object value) {
+    JsonValue(@Nullable Object value) {
         this.value = value;
     }
 
@@ -499,13 +503,43 @@ public class JsonValue implements Parcelable, JsonSerializable {
             return JsonValue.NULL;
         }
 
-        JSONTokener tokener = new JSONTokener(jsonString);
+        return new JsonParser(jsonString).parse();
+    }
 
-        try {
-            return JsonValue.wrap(tokener.nextValue());
-        } catch (JSONException e) {
-            throw new JsonException("Unable to parse string", e);
-        }
+    /**
+     * Parse JSON from a reader. The value is parsed in a single pass without reading the
+     * entire input into memory first. The reader is not closed.
+     *
+     * @param reader The reader.
+     * @return The parsed JsonValue.
+     * @throws JsonException If the JSON was unable to be parsed or read.
+     */
+    @NonNull
+    public static JsonValue parse(@NonNull Reader reader) throws JsonException {
+        return new JsonParser(reader).parse();
+    }
+
+    /**
+     * Writes the value as a JSON encoded String to the writer. The writer is not closed.
+     *
+     * @param writer The writer.
+     * @throws IOException If the value failed to be written.
+     */
+    public void write(@NonNull Writer writer) throws IOException {
+        new JsonWriter(writer).write(this);
+    }
+
+    /**
+     * Writes the value as UTF-8 encoded JSON to the output stream. The stream is flushed
+     * but not closed.
+     *
+     * @param outputStream The output stream.
+     * @throws IOException If the value failed to be written.
+     */
+    public void write(@NonNull OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, "UTF-8"));
+        write(writer);
+        writer.flush();
     }
 
     @Override
@@ -557,47 +591,16 @@ public class JsonValue implements Parcelable, JsonSerializable {
         }
 
         try {
-            if (value instanceof String) {
-                return JSONObject.quote((String) value);
-            }
-
-            if (value instanceof Number) {
-                return JSONObject.numberToString((Number) value);
-            }
-
-            if (value instanceof JsonMap || value instanceof JsonList) {
-                return value.toString();
-            }
-
-            return String.valueOf(value);
-        } catch (JSONException e) {
+            StringBuilder builder = new StringBuilder();
+            new JsonWriter(builder).write(this);
+            return builder.toString();
+        } catch (IOException e) {
             // Should never happen
             Logger.error(e, "JsonValue - Failed to create JSON String.");
             return "";
         }
     }
 
-    /**
-     * Helper method that is used to write the value as a JSON String.
-     *
-     * @param stringer The JSONStringer object.
-     * @throws JSONException If the value is unable to be written as JSON.
-     */
-    void write(@NonNull JSONStringer stringer) throws JSONException {
-        if (isNull()) {
-            stringer.value(null);
-            return;
-        }
-
-        if (value instanceof JsonList) {
-            ((JsonList) value).write(stringer);
-        } else if (value instanceof JsonMap) {
-            ((JsonMap) value).write(stringer);
-        } else {
-            stringer.value(value);
-        }
-    }
-
     /**
      * Wraps a String as a JsonValue.
      *
@@ -0,0 +1,160 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import java.io.IOException;
+import java.util.Map;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Serializes {@link JsonValue}, {@link JsonMap} and {@link JsonList} instances as JSON text
+ * directly to an {@link Appendable}, without building intermediate strings.
+ * <p>
+ * The output matches {@code org.json.JSONStringer}: strings escape {@code "}, {@code \},
+ * {@code /} and control characters, and doubles with an integral value are written without
+ * a fraction.
+ */
+class JsonWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Appendable out;
+
+    JsonWriter(@NonNull Appendable out) {
+        this.out = out;
+    }
+
+    void write(@NonNull JsonValue value) throws IOException {
+        if (value.isNull()) {
+            out.append("null");
+        } else if (value.isJsonMap()) {
+            write(value.optMap());
+        } else if (value.isJsonList()) {
+            write(value.optList());
+        } else if (value.isString()) {
+            writeString(value.optString());
+        } else if (value.isNumber()) {
+            out.append(numberToString(value.getNumber()));
+        } else {
+            out.append(String.valueOf(value.getValue()));
+        }
+    }
+
+    void write(@NonNull JsonMap map) throws IOException {
+        out.append('{');
+        boolean first = true;
+        for (Map.Entry<String, JsonValue> entry : map) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+
+            writeString(entry.getKey());
+            out.append(':');
+            write(entry.getValue());
+        }
+        out.append('}');
+    }
+
+    void write(@NonNull JsonList list) throws IOException {
+        out.append('[');
+        boolean first = true;
+        for (JsonValue value : list) {
+            if (!first) {
+                out.append(',');
+            }
+            first = false;
+
+            write(value);
+        }
+        out.append(']');
+    }
+
+    void writeString(@NonNull String value) throws IOException {
+        out.append('"');
+
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            String replacement;
+            switch (c) {
+                case '"':
+                    replacement = "\\\"";
+                    break;
+                case '\\':
+                    replacement = "\\\\";
+                    break;
+                case '/':
+                    replacement = "\\/";
+                    break;
+                case '\t':
+                    replacement = "\\t";
+                    break;
+                case '\b':
+                    replacement = "\\b";
+                    break;
+                case '\n':
+                    replacement = "\\n";
+                    break;
+                case '\r':
+                    replacement = "\\r";
+                    break;
+                case '\f':
+                    replacement = "\\f";
+                    break;
+                default:
+                    if (c > 0x1F) {
+                        continue;
+                    }
+                    replacement = null;
+            }
+
+            if (start < i) {
+                out.append(value, start, i);
+            }
+            start = i + 1;
+
+            if (replacement != null) {
+                out.append(replacement);
+            } else {
+                out.append("\\u00")
+                   .append(HEX[(c >> 4) & 0xF])
+                   .append(HEX[c & 0xF]);
+            }
+        }
+
+        if (start < length) {
+            out.append(value, start, length);
+        }
+
+        out.append('"');
+    }
+
+    /**
+     * Encodes the number the same way as {@code org.json.JSONObject#numberToString}.
+     *
+     * @param number The number.
+     * @return The encoded number.
+     */
+    @NonNull
+    static String numberToString(@NonNull Number number) {
+        if (number instanceof Integer || number instanceof Long) {
+            return number.toString();
+        }
+
+        double doubleValue = number.doubleValue();
+        if (number.equals(-0d)) {
+            return "-0";
+        }
+
+        long longValue = number.longValue();
+        if (doubleValue == (double) longValue) {
+            return Long.toString(longValue);
+        }
+
+        return number.toString();
+    }
+
+}
@@ -0,0 +1,126 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.push;
+
+import com.urbanairship.AirshipExecutors;
+import com.urbanairship.PreferenceDataStore;
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonValue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Recently received canonical push IDs, used to drop duplicate pushes.
+ * <p>
+ * The IDs are kept in an in-memory LRU set that is loaded from the data store once. Changes are
+ * written back on a background executor, and writes queued up during a burst of pushes are
+ * coalesced, so checking an ID on the push path never parses or serializes JSON. The IDs are
+ * stored as a JSON list, oldest first.
+ */
+class CanonicalIdCache {
+
+    private final PreferenceDataStore dataStore;
+    private final String key;
+    private final int capacity;
+    private final Executor executor;
+    private final Object lock = new Object();
+
+    private Map<String, Boolean> ids;
+    private boolean isWritePending;
+
+    private final Runnable writeRunnable = new Runnable() {
+        @Override
+        public void run() {
+            write();
+        }
+    };
+
+    /**
+     * Default constructor.
+     *
+     * @param dataStore The data store.
+     * @param key The data store key.
+     * @param capacity The max number of IDs to remember.
+     */
+    CanonicalIdCache(@NonNull PreferenceDataStore dataStore, @NonNull String key, int capacity) {
+        this(dataStore, key, capacity, AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_DISK));
+    }
+
+    @VisibleForTesting
+    CanonicalIdCache(@NonNull PreferenceDataStore dataStore, @NonNull String key, int capacity, @NonNull Executor executor) {
+        this.dataStore = dataStore;
+        this.key = key;
+        this.capacity = Math.max(1, capacity);
+        this.executor = executor;
+    }
+
+    /**
+     * Adds the ID if it is not already in the cache.
+     *
+     * @param id The canonical ID.
+     * @return {@code true} if the ID was added, {@code false} if it was already in the cache.
+     */
+    boolean add(@NonNull String id) {
+        synchronized (lock) {
+            Map<String, Boolean> ids = getIds();
+
+            // Access order, so a hit also makes the ID the most recent
+            boolean isNew = ids.get(id) == null;
+            if (isNew) {
+                ids.put(id, Boolean.TRUE);
+            }
+
+            if (!isWritePending) {
+                isWritePending = true;
+                executor.execute(writeRunnable);
+            }
+
+            return isNew;
+        }
+    }
+
+    /**
+     * Gets the IDs, loading them from the data store on first use. Must be called with the lock held.
+     */
+    @NonNull
+    private Map<String, Boolean> getIds() {
+        if (ids == null) {
+            ids = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > capacity;
+                }
+            };
+
+            for (JsonValue value : dataStore.getJsonValue(key).optList()) {
+                String id = value.getString();
+                if (id != null) {
+                    ids.put(id, Boolean.TRUE);
+                }
+            }
+        }
+
+        return ids;
+    }
+
+    private void write() {
+        List<JsonValue> values;
+        synchronized (lock) {
+            isWritePending = false;
+            values = new ArrayList<>(ids.size());
+            for (String id : ids.keySet()) {
+                values.add(JsonValue.wrap(id));
+            }
+        }
+
+        dataStore.put(key, new JsonList(values));
+    }
+
+}
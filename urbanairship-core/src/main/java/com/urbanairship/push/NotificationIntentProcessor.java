@@ -26,8 +26,8 @@ import com.urbanairship.util.UAStringUtil;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
@@ -53,7 +53,7 @@ class NotificationIntentProcessor {
      * @param intent The intent.
      */
     NotificationIntentProcessor(@NonNull Context context, @NonNull Intent intent) {
-        this(UAirship.shared(), context, intent, AirshipExecutors.threadPoolExecutor());
+        this(UAirship.shared(), context, intent, AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_UI_CRITICAL));
     }
 
     @VisibleForTesting
@@ -252,7 +252,8 @@ class NotificationIntentProcessor {
         executor.execute(new Runnable() {
             @Override
             public void run() {
-                final CountDownLatch countDownLatch = new CountDownLatch(actions.size());
+                // Counted down in the callbacks instead of waiting, the actions run on the same pool
+                final AtomicInteger remaining = new AtomicInteger(actions.size());
 
                 for (Map.Entry<String, ActionValue> entry : actions.entrySet()) {
                     ActionRunRequest.createRequest(entry.getKey())
@@ -262,19 +263,12 @@ class NotificationIntentProcessor {
                                     .run(new ActionCompletionCallback() {
                                         @Override
                                         public void onFinish(@NonNull ActionArguments arguments, @NonNull ActionResult result) {
-                                            countDownLatch.countDown();
+                                            if (remaining.decrementAndGet() == 0) {
+                                                completionHandler.run();
+                                            }
                                         }
                                     });
                 }
-
-                try {
-                    countDownLatch.await();
-                } catch (InterruptedException e) {
-                    Logger.error(e, "Failed to wait for actions");
-                    Thread.currentThread().interrupt();
-                }
-
-                completionHandler.run();
             }
         });
     }
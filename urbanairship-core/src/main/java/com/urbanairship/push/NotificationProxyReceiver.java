@@ -47,7 +47,7 @@ public class NotificationProxyReceiver extends BroadcastReceiver {
         final PendingResult pendingResult = goAsync();
         final Future<Boolean> future = new NotificationIntentProcessor(context, intent).process();
 
-        AirshipExecutors.threadPoolExecutor().execute(new Runnable() {
+        AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_UI_CRITICAL).execute(new Runnable() {
             @Override
             public void run() {
                 try {
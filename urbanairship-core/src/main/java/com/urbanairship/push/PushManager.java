@@ -23,15 +23,12 @@ import com.urbanairship.job.JobDispatcher;
 import com.urbanairship.job.JobInfo;
 import com.urbanairship.job.JobResult;
 import com.urbanairship.json.JsonException;
-import com.urbanairship.json.JsonList;
-import com.urbanairship.json.JsonValue;
 import com.urbanairship.push.notifications.AirshipNotificationProvider;
 import com.urbanairship.push.notifications.NotificationActionButtonGroup;
 import com.urbanairship.push.notifications.NotificationChannelRegistry;
 import com.urbanairship.push.notifications.NotificationProvider;
 import com.urbanairship.util.UAStringUtil;
 
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
@@ -177,11 +174,6 @@ public class PushManager extends AirshipComponent {
      */
     private static final String LAST_CANONICAL_IDS_KEY = "com.urbanairship.push.LAST_CANONICAL_IDS";
 
-    /**
-     * Max amount of canonical IDs to store.
-     */
-    private static final int MAX_CANONICAL_IDS = 10;
-
     /**
      * Action to display a notification.
      */
@@ -192,7 +184,10 @@ public class PushManager extends AirshipComponent {
      */
     static final String ACTION_UPDATE_PUSH_REGISTRATION = "ACTION_UPDATE_PUSH_REGISTRATION";
 
-    static final ExecutorService PUSH_EXECUTOR = AirshipExecutors.threadPoolExecutor();
+    /**
+     * Push processing blocks on notification image downloads and provider callers block on it.
+     */
+    static final ExecutorService PUSH_EXECUTOR = AirshipExecutors.threadPoolExecutor(AirshipExecutors.PRIORITY_BLOCKING);
 
     static final String KEY_PREFIX = "com.urbanairship.push";
 
@@ -231,7 +226,7 @@ public class PushManager extends AirshipComponent {
     private final List<PushListener> internalPushListeners = new CopyOnWriteArrayList<>();
     private final List<InternalNotificationListener> internalNotificationListeners = new CopyOnWriteArrayList<>();
 
-    private final Object uniqueIdLock = new Object();
+    private final CanonicalIdCache canonicalIds;
 
     private final AirshipChannel airshipChannel;
     private PushProvider pushProvider;
@@ -279,6 +274,7 @@ public class PushManager extends AirshipComponent {
         this.notificationProvider = new AirshipNotificationProvider(context, config.getConfigOptions());
         this.notificationManagerCompat = NotificationManagerCompat.from(context);
         this.notificationChannelRegistry = new NotificationChannelRegistry(context, config.getConfigOptions());
+        this.canonicalIds = new CanonicalIdCache(preferenceDataStore, LAST_CANONICAL_IDS_KEY, config.getConfigOptions().canonicalIdHistorySize);
 
         this.actionGroupMap.putAll(ActionButtonGroupsParser.fromXml(context, R.xml.ua_notification_buttons));
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
@@ -970,35 +966,7 @@ public class PushManager extends AirshipComponent {
             return true;
         }
 
-        synchronized (uniqueIdLock) {
-            JsonList jsonList = null;
-            try {
-                jsonList = JsonValue.parseString(preferenceDataStore.getString(LAST_CANONICAL_IDS_KEY, null)).getList();
-            } catch (JsonException e) {
-                Logger.debug(e, "Unable to parse canonical Ids.");
-            }
-
-            List<JsonValue> canonicalIds = jsonList == null ? new ArrayList<JsonValue>() : jsonList.getList();
-
-            // Wrap the canonicalId
-            JsonValue id = JsonValue.wrap(canonicalId);
-
-            // Check if the list contains the canonicalId
-            if (canonicalIds.contains(id)) {
-                return false;
-            }
-
-            // Add it
-            canonicalIds.add(id);
-            if (canonicalIds.size() > MAX_CANONICAL_IDS) {
-                canonicalIds = canonicalIds.subList(canonicalIds.size() - MAX_CANONICAL_IDS, canonicalIds.size());
-            }
-
-            // Store the new list
-            preferenceDataStore.put(LAST_CANONICAL_IDS_KEY, JsonValue.wrapOpt(canonicalIds).toString());
-
-            return true;
-        }
+        return canonicalIds.add(canonicalId);
     }
 
     /**
@@ -53,7 +53,7 @@ public class NotificationChannelRegistry {
     public NotificationChannelRegistry(@NonNull Context context, @NonNull AirshipConfigOptions configOptions) {
         this(context,
                 new NotificationChannelRegistryDataManager(context, configOptions.appKey, DATABASE_NAME),
-                AirshipExecutors.newSerialExecutor());
+                AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_DISK));
     }
 
     /**
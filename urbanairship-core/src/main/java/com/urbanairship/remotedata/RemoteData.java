@@ -137,7 +137,7 @@ public class RemoteData extends AirshipComponent {
     private volatile boolean refreshedSinceLastForeground = false;
 
     @VisibleForTesting
-    final Subject<Set<RemoteDataPayload>> payloadUpdates;
+    final Subject<PayloadUpdate> payloadUpdates;
 
     @VisibleForTesting
     final HandlerThread backgroundThread;
@@ -370,7 +370,8 @@ public class RemoteData extends AirshipComponent {
     /**
      * Produces an Observable of a List of RemoteDataPayload objects corresponding to the provided types.
      * Subscribers will be notified of any cached data upon subscription, as well as subsequent changes
-     * following refresh updates, provided one of the payload's timestamps is fresh.
+     * following refresh updates, provided one of the payload's timestamps is fresh. Refreshes that
+     * do not change any of the types are skipped without comparing the payloads.
      *
      * @param types A collection of types.
      * @return An Observable of RemoteDataPayload.
@@ -378,7 +379,10 @@ public class RemoteData extends AirshipComponent {
     @NonNull
     public Observable<Collection<RemoteDataPayload>> payloadsForTypes(@NonNull final Collection<String> types) {
 
-        return Observable.concat(cachedPayloads(types), payloadUpdates)
+        Observable<Set<RemoteDataPayload>> updates = payloadUpdates.filter(update -> update.hasChanges(types))
+                                                                   .map(update -> update.payloads);
+
+        return Observable.concat(cachedPayloads(types), updates)
                          .map(payloads -> {
                              Map<String, Collection<RemoteDataPayload>> map = new HashMap<>();
                              for (RemoteDataPayload payload : payloads) {
@@ -507,10 +511,13 @@ public class RemoteData extends AirshipComponent {
             String lm = response.getResponseHeader("Last-Modified");
             JsonMap metadata = createMetadata(response.getResult().url, lm);
             Set<RemoteDataPayload> remoteDataPayloads = response.getResult().payloads;
-            if (saveNewPayloads(remoteDataPayloads)) {
+            Set<String> changedTypes = dataStore.updatePayloads(remoteDataPayloads);
+            if (changedTypes != null) {
                 preferenceDataStore.put(LAST_REFRESH_METADATA, metadata);
                 preferenceDataStore.put(LAST_MODIFIED_KEY, lm);
-                notifyPayloadUpdates(remoteDataPayloads);
+                if (!changedTypes.isEmpty()) {
+                    notifyPayloadUpdates(remoteDataPayloads, changedTypes);
+                }
                 onRefreshFinished(true);
                 return JobResult.SUCCESS;
             }
@@ -545,12 +552,9 @@ public class RemoteData extends AirshipComponent {
         }
     }
 
-    private boolean saveNewPayloads(@NonNull final Set<RemoteDataPayload> payloads) {
-        return dataStore.deletePayloads() && dataStore.savePayloads(payloads);
-    }
-
-    private void notifyPayloadUpdates(@NonNull final Set<RemoteDataPayload> payloads) {
-        backgroundHandler.post(() -> payloadUpdates.onNext(payloads));
+    private void notifyPayloadUpdates(@NonNull final Set<RemoteDataPayload> payloads, @NonNull final Set<String> changedTypes) {
+        final PayloadUpdate update = new PayloadUpdate(payloads, changedTypes);
+        backgroundHandler.post(() -> payloadUpdates.onNext(update));
     }
 
     @NonNull
@@ -560,4 +564,29 @@ public class RemoteData extends AirshipComponent {
                       .putOpt(LAST_MODIFIED_METADATA_KEY, lastModified)
                       .build();
     }
+
+    /**
+     * The refreshed payloads and the types that changed.
+     */
+    static class PayloadUpdate {
+
+        final Set<RemoteDataPayload> payloads;
+        final Set<String> changedTypes;
+
+        PayloadUpdate(@NonNull Set<RemoteDataPayload> payloads, @NonNull Set<String> changedTypes) {
+            this.payloads = payloads;
+            this.changedTypes = changedTypes;
+        }
+
+        boolean hasChanges(@NonNull Collection<String> types) {
+            for (String type : types) {
+                if (changedTypes.contains(type)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+    }
+
 }
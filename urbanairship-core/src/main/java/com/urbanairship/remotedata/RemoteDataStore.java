@@ -10,13 +10,18 @@ import android.database.sqlite.SQLiteDatabase;
 
 import com.urbanairship.Logger;
 import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonMap;
 import com.urbanairship.json.JsonValue;
 import com.urbanairship.util.DataManager;
 import com.urbanairship.util.UAStringUtil;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import androidx.annotation.NonNull;
@@ -47,10 +52,13 @@ public class RemoteDataStore extends DataManager {
     // Metadata JSON-serialized data.
     private static final String COLUMN_NAME_METADATA = "metadata";
 
+    // Hash of the timestamps and data of all payloads with the same type
+    private static final String COLUMN_NAME_HASH = "hash";
+
     /**
      * The database version.
      */
-    private static final int DATABASE_VERSION = 2;
+    private static final int DATABASE_VERSION = 3;
 
     /**
      * RemoteDataStore constructor.
@@ -71,7 +79,8 @@ public class RemoteDataStore extends DataManager {
                 + COLUMN_NAME_TYPE + " TEXT,"
                 + COLUMN_NAME_TIMESTAMP + " INTEGER,"
                 + COLUMN_NAME_DATA + " TEXT,"
-                + COLUMN_NAME_METADATA + " TEXT"
+                + COLUMN_NAME_METADATA + " TEXT,"
+                + COLUMN_NAME_HASH + " TEXT"
                 + ");");
     }
 
@@ -80,6 +89,9 @@ public class RemoteDataStore extends DataManager {
         switch (oldVersion) {
             case 1:
                 db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_NAME_METADATA + " TEXT;");
+                // Fall through to add the hash
+            case 2:
+                db.execSQL("ALTER TABLE " + TABLE_NAME + " ADD COLUMN " + COLUMN_NAME_HASH + " TEXT;");
                 break;
             default:
                 db.execSQL("DROP TABLE IF EXISTS " + TABLE_NAME);
@@ -141,6 +153,106 @@ public class RemoteDataStore extends DataManager {
         return true;
     }
 
+    /**
+     * Replaces the stored payloads, only writing the payload types that changed.
+     * <p>
+     * Each type is stored with a hash of its payloads' timestamps and data. Types with a matching
+     * hash keep their stored rows and only have their metadata updated if it changed. Stored types
+     * that are not in the new payloads are deleted.
+     *
+     * @param payloads The new payloads.
+     * @return The types that were added, updated, or removed, or {@code null} if the payloads
+     * failed to save.
+     */
+    @Nullable
+    Set<String> updatePayloads(@NonNull Set<RemoteDataPayload> payloads) {
+        final SQLiteDatabase db = getWritableDatabase();
+        if (db == null) {
+            Logger.error("RemoteDataStore - Unable to save remote data payloads.");
+            return null;
+        }
+
+        Map<String, List<RemoteDataPayload>> payloadsByType = new HashMap<>();
+        for (RemoteDataPayload payload : payloads) {
+            List<RemoteDataPayload> typePayloads = payloadsByType.get(payload.getType());
+            if (typePayloads == null) {
+                typePayloads = new ArrayList<>();
+                payloadsByType.put(payload.getType(), typePayloads);
+            }
+            typePayloads.add(payload);
+        }
+
+        Set<String> changedTypes = new HashSet<>();
+
+        try {
+            db.beginTransaction();
+            try {
+                Map<String, String> storedHashes = new HashMap<>();
+                Map<String, Set<String>> storedMetadata = new HashMap<>();
+                readStoredTypes(db, storedHashes, storedMetadata);
+
+                for (String type : storedHashes.keySet()) {
+                    if (!payloadsByType.containsKey(type)) {
+                        db.delete(TABLE_NAME, COLUMN_NAME_TYPE + " = ?", new String[] { type });
+                        changedTypes.add(type);
+                    }
+                }
+
+                for (Map.Entry<String, List<RemoteDataPayload>> entry : payloadsByType.entrySet()) {
+                    String type = entry.getKey();
+                    List<RemoteDataPayload> typePayloads = entry.getValue();
+
+                    List<String> data = new ArrayList<>(typePayloads.size());
+                    for (RemoteDataPayload payload : typePayloads) {
+                        data.add(payload.getData().toString());
+                    }
+
+                    String hash = createHash(typePayloads, data);
+                    String metadata = sharedMetadata(typePayloads);
+
+                    if (hash != null && metadata != null && hash.equals(storedHashes.get(type))) {
+                        Set<String> stored = storedMetadata.get(type);
+                        if (stored != null && stored.size() == 1 && stored.contains(metadata)) {
+                            continue;
+                        }
+
+                        // Same data, only the metadata needs to be updated
+                        ContentValues value = new ContentValues();
+                        value.put(COLUMN_NAME_METADATA, metadata);
+                        db.update(TABLE_NAME, value, COLUMN_NAME_TYPE + " = ?", new String[] { type });
+                        changedTypes.add(type);
+                        continue;
+                    }
+
+                    db.delete(TABLE_NAME, COLUMN_NAME_TYPE + " = ?", new String[] { type });
+                    for (int i = 0; i < typePayloads.size(); i++) {
+                        RemoteDataPayload payload = typePayloads.get(i);
+                        ContentValues value = new ContentValues();
+                        value.put(COLUMN_NAME_TYPE, type);
+                        value.put(COLUMN_NAME_TIMESTAMP, payload.getTimestamp());
+                        value.put(COLUMN_NAME_DATA, data.get(i));
+                        value.put(COLUMN_NAME_METADATA, payload.getMetadata().toString());
+                        value.put(COLUMN_NAME_HASH, hash);
+                        if (db.insert(TABLE_NAME, null, value) == -1) {
+                            Logger.error("RemoteDataStore - Unable to save remote data payload.");
+                            return null;
+                        }
+                    }
+                    changedTypes.add(type);
+                }
+
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        } catch (SQLException e) {
+            Logger.error(e, "RemoteDataStore - Unable to save remote data payloads.");
+            return null;
+        }
+
+        return changedTypes;
+    }
+
     /**
      * Gets all payloads.
      *
@@ -198,6 +310,80 @@ public class RemoteDataStore extends DataManager {
         return success;
     }
 
+    /**
+     * Reads the stored hash and metadata for each type.
+     *
+     * @param db The database.
+     * @param hashes The map to populate with the hash for each type.
+     * @param metadata The map to populate with the distinct metadata for each type.
+     */
+    private void readStoredTypes(@NonNull SQLiteDatabase db, @NonNull Map<String, String> hashes,
+                                 @NonNull Map<String, Set<String>> metadata) {
+        String[] columns = new String[] { COLUMN_NAME_TYPE, COLUMN_NAME_HASH, COLUMN_NAME_METADATA };
+        Cursor cursor = null;
+
+        try {
+            cursor = db.query(TABLE_NAME, columns, null, null, null, null, null);
+            while (cursor.moveToNext()) {
+                String type = cursor.getString(0);
+                String hash = cursor.getString(1);
+
+                // Types with rows from different refreshes will never match a new hash
+                if (hashes.containsKey(type) && !UAStringUtil.equals(hashes.get(type), hash)) {
+                    hash = null;
+                }
+                hashes.put(type, hash);
+
+                Set<String> typeMetadata = metadata.get(type);
+                if (typeMetadata == null) {
+                    typeMetadata = new HashSet<>();
+                    metadata.put(type, typeMetadata);
+                }
+                typeMetadata.add(cursor.getString(2));
+            }
+        } finally {
+            if (cursor != null) {
+                cursor.close();
+            }
+        }
+    }
+
+    /**
+     * Creates a hash of the payloads' timestamps and data that does not depend on their order.
+     *
+     * @param payloads The payloads.
+     * @param data The serialized data for each payload.
+     * @return The hash, or {@code null} if it could not be generated.
+     */
+    @Nullable
+    private static String createHash(@NonNull List<RemoteDataPayload> payloads, @NonNull List<String> data) {
+        List<String> entries = new ArrayList<>(payloads.size());
+        for (int i = 0; i < payloads.size(); i++) {
+            entries.add(payloads.get(i).getTimestamp() + ":" + data.get(i));
+        }
+
+        Collections.sort(entries);
+        return UAStringUtil.sha256(UAStringUtil.join(entries, "\n"));
+    }
+
+    /**
+     * Gets the metadata shared by all the payloads.
+     *
+     * @param payloads The payloads.
+     * @return The serialized metadata, or {@code null} if the payloads have different metadata.
+     */
+    @Nullable
+    private static String sharedMetadata(@NonNull List<RemoteDataPayload> payloads) {
+        JsonMap metadata = payloads.get(0).getMetadata();
+        for (RemoteDataPayload payload : payloads) {
+            if (!metadata.equals(payload.getMetadata())) {
+                return null;
+            }
+        }
+
+        return metadata.toString();
+    }
+
     /**
      * Helper method to generate payload entries from a a cursor.
      *
@@ -5,17 +5,22 @@ package com.urbanairship.util;
 import com.urbanairship.Logger;
 import com.urbanairship.UAirship;
 
+import java.io.BufferedReader;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 import androidx.annotation.WorkerThread;
 
 /**
@@ -24,7 +29,9 @@ import androidx.annotation.WorkerThread;
 public abstract class FileUtils {
 
     private final static int NETWORK_TIMEOUT_MS = 2000;
+    private final static int READ_TIMEOUT_MS = 10000;
     private final static int BUFFER_SIZE = 1024;
+    private final static String VALIDATOR_EXTENSION = ".validator";
 
     /**
      * Deletes a file and/or folder recursively.
@@ -68,9 +75,40 @@ public abstract class FileUtils {
          */
         public final boolean isSuccess;
 
-        DownloadResult(boolean isSuccess, int statusCode) {
+        /**
+         * The cache metadata of the response if the download succeeded.
+         *
+         * @hide
+         */
+        @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+        @Nullable
+        public final HttpCacheMetadata cacheMetadata;
+
+        /**
+         * Default constructor.
+         *
+         * @param isSuccess If the file downloaded successfully or not.
+         * @param statusCode The status code.
+         * @hide
+         */
+        @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+        public DownloadResult(boolean isSuccess, int statusCode) {
+            this(isSuccess, statusCode, null);
+        }
+
+        /**
+         * Default constructor.
+         *
+         * @param isSuccess If the file downloaded successfully or not.
+         * @param statusCode The status code.
+         * @param cacheMetadata The cache metadata of the response.
+         * @hide
+         */
+        @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+        public DownloadResult(boolean isSuccess, int statusCode, @Nullable HttpCacheMetadata cacheMetadata) {
             this.isSuccess = isSuccess;
             this.statusCode = statusCode;
+            this.cacheMetadata = cacheMetadata;
         }
 
     }
@@ -86,8 +124,62 @@ public abstract class FileUtils {
     @NonNull
     @WorkerThread
     public static DownloadResult downloadFile(@NonNull URL url, @NonNull File file) throws IOException {
+        return downloadFile(url, file, false);
+    }
+
+    /**
+     * Downloads a file to disk.
+     * <p>
+     * When resuming, any bytes already in the file are kept and only the remaining bytes are
+     * requested with a range request. The response's ETag or Last-Modified header is stored next to
+     * the file and sent back with {@code If-Range}, so the server sends the full file instead of the
+     * range if it changed since the partial download. Files without a stored validator are
+     * downloaded from the start. A partially downloaded file is kept on failure so it can be
+     * resumed later.
+     *
+     * @param url The URL image.
+     * @param file The file path where the image will be downloaded.
+     * @param resume {@code true} to resume a partial download, otherwise {@code false}.
+     * @return The download result.
+     * @throws IOException if output steam read or write operation fails.
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    @NonNull
+    @WorkerThread
+    public static DownloadResult downloadFile(@NonNull URL url, @NonNull File file, boolean resume) throws IOException {
+        return downloadFile(url, file, resume, null);
+    }
+
+    /**
+     * Downloads a file to disk, revalidating a cached copy.
+     * <p>
+     * If cache metadata is given, the request is conditional on the cached copy having changed. A
+     * {@code 304} response is a successful result that leaves the file untouched, with refreshed
+     * metadata. Successful results carry the response's cache metadata to store with the file.
+     * Revalidating always downloads the whole file, partial downloads are only resumed without
+     * cache metadata.
+     *
+     * @param url The URL image.
+     * @param file The file path where the image will be downloaded.
+     * @param resume {@code true} to resume a partial download, otherwise {@code false}.
+     * @param cachedMetadata The metadata of the cached copy, or {@code null} if not cached.
+     * @return The download result.
+     * @throws IOException if output steam read or write operation fails.
+     * @hide
+     */
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    @NonNull
+    @WorkerThread
+    public static DownloadResult downloadFile(@NonNull URL url, @NonNull File file, boolean resume,
+                                              @Nullable HttpCacheMetadata cachedMetadata) throws IOException {
         Logger.verbose("Downloading file from: %s to: %s", url, file.getAbsolutePath());
 
+        resume = resume && cachedMetadata == null;
+        File validatorFile = new File(file.getPath() + VALIDATOR_EXTENSION);
+        String validator = resume && file.exists() ? readValidator(validatorFile) : null;
+        long offset = validator != null ? file.length() : 0;
+
         InputStream inputStream = null;
         FileOutputStream outputStream = null;
         URLConnection conn = null;
@@ -96,13 +188,26 @@ public abstract class FileUtils {
 
             conn = ConnectionUtils.openSecureConnection(UAirship.getApplicationContext(), url);
             conn.setConnectTimeout(NETWORK_TIMEOUT_MS);
+            conn.setReadTimeout(READ_TIMEOUT_MS);
             conn.setUseCaches(true);
 
+            if (offset > 0) {
+                conn.setRequestProperty("Range", "bytes=" + offset + "-");
+                conn.setRequestProperty("If-Range", validator);
+            }
+
+            if (cachedMetadata != null) {
+                cachedMetadata.applyValidators(conn);
+            }
 
             int statusCode = 0;
 
             if (conn instanceof HttpURLConnection) {
                 statusCode = ((HttpURLConnection) conn).getResponseCode();
+                if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED && cachedMetadata != null) {
+                    return new DownloadResult(true, statusCode, HttpCacheMetadata.fromResponse(conn, cachedMetadata));
+                }
+
                 if (!UAHttpStatusUtil.inSuccessRange(statusCode)) {
                     return new DownloadResult(false, statusCode);
                 }
@@ -110,7 +215,12 @@ public abstract class FileUtils {
 
             inputStream = conn.getInputStream();
             if (inputStream != null) {
-                outputStream = new FileOutputStream(file);
+                // Only append if the server honored the range request
+                boolean append = offset > 0 && statusCode == HttpURLConnection.HTTP_PARTIAL;
+                if (resume && !append) {
+                    writeValidator(validatorFile, conn);
+                }
+                outputStream = new FileOutputStream(file, append);
 
                 byte[] buffer = new byte[BUFFER_SIZE];
                 int bytesRead;
@@ -122,19 +232,77 @@ public abstract class FileUtils {
                 outputStream.close();
                 inputStream.close();
 
-                return new DownloadResult(true, statusCode);
+                validatorFile.delete();
+                return new DownloadResult(true, statusCode, HttpCacheMetadata.fromResponse(conn, null));
             }
 
             return new DownloadResult(false, statusCode);
         } catch (IOException e) {
-            // the file may have been partially created - delete it
-            file.delete();
+            // the file may have been partially created - delete it unless it can be resumed
+            if (!resume) {
+                file.delete();
+            }
             throw e;
         } finally {
             endRequest(conn, inputStream, outputStream);
         }
     }
 
+    /**
+     * Reads the validator stored for a partial download.
+     *
+     * @param validatorFile The validator file.
+     * @return The validator, or {@code null} if none is stored.
+     */
+    @Nullable
+    private static String readValidator(@NonNull File validatorFile) {
+        if (!validatorFile.exists()) {
+            return null;
+        }
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader(validatorFile));
+            String validator = reader.readLine();
+            return UAStringUtil.isEmpty(validator) ? null : validator;
+        } catch (IOException e) {
+            Logger.error(e, "Failed to read download validator: %s", validatorFile);
+            return null;
+        } finally {
+            endRequest(null, reader);
+        }
+    }
+
+    /**
+     * Stores the response's validator for a partial download. Weak ETags can not be used for
+     * range requests, so the Last-Modified date is used instead.
+     *
+     * @param validatorFile The validator file.
+     * @param connection The connection.
+     */
+    private static void writeValidator(@NonNull File validatorFile, @NonNull URLConnection connection) {
+        String validator = connection.getHeaderField("ETag");
+        if (validator == null || validator.startsWith("W/")) {
+            validator = connection.getHeaderField("Last-Modified");
+        }
+
+        if (UAStringUtil.isEmpty(validator)) {
+            validatorFile.delete();
+            return;
+        }
+
+        Writer writer = null;
+        try {
+            writer = new FileWriter(validatorFile);
+            writer.write(validator);
+        } catch (IOException e) {
+            Logger.error(e, "Failed to write download validator: %s", validatorFile);
+            validatorFile.delete();
+        } finally {
+            endRequest(null, writer);
+        }
+    }
+
     /**
      * Helper method to end a connection request and any associated closeables.
      *
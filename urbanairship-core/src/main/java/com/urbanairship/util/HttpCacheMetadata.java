@@ -0,0 +1,203 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import com.urbanairship.Logger;
+import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URLConnection;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+
+/**
+ * Freshness and validators of a file downloaded into a cache, stored as JSON next to the file.
+ * <p>
+ * Cached files are used until the response's max-age expires, then revalidated with a
+ * conditional request using the response's ETag or Last-Modified date.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class HttpCacheMetadata {
+
+    /**
+     * How long a file is used without revalidating it if the response has no max-age.
+     */
+    @VisibleForTesting
+    static final long DEFAULT_MAX_AGE_MS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String EXPIRES_KEY = "expires";
+    private static final String ETAG_KEY = "etag";
+    private static final String LAST_MODIFIED_KEY = "last_modified";
+
+    private final long expires;
+    @Nullable
+    private final String etag;
+    @Nullable
+    private final String lastModified;
+
+    /**
+     * Default constructor.
+     *
+     * @param expires When the file expires in milliseconds since the epoch.
+     * @param etag The ETag.
+     * @param lastModified The Last-Modified date.
+     */
+    public HttpCacheMetadata(long expires, @Nullable String etag, @Nullable String lastModified) {
+        this.expires = expires;
+        this.etag = etag;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Checks if the file needs to be revalidated.
+     *
+     * @param now The current time in milliseconds.
+     * @return {@code true} if the file expired, otherwise {@code false}.
+     */
+    public boolean isExpired(long now) {
+        return expires <= now;
+    }
+
+    /**
+     * Makes the request conditional on the cached copy having changed.
+     *
+     * @param conn The connection.
+     */
+    public void applyValidators(@NonNull URLConnection conn) {
+        if (etag != null) {
+            conn.setRequestProperty("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            conn.setRequestProperty("If-Modified-Since", lastModified);
+        }
+    }
+
+    /**
+     * Creates the metadata from the response headers. A {@code 304} response may leave out the
+     * validators, in which case the cached ones are kept.
+     *
+     * @param conn The connection.
+     * @param cached The metadata of the cached copy, or {@code null} if not cached.
+     * @return The metadata.
+     */
+    @NonNull
+    public static HttpCacheMetadata fromResponse(@NonNull URLConnection conn, @Nullable HttpCacheMetadata cached) {
+        String etag = conn.getHeaderField("ETag");
+        String lastModified = conn.getHeaderField("Last-Modified");
+        if (cached != null && etag == null && lastModified == null) {
+            etag = cached.etag;
+            lastModified = cached.lastModified;
+        }
+
+        long maxAge = parseMaxAge(conn.getHeaderField("Cache-Control"));
+        return new HttpCacheMetadata(System.currentTimeMillis() + maxAge, etag, lastModified);
+    }
+
+    /**
+     * Parses the max age from a Cache-Control header.
+     *
+     * @param cacheControl The header value.
+     * @return The max age in milliseconds.
+     */
+    @VisibleForTesting
+    static long parseMaxAge(@Nullable String cacheControl) {
+        if (cacheControl == null) {
+            return DEFAULT_MAX_AGE_MS;
+        }
+
+        for (String directive : cacheControl.toLowerCase(Locale.ROOT).split(",")) {
+            directive = directive.trim();
+            if (directive.equals("no-cache") || directive.equals("no-store")) {
+                return 0;
+            }
+
+            if (directive.startsWith("max-age=")) {
+                try {
+                    return TimeUnit.SECONDS.toMillis(Long.parseLong(directive.substring(8).trim()));
+                } catch (NumberFormatException e) {
+                    Logger.verbose("Invalid max-age: %s", directive);
+                }
+            }
+        }
+
+        return DEFAULT_MAX_AGE_MS;
+    }
+
+    /**
+     * Reads the metadata file.
+     *
+     * @param file The metadata file.
+     * @return The metadata, or {@code null} if it does not exist or is invalid.
+     */
+    @Nullable
+    public static HttpCacheMetadata read(@NonNull File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader(file));
+            JsonMap json = JsonValue.parseString(reader.readLine()).optMap();
+            return new HttpCacheMetadata(json.opt(EXPIRES_KEY).getLong(0),
+                    json.opt(ETAG_KEY).getString(),
+                    json.opt(LAST_MODIFIED_KEY).getString());
+        } catch (IOException | JsonException e) {
+            Logger.verbose("Failed to read cache metadata: %s", file);
+            return null;
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    Logger.error(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the metadata file. The file is removed if it fails to write.
+     *
+     * @param file The metadata file.
+     */
+    public void write(@NonNull File file) {
+        JsonMap json = JsonMap.newBuilder()
+                              .put(EXPIRES_KEY, expires)
+                              .put(ETAG_KEY, etag)
+                              .put(LAST_MODIFIED_KEY, lastModified)
+                              .build();
+
+        Writer writer = null;
+        try {
+            writer = new FileWriter(file);
+            writer.write(json.toString());
+        } catch (IOException e) {
+            Logger.error(e, "Failed to write cache metadata: %s", file);
+            file.delete();
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    Logger.error(e);
+                }
+            }
+        }
+    }
+
+}
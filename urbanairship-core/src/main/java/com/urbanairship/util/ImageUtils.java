@@ -20,6 +20,7 @@ import java.net.URL;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
 import androidx.core.util.ObjectsCompat;
 
 /**
@@ -44,7 +45,15 @@ public final class ImageUtils {
          */
         public final long bytes;
 
-        private DrawableResult(Drawable drawable, long bytes) {
+        /**
+         * Default constructor.
+         *
+         * @param drawable The drawable.
+         * @param bytes The size in bytes.
+         * @hide
+         */
+        @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+        public DrawableResult(@NonNull Drawable drawable, long bytes) {
             this.drawable = drawable;
             this.bytes = bytes;
         }
@@ -88,9 +97,34 @@ public final class ImageUtils {
         int reqHeight,
         int fallbackWidth,
         int fallbackHeight
+    ) throws IOException {
+        return fetchImage(context, url, imageFile -> decodeScaledDrawable(context, imageFile, reqWidth, reqHeight, fallbackWidth, fallbackHeight));
+    }
+
+    /**
+     * Decodes a drawable from a local image file, using the supplied fallback dimensions if the
+     * {@code ImageView} reports a width or height of zero.
+     *
+     * @param context The application context.
+     * @param imageFile The image file.
+     * @param reqWidth The requested width of the image.
+     * @param reqHeight The requested height of the image.
+     * @param fallbackWidth The width dimension to be used if the ImageView reports a width of zero.
+     * @param fallbackHeight The height dimension to be used if the ImageView reports a height of zero.
+     * @return The result or null if the file was unable to be decoded.
+     * @throws IOException if the file fails to be decoded.
+     */
+    @Nullable
+    public static DrawableResult decodeScaledDrawable(
+        @NonNull Context context,
+        @NonNull File imageFile,
+        int reqWidth,
+        int reqHeight,
+        int fallbackWidth,
+        int fallbackHeight
     ) throws IOException {
         if (Build.VERSION.SDK_INT < Build.VERSION_CODES.P) {
-            Bitmap bitmap = ImageUtils.fetchScaledBitmap(context, url, reqWidth, reqHeight, fallbackWidth, fallbackHeight);
+            Bitmap bitmap = decodeScaledBitmap(imageFile, reqWidth, reqHeight, fallbackWidth, fallbackHeight);
 
             if (bitmap == null) {
                 return null;
@@ -99,26 +133,24 @@ public final class ImageUtils {
             Drawable drawable = new BitmapDrawable(context.getResources(), bitmap);
             return new DrawableResult(drawable, bitmap.getByteCount());
         } else {
-            return fetchImage(context, url, imageFile -> {
-                ImageDecoder.Source source = ImageDecoder.createSource(imageFile);
-                Drawable drawable = ImageDecoder.decodeDrawable(source, (decoder, info, source1) -> {
-                    int sourceWidth = info.getSize().getWidth();
-                    int sourceHeight = info.getSize().getHeight();
-                    Size target = calculateTargetSize(
-                        sourceWidth, sourceHeight, reqWidth, reqHeight, fallbackWidth, fallbackHeight);
-
-                    decoder.setTargetSampleSize(calculateInSampleSize(sourceWidth, sourceHeight, target.width, target.height));
-                });
-
-                long byteCount;
-                if (drawable instanceof BitmapDrawable) {
-                    byteCount = ((BitmapDrawable) drawable).getBitmap().getByteCount();
-                } else {
-                    byteCount = imageFile.length();
-                }
-
-                return new DrawableResult(drawable, byteCount);
+            ImageDecoder.Source source = ImageDecoder.createSource(imageFile);
+            Drawable drawable = ImageDecoder.decodeDrawable(source, (decoder, info, source1) -> {
+                int sourceWidth = info.getSize().getWidth();
+                int sourceHeight = info.getSize().getHeight();
+                Size target = calculateTargetSize(
+                    sourceWidth, sourceHeight, reqWidth, reqHeight, fallbackWidth, fallbackHeight);
+
+                decoder.setTargetSampleSize(calculateInSampleSize(sourceWidth, sourceHeight, target.width, target.height));
             });
+
+            long byteCount;
+            if (drawable instanceof BitmapDrawable) {
+                byteCount = ((BitmapDrawable) drawable).getBitmap().getByteCount();
+            } else {
+                byteCount = imageFile.length();
+            }
+
+            return new DrawableResult(drawable, byteCount);
         }
     }
 
@@ -152,40 +184,56 @@ public final class ImageUtils {
      */
     @Nullable
     public static Bitmap fetchScaledBitmap(@NonNull Context context, @NonNull URL url, int reqWidth, int reqHeight, int fallbackWidth, int fallbackHeight) throws IOException {
-        Bitmap bitmap = fetchImage(context, url, imageFile -> {
-            if (Build.VERSION.SDK_INT < Build.VERSION_CODES.P) {
-                BitmapFactory.Options options = new BitmapFactory.Options();
-                options.inJustDecodeBounds = true;
+        Bitmap bitmap = fetchImage(context, url, imageFile -> decodeScaledBitmap(imageFile, reqWidth, reqHeight, fallbackWidth, fallbackHeight));
 
-                BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
+        if (bitmap != null) {
+            Logger.debug("Fetched image from: %s. Original image size: %dx%d. Requested image size: %dx%d. Bitmap size: %dx%d.", url, reqWidth, reqHeight, reqWidth, reqHeight, bitmap.getWidth(), bitmap.getHeight());
+        }
 
-                int sourceWidth = options.outWidth;
-                int sourceHeight = options.outHeight;
-                Size target = calculateTargetSize(sourceWidth, sourceHeight, reqWidth, reqHeight, fallbackWidth, fallbackHeight);
+        return bitmap;
+    }
 
-                options.inSampleSize = calculateInSampleSize(sourceWidth, sourceHeight, target.width, target.height);
-                options.inJustDecodeBounds = false;
+    /**
+     * Decodes a scaled bitmap from a local image file.
+     *
+     * @param imageFile The image file.
+     * @param reqWidth The requested width of the image.
+     * @param reqHeight The requested height of the image.
+     * @param fallbackWidth The width dimension to be used if the requested width is zero.
+     * @param fallbackHeight The height dimension to be used if the requested height is zero.
+     * @return The scaled bitmap, or null if the file was unable to be decoded.
+     * @throws IOException if the file fails to be decoded.
+     * @hide
+     */
+    @Nullable
+    @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+    public static Bitmap decodeScaledBitmap(@NonNull File imageFile, int reqWidth, int reqHeight, int fallbackWidth, int fallbackHeight) throws IOException {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.P) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
 
-                return BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
-            } else {
+            BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
 
-                ImageDecoder.Source source = ImageDecoder.createSource(imageFile);
+            int sourceWidth = options.outWidth;
+            int sourceHeight = options.outHeight;
+            Size target = calculateTargetSize(sourceWidth, sourceHeight, reqWidth, reqHeight, fallbackWidth, fallbackHeight);
 
-                return ImageDecoder.decodeBitmap(source, (decoder, info, source1) -> {
-                    int sourceWidth = info.getSize().getWidth();
-                    int sourceHeight = info.getSize().getHeight();
-                    Size target = calculateTargetSize(sourceWidth, sourceHeight, reqWidth, reqHeight, fallbackWidth, fallbackHeight);
+            options.inSampleSize = calculateInSampleSize(sourceWidth, sourceHeight, target.width, target.height);
+            options.inJustDecodeBounds = false;
 
-                    decoder.setTargetSampleSize(calculateInSampleSize(sourceWidth, sourceHeight, target.width, target.height));
-                });
-            }
-        });
+            return BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
+        } else {
 
-        if (bitmap != null) {
-            Logger.debug("Fetched image from: %s. Original image size: %dx%d. Requested image size: %dx%d. Bitmap size: %dx%d.", url, reqWidth, reqHeight, reqWidth, reqHeight, bitmap.getWidth(), bitmap.getHeight());
-        }
+            ImageDecoder.Source source = ImageDecoder.createSource(imageFile);
 
-        return bitmap;
+            return ImageDecoder.decodeBitmap(source, (decoder, info, source1) -> {
+                int sourceWidth = info.getSize().getWidth();
+                int sourceHeight = info.getSize().getHeight();
+                Size target = calculateTargetSize(sourceWidth, sourceHeight, reqWidth, reqHeight, fallbackWidth, fallbackHeight);
+
+                decoder.setTargetSampleSize(calculateInSampleSize(sourceWidth, sourceHeight, target.width, target.height));
+            });
+        }
     }
 
     /**
@@ -0,0 +1,383 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import com.urbanairship.AirshipExecutors;
+import com.urbanairship.Logger;
+import com.urbanairship.PreferenceDataStore;
+import com.urbanairship.QueueData;
+import com.urbanairship.QueueDataDao;
+import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonSerializable;
+import com.urbanairship.json.JsonValue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+import androidx.arch.core.util.Function;
+
+/**
+ * JsonDatabaseQueue is a thread safe storage queue for json serializable items
+ * backed by its own table in the preference database.
+ * <p>
+ * Each item is stored as its own row, so adding and popping items only writes the affected rows
+ * instead of rewriting the entire queue. The items are mirrored in memory so reads never touch
+ * the database, and writes are applied in order on a serial executor. If a write fails, the
+ * items are reloaded from the table once the pending writes finish, so the queue never drifts
+ * from what is stored. Items stored as a single JSON list preference under the same key by older
+ * SDK versions are migrated into the table when the queue is created.
+ *
+ * @param <T> The value to be stored.
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class JsonDatabaseQueue<T> {
+
+    private final QueueDataDao dao;
+    private final String queueName;
+    private final Function<JsonValue, T> deserializer;
+    private final Function<T, ? extends JsonSerializable> serializer;
+    private final Executor executor;
+
+    private final Object lock = new Object();
+    private final Deque<JsonValue> items = new ArrayDeque<>();
+
+    private int pendingWrites;
+    private boolean isOutOfSync;
+
+    /**
+     * Default constructor.
+     *
+     * @param dataStore The preference data store.
+     * @param storeKey The store key. Used as the queue name and to migrate any legacy items.
+     * @param serializer The value serializer.
+     * @param deserializer The value deserializer.
+     */
+    public JsonDatabaseQueue(@NonNull PreferenceDataStore dataStore,
+                             @NonNull String storeKey,
+                             @NonNull Function<T, ? extends JsonSerializable> serializer,
+                             @NonNull Function<JsonValue, T> deserializer) {
+        this(dataStore, dataStore.getQueueDao(), storeKey, serializer, deserializer, AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_DISK));
+    }
+
+    @VisibleForTesting
+    JsonDatabaseQueue(@NonNull PreferenceDataStore dataStore,
+                      @NonNull QueueDataDao dao,
+                      @NonNull String storeKey,
+                      @NonNull Function<T, ? extends JsonSerializable> serializer,
+                      @NonNull Function<JsonValue, T> deserializer,
+                      @NonNull Executor executor) {
+        this.dao = dao;
+        this.queueName = storeKey;
+        this.serializer = serializer;
+        this.deserializer = deserializer;
+        this.executor = executor;
+
+        migrateLegacyQueue(dataStore);
+        load();
+    }
+
+    /**
+     * Removes all elements.
+     */
+    public void removeAll() {
+        synchronized (lock) {
+            if (items.isEmpty()) {
+                return;
+            }
+
+            items.clear();
+            write("Failed to clear queue %s", new Runnable() {
+                @Override
+                public void run() {
+                    dao.deleteAll(queueName);
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds all values into the queue.
+     *
+     * @param values The values.
+     */
+    public void addAll(@NonNull List<T> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+
+        final List<QueueData> entities = new ArrayList<>();
+        synchronized (lock) {
+            for (T value : values) {
+                JsonValue jsonValue = serializer.apply(value).toJsonValue();
+                items.addLast(jsonValue);
+                entities.add(new QueueData(queueName, jsonValue.toString()));
+            }
+
+            write("Failed to add items to queue %s", new Runnable() {
+                @Override
+                public void run() {
+                    dao.insert(entities);
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds a value to the queue.
+     *
+     * @param value The value.
+     */
+    public void add(@NonNull T value) {
+        addAll(Collections.singletonList(value));
+    }
+
+    /**
+     * Pops the next value off the queue.
+     *
+     * @return The next value or {@code null} if the queue is empty.
+     */
+    @Nullable
+    public T pop() {
+        List<T> values = pop(1);
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    /**
+     * Pops up to {@code count} values off the queue.
+     *
+     * @param count The max number of values to pop.
+     * @return The popped values in queue order.
+     */
+    @NonNull
+    public List<T> pop(final int count) {
+        List<JsonValue> popped = new ArrayList<>();
+        synchronized (lock) {
+            while (popped.size() < count && !items.isEmpty()) {
+                popped.add(items.removeFirst());
+            }
+
+            if (popped.isEmpty()) {
+                return Collections.emptyList();
+            }
+
+            final int popCount = popped.size();
+            write("Failed to pop items from queue %s", new Runnable() {
+                @Override
+                public void run() {
+                    dao.pop(queueName, popCount);
+                }
+            });
+        }
+
+        return deserialize(popped);
+    }
+
+    /**
+     * Peeks the next value.
+     *
+     * @return The next value or {@code null} if the queue is empty.
+     */
+    @Nullable
+    public T peek() {
+        JsonValue value;
+        synchronized (lock) {
+            value = items.peekFirst();
+        }
+
+        return value == null ? null : deserializer.apply(value);
+    }
+
+    /**
+     * Peeks up to {@code count} values.
+     *
+     * @param count The max number of values to peek.
+     * @return The values at the head of the queue in queue order.
+     */
+    @NonNull
+    public List<T> peek(int count) {
+        List<JsonValue> values = new ArrayList<>();
+        synchronized (lock) {
+            Iterator<JsonValue> iterator = items.iterator();
+            while (values.size() < count && iterator.hasNext()) {
+                values.add(iterator.next());
+            }
+        }
+
+        return deserialize(values);
+    }
+
+    /**
+     * Gets the number of values in the queue.
+     *
+     * @return The queue size.
+     */
+    public int size() {
+        synchronized (lock) {
+            return items.size();
+        }
+    }
+
+    /**
+     * Gets the values as a list.
+     *
+     * @return The list.
+     */
+    @NonNull
+    public List<T> getList() {
+        List<JsonValue> values;
+        synchronized (lock) {
+            values = new ArrayList<>(items);
+        }
+
+        return deserialize(values);
+    }
+
+    /**
+     * Applies an operation to the queue.
+     *
+     * @param listOperation The operation.
+     */
+    public void apply(@NonNull Function<List<T>, List<T>> listOperation) {
+        synchronized (lock) {
+            List<T> values = listOperation.apply(getList());
+
+            items.clear();
+            final List<QueueData> entities = new ArrayList<>();
+            for (T value : values) {
+                JsonValue jsonValue = serializer.apply(value).toJsonValue();
+                items.addLast(jsonValue);
+                entities.add(new QueueData(queueName, jsonValue.toString()));
+            }
+
+            write("Failed to replace items in queue %s", new Runnable() {
+                @Override
+                public void run() {
+                    dao.replace(queueName, entities);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs a write on the executor. Must be called with the lock held, after the in-memory items
+     * are updated.
+     * <p>
+     * If the write fails the in-memory items no longer match the table. Later writes were
+     * queued against the in-memory items, so the items are reloaded from the table once there are
+     * no more pending writes.
+     *
+     * @param errorMessage The message logged if the write fails.
+     * @param write The write.
+     */
+    private void write(@NonNull final String errorMessage, @NonNull final Runnable write) {
+        pendingWrites++;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                boolean failed = false;
+                try {
+                    write.run();
+                } catch (Exception e) {
+                    Logger.error(e, errorMessage, queueName);
+                    failed = true;
+                }
+
+                synchronized (lock) {
+                    pendingWrites--;
+                    isOutOfSync |= failed;
+                    if (isOutOfSync && pendingWrites == 0 && load()) {
+                        isOutOfSync = false;
+                    }
+                }
+            }
+        });
+    }
+
+    @NonNull
+    private List<T> deserialize(@NonNull List<JsonValue> values) {
+        List<T> result = new ArrayList<>(values.size());
+        for (JsonValue value : values) {
+            result.add(deserializer.apply(value));
+        }
+        return result;
+    }
+
+    /**
+     * Moves any items stored as a single JSON list preference into the queue table.
+     *
+     * @param dataStore The preference data store.
+     */
+    private void migrateLegacyQueue(@NonNull PreferenceDataStore dataStore) {
+        if (!dataStore.isSet(queueName)) {
+            return;
+        }
+
+        JsonList legacyItems = dataStore.getJsonValue(queueName).optList();
+        List<QueueData> entities = new ArrayList<>();
+        for (JsonValue value : legacyItems) {
+            entities.add(new QueueData(queueName, value.toString()));
+        }
+
+        try {
+            // Replace so a previously interrupted migration does not duplicate items
+            dao.replace(queueName, entities);
+            dataStore.putSync(queueName, null);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to migrate queue %s", queueName);
+        }
+    }
+
+    /**
+     * Replaces the in-memory items with the items in the table.
+     *
+     * @return {@code true} if the items were loaded, otherwise {@code false}.
+     */
+    private boolean load() {
+        List<QueueData> entities;
+        try {
+            entities = dao.getAll(queueName);
+        } catch (Exception e) {
+            Logger.error(e, "Failed to load queue %s", queueName);
+            return false;
+        }
+
+        List<JsonValue> values = new ArrayList<>();
+        List<QueueData> validEntities = new ArrayList<>();
+        for (QueueData entity : entities) {
+            try {
+                values.add(JsonValue.parseString(entity.getValue()));
+                validEntities.add(entity);
+            } catch (JsonException e) {
+                Logger.error(e, "Unable to parse queue item in %s", queueName);
+            }
+        }
+
+        synchronized (lock) {
+            items.clear();
+            items.addAll(values);
+        }
+
+        // Drop any invalid rows so the table stays in sync with the in-memory items
+        if (validEntities.size() != entities.size()) {
+            try {
+                dao.replace(queueName, validEntities);
+            } catch (Exception e) {
+                Logger.error(e, "Failed to remove invalid items from queue %s", queueName);
+            }
+        }
+
+        return true;
+    }
+
+}
@@ -0,0 +1,544 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * Bounded thread pool that runs tasks from a fixed number of priority lanes.
+ * <p>
+ * Each lane is a FIFO queue, lane 0 being the highest priority. Idle threads always take the
+ * oldest task from the highest priority lane that has work. Threads are started on demand up to
+ * the max thread count and stop after being idle for the keep alive time. The highest priority
+ * lane is allowed to start a few reserved threads on top of the max so it still makes progress
+ * when every other thread is busy. Reserved threads only ever run tasks from the highest priority
+ * lane, so lower lanes never have more than the max thread count running at once.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class PriorityExecutor extends AbstractExecutorService {
+
+    /**
+     * Queue metrics for a single lane.
+     */
+    public static class QueueMetrics {
+
+        private final int queueSize;
+        private final int peakQueueSize;
+        private final long executedCount;
+
+        QueueMetrics(int queueSize, int peakQueueSize, long executedCount) {
+            this.queueSize = queueSize;
+            this.peakQueueSize = peakQueueSize;
+            this.executedCount = executedCount;
+        }
+
+        /**
+         * The number of tasks waiting to run.
+         *
+         * @return The queue size.
+         */
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        /**
+         * The largest number of tasks that were waiting to run at once.
+         *
+         * @return The peak queue size.
+         */
+        public int getPeakQueueSize() {
+            return peakQueueSize;
+        }
+
+        /**
+         * The number of tasks that have been taken off the queue to run.
+         *
+         * @return The executed count.
+         */
+        public long getExecutedCount() {
+            return executedCount;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "QueueMetrics{" +
+                    "queueSize=" + queueSize +
+                    ", peakQueueSize=" + peakQueueSize +
+                    ", executedCount=" + executedCount +
+                    '}';
+        }
+
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition taskAvailable = lock.newCondition();
+    private final Condition reservedTaskAvailable = lock.newCondition();
+    private final Condition terminated = lock.newCondition();
+
+    private final ThreadFactory threadFactory;
+    private final ArrayDeque<Runnable>[] queues;
+    private final int[] peakQueueSizes;
+    private final long[] executedCounts;
+    private final ExecutorService[] laneExecutors;
+    private final int maxThreads;
+    private final int reservedThreads;
+    private final long keepAliveNanos;
+
+    private int queuedCount;
+    private int threadCount;
+    private int idleThreadCount;
+    private int reservedThreadCount;
+    private int idleReservedThreadCount;
+    private int peakThreadCount;
+    private boolean isShutdown;
+
+    private final Runnable worker = new Runnable() {
+        @Override
+        public void run() {
+            runWorker(false);
+        }
+    };
+
+    private final Runnable reservedWorker = new Runnable() {
+        @Override
+        public void run() {
+            runWorker(true);
+        }
+    };
+
+    /**
+     * Default constructor.
+     *
+     * @param threadFactory The thread factory.
+     * @param laneCount The number of priority lanes.
+     * @param maxThreads The max number of threads.
+     * @param reservedThreads The number of extra threads only the highest priority lane can start.
+     * @param keepAliveMs How long an idle thread waits for work before it stops.
+     */
+    @SuppressWarnings("unchecked")
+    public PriorityExecutor(@NonNull ThreadFactory threadFactory, int laneCount, int maxThreads,
+                            int reservedThreads, long keepAliveMs) {
+        if (laneCount < 1 || maxThreads < 1 || reservedThreads < 0) {
+            throw new IllegalArgumentException("Invalid executor size");
+        }
+
+        this.threadFactory = threadFactory;
+        this.maxThreads = maxThreads;
+        this.reservedThreads = reservedThreads;
+        this.keepAliveNanos = TimeUnit.MILLISECONDS.toNanos(keepAliveMs);
+        this.queues = new ArrayDeque[laneCount];
+        this.peakQueueSizes = new int[laneCount];
+        this.executedCounts = new long[laneCount];
+        this.laneExecutors = new ExecutorService[laneCount];
+
+        for (int i = 0; i < laneCount; i++) {
+            queues[i] = new ArrayDeque<>();
+            laneExecutors[i] = new LaneExecutor(i);
+        }
+    }
+
+    /**
+     * Gets an executor service that runs its tasks on the given lane. Shutting down the
+     * returned executor is not supported.
+     *
+     * @param lane The lane.
+     * @return The lane executor.
+     */
+    @NonNull
+    public ExecutorService getLaneExecutor(int lane) {
+        checkLane(lane);
+        return laneExecutors[lane];
+    }
+
+    /**
+     * Runs the task on the lowest priority lane.
+     *
+     * @param runnable The task.
+     */
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        execute(queues.length - 1, runnable);
+    }
+
+    /**
+     * Runs the task on the given lane.
+     *
+     * @param lane The lane.
+     * @param runnable The task.
+     */
+    public void execute(int lane, @NonNull Runnable runnable) {
+        checkLane(lane);
+        if (runnable == null) {
+            throw new NullPointerException();
+        }
+
+        boolean startThread = false;
+        boolean startReservedThread = false;
+
+        lock.lock();
+        try {
+            if (isShutdown) {
+                throw new RejectedExecutionException("Executor has been shut down");
+            }
+
+            ArrayDeque<Runnable> queue = queues[lane];
+            queue.offer(runnable);
+            queuedCount++;
+            peakQueueSizes[lane] = Math.max(peakQueueSizes[lane], queue.size());
+
+            if (idleThreadCount > 0) {
+                taskAvailable.signal();
+            } else if (lane == 0 && idleReservedThreadCount > 0) {
+                reservedTaskAvailable.signal();
+            }
+
+            if (queuedCount > idleThreadCount && threadCount < maxThreads) {
+                threadCount++;
+                startThread = true;
+            } else if (lane == 0 && needsReservedThread()) {
+                reservedThreadCount++;
+                startReservedThread = true;
+            }
+
+            peakThreadCount = Math.max(peakThreadCount, threadCount + reservedThreadCount);
+        } finally {
+            lock.unlock();
+        }
+
+        if (startThread) {
+            startWorker(false);
+        } else if (startReservedThread) {
+            startWorker(true);
+        }
+    }
+
+    /**
+     * Gets the queue metrics for a lane.
+     *
+     * @param lane The lane.
+     * @return The queue metrics.
+     */
+    @NonNull
+    public QueueMetrics getQueueMetrics(int lane) {
+        checkLane(lane);
+        lock.lock();
+        try {
+            return new QueueMetrics(queues[lane].size(), peakQueueSizes[lane], executedCounts[lane]);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of running threads.
+     *
+     * @return The thread count.
+     */
+    public int getThreadCount() {
+        lock.lock();
+        try {
+            return threadCount + reservedThreadCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the largest number of threads that were running at once.
+     *
+     * @return The peak thread count.
+     */
+    public int getPeakThreadCount() {
+        lock.lock();
+        try {
+            return peakThreadCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            isShutdown = true;
+            taskAvailable.signalAll();
+            reservedTaskAvailable.signalAll();
+            if (threadCount + reservedThreadCount == 0) {
+                terminated.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shuts down the executor and removes all queued tasks. Running tasks are not interrupted.
+     *
+     * @return The tasks that never ran.
+     */
+    @NonNull
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> remaining = new ArrayList<>();
+        lock.lock();
+        try {
+            for (ArrayDeque<Runnable> queue : queues) {
+                remaining.addAll(queue);
+                queue.clear();
+            }
+            queuedCount = 0;
+        } finally {
+            lock.unlock();
+        }
+
+        shutdown();
+        return remaining;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        lock.lock();
+        try {
+            return isShutdown;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return isShutdown && threadCount + reservedThreadCount == 0 && queuedCount == 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!(isShutdown && threadCount + reservedThreadCount == 0 && queuedCount == 0)) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = terminated.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void startWorker(boolean reserved) {
+        try {
+            threadFactory.newThread(reserved ? reservedWorker : worker).start();
+        } catch (RuntimeException | OutOfMemoryError e) {
+            onWorkerExit(reserved);
+            throw e;
+        }
+    }
+
+    private void runWorker(boolean reserved) {
+        boolean completedAbruptly = true;
+        try {
+            Runnable task;
+            while ((task = takeTask(reserved)) != null) {
+                // Clear any interrupt left over from a cancelled task
+                Thread.interrupted();
+                task.run();
+            }
+            completedAbruptly = false;
+        } finally {
+            if (completedAbruptly) {
+                onWorkerExit(reserved);
+            }
+        }
+    }
+
+    /**
+     * Called when a worker stops without going through {@link #takeTask(boolean)}. Starts a
+     * replacement if there is still work queued.
+     */
+    private void onWorkerExit(boolean reserved) {
+        boolean startThread = false;
+
+        lock.lock();
+        try {
+            if (reserved) {
+                reservedThreadCount--;
+                if (!isShutdown && needsReservedThread()) {
+                    reservedThreadCount++;
+                    startThread = true;
+                }
+            } else {
+                threadCount--;
+                if (!isShutdown && queuedCount > idleThreadCount && threadCount < maxThreads) {
+                    threadCount++;
+                    startThread = true;
+                }
+            }
+
+            if (!startThread && threadCount + reservedThreadCount == 0) {
+                terminated.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (startThread) {
+            startWorker(reserved);
+        }
+    }
+
+    /**
+     * Checks if the highest priority lane has more work than the idle threads can take and another
+     * reserved thread is allowed. Must be called with the lock held.
+     */
+    private boolean needsReservedThread() {
+        return queues[0].size() > idleThreadCount + idleReservedThreadCount
+                && reservedThreadCount < reservedThreads;
+    }
+
+    /**
+     * Takes the next task, waiting up to the keep alive time for one to be queued.
+     *
+     * @param reserved {@code true} if the worker is a reserved thread.
+     * @return The next task, or {@code null} if the worker should stop.
+     */
+    @Nullable
+    private Runnable takeTask(boolean reserved) {
+        long remaining = keepAliveNanos;
+
+        lock.lock();
+        try {
+            while (true) {
+                // Reserved threads only run the highest priority lane
+                Runnable task = pollTask(reserved ? 1 : queues.length);
+                if (task != null) {
+                    return task;
+                }
+
+                if (isShutdown || remaining <= 0) {
+                    if (reserved) {
+                        reservedThreadCount--;
+                    } else {
+                        threadCount--;
+                    }
+
+                    if (threadCount + reservedThreadCount == 0) {
+                        terminated.signalAll();
+                    }
+                    return null;
+                }
+
+                try {
+                    if (reserved) {
+                        idleReservedThreadCount++;
+                        remaining = reservedTaskAvailable.awaitNanos(remaining);
+                    } else {
+                        idleThreadCount++;
+                        remaining = taskAvailable.awaitNanos(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    // Workers are only stopped by the keep alive or shutdown
+                } finally {
+                    if (reserved) {
+                        idleReservedThreadCount--;
+                    } else {
+                        idleThreadCount--;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Polls the oldest task from the highest priority lane that has work, only looking at the
+     * first {@code laneCount} lanes. Must be called with the lock held.
+     */
+    @Nullable
+    private Runnable pollTask(int laneCount) {
+        for (int i = 0; i < laneCount; i++) {
+            Runnable task = queues[i].poll();
+            if (task != null) {
+                queuedCount--;
+                executedCounts[i]++;
+                return task;
+            }
+        }
+        return null;
+    }
+
+    private void checkLane(int lane) {
+        if (lane < 0 || lane >= queues.length) {
+            throw new IllegalArgumentException("Invalid lane: " + lane);
+        }
+    }
+
+    /**
+     * Executor service view of a single lane.
+     */
+    private class LaneExecutor extends AbstractExecutorService {
+
+        private final int lane;
+
+        LaneExecutor(int lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            PriorityExecutor.this.execute(lane, runnable);
+        }
+
+        @Override
+        public void shutdown() {
+            throw new UnsupportedOperationException("Lane executors can not be shut down");
+        }
+
+        @NonNull
+        @Override
+        public List<Runnable> shutdownNow() {
+            throw new UnsupportedOperationException("Lane executors can not be shut down");
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return PriorityExecutor.this.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return PriorityExecutor.this.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+            return PriorityExecutor.this.awaitTermination(timeout, unit);
+        }
+
+    }
+
+}
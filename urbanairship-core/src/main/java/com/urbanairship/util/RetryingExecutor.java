@@ -56,7 +56,7 @@ public class RetryingExecutor implements Executor {
     }
 
     public static RetryingExecutor newSerialExecutor(Looper looper) {
-        return new RetryingExecutor(new Handler(looper), AirshipExecutors.newSerialExecutor());
+        return new RetryingExecutor(new Handler(looper), AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_NETWORK));
     }
 
     public static Result retryResult() {
@@ -9,6 +9,10 @@ import androidx.annotation.RestrictTo;
 
 /**
  * Executor that executes {@link Runnable} serially on another executor.
+ * <p>
+ * Only a single drain task is ever scheduled on the backing executor. It runs one runnable and
+ * reschedules itself while more are queued, so no wrapper is allocated per runnable and other
+ * work on the backing executor is not starved by a long queue.
  *
  * @hide
  */
@@ -19,6 +23,13 @@ public class SerialExecutor implements Executor {
     private final ArrayDeque<Runnable> runnables = new ArrayDeque<>();
     private boolean isExecuting = false;
 
+    private final Runnable drainRunnable = new Runnable() {
+        @Override
+        public void run() {
+            runNext();
+        }
+    };
+
     /**
      * Default constructor.
      *
@@ -34,35 +45,41 @@ public class SerialExecutor implements Executor {
             return;
         }
 
-        Runnable wrapped = new Runnable() {
-            @Override
-            public void run() {
-                try {
-                    runnable.run();
-                } finally {
-                    next();
-                }
+        synchronized (runnables) {
+            runnables.offer(runnable);
+            if (isExecuting) {
+                return;
             }
-        };
+            isExecuting = true;
+        }
+
+        executor.execute(drainRunnable);
+    }
 
+    private void runNext() {
+        Runnable next;
         synchronized (runnables) {
-            runnables.offer(wrapped);
-            if (!isExecuting) {
-                next();
+            next = runnables.pollFirst();
+        }
+
+        try {
+            if (next != null) {
+                next.run();
             }
+        } finally {
+            scheduleNext();
         }
     }
 
-    private void next() {
+    private void scheduleNext() {
         synchronized (runnables) {
-            Runnable next = runnables.pollFirst();
-            if (next != null) {
-                isExecuting = true;
-                executor.execute(next);
-            } else {
+            if (runnables.isEmpty()) {
                 isExecuting = false;
+                return;
             }
         }
+
+        executor.execute(drainRunnable);
     }
 
 }
@@ -35,7 +35,7 @@ import androidx.annotation.Size;
  */
 public class PassRequest {
 
-    private static final Executor DEFAULT_REQUEST_EXECUTOR = AirshipExecutors.newSerialExecutor();
+    private static final Executor DEFAULT_REQUEST_EXECUTOR = AirshipExecutors.newSerialExecutor(AirshipExecutors.PRIORITY_NETWORK);
 
     private static final String PASS_PATH = "v1/pass";
     private static final String API_KEY_QUERY_PARAM = "api_key";
@@ -67,6 +67,7 @@ public class AirshipConfigOptionsTest extends BaseTestCase {
         assertTrue(production.extendedBroadcastsEnabled);
         assertTrue(production.requireInitialRemoteConfigEnabled);
         assertEquals(PrivacyManager.FEATURE_NONE, production.enabledFeatures);
+        assertEquals(50, production.canonicalIdHistorySize);
     }
 
     /**
@@ -129,6 +130,7 @@ public class AirshipConfigOptionsTest extends BaseTestCase {
         assertFalse(defaultConfig.extendedBroadcastsEnabled);
         assertFalse(defaultConfig.requireInitialRemoteConfigEnabled);
         assertEquals(PrivacyManager.FEATURE_ALL, defaultConfig.enabledFeatures);
+        assertEquals(100, defaultConfig.canonicalIdHistorySize);
     }
 
     @Test
@@ -20,6 +20,7 @@ import androidx.annotation.NonNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class PreferenceDataStoreTest extends BaseTestCase {
@@ -104,6 +105,27 @@ public class PreferenceDataStoreTest extends BaseTestCase {
         assertTrue(testPrefs.getJsonValue("value").isNull());
     }
 
+    /**
+     * Test the parsed json value is cached and updated when the value changes.
+     */
+    @Test
+    public void testJsonValueCache() {
+        testPrefs.put("value", "{\"foo\":\"bar\"}");
+        JsonValue first = testPrefs.getJsonValue("value");
+        assertEquals("bar", first.optMap().opt("foo").getString());
+        assertSame(first, testPrefs.getJsonValue("value"));
+
+        testPrefs.put("value", "{\"foo\":\"baz\"}");
+        assertEquals("baz", testPrefs.getJsonValue("value").optMap().opt("foo").getString());
+
+        JsonValue jsonValue = JsonValue.wrap("cool");
+        testPrefs.put("value", jsonValue);
+        assertSame(jsonValue, testPrefs.getJsonValue("value"));
+
+        testPrefs.remove("value");
+        assertTrue(testPrefs.getJsonValue("value").isNull());
+    }
+
     /**
      * Test saving json serializable values.
      */
@@ -148,4 +170,47 @@ public class PreferenceDataStoreTest extends BaseTestCase {
         assertTrue(testPrefs.getJsonValue("value").isNull());
     }
 
+    /**
+     * Test pending writes are coalesced and written on flush.
+     */
+    @Test
+    public void testFlush() {
+        PreferenceDataDatabase db = PreferenceDataDatabase.createInMemoryDatabase(context);
+        PreferenceDataStore dataStore = new PreferenceDataStore(db);
+        PreferenceDataDao dao = db.getDao();
+
+        dataStore.put("value", "one");
+        dataStore.put("value", "two");
+        dataStore.put("other", 1);
+        dataStore.put("removed", true);
+        dataStore.remove("removed");
+
+        assertTrue(dataStore.flush());
+
+        assertEquals(2, dao.getPreferences().size());
+        assertEquals("two", dao.queryValue("value").getValue());
+        assertEquals("1", dao.queryValue("other").getValue());
+
+        dataStore.remove("other");
+        assertTrue(dataStore.flush());
+        assertEquals(1, dao.getPreferences().size());
+    }
+
+    /**
+     * Test putSync writes the value immediately.
+     */
+    @Test
+    public void testPutSync() {
+        PreferenceDataDatabase db = PreferenceDataDatabase.createInMemoryDatabase(context);
+        PreferenceDataStore dataStore = new PreferenceDataStore(db);
+
+        dataStore.put("value", "async");
+        assertTrue(dataStore.putSync("value", "sync"));
+        assertEquals("sync", db.getDao().queryValue("value").getValue());
+
+        dataStore.flush();
+        assertEquals("sync", db.getDao().queryValue("value").getValue());
+        assertEquals("sync", dataStore.getString("value", null));
+    }
+
 }
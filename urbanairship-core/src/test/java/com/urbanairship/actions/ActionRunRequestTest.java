@@ -30,6 +30,7 @@ import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNull;
 import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
 
 @Config(
         sdk = 28,
@@ -153,6 +154,26 @@ public class ActionRunRequestTest extends BaseTestCase {
         assertEquals("Result status should be COMPLETED", ActionResult.STATUS_COMPLETED, result.getStatus());
     }
 
+    /**
+     * Test running an action synchronously runs it on the calling thread.
+     */
+    @Test
+    public void testRunSyncOnCallingThread() {
+        TestAction action = new TestAction();
+
+        ActionResult result = ActionRunRequest.createRequest(action)
+                                              .setExecutor(new Executor() {
+                                                  @Override
+                                                  public void execute(Runnable command) {
+                                                      fail("Sync actions should not use the executor");
+                                                  }
+                                              })
+                                              .runSync();
+
+        assertTrue("Action failed to run", action.performCalled);
+        assertEquals("Result status should be COMPLETED", ActionResult.STATUS_COMPLETED, result.getStatus());
+    }
+
     /**
      * Test running an action synchronously from the registry
      */
@@ -16,6 +16,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -61,12 +62,12 @@ public class EventApiClientTest extends BaseTestCase {
      * Test sending a correct request that succeeds
      */
     @Test
-    public void testSendEventsSucceed() throws RequestException, JsonException {
+    public void testSendEventsSucceed() throws RequestException, JsonException, IOException {
         testRequest.responseBody = "";
         testRequest.responseStatus = 200;
         testRequest.responseLastModifiedTime = 0;
 
-        Response<EventResponse> response = client.sendEvents(events, Collections.<String, String>emptyMap());
+        Response<EventResponse> response = client.sendEvents(encode(events), events.size(), Collections.<String, String>emptyMap());
 
         assertEquals(200, response.getStatus());
         assertEquals("", response.getResponseBody());
@@ -81,23 +82,23 @@ public class EventApiClientTest extends BaseTestCase {
      * Test sending a request with a null URL will return an exception
      */
     @Test(expected = RequestException.class)
-    public void testNullUrl() throws RequestException {
+    public void testNullUrl() throws RequestException, IOException {
         runtimeConfig.setUrlConfig(AirshipUrlConfig.newBuilder().build());
-        client.sendEvents(events, Collections.<String, String>emptyMap());
+        client.sendEvents(encode(events), events.size(), Collections.<String, String>emptyMap());
     }
 
     /**
      * Test sending null or empty events returns an empty response.
      */
     @Test
-    public void testSendEmptyEvents() throws RequestException {
+    public void testSendEmptyEvents() throws RequestException, IOException {
         testRequest.responseBody = "";
         testRequest.responseStatus = 200;
         testRequest.responseLastModifiedTime = 0;
 
         events = new ArrayList<>();
 
-        Response<EventResponse> response = client.sendEvents(events, Collections.<String, String>emptyMap());
+        Response<EventResponse> response = client.sendEvents(encode(events), events.size(), Collections.<String, String>emptyMap());
 
         assertEquals(200, response.getStatus());
         assertEquals("", response.getResponseBody());
@@ -112,7 +113,7 @@ public class EventApiClientTest extends BaseTestCase {
      * This verifies all required and most optional headers.
      */
     @Test
-    public void testRequestHeaders() throws RequestException {
+    public void testRequestHeaders() throws RequestException, IOException {
         testRequest.responseBody = "";
         testRequest.responseStatus = 200;
         testRequest.responseLastModifiedTime = 0;
@@ -120,7 +121,7 @@ public class EventApiClientTest extends BaseTestCase {
         Map<String, String> headers = new HashMap<>();
         headers.put("foo", "bar");
 
-        Response<EventResponse> response = client.sendEvents(events, headers);
+        Response<EventResponse> response = client.sendEvents(encode(events), events.size(), headers);
 
         Map<String, String> requestHeaders = testRequest.getRequestHeaders();
 
@@ -136,14 +137,14 @@ public class EventApiClientTest extends BaseTestCase {
      * Verify we return a response even if the Json is malformated
      */
     @Test
-    public void testWrongJson() throws RequestException {
+    public void testWrongJson() throws RequestException, IOException {
         testRequest.responseBody = "";
         testRequest.responseStatus = 200;
         testRequest.responseLastModifiedTime = 0;
 
         events = new ArrayList<>();
         events.add(invalidEvent);
-        Response<EventResponse> response = client.sendEvents(events, Collections.<String, String>emptyMap());
+        Response<EventResponse> response = client.sendEvents(encode(events), events.size(), Collections.<String, String>emptyMap());
         assertEquals(200, response.getStatus());
         assertEquals("", response.getResponseBody());
         assertEquals("POST", testRequest.getRequestMethod());
@@ -151,4 +152,12 @@ public class EventApiClientTest extends BaseTestCase {
         assertEquals(0, response.getLastModifiedTime());
     }
 
+    private static byte[] encode(List<JsonValue> events) throws IOException {
+        EventBatchEncoder encoder = new EventBatchEncoder(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        for (int i = 0; i < events.size(); i++) {
+            encoder.add(i, events.get(i).toString());
+        }
+        return encoder.finish();
+    }
+
 }
@@ -0,0 +1,114 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.analytics.data;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.json.JsonException;
+import com.urbanairship.json.JsonList;
+import com.urbanairship.json.JsonValue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventBatchEncoderTest extends BaseTestCase {
+
+    @Test
+    public void testEncode() throws IOException, JsonException {
+        EventBatchEncoder encoder = new EventBatchEncoder(1000, 10);
+        assertTrue(encoder.add(4, "{\"event\":\"first\"}"));
+        assertTrue(encoder.add(5, "{\"event\":\"second\"}"));
+
+        byte[] payload = encoder.finish();
+        assertEquals(2, encoder.getEventCount());
+        assertEquals(4, encoder.getMinId());
+        assertEquals(5, encoder.getMaxId());
+
+        assertEquals(JsonValue.parseString("[{\"event\":\"first\"},{\"event\":\"second\"}]"),
+                JsonValue.parseString(decompress(payload)));
+    }
+
+    @Test
+    public void testEmpty() throws IOException, JsonException {
+        EventBatchEncoder encoder = new EventBatchEncoder(1000, 10);
+        assertEquals(0, encoder.getEventCount());
+        assertEquals(JsonList.EMPTY_LIST.toJsonValue(), JsonValue.parseString(decompress(encoder.finish())));
+    }
+
+    @Test
+    public void testMaxEventCount() throws IOException {
+        EventBatchEncoder encoder = new EventBatchEncoder(1000, 2);
+        assertTrue(encoder.add(1, "{}"));
+        assertTrue(encoder.add(2, "{}"));
+        assertFalse(encoder.add(3, "{}"));
+        assertEquals(2, encoder.getEventCount());
+    }
+
+    @Test
+    public void testMaxCompressedSize() throws IOException, JsonException {
+        Random random = new Random(1);
+        EventBatchEncoder encoder = new EventBatchEncoder(2000, 500);
+
+        int added = 0;
+        while (encoder.add(added, randomEvent(random))) {
+            added++;
+        }
+
+        byte[] payload = encoder.finish();
+        assertTrue(payload.length <= 2000);
+        assertEquals(added, encoder.getEventCount());
+        assertEquals(added, JsonValue.parseString(decompress(payload)).optList().size());
+    }
+
+    @Test
+    public void testCompressibleEventsUseCompressedSize() throws IOException {
+        // 100 events of ~1KB each that compress well fit in a 10KB batch
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            body.append('a');
+        }
+
+        EventBatchEncoder encoder = new EventBatchEncoder(10 * 1024, 500);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(encoder.add(i, "{\"body\":\"" + body + "\"}"));
+        }
+
+        assertTrue(encoder.finish().length <= 10 * 1024);
+    }
+
+    @Test
+    public void testFirstEventAlwaysAdded() throws IOException {
+        EventBatchEncoder encoder = new EventBatchEncoder(10, 500);
+        assertTrue(encoder.add(1, randomEvent(new Random(1))));
+        assertFalse(encoder.add(2, "{}"));
+        assertEquals(1, encoder.getEventCount());
+    }
+
+    private static String randomEvent(Random random) {
+        StringBuilder builder = new StringBuilder("{\"body\":\"");
+        for (int i = 0; i < 100; i++) {
+            builder.append((char) ('a' + random.nextInt(26)));
+        }
+        return builder.append("\"}").toString();
+    }
+
+    private static String decompress(byte[] payload) throws IOException {
+        GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(payload));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int count;
+        while ((count = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, count);
+        }
+        return outputStream.toString("UTF-8");
+    }
+
+}
@@ -4,6 +4,7 @@ import com.urbanairship.BaseTestCase;
 import com.urbanairship.analytics.Event;
 import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
 
 import org.junit.After;
 import org.junit.Before;
@@ -49,8 +50,7 @@ public class EventDaoTest extends BaseTestCase {
         eventDao.insert(ENTITY);
         assertEquals(1, eventDao.count());
 
-        List<EventEntity.EventIdAndData> batch = eventDao.getBatch(1);
-        EventEntity.EventIdAndData event = batch.get(0);
+        EventEntity event = eventDao.get().get(0);
         assertNotNull(event);
 
         assertEquals(ENTITY.eventId, event.eventId);
@@ -58,27 +58,46 @@ public class EventDaoTest extends BaseTestCase {
     }
 
     @Test
-    public void testGetAndDeleteBatch() throws JsonException {
-        Event event1 = new TestEvent("event-1");
-        Event event2 = new TestEvent("event-2");
-
-        EventEntity entity1 = EventEntity.create(event1, "session-1");
-        EventEntity entity2 = EventEntity.create(event2, "session-2");
+    public void testDeleteBatchKeepsNewerEvents() throws JsonException {
+        EventEntity entity1 = EventEntity.create(new TestEvent("event-1"), "session-1");
+        EventEntity entity2 = EventEntity.create(new TestEvent("event-2"), "session-1");
+        EventEntity entity3 = EventEntity.create(new TestEvent("event-3"), "session-2");
 
         eventDao.insert(entity1);
         eventDao.insert(entity2);
-        assertEquals(2, eventDao.count());
 
-        List<EventEntity.EventIdAndData> batch = eventDao.getBatch(10);
+        List<EventEntity.EventIdAndRawData> batch = eventDao.getRawBatch(-1, 10);
         assertEquals(2, batch.size());
 
-        assertEquals(entity1.eventId, batch.get(0).eventId);
-        assertEquals(entity1.data, batch.get(0).data);
+        // Added after the batch was read
+        eventDao.insert(entity3);
+
+        assertEquals(entity1.eventSize + entity2.eventSize, eventDao.deleteBatch(batch.get(0).id, batch.get(1).id));
+        assertEquals(1, eventDao.count());
+        assertTrue(entity3.contentEquals(eventDao.get().get(0)));
+        assertEquals(entity3.eventSize, eventDao.databaseSize());
+    }
 
-        assertEquals(entity2.eventId, batch.get(1).eventId);
-        assertEquals(entity2.data, batch.get(1).data);
+    @Test
+    public void testGetRawBatch() throws JsonException {
+        EventEntity entity1 = EventEntity.create(new TestEvent("event-1"), "session-1");
+        EventEntity entity2 = EventEntity.create(new TestEvent("event-2"), "session-1");
+        EventEntity entity3 = EventEntity.create(new TestEvent("event-3"), "session-1");
 
-        eventDao.deleteBatch(batch);
+        eventDao.insert(entity1);
+        eventDao.insert(entity2);
+        eventDao.insert(entity3);
+
+        List<EventEntity.EventIdAndRawData> page = eventDao.getRawBatch(-1, 2);
+        assertEquals(2, page.size());
+        assertEquals(entity1.data, JsonValue.parseString(page.get(0).data));
+        assertEquals(entity2.data, JsonValue.parseString(page.get(1).data));
+
+        page = eventDao.getRawBatch(page.get(1).id, 2);
+        assertEquals(1, page.size());
+        assertEquals(entity3.data, JsonValue.parseString(page.get(0).data));
+
+        assertEquals(entity1.eventSize + entity2.eventSize + entity3.eventSize, eventDao.deleteBatch(-1, page.get(0).id));
         assertEquals(0, eventDao.count());
     }
 
@@ -103,16 +122,33 @@ public class EventDaoTest extends BaseTestCase {
         assertEquals(2, eventDao.count());
         int combinedSize = entity1.eventSize + entity2.eventSize;
         assertEquals(combinedSize, eventDao.databaseSize());
-        assertEquals("session-1", eventDao.oldestSessionId());
 
-        eventDao.trimDatabase(200);
+        assertEquals(entity2.eventSize, eventDao.trimDatabase(200));
         assertEquals(1, eventDao.count());
         assertTrue(entity2.contentEquals(eventDao.get().get(0)));
 
-        eventDao.trimDatabase(0);
+        assertEquals(0, eventDao.trimDatabase(0));
         assertEquals(0, eventDao.count());
     }
 
+    @Test
+    public void testTrimMultipleSessions() throws JsonException {
+        EventEntity entity1 = EventEntity.create(new TestEvent("event-1"), "session-1");
+        EventEntity entity2 = EventEntity.create(new TestEvent("event-2"), "session-2");
+        EventEntity entity3 = EventEntity.create(new TestEvent("event-3"), "session-1");
+        EventEntity entity4 = EventEntity.create(new TestEvent("event-4"), "session-3");
+
+        eventDao.insert(entity1);
+        eventDao.insert(entity2);
+        eventDao.insert(entity3);
+        eventDao.insert(entity4);
+
+        // Removes the two oldest sessions in one pass
+        assertEquals(entity4.eventSize, eventDao.trimDatabase(entity4.eventSize));
+        assertEquals(1, eventDao.count());
+        assertTrue(entity4.contentEquals(eventDao.get().get(0)));
+    }
+
     @Test
     public void testTrimWithNullSessionId() {
         ENTITY.sessionId = null;
@@ -0,0 +1,133 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.analytics.data;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.analytics.CustomEvent;
+import com.urbanairship.analytics.Event;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertNull;
+import static junit.framework.Assert.assertSame;
+import static junit.framework.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EventIngestionBufferTest extends BaseTestCase {
+
+    @Test
+    public void testOfferAndPoll() {
+        EventIngestionBuffer buffer = new EventIngestionBuffer(4, 4);
+        Event first = CustomEvent.newBuilder("first").build();
+        Event second = CustomEvent.newBuilder("second").build();
+
+        assertTrue(buffer.offer(first, "session"));
+        assertTrue(buffer.offer(second, "other session"));
+        assertEquals(2, buffer.size());
+
+        EventIngestionBuffer.PendingEvent pendingEvent = buffer.poll();
+        assertSame(first, pendingEvent.event);
+        assertEquals("session", pendingEvent.sessionId);
+
+        pendingEvent = buffer.poll();
+        assertSame(second, pendingEvent.event);
+        assertEquals("other session", pendingEvent.sessionId);
+
+        assertNull(buffer.poll());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testFull() {
+        EventIngestionBuffer buffer = new EventIngestionBuffer(4, 4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(CustomEvent.newBuilder("event").build(), "session"));
+        }
+
+        assertFalse(buffer.offer(CustomEvent.newBuilder("event").build(), "session"));
+
+        // Wraps around once there is room again
+        buffer.poll();
+        assertTrue(buffer.offer(CustomEvent.newBuilder("event").build(), "session"));
+        assertEquals(4, buffer.size());
+    }
+
+    @Test
+    public void testLowPriorityLimit() {
+        EventIngestionBuffer buffer = new EventIngestionBuffer(4, 2);
+        Event lowPriorityEvent = mock(Event.class);
+        when(lowPriorityEvent.getPriority()).thenReturn(Event.LOW_PRIORITY);
+
+        assertTrue(buffer.offer(lowPriorityEvent, "session"));
+        assertTrue(buffer.offer(lowPriorityEvent, "session"));
+        assertFalse(buffer.offer(lowPriorityEvent, "session"));
+
+        // Normal priority events still fit
+        assertTrue(buffer.offer(CustomEvent.newBuilder("event").build(), "session"));
+        assertTrue(buffer.offer(CustomEvent.newBuilder("event").build(), "session"));
+        assertFalse(buffer.offer(CustomEvent.newBuilder("event").build(), "session"));
+    }
+
+    @Test
+    public void testClear() {
+        EventIngestionBuffer buffer = new EventIngestionBuffer(4, 4);
+        buffer.offer(CustomEvent.newBuilder("event").build(), "session");
+        buffer.offer(CustomEvent.newBuilder("event").build(), "session");
+
+        buffer.clear();
+        assertEquals(0, buffer.size());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        final EventIngestionBuffer buffer = new EventIngestionBuffer(1024, 1024);
+        final int producerCount = 4;
+        final int eventsPerProducer = 200;
+        final CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < producerCount; i++) {
+            final String sessionId = "session-" + i;
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+
+                    for (int j = 0; j < eventsPerProducer; j++) {
+                        buffer.offer(CustomEvent.newBuilder("event-" + j).build(), sessionId);
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<Event> events = new HashSet<>();
+        EventIngestionBuffer.PendingEvent pendingEvent;
+        while ((pendingEvent = buffer.poll()) != null) {
+            events.add(pendingEvent.event);
+        }
+
+        assertEquals(producerCount * eventsPerProducer, events.size());
+    }
+
+}
@@ -16,22 +16,35 @@ import com.urbanairship.json.JsonValue;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatcher;
 import org.mockito.Mockito;
 import org.mockito.internal.verification.Times;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
 
 import static com.urbanairship.analytics.data.EventManager.MIN_BATCH_INTERVAL_KEY;
 import static junit.framework.Assert.assertEquals;
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -43,6 +56,7 @@ public class EventManagerTest extends BaseTestCase {
     private JobDispatcher mockDispatcher;
     private ActivityMonitor mockActivityMonitor;
     private PreferenceDataStore dataStore;
+    private TestExecutor executor;
 
     private TestAirshipRuntimeConfig testAirshipRuntimeConfig;
 
@@ -58,7 +72,8 @@ public class EventManagerTest extends BaseTestCase {
 
         dataStore = TestApplication.getApplication().preferenceDataStore;
 
-        eventManager = new EventManager(dataStore, testAirshipRuntimeConfig, mockDispatcher, mockActivityMonitor, mockEventDao, mockClient);
+        executor = new TestExecutor();
+        eventManager = new EventManager(dataStore, testAirshipRuntimeConfig, mockDispatcher, mockActivityMonitor, mockEventDao, mockClient, executor);
     }
 
     /**
@@ -71,7 +86,7 @@ public class EventManagerTest extends BaseTestCase {
 
         eventManager.addEvent(customEvent, "session");
         // Verify we add an event.
-        verify(mockEventDao, new Times(1)).insert(entity);
+        verify(mockEventDao, new Times(1)).insert(Collections.singletonList(entity));
 
         // Check it schedules an upload
         verify(mockDispatcher).dispatch(Mockito.argThat(new ArgumentMatcher<JobInfo>() {
@@ -110,28 +125,17 @@ public class EventManagerTest extends BaseTestCase {
      */
     @Test
     public void testSendingEvents() throws RequestException, JsonException {
-        JsonValue data = JsonValue.parseString("{ \"body\": \"firstEventBody\" }");
-        EventEntity.EventIdAndData payload = new EventEntity.EventIdAndData(1, "firstEvent", data);
-        List<EventEntity.EventIdAndData> events = Collections.singletonList(payload);
-        List<JsonValue> eventPayloads = Collections.singletonList(payload.data);
+        EventEntity.EventIdAndRawData first = new EventEntity.EventIdAndRawData(1, "{\"body\":\"firstEventBody\"}");
+        EventEntity.EventIdAndRawData second = new EventEntity.EventIdAndRawData(2, "{\"body\":\"secondEventBody\"}");
 
         Map<String, String> headers = new HashMap<>();
         headers.put("foo", "bar");
 
-        // Set up data manager to return 2 count for events.
-        // Note: we only have one event, but it should only ask for one to upload
-        // having it return 2 will make it schedule to upload events in the future
-        when(mockEventDao.count()).thenReturn(2);
-
-        // Return 200 bytes in size.  It should only be able to do 100 bytes so only
-        // the first event.
-        when(mockEventDao.databaseSize()).thenReturn(200);
-
-        // Return the event when it asks for 1
-        when(mockEventDao.getBatch(1)).thenReturn(events);
-
-        // Set the max batch size to 100
-        dataStore.put(EventManager.MAX_BATCH_SIZE_KEY, 100);
+        // Set up data manager to return 3 count for events.
+        // Note: we only have two events, having it return 3 will make it schedule to upload
+        // events in the future
+        when(mockEventDao.count()).thenReturn(3);
+        when(mockEventDao.getRawBatch(-1, 50)).thenReturn(Arrays.asList(first, second));
 
         // Set up the response
         EventResponse eventResponse = mock(EventResponse.class);
@@ -140,7 +144,8 @@ public class EventManagerTest extends BaseTestCase {
         when(eventResponse.getMinBatchInterval()).thenReturn(100);
 
         // Return the response
-        when(mockClient.sendEvents(eventPayloads, headers))
+        ArgumentCaptor<byte[]> payloadCaptor = ArgumentCaptor.forClass(byte[].class);
+        when(mockClient.sendEvents(payloadCaptor.capture(), eq(2), eq(headers)))
                 .thenReturn(new Response.Builder<EventResponse>(HttpURLConnection.HTTP_OK)
                         .setResult(eventResponse)
                         .build());
@@ -149,10 +154,11 @@ public class EventManagerTest extends BaseTestCase {
         assertTrue(eventManager.uploadEvents(headers));
 
         // Check mockClients receives the events
-        verify(mockClient).sendEvents(eventPayloads, headers);
+        JsonValue expected = JsonValue.parseString("[" + first.data + "," + second.data + "]");
+        assertEquals(expected, JsonValue.parseString(decompress(payloadCaptor.getValue())));
 
         // Check data manager deletes events
-        verify(mockEventDao).deleteBatch(events);
+        verify(mockEventDao).deleteBatch(1, 2);
 
         // Verify responses are being saved
         assertEquals(200, dataStore.getInt(EventManager.MAX_TOTAL_DB_SIZE_KEY, 0));
@@ -172,42 +178,82 @@ public class EventManagerTest extends BaseTestCase {
      * Test event batching only sends a max of 500 events.
      */
     @Test
-    public void testSendEventMaxCount() {
-        // Make the match batch size greater than 500
+    public void testSendEventMaxCount() throws RequestException {
+        // Make the match batch size greater than 500 events
         dataStore.put(EventManager.MAX_BATCH_SIZE_KEY, 100000);
 
-        // Fake the resolver to act like it has more than 500 events
-        when(mockEventDao.databaseSize()).thenReturn(100000);
+        // Fake the database to act like it has more than 500 events
         when(mockEventDao.count()).thenReturn(1000);
+        when(mockEventDao.getRawBatch(anyInt(), anyInt())).thenAnswer(invocation -> {
+            int afterId = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            List<EventEntity.EventIdAndRawData> page = new ArrayList<>();
+            for (int i = 1; i <= limit; i++) {
+                page.add(new EventEntity.EventIdAndRawData(afterId + i, "{\"event\":" + (afterId + i) + "}"));
+            }
+            return page;
+        });
+
+        when(mockClient.sendEvents(any(byte[].class), anyInt(), eq(Collections.<String, String>emptyMap())))
+                .thenReturn(new Response.Builder<EventResponse>(HttpURLConnection.HTTP_BAD_REQUEST).build());
 
         eventManager.uploadEvents(Collections.<String, String>emptyMap());
 
-        // Verify it only asked for 500
-        verify(mockEventDao).getBatch(500);
+        // Verify it only sent 500
+        verify(mockClient).sendEvents(any(byte[].class), eq(500), eq(Collections.<String, String>emptyMap()));
+    }
+
+    /**
+     * Test event batching stops once the compressed batch reaches the max batch size.
+     */
+    @Test
+    public void testSendEventMaxBatchSize() throws RequestException {
+        dataStore.put(EventManager.MAX_BATCH_SIZE_KEY, 1000);
+
+        // Random bodies so the events do not compress well
+        Random random = new Random(1);
+        List<EventEntity.EventIdAndRawData> page = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            StringBuilder body = new StringBuilder();
+            for (int j = 0; j < 200; j++) {
+                body.append((char) ('a' + random.nextInt(26)));
+            }
+            page.add(new EventEntity.EventIdAndRawData(i, "{\"body\":\"" + body + "\"}"));
+        }
+
+        when(mockEventDao.count()).thenReturn(20);
+        when(mockEventDao.getRawBatch(-1, 50)).thenReturn(page);
+
+        when(mockClient.sendEvents(any(byte[].class), anyInt(), eq(Collections.<String, String>emptyMap())))
+                .thenReturn(new Response.Builder<EventResponse>(HttpURLConnection.HTTP_BAD_REQUEST).build());
+
+        eventManager.uploadEvents(Collections.<String, String>emptyMap());
+
+        ArgumentCaptor<byte[]> payloadCaptor = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<Integer> countCaptor = ArgumentCaptor.forClass(Integer.class);
+        verify(mockClient).sendEvents(payloadCaptor.capture(), countCaptor.capture(), eq(Collections.<String, String>emptyMap()));
+
+        assertTrue(payloadCaptor.getValue().length <= 1000);
+        assertTrue(countCaptor.getValue() > 1);
+        assertTrue(countCaptor.getValue() < 20);
     }
 
     /**
      * Test sending events when the upload fails.
      */
     @Test
-    public void testSendEventsFails() throws RequestException, JsonException {
-        JsonValue data = JsonValue.parseString("{ \"body\": \"firstEventBody\" }");
-        EventEntity.EventIdAndData payload = new EventEntity.EventIdAndData(1, "firstEvent", data);
-        List<EventEntity.EventIdAndData> events = Collections.singletonList(payload);
-        List<JsonValue> eventPayloads = Collections.singletonList(payload.data);
+    public void testSendEventsFails() throws RequestException {
+        EventEntity.EventIdAndRawData event = new EventEntity.EventIdAndRawData(1, "{\"body\":\"firstEventBody\"}");
 
         Map<String, String> headers = new HashMap<>();
         headers.put("foo", "bar");
 
         when(mockEventDao.count()).thenReturn(1);
-        when(mockEventDao.databaseSize()).thenReturn(100);
-        when(mockEventDao.getBatch(1)).thenReturn(events);
-
-        dataStore.put(EventManager.MAX_BATCH_SIZE_KEY, 100);
+        when(mockEventDao.getRawBatch(-1, 50)).thenReturn(Collections.singletonList(event));
 
         EventResponse eventResponse = mock(EventResponse.class);
 
-        when(mockClient.sendEvents(eventPayloads, headers))
+        when(mockClient.sendEvents(any(byte[].class), eq(1), eq(headers)))
                 .thenReturn(new Response.Builder<EventResponse>(HttpURLConnection.HTTP_BAD_REQUEST)
                         .setResult(eventResponse)
                         .build());
@@ -215,10 +261,10 @@ public class EventManagerTest extends BaseTestCase {
         assertFalse(eventManager.uploadEvents(headers));
 
         // Check mockClient receives the events
-        verify(mockClient).sendEvents(eventPayloads, headers);
+        verify(mockClient).sendEvents(any(byte[].class), eq(1), eq(headers));
 
         // If it fails, it should skip deleting events
-        verify(mockEventDao, never()).deleteBatch(events);
+        verify(mockEventDao, never()).deleteBatch(anyInt(), anyInt());
     }
 
     /**
@@ -246,6 +292,102 @@ public class EventManagerTest extends BaseTestCase {
         }));
     }
 
+    /**
+     * Test the database size is only read once and then tracked as events are added.
+     */
+    @Test
+    public void testAddEventTracksDatabaseSize() throws JsonException {
+        CustomEvent customEvent = CustomEvent.newBuilder("event name").build();
+        EventEntity entity = EventEntity.create(customEvent, "session");
+
+        dataStore.put(EventManager.MAX_TOTAL_DB_SIZE_KEY, entity.eventSize * 2);
+        when(mockEventDao.databaseSize()).thenReturn(0);
+
+        eventManager.addEvent(customEvent, "session");
+        eventManager.addEvent(customEvent, "session");
+
+        // Under the max size, no trimming
+        verify(mockEventDao, never()).trimDatabase(anyInt());
+
+        // Over the max size
+        when(mockEventDao.trimDatabase(entity.eventSize * 2)).thenReturn(entity.eventSize);
+        eventManager.addEvent(customEvent, "session");
+        verify(mockEventDao).trimDatabase(entity.eventSize * 2);
+
+        // Trimmed size is used from now on
+        eventManager.addEvent(customEvent, "session");
+        verify(mockEventDao, times(1)).trimDatabase(anyInt());
+
+        verify(mockEventDao, times(1)).databaseSize();
+    }
+
+    /**
+     * Test events added in a burst are stored in a single batch with a single upload scheduled.
+     */
+    @Test
+    public void testAddEventsBatched() throws JsonException {
+        executor.runImmediately = false;
+
+        List<EventEntity> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CustomEvent customEvent = CustomEvent.newBuilder("event " + i).build();
+            expected.add(EventEntity.create(customEvent, "session"));
+            eventManager.addEvent(customEvent, "session");
+        }
+
+        // Only one drain is scheduled for the burst
+        assertEquals(1, executor.runnables.size());
+        verify(mockEventDao, never()).insert(Mockito.<EventEntity>anyList());
+
+        executor.runAll();
+
+        verify(mockEventDao).insert(expected);
+        verify(mockDispatcher, times(1)).dispatch(any(JobInfo.class));
+
+        // Next event schedules a new drain
+        eventManager.addEvent(CustomEvent.newBuilder("another event").build(), "session");
+        assertEquals(1, executor.runnables.size());
+    }
+
+    /**
+     * Test normal priority events are kept when the ingestion buffer is full.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testAddEventsOverflow() {
+        executor.runImmediately = false;
+
+        for (int i = 0; i < 600; i++) {
+            eventManager.addEvent(CustomEvent.newBuilder("event " + i).build(), "session");
+        }
+
+        executor.runAll();
+
+        ArgumentCaptor<List<EventEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(mockEventDao, times(6)).insert(captor.capture());
+
+        int stored = 0;
+        for (List<EventEntity> batch : captor.getAllValues()) {
+            stored += batch.size();
+        }
+        assertEquals(600, stored);
+    }
+
+    /**
+     * Test deleting events also drops events that are not stored yet.
+     */
+    @Test
+    public void testDeleteAllDropsPendingEvents() {
+        executor.runImmediately = false;
+
+        eventManager.addEvent(CustomEvent.newBuilder("event name").build(), "session");
+        eventManager.deleteEvents();
+        executor.runAll();
+
+        verify(mockEventDao).deleteAll();
+        verify(mockEventDao, never()).insert(Mockito.<EventEntity>anyList());
+    }
+
     /**
      * Test delete all.
      */
@@ -254,4 +396,44 @@ public class EventManagerTest extends BaseTestCase {
         eventManager.deleteEvents();
         verify(mockEventDao).deleteAll();
     }
+
+    private static String decompress(byte[] payload) {
+        try {
+            GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(payload));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, count);
+            }
+            return outputStream.toString("UTF-8");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class TestExecutor implements Executor {
+
+        final List<Runnable> runnables = new ArrayList<>();
+        boolean runImmediately = true;
+
+        @Override
+        public void execute(Runnable runnable) {
+            if (runImmediately) {
+                runnable.run();
+            } else {
+                runnables.add(runnable);
+            }
+        }
+
+        void runAll() {
+            List<Runnable> pending = new ArrayList<>(runnables);
+            runnables.clear();
+            for (Runnable runnable : pending) {
+                runnable.run();
+            }
+        }
+
+    }
+
 }
@@ -271,6 +271,76 @@ public class AirshipChannelTests extends BaseTestCase {
         assertTrue(listener.onChannelUpdatedCalled);
     }
 
+    /**
+     * Test update only sends the payload when an extender's output changed, even if the
+     * extender owner did not request an update.
+     */
+    @Test
+    public void testUpdateChannelComparesPayload() throws RequestException {
+        final boolean[] optIn = { false };
+        airshipChannel.addChannelRegistrationPayloadExtender(new AirshipChannel.ChannelRegistrationPayloadExtender() {
+            @NonNull
+            @Override
+            public ChannelRegistrationPayload.Builder extend(@NonNull ChannelRegistrationPayload.Builder builder) {
+                return builder.setOptIn(optIn[0]);
+            }
+        });
+
+        testCreateChannel();
+
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
+        assertEquals(JobResult.SUCCESS, result);
+        verify(mockClient, never()).updateChannelWithPayload(any(String.class), any(ChannelRegistrationPayload.class));
+
+        when(mockClient.updateChannelWithPayload(eq("channel"), any(ChannelRegistrationPayload.class)))
+                .thenReturn(AirshipChannelTests.<Void>createResponse(null, 200));
+
+        // Changes without a signal, like the system notification setting
+        optIn[0] = true;
+        result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
+        assertEquals(JobResult.SUCCESS, result);
+
+        verify(mockClient).updateChannelWithPayload(eq("channel"), Mockito.argThat(new ArgumentMatcher<ChannelRegistrationPayload>() {
+            @Override
+            public boolean matches(ChannelRegistrationPayload payload) {
+                return payload.optIn;
+            }
+        }));
+    }
+
+    /**
+     * Test update registration sends only the changed fields.
+     */
+    @Test
+    public void testUpdateRegistrationSendsDelta() throws RequestException {
+        final String[] deviceModel = { "some-model" };
+        airshipChannel.addChannelRegistrationPayloadExtender(new AirshipChannel.ChannelRegistrationPayloadExtender() {
+            @NonNull
+            @Override
+            public ChannelRegistrationPayload.Builder extend(@NonNull ChannelRegistrationPayload.Builder builder) {
+                return builder.setDeviceModel(deviceModel[0]);
+            }
+        });
+
+        testCreateChannel();
+
+        when(mockClient.updateChannelWithPayload(eq("channel"), any(ChannelRegistrationPayload.class)))
+                .thenReturn(AirshipChannelTests.<Void>createResponse(null, 200));
+
+        deviceModel[0] = "some-other-model";
+        airshipChannel.updateRegistration();
+
+        JobResult result = airshipChannel.onPerformJob(UAirship.shared(), UPDATE_CHANNEL_JOB);
+        assertEquals(JobResult.SUCCESS, result);
+
+        verify(mockClient).updateChannelWithPayload(eq("channel"), Mockito.argThat(new ArgumentMatcher<ChannelRegistrationPayload>() {
+            @Override
+            public boolean matches(ChannelRegistrationPayload payload) {
+                return "some-other-model".equals(payload.deviceModel) && payload.sdkVersion == null && payload.timezone == null;
+            }
+        }));
+    }
+
     /**
      * Test channel create retries when an exception is thrown.
      */
@@ -0,0 +1,255 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.http;
+
+import android.net.Uri;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.util.UAStringUtil;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import androidx.annotation.Nullable;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests the transport against a local stub server.
+ */
+public class UrlConnectionTransportTest extends BaseTestCase {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    /**
+     * Test gzipped responses are decompressed before they are parsed.
+     */
+    @Test
+    public void testGzipResponse() throws RequestException {
+        server.createContext("/gzip", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = gzip("gzipped body".getBytes("UTF-8"));
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, body.length);
+                writeAndClose(exchange, body);
+            }
+        });
+
+        Response<String> response = createRequest("GET", "/gzip").execute(new ResponseParser<String>() {
+            @Override
+            public String parseResponse(int status, @Nullable Map<String, List<String>> headers, @Nullable String responseBody) {
+                return responseBody;
+            }
+        });
+
+        assertEquals(200, response.getStatus());
+        assertEquals("gzipped body", response.getResult());
+        assertEquals("gzipped body", response.getResponseBody());
+    }
+
+    /**
+     * Test the request body and headers are sent.
+     */
+    @Test
+    public void testRequestBody() throws RequestException {
+        final AtomicReference<String> receivedBody = new AtomicReference<>();
+        final AtomicReference<String> receivedHeader = new AtomicReference<>();
+        server.createContext("/body", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                InputStream inputStream = exchange.getRequestBody();
+                if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                    inputStream = new GZIPInputStream(inputStream);
+                }
+                receivedBody.set(UrlConnectionTransport.readString(inputStream));
+                receivedHeader.set(exchange.getRequestHeaders().getFirst("X-Test"));
+                exchange.sendResponseHeaders(204, -1);
+                exchange.close();
+            }
+        });
+
+        Response<Void> response = createRequest("POST", "/body")
+                .setRequestBody("{\"some\":\"body\"}", "application/json")
+                .setCompressRequestBody(true)
+                .setHeader("X-Test", "header value")
+                .execute();
+
+        assertEquals(204, response.getStatus());
+        assertEquals("{\"some\":\"body\"}", receivedBody.get());
+        assertEquals("header value", receivedHeader.get());
+    }
+
+    /**
+     * Test error responses are read from the error stream.
+     */
+    @Test
+    public void testErrorResponse() throws RequestException {
+        server.createContext("/error", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = "error body".getBytes("UTF-8");
+                exchange.sendResponseHeaders(400, body.length);
+                writeAndClose(exchange, body);
+            }
+        });
+
+        Response<Void> response = createRequest("GET", "/error").execute();
+
+        assertEquals(400, response.getStatus());
+        assertEquals("error body", response.getResponseBody());
+    }
+
+    /**
+     * Test streaming parsers read the body bytes directly.
+     */
+    @Test
+    public void testStreamingParser() throws RequestException {
+        final byte[] bytes = new byte[] { 1, 2, 3, 4, 5 };
+        server.createContext("/bytes", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(200, bytes.length);
+                writeAndClose(exchange, bytes);
+            }
+        });
+
+        Response<Integer> response = createRequest("GET", "/bytes").executeStreaming(new StreamingResponseParser<Integer>() {
+            @Override
+            public Integer parseResponse(int status, @Nullable Map<String, List<String>> headers, @Nullable InputStream responseBody) throws Exception {
+                int sum = 0;
+                int value;
+                while ((value = responseBody.read()) != -1) {
+                    sum += value;
+                }
+                return sum;
+            }
+        });
+
+        assertEquals(15, (int) response.getResult());
+        assertNull(response.getResponseBody());
+    }
+
+    /**
+     * Test back to back requests to the same host reuse the connection, even if the parser
+     * does not read the whole body.
+     */
+    @Test
+    public void testConnectionReuse() throws RequestException {
+        final List<Integer> clientPorts = new ArrayList<>();
+        server.createContext("/reuse", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                synchronized (clientPorts) {
+                    clientPorts.add(exchange.getRemoteAddress().getPort());
+                }
+                byte[] body = "some body that is never read".getBytes("UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+                writeAndClose(exchange, body);
+            }
+        });
+
+        for (int i = 0; i < 3; i++) {
+            createRequest("GET", "/reuse").executeStreaming(new StreamingResponseParser<Void>() {
+                @Override
+                public Void parseResponse(int status, @Nullable Map<String, List<String>> headers, @Nullable InputStream responseBody) {
+                    return null;
+                }
+            });
+        }
+
+        assertEquals(3, clientPorts.size());
+        assertEquals(clientPorts.get(0), clientPorts.get(1));
+        assertEquals(clientPorts.get(0), clientPorts.get(2));
+    }
+
+    /**
+     * Test gzip responses without a body are not decompressed.
+     */
+    @Test
+    public void testGzipEmptyResponse() throws RequestException {
+        server.createContext("/empty", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, -1);
+                exchange.close();
+            }
+        });
+
+        server.createContext("/not-modified", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            }
+        });
+
+        Response<Void> response = createRequest("GET", "/empty").execute();
+        assertEquals(200, response.getStatus());
+        assertTrue(UAStringUtil.isEmpty(response.getResponseBody()));
+
+        response = createRequest("GET", "/not-modified").execute();
+        assertEquals(304, response.getStatus());
+        assertTrue(UAStringUtil.isEmpty(response.getResponseBody()));
+    }
+
+    private Request createRequest(String method, String path) {
+        return new RequestFactory(new UrlConnectionTransport()).createRequest()
+                                                                .setOperation(method, Uri.parse(baseUrl + path));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream);
+        gzipOutputStream.write(bytes);
+        gzipOutputStream.close();
+        return outputStream.toByteArray();
+    }
+
+    private static void writeAndClose(HttpExchange exchange, byte[] body) throws IOException {
+        OutputStream outputStream = exchange.getResponseBody();
+        outputStream.write(body);
+        outputStream.close();
+        exchange.close();
+    }
+
+}
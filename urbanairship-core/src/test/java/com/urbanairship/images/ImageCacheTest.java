@@ -0,0 +1,218 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.images;
+
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.TestApplication;
+import com.urbanairship.util.HttpCacheMetadata;
+import com.urbanairship.util.ImageUtils;
+import com.urbanairship.util.UAStringUtil;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ImageCacheTest extends BaseTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+    private File legacyDirectory;
+    private ImageCache imageCache;
+
+    @Before
+    public void setup() {
+        directory = new File(temporaryFolder.getRoot(), "images");
+        legacyDirectory = new File(temporaryFolder.getRoot(), "urbanairship-cache");
+        imageCache = new ImageCache(directory, legacyDirectory);
+    }
+
+    /**
+     * Test the image loader and notification images share the same cache.
+     */
+    @Test
+    public void testShared() {
+        ImageCache shared = ImageCache.shared(TestApplication.getApplication());
+        assertSame(shared, ImageCache.shared(TestApplication.getApplication()));
+    }
+
+    /**
+     * Test concurrent loads for the same key share a single load.
+     */
+    @Test
+    public void testLoadDrawableCoalesces() throws Exception {
+        final Drawable drawable = new ColorDrawable();
+        final AtomicInteger loadCount = new AtomicInteger();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch finishLoad = new CountDownLatch(1);
+
+        final Callable<ImageUtils.DrawableResult> loader = new Callable<ImageUtils.DrawableResult>() {
+            @Override
+            public ImageUtils.DrawableResult call() throws Exception {
+                loadCount.incrementAndGet();
+                loadStarted.countDown();
+                finishLoad.await(5, TimeUnit.SECONDS);
+                return new ImageUtils.DrawableResult(drawable, 10);
+            }
+        };
+
+        final AtomicReference<Drawable> firstResult = new AtomicReference<>();
+        Thread first = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    firstResult.set(imageCache.loadDrawable("key", loader));
+                } catch (IOException ignored) {
+                }
+            }
+        });
+        first.start();
+        assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+
+        final AtomicReference<Drawable> secondResult = new AtomicReference<>();
+        Thread second = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    secondResult.set(imageCache.loadDrawable("key", loader));
+                } catch (IOException ignored) {
+                }
+            }
+        });
+        second.start();
+
+        finishLoad.countDown();
+        first.join();
+        second.join();
+
+        assertEquals(1, loadCount.get());
+        assertSame(drawable, firstResult.get());
+        assertSame(drawable, secondResult.get());
+        assertSame(drawable, imageCache.getDrawable("key"));
+    }
+
+    /**
+     * Test failed loads are not cached.
+     */
+    @Test
+    public void testLoadDrawableFailed() throws IOException {
+        Drawable result = imageCache.loadDrawable("key", new Callable<ImageUtils.DrawableResult>() {
+            @Override
+            public ImageUtils.DrawableResult call() {
+                return null;
+            }
+        });
+
+        assertNull(result);
+        assertNull(imageCache.getDrawable("key"));
+    }
+
+    /**
+     * Test cached image files are returned without downloading.
+     */
+    @Test
+    public void testGetImageFileCached() throws IOException {
+        URL url = new URL("https://example.com/image.png");
+        assertTrue(directory.mkdirs());
+        File cached = new File(directory, UAStringUtil.sha256(url.toString()));
+        writeFile(cached, 4);
+        assertTrue(cached.setLastModified(1000));
+        writeMetadata(cached, System.currentTimeMillis() + 60000);
+
+        File file = imageCache.getImageFile(url);
+        assertEquals(cached, file);
+        assertTrue(file.lastModified() > 1000);
+    }
+
+    /**
+     * Test expired image files are still used if they fail to revalidate.
+     */
+    @Test
+    public void testGetImageFileStale() throws IOException {
+        URL url = new URL("http://localhost:1/image.png");
+        assertTrue(directory.mkdirs());
+        File cached = new File(directory, UAStringUtil.sha256(url.toString()));
+        writeFile(cached, 4);
+        writeMetadata(cached, System.currentTimeMillis() - 1);
+
+        assertEquals(cached, imageCache.getImageFile(url));
+        assertEquals(4, cached.length());
+    }
+
+    /**
+     * Test the legacy HttpResponseCache directory is removed.
+     */
+    @Test
+    public void testRemovesLegacyCache() throws IOException {
+        assertTrue(legacyDirectory.mkdirs());
+        writeFile(new File(legacyDirectory, "journal"), 4);
+
+        assertTrue(directory.mkdirs());
+        URL url = new URL("https://example.com/image.png");
+        File cached = new File(directory, UAStringUtil.sha256(url.toString()));
+        writeFile(cached, 4);
+        writeMetadata(cached, System.currentTimeMillis() + 60000);
+
+        imageCache.getImageFile(url);
+        assertFalse(legacyDirectory.exists());
+    }
+
+    /**
+     * Test trimming removes the least recently used files.
+     */
+    @Test
+    public void testTrimImageFiles() throws IOException {
+        assertTrue(directory.mkdirs());
+        File oldest = new File(directory, "oldest");
+        File older = new File(directory, "older");
+        File newest = new File(directory, "newest");
+        writeFile(oldest, 4);
+        writeFile(older, 4);
+        writeFile(newest, 4);
+        assertTrue(oldest.setLastModified(1000));
+        assertTrue(older.setLastModified(2000));
+        assertTrue(newest.setLastModified(3000));
+
+        writeMetadata(older, 0);
+
+        imageCache.trimImageFiles(oldest, 8);
+
+        assertTrue(oldest.exists());
+        assertFalse(older.exists());
+        assertFalse(new File(directory, "older.metadata").exists());
+        assertTrue(newest.exists());
+    }
+
+    private static void writeMetadata(File file, long expires) {
+        File metadataFile = new File(file.getParentFile(), file.getName() + ".metadata");
+        new HttpCacheMetadata(expires, null, null).write(metadataFile);
+    }
+
+    private static void writeFile(File file, int size) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file);
+        outputStream.write(new byte[size]);
+        outputStream.close();
+    }
+
+}
@@ -2,12 +2,20 @@
 
 package com.urbanairship.job;
 
+import com.urbanairship.AirshipComponent;
 import com.urbanairship.BaseTestCase;
 import com.urbanairship.TestApplication;
+import com.urbanairship.analytics.Analytics;
+import com.urbanairship.channel.AirshipChannel;
+import com.urbanairship.contacts.Contact;
 import com.urbanairship.push.PushManager;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import androidx.annotation.NonNull;
@@ -17,6 +25,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -136,13 +145,125 @@ public class JobDispatcherTest extends BaseTestCase {
         verify(mockScheduler).schedule(context, jobInfo, 100);
     }
 
+    @Test
+    public void testDispatchNetworkJob() throws SchedulerException {
+        JobInfo jobInfo = createNetworkJob(AirshipChannel.class, "channel", JobInfo.REPLACE);
+
+        // Network jobs are scheduled right away so they are never lost
+        dispatcher.dispatch(jobInfo);
+        verify(mockScheduler).schedule(context, jobInfo, 0);
+    }
+
+    @Test
+    public void testStartJobRunsCollapsibleJobs() {
+        JobInfo eventsJob = createNetworkJob(Analytics.class, "events", JobInfo.REPLACE);
+        JobInfo contactJob = createNetworkJob(Contact.class, "contact", JobInfo.REPLACE);
+        JobInfo inboxJob = createNetworkJob(PushManager.class, "inbox", JobInfo.REPLACE);
+        JobInfo channelJob = createNetworkJob(AirshipChannel.class, "channel", JobInfo.REPLACE);
+
+        dispatcher.dispatch(eventsJob);
+        dispatcher.dispatch(contactJob);
+        dispatcher.dispatch(inboxJob);
+        dispatcher.dispatch(channelJob);
+
+        dispatcher.onStartJob(contactJob, 0, mockConsumer);
+        assertEquals(Arrays.asList(channelJob, contactJob, inboxJob, eventsJob), jobRunner.jobs);
+        verify(mockConsumer).accept(JobResult.SUCCESS);
+
+        // The collapsed jobs skip their own work
+        Consumer<JobResult> otherConsumer = mock(Consumer.class);
+        dispatcher.onStartJob(channelJob, 0, otherConsumer);
+        dispatcher.onStartJob(inboxJob, 0, otherConsumer);
+        dispatcher.onStartJob(eventsJob, 0, otherConsumer);
+        verify(otherConsumer, times(3)).accept(JobResult.SUCCESS);
+        assertEquals(4, jobRunner.jobs.size());
+    }
+
+    @Test
+    public void testKeepJobsNotCollapsed() {
+        JobInfo keepJob = createNetworkJob(AirshipChannel.class, "channel", JobInfo.KEEP);
+        JobInfo appendJob = createNetworkJob(PushManager.class, "inbox", JobInfo.APPEND);
+        JobInfo contactJob = createNetworkJob(Contact.class, "contact", JobInfo.REPLACE);
+
+        dispatcher.dispatch(keepJob);
+        dispatcher.dispatch(appendJob);
+        dispatcher.dispatch(contactJob);
+
+        // KEEP and APPEND jobs may be queued behind existing work, so they run on their own
+        dispatcher.onStartJob(contactJob, 0, mockConsumer);
+        assertEquals(Collections.singletonList(contactJob), jobRunner.jobs);
+    }
+
+    @Test
+    public void testDelayedReplaceNotCollapsed() {
+        JobInfo channelJob = createNetworkJob(AirshipChannel.class, "channel", JobInfo.REPLACE);
+        JobInfo delayedChannelJob = JobInfo.newBuilder()
+                                           .setAction("channel")
+                                           .setAirshipComponent(AirshipChannel.class)
+                                           .setNetworkAccessRequired(true)
+                                           .setMinDelay(10, TimeUnit.SECONDS)
+                                           .build();
+        JobInfo contactJob = createNetworkJob(Contact.class, "contact", JobInfo.REPLACE);
+
+        dispatcher.dispatch(channelJob);
+        dispatcher.dispatch(delayedChannelJob);
+        dispatcher.dispatch(contactJob);
+
+        dispatcher.onStartJob(contactJob, 0, mockConsumer);
+        assertEquals(Collections.singletonList(contactJob), jobRunner.jobs);
+    }
+
+    @Test
+    public void testReplacedCollapsedJobRuns() {
+        JobInfo channelJob = createNetworkJob(AirshipChannel.class, "channel", JobInfo.REPLACE);
+        JobInfo contactJob = createNetworkJob(Contact.class, "contact", JobInfo.REPLACE);
+
+        dispatcher.dispatch(channelJob);
+        dispatcher.dispatch(contactJob);
+        dispatcher.onStartJob(contactJob, 0, mockConsumer);
+        assertEquals(Arrays.asList(channelJob, contactJob), jobRunner.jobs);
+
+        // New work replaces the work that already ran
+        dispatcher.dispatch(channelJob);
+        dispatcher.onStartJob(channelJob, 0, mockConsumer);
+        assertEquals(Arrays.asList(channelJob, contactJob, channelJob), jobRunner.jobs);
+    }
+
+    @Test
+    public void testCollapsedJobRetry() throws SchedulerException {
+        JobInfo channelJob = createNetworkJob(AirshipChannel.class, "channel", JobInfo.REPLACE);
+        JobInfo contactJob = createNetworkJob(Contact.class, "contact", JobInfo.REPLACE);
+
+        dispatcher.dispatch(channelJob);
+        dispatcher.dispatch(contactJob);
+
+        jobRunner.result = JobResult.RETRY;
+        dispatcher.onStartJob(contactJob, 0, mockConsumer);
+
+        verify(mockConsumer).accept(JobResult.RETRY);
+
+        // Collapsed jobs that need a retry are dispatched again on their own
+        verify(mockScheduler).schedule(context, channelJob, channelJob.getInitialBackOffMs());
+    }
+
+    private static JobInfo createNetworkJob(Class<? extends AirshipComponent> component, String action, int conflictStrategy) {
+        return JobInfo.newBuilder()
+                      .setAction(action)
+                      .setAirshipComponent(component)
+                      .setNetworkAccessRequired(true)
+                      .setConflictStrategy(conflictStrategy)
+                      .build();
+    }
+
     private static class TestJobRunner implements JobRunner {
 
         public JobResult result = JobResult.SUCCESS;
         public JobInfo lastJob;
+        public List<JobInfo> jobs = new ArrayList<>();
         @Override
         public void run(@NonNull JobInfo jobInfo, @NonNull Consumer<JobResult> resultConsumer) {
             lastJob = jobInfo;
+            jobs.add(jobInfo);
             resultConsumer.accept(result);
         }
     }
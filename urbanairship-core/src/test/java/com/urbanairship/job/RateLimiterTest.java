@@ -3,6 +3,8 @@
 package com.urbanairship.job;
 
 import com.urbanairship.BaseTestCase;
+import com.urbanairship.PreferenceDataStore;
+import com.urbanairship.TestApplication;
 import com.urbanairship.TestClock;
 
 import org.junit.Test;
@@ -46,6 +48,30 @@ public class RateLimiterTest extends BaseTestCase {
         assertEquals(100, rateLimiter.status("foo").getNextAvailable(TimeUnit.MILLISECONDS));
     }
 
+    @Test
+    public void testBusyRateLimit() {
+        rateLimiter.setLimit("foo", 100, 60, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 99; i++) {
+            clock.currentTimeMillis += 10;
+            rateLimiter.track("foo");
+        }
+        assertEquals(RateLimiter.LimitStatus.UNDER, rateLimiter.status("foo").getLimitStatus());
+
+        // Track well past the rate so the oldest hits are overwritten many times
+        for (int i = 0; i < 20000; i++) {
+            clock.currentTimeMillis += 10;
+            rateLimiter.track("foo");
+            assertEquals(RateLimiter.LimitStatus.OVER, rateLimiter.status("foo").getLimitStatus());
+        }
+
+        // Oldest of the last 100 hits was 990 ms ago
+        assertEquals(59010, rateLimiter.status("foo").getNextAvailable(TimeUnit.MILLISECONDS));
+
+        clock.currentTimeMillis += 59010;
+        assertEquals(RateLimiter.LimitStatus.UNDER, rateLimiter.status("foo").getLimitStatus());
+    }
+
     @Test
     public void testStatusNoRule() {
         assertNull(rateLimiter.status("something"));
@@ -108,4 +134,60 @@ public class RateLimiterTest extends BaseTestCase {
         assertEquals(RateLimiter.LimitStatus.OVER, rateLimiter.status("foo").getLimitStatus());
         assertEquals(1, rateLimiter.status("bar").getNextAvailable(TimeUnit.MILLISECONDS));
     }
+
+    @Test
+    public void testRestoresPersistedHits() {
+        PreferenceDataStore dataStore = PreferenceDataStore.inMemoryStore(TestApplication.getApplication());
+        rateLimiter.setDataStore(dataStore);
+        rateLimiter.setLimit("foo", 2, 1, TimeUnit.SECONDS);
+
+        rateLimiter.track("foo");
+        clock.currentTimeMillis += 100;
+        rateLimiter.track("foo");
+
+        RateLimiter restored = new RateLimiter(clock);
+        restored.setDataStore(dataStore);
+        restored.setLimit("foo", 2, 1, TimeUnit.SECONDS);
+
+        assertEquals(RateLimiter.LimitStatus.OVER, restored.status("foo").getLimitStatus());
+        assertEquals(900, restored.status("foo").getNextAvailable(TimeUnit.MILLISECONDS));
+
+        clock.currentTimeMillis += 900;
+        assertEquals(RateLimiter.LimitStatus.UNDER, restored.status("foo").getLimitStatus());
+    }
+
+    @Test
+    public void testSetDataStoreMergesExistingRules() {
+        PreferenceDataStore dataStore = PreferenceDataStore.inMemoryStore(TestApplication.getApplication());
+        RateLimiter persisted = new RateLimiter(clock);
+        persisted.setDataStore(dataStore);
+        persisted.setLimit("foo", 2, 1, TimeUnit.SECONDS);
+        persisted.track("foo");
+
+        clock.currentTimeMillis += 200;
+        rateLimiter.setLimit("foo", 2, 1, TimeUnit.SECONDS);
+        rateLimiter.track("foo");
+        assertEquals(RateLimiter.LimitStatus.UNDER, rateLimiter.status("foo").getLimitStatus());
+
+        rateLimiter.setDataStore(dataStore);
+        assertEquals(RateLimiter.LimitStatus.OVER, rateLimiter.status("foo").getLimitStatus());
+        assertEquals(800, rateLimiter.status("foo").getNextAvailable(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testIgnoresHitsInTheFuture() {
+        PreferenceDataStore dataStore = PreferenceDataStore.inMemoryStore(TestApplication.getApplication());
+        clock.currentTimeMillis = 10000;
+        RateLimiter persisted = new RateLimiter(clock);
+        persisted.setDataStore(dataStore);
+        persisted.setLimit("foo", 1, 1, TimeUnit.SECONDS);
+        persisted.track("foo");
+
+        // Clock moved back
+        clock.currentTimeMillis = 5000;
+        rateLimiter.setDataStore(dataStore);
+        rateLimiter.setLimit("foo", 1, 1, TimeUnit.SECONDS);
+        assertEquals(RateLimiter.LimitStatus.UNDER, rateLimiter.status("foo").getLimitStatus());
+    }
+
 }
@@ -0,0 +1,96 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledJsonPredicateTest extends BaseTestCase {
+
+    private static final List<String> PREDICATES = Arrays.asList(
+            "{\"value\":{\"equals\":\"purchase\"},\"key\":\"event_name\"}",
+            "{\"and\":[{\"value\":{\"equals\":\"purchase\"},\"key\":\"event_name\"},{\"value\":{\"at_least\":10},\"key\":\"event_value\"}]}",
+            "{\"or\":[{\"and\":[{\"value\":{\"is_present\":true},\"key\":\"interaction_id\"},{\"and\":[{\"value\":{\"equals\":\"PURCHASE\"},\"key\":\"event_name\",\"ignore_case\":true}]}]},{\"value\":{\"equals\":\"sale\"},\"scope\":[\"properties\",\"category\"],\"key\":\"type\"}]}",
+            "{\"not\":[{\"not\":[{\"value\":{\"equals\":\"purchase\"},\"key\":\"event_name\"}]}]}",
+            "{\"not\":[{\"and\":[{\"value\":{\"at_most\":5},\"key\":\"event_value\"},{\"value\":{\"is_present\":false},\"key\":\"transaction_id\"}]}]}",
+            "{\"value\":{\"array_contains\":{\"value\":{\"equals\":\"shoes\"}}},\"scope\":\"properties\",\"key\":\"items\"}",
+            "{\"value\":{\"array_contains\":{\"value\":{\"equals\":\"shoes\"}},\"index\":1},\"scope\":[\"properties\"],\"key\":\"items\"}",
+            "{\"value\":{\"version_matches\":\"[1.0, 2.0[\"},\"scope\":[\"ios\"],\"key\":\"version\"}",
+            "{\"value\":{\"equals\":{\"category\":{\"type\":\"sale\"}}},\"key\":\"properties\"}",
+            "{\"value\":{\"is_present\":false},\"scope\":[\"missing\",\"scope\"],\"key\":\"key\"}",
+            "{\"and\":[{\"value\":{\"equals\":\"event_3\"},\"key\":\"event_name\",\"ignore_case\":true},{\"and\":[{\"value\":{\"at_least\":3},\"key\":\"event_value\"},{\"value\":{\"equals\":\"category_3\"},\"scope\":[\"properties\",\"product\"],\"key\":\"category\"}]},{\"value\":{\"array_contains\":{\"value\":{\"equals\":\"sku_5\"}}},\"scope\":[\"properties\"],\"key\":\"skus\"},{\"value\":{\"is_present\":true},\"key\":\"interaction_id\"}]}",
+            "{\"value\":{\"version_matches\":\"[5.0,7.0[\"},\"scope\":[\"android\"],\"key\":\"version\"}"
+    );
+
+    private static final List<String> VALUES = Arrays.asList(
+            "{\"event_name\":\"purchase\",\"event_value\":12,\"interaction_id\":\"id\",\"properties\":{\"category\":{\"type\":\"sale\"},\"items\":[\"hats\",\"shoes\"]}}",
+            "{\"event_name\":\"Purchase\",\"event_value\":3,\"transaction_id\":\"txn\",\"properties\":{\"items\":[\"shoes\"]}}",
+            "{\"event_name\":\"browse\",\"properties\":null,\"ios\":{\"version\":\"1.5\"}}",
+            "{\"ios\":{\"version\":\"2.0\"}}",
+            "{\"event_name\":\"EVENT_3\",\"event_value\":6,\"interaction_id\":\"interaction\",\"properties\":{\"product\":{\"category\":\"category_3\"},\"skus\":[\"sku_3\",\"sku_4\",\"sku_5\"]}}",
+            "{\"android\":{\"version\":\"5.2.1\"}}",
+            "\"just a string\"",
+            "null"
+    );
+
+    /**
+     * Test the compiled predicates return the same result as walking the predicate tree.
+     */
+    @Test
+    public void testMatchesTreeWalk() throws JsonException {
+        for (String predicateJson : PREDICATES) {
+            JsonPredicate predicate = JsonPredicate.parse(JsonValue.parseString(predicateJson));
+            for (String valueJson : VALUES) {
+                JsonValue value = JsonValue.parseString(valueJson);
+                assertEquals(predicateJson + " " + valueJson, predicate.applyUncompiled(value), predicate.apply(value));
+            }
+            assertEquals(predicateJson, predicate.applyUncompiled(null), predicate.apply(null));
+        }
+    }
+
+    /**
+     * Test the version result is not reused once the version changes.
+     */
+    @Test
+    public void testVersionChanges() throws JsonException {
+        JsonPredicate predicate = JsonPredicate.parse(JsonValue.parseString(PREDICATES.get(7)));
+
+        assertTrue(predicate.apply(JsonValue.parseString("{\"ios\":{\"version\":\"1.5\"}}")));
+        assertTrue(predicate.apply(JsonValue.parseString("{\"ios\":{\"version\":\"1.5\"}}")));
+        assertFalse(predicate.apply(JsonValue.parseString("{\"ios\":{\"version\":\"2.0\"}}")));
+        assertFalse(predicate.apply(JsonValue.parseString("{\"ios\":{\"version\":3}}")));
+        assertTrue(predicate.apply(JsonValue.parseString("{\"ios\":{\"version\":\"1.0\"}}")));
+    }
+
+    /**
+     * Test the value is only converted to JSON once per evaluation.
+     */
+    @Test
+    public void testConvertsValueOnce() throws JsonException {
+        JsonPredicate predicate = JsonPredicate.parse(JsonValue.parseString(PREDICATES.get(1)));
+        final int[] count = { 0 };
+        JsonSerializable serializable = new JsonSerializable() {
+            @Override
+            public JsonValue toJsonValue() {
+                count[0]++;
+                return JsonMap.newBuilder()
+                              .put("event_name", "purchase")
+                              .put("event_value", 20)
+                              .build()
+                              .toJsonValue();
+            }
+        };
+
+        assertTrue(predicate.apply(serializable));
+        assertEquals(1, count[0]);
+    }
+
+}
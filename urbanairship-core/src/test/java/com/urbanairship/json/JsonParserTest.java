@@ -0,0 +1,146 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.BaseTestCase;
+
+import org.json.JSONException;
+import org.json.JSONTokener;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import androidx.annotation.NonNull;
+
+import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertTrue;
+import static junit.framework.Assert.fail;
+
+public class JsonParserTest extends BaseTestCase {
+
+    /**
+     * Test the parser matches org.json for the lenient syntax it accepts.
+     */
+    @Test
+    public void testMatchesJSONTokener() throws Exception {
+        String[] inputs = new String[] {
+                "{\"a\":1,\"b\":[1,2,3],\"c\":{\"d\":\"e\"}}",
+                "[1, 2147483648, -2147483649, 1.5, 1e3, -0.0, 0x1F, 017, 08]",
+                "[true, TRUE, False, null, NULL]",
+                "{'single': 'quoted', unquoted: value, \"escaped\": \"\\u00e9\\t\\n\\/\\q\"}",
+                "{a = 1; b => 2, c: null}",
+                "{\"a\": 1, \"a\": null}",
+                "[1,,2;;3,]",
+                "/* block */ [1, // line\n 2, # hash\n 3]",
+                "[\"café\", \"\\\"quoted\\\"\", \"\\\\\"]",
+                "{\"nested\": [[[], {}], [{\"a\": []}]]}",
+                "{} trailing",
+                "\"string\"",
+                "123",
+                "word"
+        };
+
+        for (String input : inputs) {
+            assertEquals(input, expected(input), new JsonParser(input).parse());
+            assertEquals(input, expected(input), new JsonParser(new StringReader(input)).parse());
+        }
+    }
+
+    /**
+     * Test the parser rejects the same invalid input as parsing with org.json.
+     */
+    @Test
+    public void testInvalid() {
+        String[] inputs = new String[] {
+                "{",
+                "[1, 2",
+                "{\"a\" 1}",
+                "{\"a\": 1 \"b\": 2}",
+                "{1: 2}",
+                "{null: 2}",
+                "\"unterminated",
+                "\"\\u00",
+                "/* unterminated",
+                "[NaN]",
+                "[Infinity]",
+                "[:]",
+                ""
+        };
+
+        for (String input : inputs) {
+            try {
+                expected(input);
+                fail("org.json accepted " + input);
+            } catch (JSONException | JsonException expected) {
+                // expected
+            }
+
+            try {
+                new JsonParser(input).parse();
+                fail("Parser accepted " + input);
+            } catch (JsonException expected) {
+                // expected
+            }
+        }
+    }
+
+    /**
+     * Test parsing input larger than the reader buffer.
+     */
+    @Test
+    public void testLargeReader() throws JsonException {
+        List<JsonValue> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(JsonMap.newBuilder()
+                               .put("id", "message_" + i)
+                               .put("value", i)
+                               .put("extra", JsonMap.newBuilder().put("key", "value/" + i).build())
+                               .build()
+                               .toJsonValue());
+        }
+
+        JsonValue value = JsonValue.wrapOpt(values);
+        String json = value.toString();
+        assertTrue(json.length() > 1024 * 10);
+        assertEquals(value, new JsonParser(new StringReader(json)).parse());
+    }
+
+    /**
+     * Test a large remote-data style payload parses the same as org.json and round trips.
+     */
+    @Test
+    public void testLargePayloadMatchesJSONTokener() throws Exception {
+        List<JsonValue> schedules = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            schedules.add(JsonMap.newBuilder()
+                                 .put("id", "schedule_" + i)
+                                 .put("goal", 1.5 + i)
+                                 .put("unread", i % 2 == 0)
+                                 .put("message", JsonMap.newBuilder()
+                                                        .put("text", "Message " + i + " with \"quoted\" text\n")
+                                                        .put("url", "https://example.com/path/" + i)
+                                                        .build())
+                                 .put("triggers", JsonValue.wrapOpt(new int[] { i, i + 1 }))
+                                 .build()
+                                 .toJsonValue());
+        }
+
+        String json = JsonMap.newBuilder()
+                             .put("ok", true)
+                             .put("payloads", new JsonList(schedules))
+                             .build()
+                             .toString();
+
+        JsonValue value = JsonValue.parseString(json);
+        assertEquals(expected(json), value);
+        assertEquals(value, JsonValue.parseString(value.toString()));
+    }
+
+    @NonNull
+    private static JsonValue expected(@NonNull String input) throws JSONException, JsonException {
+        return JsonValue.wrap(new JSONTokener(input).nextValue());
+    }
+
+}
@@ -0,0 +1,75 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.json;
+
+import com.urbanairship.BaseTestCase;
+
+import org.json.JSONStringer;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.util.Arrays;
+
+import static junit.framework.Assert.assertEquals;
+
+public class JsonWriterTest extends BaseTestCase {
+
+    /**
+     * Test strings are escaped the same as org.json.
+     */
+    @Test
+    public void testWriteString() throws Exception {
+        String[] values = new String[] {
+                "",
+                "plain",
+                "\"quoted\"",
+                "back\\slash",
+                "http://example.com/path",
+                "\t\b\n\r\f",
+                "\u0000\u0001\u001f \u007f",
+                "café ☃ 😀"
+        };
+
+        for (String value : values) {
+            String expected = new JSONStringer().array().value(value).endArray().toString();
+            assertEquals(expected, "[" + JsonValue.wrap(value).toString() + "]");
+        }
+    }
+
+    /**
+     * Test numbers are written the same as org.json.
+     */
+    @Test
+    public void testWriteNumber() throws Exception {
+        Number[] values = new Number[] { 0, -1, Integer.MAX_VALUE, Long.MIN_VALUE, 1.5, -0.0, 2.0, 1e20, 1.5e-7, 1.5F, 3F };
+
+        for (Number value : values) {
+            String expected = new JSONStringer().array().value(value).endArray().toString();
+            assertEquals(expected, "[" + JsonValue.wrap(value).toString() + "]");
+        }
+    }
+
+    /**
+     * Test writing a value to a writer and an output stream.
+     */
+    @Test
+    public void testWrite() throws Exception {
+        JsonValue value = JsonMap.newBuilder()
+                                 .put("string", "café/\"")
+                                 .put("list", JsonValue.wrapOpt(Arrays.asList(1, true, JsonMap.EMPTY_MAP)))
+                                 .put("double", 1.5)
+                                 .build()
+                                 .toJsonValue();
+
+        StringWriter writer = new StringWriter();
+        value.write(writer);
+        assertEquals(value.toString(), writer.toString());
+        assertEquals(value, JsonValue.parseString(writer.toString()));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        value.write(outputStream);
+        assertEquals(value.toString(), outputStream.toString("UTF-8"));
+    }
+
+}
@@ -0,0 +1,126 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.push;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.PreferenceDataStore;
+import com.urbanairship.TestApplication;
+import com.urbanairship.json.JsonValue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CanonicalIdCacheTest extends BaseTestCase {
+
+    private static final String KEY = "canonical_ids";
+
+    private PreferenceDataStore dataStore;
+    private final List<Runnable> pendingWrites = new ArrayList<>();
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            pendingWrites.add(runnable);
+        }
+    };
+
+    @Before
+    public void setup() {
+        dataStore = PreferenceDataStore.inMemoryStore(TestApplication.getApplication());
+    }
+
+    @After
+    public void tearDown() {
+        dataStore.tearDown();
+    }
+
+    /**
+     * Test duplicate IDs are rejected.
+     */
+    @Test
+    public void testAdd() {
+        CanonicalIdCache cache = new CanonicalIdCache(dataStore, KEY, 10, executor);
+
+        assertTrue(cache.add("one"));
+        assertTrue(cache.add("two"));
+        assertFalse(cache.add("one"));
+        assertFalse(cache.add("two"));
+    }
+
+    /**
+     * Test the least recently seen ID is evicted once the cache is full.
+     */
+    @Test
+    public void testEviction() {
+        CanonicalIdCache cache = new CanonicalIdCache(dataStore, KEY, 2, executor);
+
+        cache.add("one");
+        cache.add("two");
+
+        // Seeing "one" again makes "two" the least recent
+        assertFalse(cache.add("one"));
+        assertTrue(cache.add("three"));
+
+        assertFalse(cache.add("one"));
+        assertTrue(cache.add("two"));
+    }
+
+    /**
+     * Test writes are coalesced and persist the IDs oldest first.
+     */
+    @Test
+    public void testWriteBehind() {
+        CanonicalIdCache cache = new CanonicalIdCache(dataStore, KEY, 10, executor);
+
+        cache.add("one");
+        cache.add("two");
+        cache.add("three");
+
+        assertEquals(1, pendingWrites.size());
+        assertFalse(dataStore.isSet(KEY));
+
+        runPendingWrites();
+        assertEquals(JsonValue.wrapOpt(Arrays.asList("one", "two", "three")), dataStore.getJsonValue(KEY));
+
+        cache.add("four");
+        assertEquals(1, pendingWrites.size());
+    }
+
+    /**
+     * Test IDs are restored from the data store, including the list stored by older SDK versions.
+     */
+    @Test
+    public void testRestore() {
+        dataStore.put(KEY, "[\"one\",\"two\"]");
+
+        CanonicalIdCache cache = new CanonicalIdCache(dataStore, KEY, 10, executor);
+        assertFalse(cache.add("one"));
+        assertFalse(cache.add("two"));
+        assertTrue(cache.add("three"));
+
+        runPendingWrites();
+
+        CanonicalIdCache restored = new CanonicalIdCache(dataStore, KEY, 10, executor);
+        assertFalse(restored.add("three"));
+    }
+
+    private void runPendingWrites() {
+        List<Runnable> writes = new ArrayList<>(pendingWrites);
+        pendingWrites.clear();
+        for (Runnable write : writes) {
+            write.run();
+        }
+    }
+
+}
@@ -12,6 +12,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -72,6 +73,50 @@ public class RemoteDataStoreTest extends BaseTestCase {
         Assert.assertEquals("type", savedPayloads.iterator().next().getType());
     }
 
+    /**
+     * Test updating payloads only reports the types that changed.
+     */
+    @Test
+    public void testUpdatePayloads() {
+        Assert.assertEquals(new HashSet<>(Arrays.asList("type", "otherType")), dataStore.updatePayloads(payloads));
+        Assert.assertEquals(payloads, dataStore.getPayloads());
+
+        // Same payloads
+        Assert.assertEquals(Collections.emptySet(), dataStore.updatePayloads(payloads));
+
+        // Metadata change
+        Set<RemoteDataPayload> updated = new HashSet<>();
+        for (RemoteDataPayload payload : payloads) {
+            updated.add(RemoteDataPayload.newBuilder()
+                                         .setType(payload.getType())
+                                         .setTimeStamp(payload.getTimestamp())
+                                         .setData(payload.getData())
+                                         .setMetadata(JsonMap.newBuilder().put("last_modified", "now").build())
+                                         .build());
+        }
+        Assert.assertEquals(new HashSet<>(Arrays.asList("type", "otherType")), dataStore.updatePayloads(updated));
+        Assert.assertEquals(updated, dataStore.getPayloads());
+
+        // Data change for one type and a removed type
+        RemoteDataPayload changed = RemoteDataPayload.newBuilder()
+                                                     .setType("type")
+                                                     .setTimeStamp(123)
+                                                     .setData(JsonMap.newBuilder().put("foo", "baz").build())
+                                                     .setMetadata(JsonMap.newBuilder().put("last_modified", "now").build())
+                                                     .build();
+        Assert.assertEquals(new HashSet<>(Arrays.asList("type", "otherType")), dataStore.updatePayloads(Collections.singleton(changed)));
+        Assert.assertEquals(Collections.singleton(changed), dataStore.getPayloads());
+
+        // Adding a type only changes the new type
+        RemoteDataPayload added = RemoteDataPayload.newBuilder()
+                                                   .setType("addedType")
+                                                   .setTimeStamp(345)
+                                                   .setData(JsonMap.newBuilder().put("added", true).build())
+                                                   .setMetadata(JsonMap.newBuilder().put("last_modified", "now").build())
+                                                   .build();
+        Assert.assertEquals(Collections.singleton("addedType"), dataStore.updatePayloads(new HashSet<>(Arrays.asList(changed, added))));
+    }
+
     /**
      * Test deleting payloads.
      */
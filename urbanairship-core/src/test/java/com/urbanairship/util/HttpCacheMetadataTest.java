@@ -0,0 +1,94 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HttpCacheMetadataTest extends BaseTestCase {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /**
+     * Test parsing the max age from the Cache-Control header.
+     */
+    @Test
+    public void testParseMaxAge() {
+        assertEquals(HttpCacheMetadata.DEFAULT_MAX_AGE_MS, HttpCacheMetadata.parseMaxAge(null));
+        assertEquals(HttpCacheMetadata.DEFAULT_MAX_AGE_MS, HttpCacheMetadata.parseMaxAge("public"));
+        assertEquals(HttpCacheMetadata.DEFAULT_MAX_AGE_MS, HttpCacheMetadata.parseMaxAge("max-age=invalid"));
+        assertEquals(60000, HttpCacheMetadata.parseMaxAge("public, max-age=60"));
+        assertEquals(0, HttpCacheMetadata.parseMaxAge("no-cache"));
+        assertEquals(0, HttpCacheMetadata.parseMaxAge("no-store, max-age=60"));
+    }
+
+    /**
+     * Test metadata round trips through a file.
+     */
+    @Test
+    public void testReadWrite() throws IOException {
+        File file = temporaryFolder.newFile("metadata");
+        new HttpCacheMetadata(1000, "\"etag\"", "Wed, 21 Oct 2015 07:28:00 GMT").write(file);
+
+        HttpCacheMetadata metadata = HttpCacheMetadata.read(file);
+        assertFalse(metadata.isExpired(999));
+        assertTrue(metadata.isExpired(1000));
+
+        HttpURLConnection conn = mock(HttpURLConnection.class);
+        metadata.applyValidators(conn);
+        verify(conn).setRequestProperty("If-None-Match", "\"etag\"");
+        verify(conn).setRequestProperty("If-Modified-Since", "Wed, 21 Oct 2015 07:28:00 GMT");
+    }
+
+    /**
+     * Test reading a missing or invalid file.
+     */
+    @Test
+    public void testReadInvalid() throws IOException {
+        assertNull(HttpCacheMetadata.read(new File(temporaryFolder.getRoot(), "missing")));
+
+        File file = temporaryFolder.newFile("invalid");
+        FileWriter writer = new FileWriter(file);
+        writer.write("{not json");
+        writer.close();
+        assertNull(HttpCacheMetadata.read(file));
+    }
+
+    /**
+     * Test a response without validators keeps the cached ones.
+     */
+    @Test
+    public void testFromResponseKeepsCachedValidators() {
+        HttpURLConnection conn = mock(HttpURLConnection.class);
+        when(conn.getHeaderField("Cache-Control")).thenReturn("max-age=60");
+
+        long now = System.currentTimeMillis();
+        HttpCacheMetadata metadata = HttpCacheMetadata.fromResponse(conn, new HttpCacheMetadata(0, "\"etag\"", null));
+        assertFalse(metadata.isExpired(now + 59000));
+        assertTrue(metadata.isExpired(now + 61000));
+
+        HttpURLConnection request = mock(HttpURLConnection.class);
+        metadata.applyValidators(request);
+        verify(request).setRequestProperty("If-None-Match", "\"etag\"");
+        verify(request, never()).setRequestProperty("If-Modified-Since", null);
+    }
+
+}
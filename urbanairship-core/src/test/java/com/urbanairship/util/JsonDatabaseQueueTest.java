@@ -0,0 +1,177 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import com.urbanairship.BaseTestCase;
+import com.urbanairship.PreferenceDataStore;
+import com.urbanairship.QueueData;
+import com.urbanairship.QueueDataDao;
+import com.urbanairship.TestApplication;
+import com.urbanairship.json.JsonSerializable;
+import com.urbanairship.json.JsonValue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import androidx.annotation.NonNull;
+import androidx.arch.core.util.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class JsonDatabaseQueueTest extends BaseTestCase {
+
+    private final Executor executor = new Executor() {
+        @Override
+        public void execute(@NonNull Runnable runnable) {
+            runnable.run();
+        }
+    };
+
+    private PreferenceDataStore dataStore;
+    private JsonDatabaseQueue<JsonValue> queue;
+
+    @Before
+    public void setup() {
+        dataStore = TestApplication.getApplication().preferenceDataStore;
+        queue = createQueue("some-key");
+    }
+
+    @Test
+    public void testRemoveAll() {
+        queue.add(JsonValue.wrapOpt("neat"));
+        queue.add(JsonValue.wrapOpt("rad"));
+        assertEquals(2, queue.getList().size());
+
+        queue.removeAll();
+        assertTrue(queue.getList().isEmpty());
+        assertNull(queue.peek());
+        assertNull(queue.pop());
+        assertEquals(0, dataStore.getQueueDao().count("some-key"));
+    }
+
+    @Test
+    public void testAddAll() {
+        queue.addAll(Arrays.asList(JsonValue.wrapOpt("neat"), JsonValue.wrapOpt("rad")));
+        assertEquals(2, queue.getList().size());
+        assertEquals("neat", queue.pop().getString());
+        assertEquals("rad", queue.pop().getString());
+        assertNull(queue.pop());
+    }
+
+    @Test
+    public void testPop() {
+        queue.add(JsonValue.wrapOpt("neat"));
+        queue.add(JsonValue.wrapOpt("rad"));
+        assertEquals("neat", queue.pop().getString());
+        assertEquals(1, queue.getList().size());
+        assertEquals(1, dataStore.getQueueDao().count("some-key"));
+        assertEquals("rad", queue.pop().getString());
+        assertTrue(queue.getList().isEmpty());
+    }
+
+    @Test
+    public void testBatchPopAndPeek() {
+        queue.addAll(Arrays.asList(JsonValue.wrapOpt("one"), JsonValue.wrapOpt("two"), JsonValue.wrapOpt("three")));
+
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("one"), JsonValue.wrapOpt("two")), queue.peek(2));
+        assertEquals(3, queue.size());
+
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("one"), JsonValue.wrapOpt("two")), queue.pop(2));
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("three")), queue.pop(5));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testPeek() {
+        queue.add(JsonValue.wrapOpt("neat"));
+        queue.add(JsonValue.wrapOpt("rad"));
+        assertEquals("neat", queue.peek().getString());
+        assertEquals(2, queue.getList().size());
+    }
+
+    @Test
+    public void testApply() {
+        queue.add(JsonValue.wrapOpt("neat"));
+        queue.add(JsonValue.wrapOpt("rad"));
+
+        queue.apply(new Function<List<JsonValue>, List<JsonValue>>() {
+            @Override
+            public List<JsonValue> apply(List<JsonValue> input) {
+                return Arrays.asList(JsonValue.wrapOpt("what?"));
+            }
+        });
+
+        assertEquals(1, queue.getList().size());
+        assertEquals("what?", queue.peek().getString());
+        assertEquals(1, dataStore.getQueueDao().count("some-key"));
+    }
+
+    @Test
+    public void testPersisted() {
+        queue.addAll(Arrays.asList(JsonValue.wrapOpt("neat"), JsonValue.wrapOpt("rad")));
+        queue.pop();
+
+        JsonDatabaseQueue<JsonValue> reloaded = createQueue("some-key");
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("rad")), reloaded.getList());
+    }
+
+    @Test
+    public void testMigrateLegacyQueue() {
+        dataStore.put("legacy-key", JsonValue.wrapOpt(Arrays.asList("neat", "rad")));
+
+        JsonDatabaseQueue<JsonValue> migrated = createQueue("legacy-key");
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("neat"), JsonValue.wrapOpt("rad")), migrated.getList());
+        assertFalse(dataStore.isSet("legacy-key"));
+        assertEquals(2, dataStore.getQueueDao().count("legacy-key"));
+    }
+
+    @Test
+    public void testReloadAfterFailedWrite() {
+        QueueDataDao dao = mock(QueueDataDao.class);
+        when(dao.getAll("some-key")).thenReturn(Collections.singletonList(new QueueData("some-key", "\"neat\"")));
+        doThrow(new RuntimeException("disk full")).when(dao).insert(ArgumentMatchers.<QueueData>anyList());
+
+        JsonDatabaseQueue<JsonValue> failingQueue = createQueue(dao, "some-key");
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("neat")), failingQueue.getList());
+
+        // The insert fails, so the queue goes back to what is stored
+        failingQueue.add(JsonValue.wrapOpt("rad"));
+        assertEquals(Arrays.asList(JsonValue.wrapOpt("neat")), failingQueue.getList());
+        verify(dao, times(2)).getAll("some-key");
+    }
+
+    @NonNull
+    private JsonDatabaseQueue<JsonValue> createQueue(@NonNull String key) {
+        return createQueue(dataStore.getQueueDao(), key);
+    }
+
+    @NonNull
+    private JsonDatabaseQueue<JsonValue> createQueue(@NonNull QueueDataDao dao, @NonNull String key) {
+        return new JsonDatabaseQueue<>(dataStore, dao, key, new Function<JsonValue, JsonSerializable>() {
+            @Override
+            public JsonSerializable apply(JsonValue input) {
+                return input;
+            }
+        }, new Function<JsonValue, JsonValue>() {
+            @Override
+            public JsonValue apply(JsonValue input) {
+                return input;
+            }
+        }, executor);
+    }
+
+}
@@ -0,0 +1,278 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.util;
+
+import com.urbanairship.BaseTestCase;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PriorityExecutorTest extends BaseTestCase {
+
+    private PriorityExecutor executor;
+
+    @After
+    public void tearDown() throws InterruptedException {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Test queued tasks run highest priority lane first, in order within each lane.
+     */
+    @Test
+    public void testPriorityOrder() throws InterruptedException {
+        executor = new PriorityExecutor(Executors.defaultThreadFactory(), 3, 1, 0, 1000);
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(0, new Runnable() {
+            @Override
+            public void run() {
+                blocked.countDown();
+                await(release);
+            }
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        final List<String> order = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch finished = new CountDownLatch(5);
+        executor.execute(2, new RecordingRunnable("background 1", order, finished));
+        executor.execute(1, new RecordingRunnable("network 1", order, finished));
+        executor.execute(2, new RecordingRunnable("background 2", order, finished));
+        executor.execute(0, new RecordingRunnable("critical 1", order, finished));
+        executor.execute(1, new RecordingRunnable("network 2", order, finished));
+
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+        assertEquals(Arrays.asList("critical 1", "network 1", "network 2", "background 1", "background 2"), order);
+    }
+
+    /**
+     * Test the thread count never goes over the max, plus the reserved threads for the highest lane.
+     */
+    @Test
+    public void testThreadLimits() throws InterruptedException {
+        executor = new PriorityExecutor(Executors.defaultThreadFactory(), 2, 2, 1, 1000);
+
+        final CountDownLatch started = new CountDownLatch(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                await(release);
+            }
+        };
+
+        for (int i = 0; i < 5; i++) {
+            executor.execute(1, blocking);
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getThreadCount());
+        assertEquals(3, executor.getQueueMetrics(1).getQueueSize());
+
+        // Highest priority lane can use the reserved thread
+        final CountDownLatch criticalRan = new CountDownLatch(1);
+        executor.execute(0, new Runnable() {
+            @Override
+            public void run() {
+                criticalRan.countDown();
+            }
+        });
+        assertTrue(criticalRan.await(5, TimeUnit.SECONDS));
+        assertEquals(3, executor.getPeakThreadCount());
+
+        release.countDown();
+    }
+
+    /**
+     * Test reserved threads only run tasks from the highest priority lane.
+     */
+    @Test
+    public void testReservedThreadsOnlyRunHighestLane() throws InterruptedException {
+        executor = new PriorityExecutor(Executors.defaultThreadFactory(), 2, 1, 1, 1000);
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(1, new Runnable() {
+            @Override
+            public void run() {
+                blocked.countDown();
+                await(release);
+            }
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        // Runs on the reserved thread, which then stays idle waiting for critical work
+        final CountDownLatch criticalRan = new CountDownLatch(1);
+        executor.execute(0, new Runnable() {
+            @Override
+            public void run() {
+                criticalRan.countDown();
+            }
+        });
+        assertTrue(criticalRan.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getThreadCount());
+
+        final CountDownLatch lowRan = new CountDownLatch(1);
+        executor.execute(1, new Runnable() {
+            @Override
+            public void run() {
+                lowRan.countDown();
+            }
+        });
+        assertFalse(lowRan.await(100, TimeUnit.MILLISECONDS));
+        assertEquals(1, executor.getQueueMetrics(1).getQueueSize());
+
+        release.countDown();
+        assertTrue(lowRan.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test idle threads stop after the keep alive.
+     */
+    @Test
+    public void testKeepAlive() throws InterruptedException {
+        executor = new PriorityExecutor(Executors.defaultThreadFactory(), 1, 2, 0, 50);
+
+        final CountDownLatch finished = new CountDownLatch(2);
+        for (int i = 0; i < 2; i++) {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    finished.countDown();
+                }
+            });
+        }
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+        long end = System.currentTimeMillis() + 5000;
+        while (executor.getThreadCount() > 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, executor.getThreadCount());
+    }
+
+    /**
+     * Test queue metrics.
+     */
+    @Test
+    public void testQueueMetrics() throws InterruptedException {
+        executor = new PriorityExecutor(Executors.defaultThreadFactory(), 2, 1, 0, 1000);
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(0, new Runnable() {
+            @Override
+            public void run() {
+                blocked.countDown();
+                await(release);
+            }
+        });
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+        final CountDownLatch finished = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(1, new Runnable() {
+                @Override
+                public void run() {
+                    finished.countDown();
+                }
+            });
+        }
+
+        PriorityExecutor.QueueMetrics metrics = executor.getQueueMetrics(1);
+        assertEquals(3, metrics.getQueueSize());
+        assertEquals(3, metrics.getPeakQueueSize());
+        assertEquals(0, metrics.getExecutedCount());
+
+        release.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+
+        metrics = executor.getQueueMetrics(1);
+        assertEquals(0, metrics.getQueueSize());
+        assertEquals(3, metrics.getPeakQueueSize());
+        assertEquals(3, metrics.getExecutedCount());
+        assertEquals(1, executor.getQueueMetrics(0).getExecutedCount());
+    }
+
+    /**
+     * Test the lane executor runs tasks on its lane.
+     */
+    @Test
+    public void testLaneExecutor() throws Exception {
+        executor = new PriorityExecutor(Executors.defaultThreadFactory(), 2, 1, 0, 1000);
+
+        String result = executor.getLaneExecutor(0).submit(new Callable<String>() {
+            @Override
+            public String call() {
+                return "result";
+            }
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals("result", result);
+        assertEquals(1, executor.getQueueMetrics(0).getExecutedCount());
+        assertEquals(0, executor.getQueueMetrics(1).getExecutedCount());
+    }
+
+    /**
+     * Test tasks are rejected after shutdown.
+     */
+    @Test(expected = RejectedExecutionException.class)
+    public void testRejectAfterShutdown() {
+        executor = new PriorityExecutor(Executors.defaultThreadFactory(), 1, 1, 0, 1000);
+        executor.shutdown();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+            }
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class RecordingRunnable implements Runnable {
+
+        private final String name;
+        private final List<String> order;
+        private final CountDownLatch latch;
+
+        RecordingRunnable(String name, List<String> order, CountDownLatch latch) {
+            this.name = name;
+            this.order = order;
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            order.add(name);
+            latch.countDown();
+        }
+
+    }
+
+}
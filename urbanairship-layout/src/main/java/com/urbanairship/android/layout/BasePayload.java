@@ -2,30 +2,74 @@
 
 package com.urbanairship.android.layout;
 
+import android.util.LruCache;
+
 import com.urbanairship.android.layout.model.BaseModel;
 import com.urbanairship.json.JsonException;
 import com.urbanairship.json.JsonMap;
+import com.urbanairship.json.JsonValue;
+
+import java.util.Map;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 
 public class BasePayload {
 
+    /**
+     * Max total size of the parsed payloads to keep, in estimated characters of payload JSON.
+     * Payloads vary from a few hundred characters to hundreds of kilobytes, so the cache is bounded
+     * by size instead of by count. Payloads over the max are not cached.
+     */
+    @VisibleForTesting
+    static final int PARSED_PAYLOAD_CACHE_MAX_CHARS = 256 * 1024;
+
+    /**
+     * Payloads that have already been parsed and validated, keyed by the payload JSON. Only the
+     * immutable parts of the payload are shared. Models hold view state, so each payload builds
+     * its own model tree.
+     */
+    private static final LruCache<JsonMap, ParsedPayload> PARSED_PAYLOADS = new LruCache<JsonMap, ParsedPayload>(PARSED_PAYLOAD_CACHE_MAX_CHARS) {
+        @Override
+        protected int sizeOf(@NonNull JsonMap key, @NonNull ParsedPayload value) {
+            return value.size;
+        }
+    };
+
     private final int version;
 
     @NonNull
     private final BasePresentation presentation;
 
-    @NonNull
-    private final BaseModel view;
+    @Nullable
+    private final JsonMap viewJson;
+
+    @Nullable
+    private BaseModel view;
 
     public BasePayload(int version, @NonNull BasePresentation presentation, @NonNull BaseModel view) {
         this.version = version;
         this.presentation = presentation;
+        this.viewJson = null;
+        this.view = view;
+    }
+
+    private BasePayload(@NonNull ParsedPayload parsed, @Nullable BaseModel view) {
+        this.version = parsed.version;
+        this.presentation = parsed.presentation;
+        this.viewJson = parsed.viewJson;
         this.view = view;
     }
 
     @NonNull
     public static BasePayload fromJson(@NonNull JsonMap json) throws JsonException {
+        // Payloads are validated when first parsed, so a cached payload builds its models on first use.
+        ParsedPayload parsed = PARSED_PAYLOADS.get(json);
+        if (parsed != null) {
+            return new BasePayload(parsed, null);
+        }
+
         int version = json.opt("version").getInt(-1);
         if (version == -1) {
             throw new JsonException("Failed to parse layout payload! Field 'version' is required.");
@@ -34,13 +78,67 @@ public class BasePayload {
         BasePresentation presentation = BasePresentation.fromJson(presentationJson);
         JsonMap viewJson = json.opt("view").optMap();
         BaseModel view = Thomas.model(viewJson);
-        return new BasePayload(version, presentation, view);
+
+        // The view JSON is part of the payload JSON, so the payload size covers both the key and the value
+        parsed = new ParsedPayload(version, presentation, viewJson, estimateSize(json.toJsonValue(), PARSED_PAYLOAD_CACHE_MAX_CHARS));
+
+        // Putting an entry over the max size would evict every other entry
+        if (parsed.size <= PARSED_PAYLOAD_CACHE_MAX_CHARS) {
+            PARSED_PAYLOADS.put(json, parsed);
+        }
+        return new BasePayload(parsed, view);
     }
 
     public static int versionFromJson(@NonNull JsonMap json) {
         return json.opt("version").getInt(-1);
     }
 
+    /**
+     * Estimates the size of the JSON in characters without serializing it. Counting stops once
+     * the size is over the limit.
+     *
+     * @param value The JSON value.
+     * @param limit The limit.
+     * @return The estimated size.
+     */
+    @VisibleForTesting
+    static int estimateSize(@NonNull JsonValue value, int limit) {
+        if (value.isJsonMap()) {
+            int size = 2;
+            for (Map.Entry<String, JsonValue> entry : value.optMap()) {
+                // Quoted key, colon and comma
+                size += entry.getKey().length() + 4 + estimateSize(entry.getValue(), limit - size);
+                if (size > limit) {
+                    break;
+                }
+            }
+            return size;
+        }
+
+        if (value.isJsonList()) {
+            int size = 2;
+            for (JsonValue item : value.optList()) {
+                size += 1 + estimateSize(item, limit - size);
+                if (size > limit) {
+                    break;
+                }
+            }
+            return size;
+        }
+
+        if (value.isString()) {
+            return value.optString().length() + 2;
+        }
+
+        // Numbers, booleans and null
+        return 8;
+    }
+
+    @VisibleForTesting
+    static void clearCache() {
+        PARSED_PAYLOADS.evictAll();
+    }
+
     public int getVersion() {
         return version;
     }
@@ -51,7 +149,36 @@ public class BasePayload {
     }
 
     @NonNull
-    public BaseModel getView() {
+    public synchronized BaseModel getView() {
+        if (view == null && viewJson != null) {
+            try {
+                view = Thomas.model(viewJson);
+            } catch (JsonException e) {
+                // The view JSON was parsed when the payload was cached
+                throw new IllegalStateException("Failed to parse cached layout view", e);
+            }
+        }
         return view;
     }
+
+    /**
+     * Immutable parts of a parsed payload.
+     */
+    private static final class ParsedPayload {
+
+        private final int version;
+        @NonNull
+        private final BasePresentation presentation;
+        @NonNull
+        private final JsonMap viewJson;
+        private final int size;
+
+        private ParsedPayload(int version, @NonNull BasePresentation presentation, @NonNull JsonMap viewJson, int size) {
+            this.version = version;
+            this.presentation = presentation;
+            this.viewJson = viewJson;
+            this.size = size;
+        }
+
+    }
 }
@@ -8,6 +8,7 @@ import com.urbanairship.json.JsonMap;
 import androidx.annotation.Dimension;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
 
 public class Border {
     @Nullable
@@ -48,4 +49,19 @@ public class Border {
     public Color getStrokeColor() {
         return strokeColor;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Border border = (Border) o;
+        return ObjectsCompat.equals(radius, border.radius) &&
+            ObjectsCompat.equals(strokeWidth, border.strokeWidth) &&
+            ObjectsCompat.equals(strokeColor, border.strokeColor);
+    }
+
+    @Override
+    public int hashCode() {
+        return ObjectsCompat.hash(radius, strokeWidth, strokeColor);
+    }
 }
@@ -14,6 +14,7 @@ import java.util.List;
 import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
 
 public class Color {
 
@@ -72,4 +73,18 @@ public class Color {
         // Fall back to default color if no match.
         return defaultColor;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Color color = (Color) o;
+        return defaultColor == color.defaultColor &&
+            selectors.equals(color.selectors);
+    }
+
+    @Override
+    public int hashCode() {
+        return ObjectsCompat.hash(defaultColor, selectors);
+    }
 }
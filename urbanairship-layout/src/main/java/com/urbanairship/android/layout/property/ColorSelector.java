@@ -12,6 +12,7 @@ import java.util.List;
 import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.core.util.ObjectsCompat;
 
 public class ColorSelector {
     @Nullable
@@ -62,4 +63,19 @@ public class ColorSelector {
     public int getColor() {
         return color;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ColorSelector that = (ColorSelector) o;
+        return darkMode == that.darkMode &&
+            color == that.color &&
+            platform == that.platform;
+    }
+
+    @Override
+    public int hashCode() {
+        return ObjectsCompat.hash(platform, darkMode, color);
+    }
 }
@@ -6,7 +6,6 @@ import android.content.Context;
 import android.content.res.ColorStateList;
 import android.graphics.Paint;
 import android.graphics.Typeface;
-import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.LayerDrawable;
 import android.view.Gravity;
@@ -15,9 +14,6 @@ import android.widget.TextView;
 
 import com.google.android.material.button.MaterialButton;
 import com.google.android.material.color.MaterialColors;
-import com.google.android.material.shape.CornerFamily;
-import com.google.android.material.shape.MaterialShapeDrawable;
-import com.google.android.material.shape.ShapeAppearanceModel;
 import com.urbanairship.Fonts;
 import com.urbanairship.android.layout.R;
 import com.urbanairship.android.layout.model.BaseModel;
@@ -33,8 +29,6 @@ import com.urbanairship.android.layout.property.TextStyle;
 import com.urbanairship.android.layout.widget.Clippable;
 import com.urbanairship.util.UAStringUtil;
 
-import java.util.List;
-
 import androidx.annotation.ColorInt;
 import androidx.annotation.Dimension;
 import androidx.annotation.FloatRange;
@@ -77,38 +71,21 @@ public final class LayoutUtils {
     ) {
         Context context = view.getContext();
 
-        if (border != null) {
-            @Dimension float cornerRadius = border.getRadius() == null ? 0 : dpToPx(context, border.getRadius());
-            ShapeAppearanceModel shapeModel = ShapeAppearanceModel.builder()
-                                                                  .setAllCorners(CornerFamily.ROUNDED, cornerRadius)
-                                                                  .build();
-            MaterialShapeDrawable shapeDrawable = new MaterialShapeDrawable(shapeModel);
-
-            if (view instanceof Clippable) {
-                ((Clippable) view).setClipPathBorderRadius(cornerRadius);
-            }
-
-            int borderPadding = -1;
-            if (border.getStrokeWidth() != null) {
-                float strokeWidth = dpToPx(context, border.getStrokeWidth());
-                shapeDrawable.setStrokeWidth(strokeWidth);
-                borderPadding = (int) strokeWidth;
-            }
-
-            if (border.getStrokeColor() != null) {
-                shapeDrawable.setStrokeColor(ColorStateList.valueOf(border.getStrokeColor().resolve(context)));
-            }
+        // Drawables for the same border and background share their state across the display
+        Drawable background = StyleCache.shared(context).getBackground(context, border, backgroundColor);
+        if (background == null) {
+            return;
+        }
 
-            @ColorInt int fillColor = backgroundColor != null ? backgroundColor.resolve(context) : Color.TRANSPARENT;
-            shapeDrawable.setFillColor(ColorStateList.valueOf(fillColor));
+        if (border != null && view instanceof Clippable) {
+            @Dimension float cornerRadius = border.getRadius() == null ? 0 : dpToPx(context, border.getRadius());
+            ((Clippable) view).setClipPathBorderRadius(cornerRadius);
+        }
 
-            mergeBackground(view, shapeDrawable);
+        mergeBackground(view, background);
 
-            if (borderPadding > -1) {
-                addPadding(view, borderPadding);
-            }
-        } else if (backgroundColor != null) {
-            mergeBackground(view, new ColorDrawable(backgroundColor.resolve(context)));
+        if (border != null && border.getStrokeWidth() != null) {
+            addPadding(view, (int) dpToPx(context, border.getStrokeWidth()));
         }
     }
 
@@ -133,39 +110,29 @@ public final class LayoutUtils {
         applyLabelModel(button, model.getLabel());
 
         Context context = button.getContext();
+        StyleCache styleCache = StyleCache.shared(context);
         TextAppearance textAppearance = model.getLabel().getTextAppearance();
 
         int textColor = textAppearance.getColor().resolve(context);
-        int backgroundColor = model.getBackgroundColor() == null
-            ? Color.TRANSPARENT
-            : model.getBackgroundColor().resolve(button.getContext());
         int pressedColor = ColorUtils.setAlphaComponent(textColor, Math.round(Color.alpha(textColor) * PRESSED_ALPHA_PERCENT));
-        int disabledColor = generateDisabledColor(backgroundColor);
         int strokeWidth = model.getBorder() == null || model.getBorder().getStrokeWidth() == null
             ? DEFAULT_STROKE_WIDTH_DPS
             : model.getBorder().getStrokeWidth();
-        int strokeColor = model.getBorder() == null || model.getBorder().getStrokeColor() == null
-            ? backgroundColor
-            : model.getBorder().getStrokeColor().resolve(context);
-        int disabledStrokeColor = generateDisabledColor(strokeColor);
+        Color strokeColor = model.getBorder() == null || model.getBorder().getStrokeColor() == null
+            ? model.getBackgroundColor()
+            : model.getBorder().getStrokeColor();
         int borderRadius = model.getBorder() == null || model.getBorder().getRadius() == null
             ? DEFAULT_BORDER_RADIUS
             : model.getBorder().getRadius();
 
-        button.setBackgroundTintList(new ColorStateListBuilder()
-            .add(disabledColor, -android.R.attr.state_enabled)
-            .add(backgroundColor)
-            .build());
+        button.setBackgroundTintList(styleCache.getButtonColors(context, model.getBackgroundColor()));
         button.setRippleColor(ColorStateList.valueOf(pressedColor));
         int strokeWidthDp = (int) dpToPx(context, strokeWidth);
         button.setStrokeWidth(strokeWidthDp);
         if (strokeWidthDp > 0) {
             addPadding(button, strokeWidthDp);
         }
-        button.setStrokeColor(new ColorStateListBuilder()
-            .add(disabledStrokeColor, -android.R.attr.state_enabled)
-            .add(strokeColor)
-            .build());
+        button.setStrokeColor(styleCache.getButtonColors(context, strokeColor));
         button.setCornerRadius((int) dpToPx(context, borderRadius));
     }
 
@@ -222,16 +189,10 @@ public final class LayoutUtils {
 
     public static void applyTextAppearance(@NonNull TextView textView, @NonNull TextAppearance textAppearance) {
         Context context = textView.getContext();
+        StyleCache styleCache = StyleCache.shared(context);
 
         textView.setTextSize(textAppearance.getFontSize());
-
-        int textColor = textAppearance.getColor().resolve(context);
-        int disabledTextColor = generateDisabledColor(Color.TRANSPARENT, textColor);
-
-        textView.setTextColor(new ColorStateListBuilder()
-            .add(disabledTextColor, -android.R.attr.state_enabled)
-            .add(textColor)
-            .build());
+        textView.setTextColor(styleCache.getTextColors(context, textAppearance.getColor()));
 
         int typefaceFlags = Typeface.NORMAL;
         int paintFlags = Paint.ANTI_ALIAS_FLAG | Paint.SUBPIXEL_TEXT_FLAG;
@@ -262,35 +223,12 @@ public final class LayoutUtils {
                 break;
         }
 
-        Typeface typeface = getTypeFace(textView.getContext(), textAppearance.getFontFamilies());
+        Typeface typeface = styleCache.getTypeface(context, textAppearance.getFontFamilies());
 
         textView.setTypeface(typeface, typefaceFlags);
         textView.setPaintFlags(paintFlags);
     }
 
-    /**
-     * Finds the first available font in the list.
-     *
-     * @param context The application context.
-     * @param fontFamilies The list of font families.
-     * @return The typeface with a specified font, or null if the font was not found.
-     */
-    @Nullable
-    private static Typeface getTypeFace(@NonNull Context context, @NonNull List<String> fontFamilies) {
-        for (String fontFamily : fontFamilies) {
-            if (UAStringUtil.isEmpty(fontFamily)) {
-                continue;
-            }
-
-            Typeface typeface = Fonts.shared(context).getFontFamily(fontFamily);
-            if (typeface != null) {
-                return typeface;
-            }
-        }
-
-        return null;
-    }
-
     @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
     public static void applySwitchStyle(@NonNull SwitchCompat view, @NonNull SwitchStyle style) {
         Context context = view.getContext();
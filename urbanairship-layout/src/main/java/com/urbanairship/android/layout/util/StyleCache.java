@@ -0,0 +1,255 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.android.layout.util;
+
+import android.app.Activity;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.ColorStateList;
+import android.graphics.Typeface;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+
+import com.google.android.material.shape.CornerFamily;
+import com.google.android.material.shape.MaterialShapeDrawable;
+import com.google.android.material.shape.ShapeAppearanceModel;
+import com.urbanairship.Fonts;
+import com.urbanairship.android.layout.property.Border;
+import com.urbanairship.android.layout.property.Color;
+import com.urbanairship.util.UAStringUtil;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.Dimension;
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.VisibleForTesting;
+import androidx.core.util.ObjectsCompat;
+
+import static com.urbanairship.android.layout.util.ResourceUtils.dpToPx;
+
+/**
+ * Resolved style resources, shared by all views in a display.
+ * <p>
+ * Typefaces, color state lists and background drawable state are resolved once per display and
+ * reused by every view with the same style. Caches are scoped to the display's activity, so colors
+ * that depend on the UI mode are resolved again when the activity is recreated.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+@MainThread
+public final class StyleCache {
+
+    private static final Map<Context, StyleCache> caches = new WeakHashMap<>();
+
+    private final Map<List<String>, Typeface> typefaces = new HashMap<>();
+    private final Map<Color, ColorStateList> textColors = new HashMap<>();
+    private final Map<Color, ColorStateList> buttonColors = new HashMap<>();
+    private final Map<BackgroundKey, Drawable.ConstantState> backgrounds = new HashMap<>();
+
+    @VisibleForTesting
+    StyleCache() {}
+
+    /**
+     * Gets the style cache for the display that owns the given context.
+     *
+     * @param context The view context.
+     * @return The style cache.
+     */
+    @NonNull
+    public static StyleCache shared(@NonNull Context context) {
+        Context owner = findOwner(context);
+        StyleCache cache = caches.get(owner);
+        if (cache == null) {
+            cache = new StyleCache();
+            caches.put(owner, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Finds the first available font in the list.
+     *
+     * @param context The context.
+     * @param fontFamilies The list of font families.
+     * @return The typeface with a specified font, or null if the font was not found.
+     */
+    @Nullable
+    public Typeface getTypeface(@NonNull Context context, @NonNull List<String> fontFamilies) {
+        if (typefaces.containsKey(fontFamilies)) {
+            return typefaces.get(fontFamilies);
+        }
+
+        Typeface typeface = null;
+        Fonts fonts = Fonts.shared(context);
+        for (String fontFamily : fontFamilies) {
+            if (UAStringUtil.isEmpty(fontFamily)) {
+                continue;
+            }
+
+            typeface = fonts.getFontFamily(fontFamily);
+            if (typeface != null) {
+                break;
+            }
+        }
+
+        // Font families lists are owned by the text appearance, copy the key in case it changes
+        typefaces.put(new ArrayList<>(fontFamilies), typeface);
+        return typeface;
+    }
+
+    /**
+     * Gets the text colors for the given color, with a generated disabled color.
+     *
+     * @param context The context.
+     * @param color The text color.
+     * @return The color state list.
+     */
+    @NonNull
+    public ColorStateList getTextColors(@NonNull Context context, @NonNull Color color) {
+        ColorStateList colors = textColors.get(color);
+        if (colors == null) {
+            int textColor = color.resolve(context);
+            int disabledTextColor = LayoutUtils.generateDisabledColor(Color.TRANSPARENT, textColor);
+            colors = new ColorStateListBuilder()
+                .add(disabledTextColor, -android.R.attr.state_enabled)
+                .add(textColor)
+                .build();
+            textColors.put(color, colors);
+        }
+        return colors;
+    }
+
+    /**
+     * Gets the button background or stroke colors for the given color, with a generated
+     * disabled color.
+     *
+     * @param context The context.
+     * @param color The color, or null for transparent.
+     * @return The color state list.
+     */
+    @NonNull
+    public ColorStateList getButtonColors(@NonNull Context context, @Nullable Color color) {
+        ColorStateList colors = buttonColors.get(color);
+        if (colors == null) {
+            int resolved = color == null ? Color.TRANSPARENT : color.resolve(context);
+            colors = new ColorStateListBuilder()
+                .add(LayoutUtils.generateDisabledColor(resolved), -android.R.attr.state_enabled)
+                .add(resolved)
+                .build();
+            buttonColors.put(color, colors);
+        }
+        return colors;
+    }
+
+    /**
+     * Gets a background drawable for the given border and background color. Each call returns a
+     * new drawable, but drawables for the same style share their constant state.
+     *
+     * @param context The context.
+     * @param border The border, or null for no border.
+     * @param backgroundColor The background color, or null for transparent.
+     * @return The background drawable, or null if neither a border nor a background color is set.
+     */
+    @Nullable
+    public Drawable getBackground(@NonNull Context context, @Nullable Border border, @Nullable Color backgroundColor) {
+        if (border == null && backgroundColor == null) {
+            return null;
+        }
+
+        BackgroundKey key = new BackgroundKey(border, backgroundColor);
+        Drawable.ConstantState state = backgrounds.get(key);
+        if (state != null) {
+            return state.newDrawable(context.getResources());
+        }
+
+        Drawable drawable = createBackground(context, border, backgroundColor);
+        state = drawable.getConstantState();
+        if (state == null) {
+            return drawable;
+        }
+
+        backgrounds.put(key, state);
+        return state.newDrawable(context.getResources());
+    }
+
+    @NonNull
+    private static Drawable createBackground(@NonNull Context context, @Nullable Border border, @Nullable Color backgroundColor) {
+        if (border == null) {
+            return new ColorDrawable(backgroundColor.resolve(context));
+        }
+
+        @Dimension float cornerRadius = border.getRadius() == null ? 0 : dpToPx(context, border.getRadius());
+        ShapeAppearanceModel shapeModel = ShapeAppearanceModel.builder()
+                                                              .setAllCorners(CornerFamily.ROUNDED, cornerRadius)
+                                                              .build();
+        MaterialShapeDrawable shapeDrawable = new MaterialShapeDrawable(shapeModel);
+
+        if (border.getStrokeWidth() != null) {
+            shapeDrawable.setStrokeWidth(dpToPx(context, border.getStrokeWidth()));
+        }
+
+        if (border.getStrokeColor() != null) {
+            shapeDrawable.setStrokeColor(ColorStateList.valueOf(border.getStrokeColor().resolve(context)));
+        }
+
+        @ColorInt int fillColor = backgroundColor != null ? backgroundColor.resolve(context) : Color.TRANSPARENT;
+        shapeDrawable.setFillColor(ColorStateList.valueOf(fillColor));
+
+        return shapeDrawable;
+    }
+
+    /**
+     * Views may be given a theme wrapper of the display's context, so caches are keyed by the
+     * activity (or the innermost base context) the view belongs to.
+     */
+    @NonNull
+    private static Context findOwner(@NonNull Context context) {
+        Context current = context;
+        while (current instanceof ContextWrapper && !(current instanceof Activity)) {
+            Context base = ((ContextWrapper) current).getBaseContext();
+            if (base == null) {
+                break;
+            }
+            current = base;
+        }
+        return current;
+    }
+
+    private static final class BackgroundKey {
+
+        @Nullable
+        private final Border border;
+        @Nullable
+        private final Color backgroundColor;
+
+        private BackgroundKey(@Nullable Border border, @Nullable Color backgroundColor) {
+            this.border = border;
+            this.backgroundColor = backgroundColor;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            BackgroundKey that = (BackgroundKey) o;
+            return ObjectsCompat.equals(border, that.border) &&
+                ObjectsCompat.equals(backgroundColor, that.backgroundColor);
+        }
+
+        @Override
+        public int hashCode() {
+            return ObjectsCompat.hash(border, backgroundColor);
+        }
+
+    }
+
+}
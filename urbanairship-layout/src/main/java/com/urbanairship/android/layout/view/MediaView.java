@@ -4,6 +4,7 @@ package com.urbanairship.android.layout.view;
 
 import android.annotation.SuppressLint;
 import android.content.Context;
+import android.net.Uri;
 import android.util.AttributeSet;
 import android.view.Gravity;
 import android.view.View;
@@ -25,6 +26,7 @@ import com.urbanairship.android.layout.model.MediaModel;
 import com.urbanairship.android.layout.property.MediaType;
 import com.urbanairship.android.layout.util.LayoutUtils;
 import com.urbanairship.android.layout.util.ResourceUtils;
+import com.urbanairship.android.layout.widget.TextureVideoView;
 import com.urbanairship.images.ImageRequestOptions;
 import com.urbanairship.js.UrlAllowList;
 import com.urbanairship.util.ManifestUtils;
@@ -57,6 +59,9 @@ public class MediaView extends FrameLayout implements BaseView<MediaModel> {
     @Nullable
     private WebView webView;
 
+    @Nullable
+    private TextureVideoView videoView;
+
     private static final String VIDEO_HTML_FORMAT =
             "<body style=\"margin:0\"><video playsinline controls height=\"100%%\" width=\"100%%\" src=\"%s\"></video></body>";
     private static final String IMAGE_HTML_FORMAT =
@@ -134,6 +139,12 @@ public class MediaView extends FrameLayout implements BaseView<MediaModel> {
             this.webView = null;
         }
 
+        if (this.videoView != null) {
+            this.videoView.setListener(null);
+            this.videoView.release();
+            this.videoView = null;
+        }
+
         switch (model.getMediaType()) {
             case IMAGE:
                 configureImage(model);
@@ -186,11 +197,11 @@ public class MediaView extends FrameLayout implements BaseView<MediaModel> {
     }
 
     /**
-     * Helper method to load video in the webview.
+     * Helper method to load video. Video files are played natively, embedded players are loaded
+     * in a web view.
      *
      * @param model The media info.
      */
-    @SuppressLint("SetJavaScriptEnabled")
     private void configureVideo(@NonNull MediaModel model) {
 
         // Default to a 16:9 aspect ratio
@@ -227,6 +238,59 @@ public class MediaView extends FrameLayout implements BaseView<MediaModel> {
 
         environment.lifecycle().addObserver(lifecycleListener);
 
+        if (model.getMediaType() == MediaType.VIDEO) {
+            configureNativeVideo(model);
+        } else {
+            configureWebView(model);
+        }
+    }
+
+    /**
+     * Helper method to play a video file with a native player. Falls back to the web view if the
+     * video can't be played.
+     *
+     * @param model The media info.
+     */
+    private void configureNativeVideo(@NonNull MediaModel model) {
+        if (!UAirship.shared().getUrlAllowList().isAllowed(model.getUrl(), UrlAllowList.SCOPE_OPEN_URL)) {
+            Logger.error("URL not allowed. Unable to load: %s", model.getUrl());
+            return;
+        }
+
+        String url = model.getUrl();
+        String cachedVideo = environment.imageCache().get(url);
+        if (cachedVideo != null) {
+            url = cachedVideo;
+        }
+
+        TextureVideoView videoView = new TextureVideoView(getContext());
+        videoView.setLayoutParams(new FrameLayout.LayoutParams(MATCH_PARENT, MATCH_PARENT));
+        if (!UAStringUtil.isEmpty(model.getContentDescription())) {
+            videoView.setContentDescription(model.getContentDescription());
+        }
+
+        videoView.setListener(() -> post(() -> {
+            if (this.videoView != videoView) {
+                return;
+            }
+            // Let the web view try formats the platform player doesn't support
+            removeView(videoView);
+            this.videoView = null;
+            configureWebView(model);
+        }));
+
+        this.videoView = videoView;
+        addView(videoView);
+        videoView.setVideoUri(Uri.parse(url));
+    }
+
+    /**
+     * Helper method to load media in the web view.
+     *
+     * @param model The media info.
+     */
+    @SuppressLint("SetJavaScriptEnabled")
+    private void configureWebView(@NonNull MediaModel model) {
         this.webView = new WebView(getContext());
         this.webView.setWebChromeClient(environment.webChromeClientFactory().create());
 
@@ -347,6 +411,9 @@ public class MediaView extends FrameLayout implements BaseView<MediaModel> {
             if (webView != null) {
                 webView.onPause();
             }
+            if (videoView != null) {
+                videoView.pause();
+            }
         }
 
         @Override
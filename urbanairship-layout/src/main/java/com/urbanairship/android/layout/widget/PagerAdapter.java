@@ -3,6 +3,8 @@
 package com.urbanairship.android.layout.widget;
 
 import android.content.Context;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
@@ -14,20 +16,37 @@ import com.urbanairship.android.layout.model.PagerModel;
 import com.urbanairship.android.layout.util.LayoutUtils;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.core.view.ViewCompat;
 import androidx.recyclerview.widget.RecyclerView;
 
 import static android.view.ViewGroup.LayoutParams.MATCH_PARENT;
 
+/**
+ * Adapter for pager pages.
+ *
+ * Page views are built once per page model and reused whenever the page is bound again, so
+ * swiping back and forth through the pager does not rebuild the page view tree. The views for the
+ * pages next to the displayed page can be built ahead of time with {@link #prebuildPages(Context, int)}.
+ */
 @RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
 public class PagerAdapter extends RecyclerView.Adapter<PagerAdapter.ViewHolder> {
     @NonNull
     private final List<BaseModel> items = new ArrayList<>();
 
+    @NonNull
+    private final Map<BaseModel, View> pageViews = new HashMap<>();
+
+    @Nullable
+    private MessageQueue.IdleHandler prebuildHandler;
+
     @NonNull
     private final PagerModel pagerModel;
     @NonNull
@@ -36,6 +55,7 @@ public class PagerAdapter extends RecyclerView.Adapter<PagerAdapter.ViewHolder>
     public PagerAdapter(@NonNull PagerModel model, @NonNull Environment environment) {
         this.pagerModel = model;
         this.environment = environment;
+        setHasStableIds(true);
     }
 
     @NonNull
@@ -48,7 +68,7 @@ public class PagerAdapter extends RecyclerView.Adapter<PagerAdapter.ViewHolder>
     public void onBindViewHolder(@NonNull PagerAdapter.ViewHolder holder, int position) {
         BaseModel model = getItemAtPosition(position);
         holder.container.setId(pagerModel.getPageViewId(position));
-        holder.bind(model, environment);
+        holder.bind(getPageView(holder.itemView.getContext(), model));
     }
 
     @Override
@@ -67,6 +87,11 @@ public class PagerAdapter extends RecyclerView.Adapter<PagerAdapter.ViewHolder>
         return items.get(position).getType().ordinal();
     }
 
+    @Override
+    public long getItemId(int position) {
+        return pagerModel.getPageViewId(position);
+    }
+
     public BaseModel getItemAtPosition(int position) {
         return items.get(position);
     }
@@ -75,10 +100,70 @@ public class PagerAdapter extends RecyclerView.Adapter<PagerAdapter.ViewHolder>
         if (!this.items.equals(items)) {
             this.items.clear();
             this.items.addAll(items);
+            pageViews.clear();
             notifyDataSetChanged();
         }
     }
 
+    /**
+     * Builds the views for the pages before and after the given position the next time the main
+     * thread is idle. Views can only be built on the main thread, so one page is built per idle
+     * pass to avoid delaying any pending frames.
+     *
+     * @param context The context.
+     * @param position The displayed page position.
+     */
+    @MainThread
+    public void prebuildPages(@NonNull Context context, int position) {
+        if (prebuildHandler != null) {
+            Looper.myQueue().removeIdleHandler(prebuildHandler);
+        }
+
+        final int[] positions = { position + 1, position - 1 };
+        prebuildHandler = new MessageQueue.IdleHandler() {
+            private int index = 0;
+
+            @Override
+            public boolean queueIdle() {
+                while (index < positions.length) {
+                    int next = positions[index++];
+                    if (next >= 0 && next < items.size() && !pageViews.containsKey(items.get(next))) {
+                        getPageView(context, items.get(next));
+                        break;
+                    }
+                }
+
+                boolean hasMore = index < positions.length;
+                if (!hasMore) {
+                    prebuildHandler = null;
+                }
+                return hasMore;
+            }
+        };
+        Looper.myQueue().addIdleHandler(prebuildHandler);
+    }
+
+    /**
+     * Cancels any pending page pre-building.
+     */
+    @MainThread
+    public void cancelPrebuild() {
+        if (prebuildHandler != null) {
+            Looper.myQueue().removeIdleHandler(prebuildHandler);
+            prebuildHandler = null;
+        }
+    }
+
+    @NonNull
+    private View getPageView(@NonNull Context context, @NonNull BaseModel model) {
+        View view = pageViews.get(model);
+        if (view == null) {
+            view = Thomas.view(context, model, environment);
+            pageViews.put(model, view);
+        }
+        return view;
+    }
+
     public static class ViewHolder extends RecyclerView.ViewHolder {
         private final ViewGroup container;
 
@@ -92,8 +177,11 @@ public class PagerAdapter extends RecyclerView.Adapter<PagerAdapter.ViewHolder>
             this.container = container;
         }
 
-        public void bind(@NonNull BaseModel item, @NonNull Environment environment) {
-            View view = Thomas.view(itemView.getContext(), item, environment);
+        public void bind(@NonNull View view) {
+            // The page view may still be held by a holder that has not been recycled yet
+            if (view.getParent() instanceof ViewGroup) {
+                ((ViewGroup) view.getParent()).removeView(view);
+            }
             container.addView(view, new RecyclerView.LayoutParams(MATCH_PARENT, MATCH_PARENT));
 
             // Register a listener, so we can request insets when the view is attached.
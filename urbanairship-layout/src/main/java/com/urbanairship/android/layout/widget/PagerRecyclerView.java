@@ -71,6 +71,7 @@ public class PagerRecyclerView extends RecyclerView {
         adapter.setStateRestorationPolicy(StateRestorationPolicy.PREVENT_WHEN_EMPTY);
         adapter.setItems(model.getChildren());
         setAdapter(adapter);
+        adapter.prebuildPages(getContext(), 0);
 
         // Pass along any calls to apply insets to the view.
         ViewCompat.setOnApplyWindowInsetsListener(this, (v, insets) -> {
@@ -81,6 +82,14 @@ public class PagerRecyclerView extends RecyclerView {
         });
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        if (adapter != null) {
+            adapter.cancelPrebuild();
+        }
+    }
+
     public int getDisplayedItemPosition() {
         View snapView = snapHelper.findSnapView(layoutManager);
         return snapView != null ? getChildAdapterPosition(snapView) : 0;
@@ -114,6 +123,9 @@ public class PagerRecyclerView extends RecyclerView {
                     model.onScrollTo(calculated, isInternalScroll, environment.displayTimer().getTime());
                 }
             }
+            if (position != NO_POSITION) {
+                adapter.prebuildPages(getContext(), position);
+            }
             previousPosition = position;
             isInternalScroll = false;
         }
@@ -0,0 +1,303 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.android.layout.widget;
+
+import android.content.Context;
+import android.graphics.Matrix;
+import android.graphics.SurfaceTexture;
+import android.media.AudioAttributes;
+import android.media.MediaPlayer;
+import android.net.Uri;
+import android.view.Gravity;
+import android.view.Surface;
+import android.view.TextureView;
+import android.widget.FrameLayout;
+import android.widget.MediaController;
+import android.widget.ProgressBar;
+
+import com.urbanairship.Logger;
+
+import java.io.IOException;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+import static android.view.ViewGroup.LayoutParams.MATCH_PARENT;
+import static android.view.ViewGroup.LayoutParams.WRAP_CONTENT;
+
+/**
+ * Plays a video file with a {@link MediaPlayer} rendering to a {@link TextureView}.
+ * <p>
+ * The player is created when the texture becomes available and released when it is destroyed, so
+ * only views that are attached to a window hold a player. Once prepared, the first frame is
+ * rendered as a poster until the user starts playback from the media controls.
+ *
+ * @hide
+ */
+@RestrictTo(RestrictTo.Scope.LIBRARY_GROUP)
+public class TextureVideoView extends FrameLayout implements TextureView.SurfaceTextureListener, MediaController.MediaPlayerControl {
+
+    /**
+     * Video view listener.
+     */
+    public interface Listener {
+
+        /**
+         * Called when the video fails to load or play.
+         */
+        void onError();
+
+    }
+
+    private final TextureView textureView;
+    private final ProgressBar progressBar;
+    private final MediaController mediaController;
+
+    @Nullable
+    private Uri uri;
+    @Nullable
+    private Listener listener;
+
+    @Nullable
+    private MediaPlayer mediaPlayer;
+    @Nullable
+    private Surface surface;
+    private boolean isPrepared;
+
+    private int videoWidth;
+    private int videoHeight;
+    private int resumePosition;
+
+    /**
+     * Default constructor.
+     *
+     * @param context A Context object used to access application assets.
+     */
+    public TextureVideoView(@NonNull Context context) {
+        super(context);
+
+        textureView = new TextureView(context);
+        textureView.setSurfaceTextureListener(this);
+        LayoutParams textureParams = new LayoutParams(MATCH_PARENT, MATCH_PARENT);
+        textureParams.gravity = Gravity.CENTER;
+        addView(textureView, textureParams);
+
+        progressBar = new ProgressBar(context);
+        progressBar.setIndeterminate(true);
+        progressBar.setId(android.R.id.progress);
+        LayoutParams progressParams = new LayoutParams(WRAP_CONTENT, WRAP_CONTENT);
+        progressParams.gravity = Gravity.CENTER;
+        addView(progressBar, progressParams);
+
+        mediaController = new MediaController(context);
+        mediaController.setMediaPlayer(this);
+        mediaController.setAnchorView(this);
+
+        setOnClickListener(v -> toggleMediaController());
+    }
+
+    /**
+     * Sets the video URI.
+     *
+     * @param uri The video URI.
+     */
+    public void setVideoUri(@NonNull Uri uri) {
+        this.uri = uri;
+        this.resumePosition = 0;
+        release();
+        openVideo();
+    }
+
+    /**
+     * Sets the listener.
+     *
+     * @param listener The listener.
+     */
+    public void setListener(@Nullable Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Stops playback and releases the player.
+     */
+    public void release() {
+        if (mediaPlayer != null) {
+            if (isPrepared) {
+                resumePosition = mediaPlayer.getCurrentPosition();
+            }
+            mediaPlayer.release();
+            mediaPlayer = null;
+        }
+
+        isPrepared = false;
+        mediaController.hide();
+    }
+
+    private void openVideo() {
+        if (uri == null || surface == null || mediaPlayer != null) {
+            return;
+        }
+
+        progressBar.setVisibility(VISIBLE);
+
+        MediaPlayer player = new MediaPlayer();
+        player.setAudioAttributes(new AudioAttributes.Builder()
+            .setUsage(AudioAttributes.USAGE_MEDIA)
+            .setContentType(AudioAttributes.CONTENT_TYPE_MOVIE)
+            .build());
+        player.setSurface(surface);
+        player.setOnPreparedListener(mp -> {
+            isPrepared = true;
+            progressBar.setVisibility(GONE);
+            // Seeking renders the frame at the resume position without starting playback
+            mp.seekTo(Math.max(resumePosition, 1));
+        });
+        player.setOnVideoSizeChangedListener((mp, width, height) -> {
+            videoWidth = width;
+            videoHeight = height;
+            updateTextureTransform();
+        });
+        player.setOnErrorListener((mp, what, extra) -> {
+            Logger.error("Unable to play video: %s what: %s extra: %s", uri, what, extra);
+            onError();
+            return true;
+        });
+
+        mediaPlayer = player;
+        try {
+            player.setDataSource(getContext(), uri);
+            player.prepareAsync();
+        } catch (IOException | IllegalArgumentException | IllegalStateException | SecurityException e) {
+            Logger.error(e, "Unable to load video: %s", uri);
+            onError();
+        }
+    }
+
+    private void onError() {
+        release();
+        progressBar.setVisibility(GONE);
+        if (listener != null) {
+            listener.onError();
+        }
+    }
+
+    private void toggleMediaController() {
+        if (!isPrepared) {
+            return;
+        }
+
+        if (mediaController.isShowing()) {
+            mediaController.hide();
+        } else {
+            mediaController.show();
+        }
+    }
+
+    /**
+     * Scales the texture so the video keeps its aspect ratio, centered in the view.
+     */
+    private void updateTextureTransform() {
+        int viewWidth = textureView.getWidth();
+        int viewHeight = textureView.getHeight();
+        if (viewWidth == 0 || viewHeight == 0 || videoWidth == 0 || videoHeight == 0) {
+            return;
+        }
+
+        float scale = Math.min((float) viewWidth / videoWidth, (float) viewHeight / videoHeight);
+        float scaleX = videoWidth * scale / viewWidth;
+        float scaleY = videoHeight * scale / viewHeight;
+
+        Matrix matrix = new Matrix();
+        matrix.setScale(scaleX, scaleY, viewWidth / 2f, viewHeight / 2f);
+        textureView.setTransform(matrix);
+    }
+
+    @Override
+    public void onSurfaceTextureAvailable(@NonNull SurfaceTexture surfaceTexture, int width, int height) {
+        surface = new Surface(surfaceTexture);
+        updateTextureTransform();
+        openVideo();
+    }
+
+    @Override
+    public void onSurfaceTextureSizeChanged(@NonNull SurfaceTexture surfaceTexture, int width, int height) {
+        updateTextureTransform();
+    }
+
+    @Override
+    public boolean onSurfaceTextureDestroyed(@NonNull SurfaceTexture surfaceTexture) {
+        release();
+        if (surface != null) {
+            surface.release();
+            surface = null;
+        }
+        return true;
+    }
+
+    @Override
+    public void onSurfaceTextureUpdated(@NonNull SurfaceTexture surfaceTexture) {
+    }
+
+    @Override
+    public void start() {
+        if (mediaPlayer != null && isPrepared) {
+            mediaPlayer.start();
+        }
+    }
+
+    @Override
+    public void pause() {
+        if (mediaPlayer != null && isPrepared && mediaPlayer.isPlaying()) {
+            mediaPlayer.pause();
+        }
+    }
+
+    @Override
+    public int getDuration() {
+        return mediaPlayer != null && isPrepared ? mediaPlayer.getDuration() : -1;
+    }
+
+    @Override
+    public int getCurrentPosition() {
+        return mediaPlayer != null && isPrepared ? mediaPlayer.getCurrentPosition() : 0;
+    }
+
+    @Override
+    public void seekTo(int position) {
+        if (mediaPlayer != null && isPrepared) {
+            mediaPlayer.seekTo(position);
+        }
+    }
+
+    @Override
+    public boolean isPlaying() {
+        return mediaPlayer != null && isPrepared && mediaPlayer.isPlaying();
+    }
+
+    @Override
+    public int getBufferPercentage() {
+        return 0;
+    }
+
+    @Override
+    public boolean canPause() {
+        return true;
+    }
+
+    @Override
+    public boolean canSeekBackward() {
+        return true;
+    }
+
+    @Override
+    public boolean canSeekForward() {
+        return true;
+    }
+
+    @Override
+    public int getAudioSessionId() {
+        return mediaPlayer != null ? mediaPlayer.getAudioSessionId() : 0;
+    }
+
+}
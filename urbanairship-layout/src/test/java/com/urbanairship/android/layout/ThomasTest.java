@@ -17,11 +17,13 @@ import org.robolectric.RobolectricTestRunner;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -82,6 +84,86 @@ public class ThomasTest {
         assertFalse(Thomas.isValid(banner));
     }
 
+    @Test
+    public void reusesParsedPayload() throws JsonException {
+        BasePayload.clearCache();
+        JsonMap json = readJsonMapResource("modal.json");
+
+        BasePayload first = BasePayload.fromJson(json);
+        BasePayload second = BasePayload.fromJson(json);
+
+        // The immutable presentation is shared, but each payload gets its own models
+        assertSame(first.getPresentation(), second.getPresentation());
+        assertNotSame(first.getView(), second.getView());
+        assertSame(second.getView(), second.getView());
+        assertEquals(first.getView().getType(), second.getView().getType());
+        assertTrue(Thomas.isValid(second));
+    }
+
+    @Test
+    public void doesNotCacheLargePayload() throws JsonException {
+        BasePayload.clearCache();
+        char[] padding = new char[BasePayload.PARSED_PAYLOAD_CACHE_MAX_CHARS];
+        Arrays.fill(padding, 'a');
+        JsonMap json = JsonMap.newBuilder()
+                              .putAll(readJsonMapResource("modal.json"))
+                              .put("padding", new String(padding))
+                              .build();
+
+        BasePayload first = BasePayload.fromJson(json);
+        BasePayload second = BasePayload.fromJson(json);
+
+        assertNotSame(first.getPresentation(), second.getPresentation());
+    }
+
+    @Test
+    public void largePayloadKeepsCachedPayloads() throws JsonException {
+        BasePayload.clearCache();
+        JsonMap modal = readJsonMapResource("modal.json");
+        BasePayload cached = BasePayload.fromJson(modal);
+
+        char[] padding = new char[BasePayload.PARSED_PAYLOAD_CACHE_MAX_CHARS];
+        Arrays.fill(padding, 'a');
+        BasePayload.fromJson(JsonMap.newBuilder()
+                                    .putAll(modal)
+                                    .put("padding", new String(padding))
+                                    .build());
+
+        assertSame(cached.getPresentation(), BasePayload.fromJson(modal).getPresentation());
+    }
+
+    @Test
+    public void estimateSize() throws JsonException {
+        JsonMap json = readJsonMapResource("modal.json");
+        int size = BasePayload.estimateSize(json.toJsonValue(), Integer.MAX_VALUE);
+        int length = json.toString().length();
+
+        // Close to the serialized length
+        assertTrue(size >= length / 2);
+        assertTrue(size <= length * 2);
+
+        // Stops counting once over the limit
+        assertTrue(BasePayload.estimateSize(json.toJsonValue(), 10) < length);
+    }
+
+    @Test
+    public void doesNotCacheInvalidPayload() {
+        BasePayload.clearCache();
+        JsonMap json = JsonMap.newBuilder()
+                              .put("version", 1)
+                              .put("presentation", JsonMap.newBuilder().put("type", "not a presentation").build())
+                              .build();
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                BasePayload.fromJson(json);
+                fail("Expected a JsonException");
+            } catch (JsonException expected) {
+                // expected
+            }
+        }
+    }
+
     @SuppressWarnings("SameParameterValue")
     private JsonMap readJsonMapResource(String path) {
         ClassLoader classLoader = getClass().getClassLoader();
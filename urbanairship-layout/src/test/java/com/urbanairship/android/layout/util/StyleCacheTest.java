@@ -0,0 +1,104 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.android.layout.util;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.graphics.drawable.Drawable;
+import android.view.ContextThemeWrapper;
+
+import com.urbanairship.android.layout.property.Border;
+import com.urbanairship.android.layout.property.Color;
+import com.urbanairship.android.layout.property.ColorSelector;
+import com.urbanairship.android.layout.property.Platform;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Collections;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+@RunWith(RobolectricTestRunner.class)
+public class StyleCacheTest {
+
+    private Context context;
+    private StyleCache cache;
+
+    @Before
+    public void setup() {
+        context = ApplicationProvider.getApplicationContext();
+        cache = new StyleCache();
+    }
+
+    @Test
+    public void testSharedByDisplay() {
+        Context themed = new ContextThemeWrapper(context, 0);
+        assertSame(StyleCache.shared(context), StyleCache.shared(themed));
+    }
+
+    @Test
+    public void testTextColors() {
+        ColorStateList colors = cache.getTextColors(context, red());
+        assertEquals(android.graphics.Color.RED, colors.getDefaultColor());
+
+        // Equal colors share the same state list
+        assertSame(colors, cache.getTextColors(context, red()));
+        assertNotSame(colors, cache.getTextColors(context, blue()));
+    }
+
+    @Test
+    public void testButtonColors() {
+        ColorStateList colors = cache.getButtonColors(context, null);
+        assertEquals(Color.TRANSPARENT, colors.getDefaultColor());
+        assertSame(colors, cache.getButtonColors(context, null));
+        assertNotSame(colors, cache.getButtonColors(context, red()));
+    }
+
+    @Test
+    public void testBackgroundSharesState() {
+        Border border = new Border(4, 2, blue());
+
+        Drawable first = cache.getBackground(context, border, red());
+        Drawable second = cache.getBackground(context, new Border(4, 2, blue()), red());
+        assertNotNull(first);
+        assertNotNull(second);
+
+        // Each view gets its own drawable, backed by the same state
+        assertNotSame(first, second);
+        assertSame(first.getConstantState(), second.getConstantState());
+
+        Drawable other = cache.getBackground(context, new Border(8, 2, blue()), red());
+        assertNotNull(other);
+        assertNotSame(first.getConstantState(), other.getConstantState());
+    }
+
+    @Test
+    public void testNoBackground() {
+        assertNull(cache.getBackground(context, null, null));
+    }
+
+    @Test
+    public void testMissingTypeface() {
+        assertNull(cache.getTypeface(context, Collections.<String>emptyList()));
+        assertNull(cache.getTypeface(context, Collections.<String>emptyList()));
+    }
+
+    private static Color red() {
+        return new Color(android.graphics.Color.RED, Collections.singletonList(
+            new ColorSelector(Platform.ANDROID, true, android.graphics.Color.MAGENTA)));
+    }
+
+    private static Color blue() {
+        return new Color(android.graphics.Color.BLUE, Collections.<ColorSelector>emptyList());
+    }
+
+}
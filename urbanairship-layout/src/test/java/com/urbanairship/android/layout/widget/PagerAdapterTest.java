@@ -0,0 +1,109 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.android.layout.widget;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.urbanairship.android.layout.environment.Environment;
+import com.urbanairship.android.layout.model.BaseModel;
+import com.urbanairship.android.layout.model.EmptyModel;
+import com.urbanairship.android.layout.model.PagerModel;
+import com.urbanairship.json.JsonValue;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(RobolectricTestRunner.class)
+public class PagerAdapterTest {
+    private static final Map<String, JsonValue> EMPTY_ACTIONS = Collections.emptyMap();
+
+    private Context context;
+    private FrameLayout parent;
+    private PagerModel pagerModel;
+    private PagerAdapter adapter;
+
+    @Before
+    public void setup() {
+        context = ApplicationProvider.getApplicationContext();
+        parent = new FrameLayout(context);
+
+        List<PagerModel.Item> items = Arrays.asList(
+            new PagerModel.Item(new EmptyModel(null, null), "page-one", EMPTY_ACTIONS),
+            new PagerModel.Item(new EmptyModel(null, null), "page-two", EMPTY_ACTIONS)
+        );
+        pagerModel = new PagerModel(items, false, null, null);
+
+        adapter = new PagerAdapter(pagerModel, mock(Environment.class));
+        adapter.setItems(pagerModel.getChildren());
+    }
+
+    @Test
+    public void testRebindReusesPageView() {
+        PagerAdapter.ViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+        adapter.onBindViewHolder(holder, 0);
+        FrameLayout container = (FrameLayout) holder.itemView;
+        View pageView = container.getChildAt(0);
+
+        adapter.onViewRecycled(holder);
+        assertEquals(0, container.getChildCount());
+
+        // Bind the page again in a different holder
+        PagerAdapter.ViewHolder otherHolder = adapter.onCreateViewHolder(parent, 0);
+        adapter.onBindViewHolder(otherHolder, 0);
+        assertSame(pageView, ((FrameLayout) otherHolder.itemView).getChildAt(0));
+
+        // Other pages get their own view
+        adapter.onBindViewHolder(holder, 1);
+        assertNotSame(pageView, container.getChildAt(0));
+    }
+
+    @Test
+    public void testBindMovesPageViewFromStaleHolder() {
+        PagerAdapter.ViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+        adapter.onBindViewHolder(holder, 0);
+
+        PagerAdapter.ViewHolder otherHolder = adapter.onCreateViewHolder(parent, 0);
+        adapter.onBindViewHolder(otherHolder, 0);
+
+        assertEquals(0, ((FrameLayout) holder.itemView).getChildCount());
+        assertEquals(1, ((FrameLayout) otherHolder.itemView).getChildCount());
+    }
+
+    @Test
+    public void testStableIds() {
+        assertTrue(adapter.hasStableIds());
+        assertEquals(pagerModel.getPageViewId(0), adapter.getItemId(0));
+        assertEquals(pagerModel.getPageViewId(1), adapter.getItemId(1));
+    }
+
+    @Test
+    public void testSetItemsClearsPageViews() {
+        PagerAdapter.ViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+        adapter.onBindViewHolder(holder, 0);
+        View pageView = ((FrameLayout) holder.itemView).getChildAt(0);
+        adapter.onViewRecycled(holder);
+
+        List<BaseModel> items = Collections.singletonList(new EmptyModel(null, null));
+        adapter.setItems(items);
+        adapter.onBindViewHolder(holder, 0);
+
+        assertNotSame(pageView, ((FrameLayout) holder.itemView).getChildAt(0));
+    }
+}
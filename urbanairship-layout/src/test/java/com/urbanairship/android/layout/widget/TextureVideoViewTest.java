@@ -0,0 +1,105 @@
+/* Copyright Airship and Contributors */
+
+package com.urbanairship.android.layout.widget;
+
+import android.content.Context;
+import android.graphics.SurfaceTexture;
+import android.net.Uri;
+import android.os.Looper;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.shadows.ShadowMediaPlayer;
+import org.robolectric.shadows.util.DataSource;
+
+import java.io.IOException;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class TextureVideoViewTest {
+
+    private static final Uri VIDEO_URI = Uri.parse("https://example.com/video.mp4");
+
+    private Context context;
+    private TextureVideoView videoView;
+    private TextureVideoView.Listener listener;
+    private SurfaceTexture surfaceTexture;
+
+    @Before
+    public void setup() {
+        context = ApplicationProvider.getApplicationContext();
+        listener = mock(TextureVideoView.Listener.class);
+        surfaceTexture = new SurfaceTexture(0);
+
+        videoView = new TextureVideoView(context);
+        videoView.setListener(listener);
+    }
+
+    @After
+    public void tearDown() {
+        ShadowMediaPlayer.resetStaticState();
+        surfaceTexture.release();
+    }
+
+    @Test
+    public void testWaitsForTexture() {
+        ShadowMediaPlayer.addMediaInfo(DataSource.toDataSource(context, VIDEO_URI), new ShadowMediaPlayer.MediaInfo(1000, 0));
+
+        videoView.setVideoUri(VIDEO_URI);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(-1, videoView.getDuration());
+
+        videoView.onSurfaceTextureAvailable(surfaceTexture, 100, 100);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(1000, videoView.getDuration());
+        verify(listener, never()).onError();
+    }
+
+    @Test
+    public void testErrorWhenVideoFailsToLoad() {
+        ShadowMediaPlayer.addException(DataSource.toDataSource(context, VIDEO_URI), new IOException("unsupported"));
+
+        videoView.setVideoUri(VIDEO_URI);
+        videoView.onSurfaceTextureAvailable(surfaceTexture, 100, 100);
+        shadowOf(Looper.getMainLooper()).idle();
+
+        verify(listener).onError();
+        assertEquals(-1, videoView.getDuration());
+    }
+
+    @Test
+    public void testReleasesWhenTextureDestroyed() {
+        ShadowMediaPlayer.addMediaInfo(DataSource.toDataSource(context, VIDEO_URI), new ShadowMediaPlayer.MediaInfo(1000, 0));
+
+        videoView.setVideoUri(VIDEO_URI);
+        videoView.onSurfaceTextureAvailable(surfaceTexture, 100, 100);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(1000, videoView.getDuration());
+
+        assertTrue(videoView.onSurfaceTextureDestroyed(surfaceTexture));
+        assertEquals(-1, videoView.getDuration());
+        assertEquals(0, videoView.getCurrentPosition());
+
+        // A new texture opens the video again
+        SurfaceTexture newTexture = new SurfaceTexture(0);
+        videoView.onSurfaceTextureAvailable(newTexture, 100, 100);
+        shadowOf(Looper.getMainLooper()).idle();
+        assertEquals(1000, videoView.getDuration());
+        verify(listener, never()).onError();
+
+        videoView.onSurfaceTextureDestroyed(newTexture);
+        newTexture.release();
+    }
+
+}
@@ -38,6 +38,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -91,6 +92,7 @@ public class Inbox {
     private final AirshipChannel airshipChannel;
 
     private boolean isFetchingMessages = false;
+    private boolean isLoaded = false;
     @Nullable
     @VisibleForTesting
     InboxJobHandler inboxJobHandler;
@@ -697,6 +699,7 @@ public class Inbox {
             unreadMessages.clear();
             readMessages.clear();
             messageUrlMap.clear();
+            isLoaded = true;
 
             // Process the new messages
             for (MessageEntity messageEntity : messageList) {
@@ -751,6 +754,82 @@ public class Inbox {
 
     }
 
+    /**
+     * Applies the changes from a message sync to the in-memory messages instead of reloading
+     * every message from the DB. Listeners are always notified.
+     *
+     * @param insertedMessages The messages that were inserted.
+     * @param removedMessageIds The IDs of the messages that were deleted.
+     */
+    void applyMessageChanges(@NonNull List<MessageEntity> insertedMessages, @NonNull Collection<String> removedMessageIds) {
+        boolean refreshRequired;
+
+        synchronized (inboxLock) {
+            refreshRequired = !isLoaded;
+            if (!refreshRequired) {
+                for (String messageId : removedMessageIds) {
+                    Message message = unreadMessages.remove(messageId);
+                    if (message == null) {
+                        message = readMessages.remove(messageId);
+                    }
+
+                    if (message != null) {
+                        messageUrlMap.remove(message.getMessageBodyUrl());
+                    }
+                }
+
+                removeExpiredMessages(unreadMessages);
+                removeExpiredMessages(readMessages);
+
+                for (MessageEntity messageEntity : insertedMessages) {
+                    Message message = messageEntity.createMessageFromEntity(messageEntity);
+
+                    if (message == null) {
+                        continue;
+                    }
+
+                    // Deleted or expired
+                    if (message.isDeleted() || message.isExpired() || deletedMessageIds.contains(message.getMessageId())) {
+                        deletedMessageIds.add(message.getMessageId());
+                        continue;
+                    }
+
+                    messageUrlMap.put(message.getMessageBodyUrl(), message);
+
+                    if (message.unreadClient) {
+                        unreadMessages.put(message.getMessageId(), message);
+                    } else {
+                        readMessages.put(message.getMessageId(), message);
+                    }
+                }
+            }
+        }
+
+        if (refreshRequired) {
+            // Nothing to apply the changes to yet, load everything instead
+            refresh(true);
+        } else {
+            notifyInboxUpdated();
+        }
+    }
+
+    /**
+     * Moves any expired messages to the deleted message IDs.
+     *
+     * @param messages The messages to check.
+     */
+    private void removeExpiredMessages(@NonNull Map<String, Message> messages) {
+        Iterator<Message> iterator = messages.values().iterator();
+        while (iterator.hasNext()) {
+            Message message = iterator.next();
+            if (message.isExpired()) {
+                iterator.remove();
+                messageUrlMap.remove(message.getMessageBodyUrl());
+                deletedMessageIds.add(message.getMessageId());
+            }
+        }
+    }
+
     /**
      * Notifies all of the registered listeners that the
      * inbox updated.
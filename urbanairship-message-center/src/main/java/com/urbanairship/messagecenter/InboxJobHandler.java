@@ -20,8 +20,10 @@ import com.urbanairship.util.UAStringUtil;
 import java.net.HttpURLConnection;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.RestrictTo;
@@ -135,7 +137,9 @@ class InboxJobHandler {
             inbox.onUpdateMessagesFinished(false);
         } else {
             boolean success = this.updateMessages();
-            inbox.refresh(true);
+            if (!success) {
+                inbox.refresh(true);
+            }
             inbox.onUpdateMessagesFinished(success);
             this.syncReadMessageState();
             this.syncDeletedMessageState();
@@ -208,6 +212,7 @@ class InboxJobHandler {
             // 304
             if (response.getStatus() == HttpURLConnection.HTTP_NOT_MODIFIED) {
                 Logger.debug("Inbox messages already up-to-date. ");
+                inbox.applyMessageChanges(Collections.<MessageEntity>emptyList(), Collections.<String>emptyList());
                 return true;
             }
 
@@ -222,11 +227,15 @@ class InboxJobHandler {
 
     /**
      * Update the Rich Push Inbox.
+     * <p>
+     * Messages that are not stored yet are inserted and stored messages that are no longer on
+     * the server are deleted. Existing messages are left as is to preserve their local state.
      *
      * @param serverMessages The messages from the server.
      */
     private void updateInbox(JsonList serverMessages) {
-        List<JsonValue> messagesToInsert = new ArrayList<>();
+        Set<String> storedMessageIds = new HashSet<>(messageDao.getMessageIds());
+        List<MessageEntity> messagesToInsert = new ArrayList<>();
         HashSet<String> serverMessageIds = new HashSet<>();
 
         for (JsonValue message : serverMessages) {
@@ -241,7 +250,9 @@ class InboxJobHandler {
                 continue;
             }
 
-            serverMessageIds.add(messageId);
+            if (!serverMessageIds.add(messageId) || storedMessageIds.contains(messageId)) {
+                continue;
+            }
 
             MessageEntity messageEntity = MessageEntity.createMessageFromPayload(messageId, message);
 
@@ -250,19 +261,18 @@ class InboxJobHandler {
                 continue;
             }
 
-            if (!messageDao.messageExists(messageEntity.messageId)) {
-                messagesToInsert.add(message);
-            }
+            messagesToInsert.add(messageEntity);
         }
 
-        // Bulk insert any new messages
-        if (messagesToInsert.size() > 0) {
-            messageDao.insertMessages(MessageEntity.createMessagesFromPayload(null, messagesToInsert));
+        List<String> deletedMessageIds = new ArrayList<>();
+        for (String messageId : storedMessageIds) {
+            if (!serverMessageIds.contains(messageId)) {
+                deletedMessageIds.add(messageId);
+            }
         }
 
-        List<String> deletedMessageIds = messageDao.getMessageIds();
-        deletedMessageIds.removeAll(serverMessageIds);
-        messageDao.deleteMessages(deletedMessageIds);
+        messageDao.insertAndDeleteMessages(messagesToInsert, deletedMessageIds);
+        inbox.applyMessageChanges(messagesToInsert, deletedMessageIds);
     }
 
     /**
@@ -74,6 +74,23 @@ public abstract class MessageDao {
     @Query("DELETE FROM richpush WHERE message_id IN (:messageIds)")
     abstract void deleteMessagesBatch(@NonNull List<String> messageIds);
 
+    /**
+     * Inserts and deletes messages in a single transaction.
+     *
+     * @param messages The messages to insert.
+     * @param messageIds The IDs of the messages to delete.
+     */
+    @Transaction
+    public void insertAndDeleteMessages(@NonNull List<MessageEntity> messages, @NonNull List<String> messageIds) {
+        if (!messages.isEmpty()) {
+            insertMessages(messages);
+        }
+
+        if (!messageIds.isEmpty()) {
+            deleteMessages(messageIds);
+        }
+    }
+
     @Transaction
     @Query("DELETE FROM richpush")
     @NonNull
@@ -19,11 +19,13 @@ import com.urbanairship.json.JsonValue;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import java.net.HttpURLConnection;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import androidx.test.core.app.ApplicationProvider;
@@ -34,6 +36,7 @@ import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNull;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
@@ -133,6 +136,9 @@ public class InboxJobHandlerTest {
 
         // Verify LAST_MESSAGE_REFRESH_TIME was not updated
         assertEquals(300L, dataStore.getLong(InboxJobHandler.LAST_MESSAGE_REFRESH_TIME, 0));
+
+        // Verify the inbox was notified without any changes
+        verify(inbox).applyMessageChanges(Collections.<MessageEntity>emptyList(), Collections.<String>emptyList());
     }
 
     /**
@@ -171,8 +177,10 @@ public class InboxJobHandlerTest {
         // Verify LAST_MESSAGE_REFRESH_TIME was updated
         assertEquals(600L, dataStore.getLong(InboxJobHandler.LAST_MESSAGE_REFRESH_TIME, 0));
 
-        // Verify we updated the inbox
-        verify(inbox).refresh(true);
+        // Verify we updated the inbox without reloading it
+        verify(mockMessageDao).insertAndDeleteMessages(Collections.<MessageEntity>emptyList(), Collections.<String>emptyList());
+        verify(inbox).applyMessageChanges(Collections.<MessageEntity>emptyList(), Collections.<String>emptyList());
+        verify(inbox, never()).refresh(anyBoolean());
     }
 
     /**
@@ -189,6 +197,9 @@ public class InboxJobHandlerTest {
         // Set the last refresh time
         dataStore.put(InboxJobHandler.LAST_MESSAGE_REFRESH_TIME, 300L);
 
+        // A stored message that is no longer on the server
+        when(mockMessageDao.getMessageIds()).thenReturn(new ArrayList<>(Collections.singletonList("stale_message_id")));
+
         String responseBody = "{ \"messages\": [ {\"message_id\": \"some_mesg_id\"," +
                 "\"message_url\": \"https://go.urbanairship.com/api/user/userId/messages/message/some_mesg_id/\"," +
                 "\"message_body_url\": \"https://go.urbanairship.com/api/user/userId/messages/message/some_mesg_id/body/\"," +
@@ -217,8 +228,17 @@ public class InboxJobHandlerTest {
         // Verify LAST_MESSAGE_REFRESH_TIME was updated
         assertEquals(600L, dataStore.getLong(InboxJobHandler.LAST_MESSAGE_REFRESH_TIME, 0));
 
-        // Verify we updated the inbox
-        verify(inbox).refresh(true);
+        // Verify the new message was inserted, the stale message deleted, and the inbox updated
+        ArgumentCaptor<List<MessageEntity>> insertedCaptor = ArgumentCaptor.forClass(List.class);
+        verify(mockMessageDao).insertAndDeleteMessages(insertedCaptor.capture(), eq(Collections.singletonList("stale_message_id")));
+        assertEquals(1, insertedCaptor.getValue().size());
+        assertEquals("some_mesg_id", insertedCaptor.getValue().get(0).getMessageId());
+        verify(inbox).applyMessageChanges(insertedCaptor.getValue(), Collections.singletonList("stale_message_id"));
+        verify(inbox, never()).refresh(anyBoolean());
+
+        // Only a single query for the stored message IDs
+        verify(mockMessageDao).getMessageIds();
+        verify(mockMessageDao, never()).messageExists(anyString());
     }
 
     /**
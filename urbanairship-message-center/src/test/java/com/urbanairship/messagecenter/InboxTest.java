@@ -30,6 +30,7 @@ import org.robolectric.annotation.LooperMode;
 import org.robolectric.annotation.SQLiteMode;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -219,6 +220,30 @@ public class InboxTest {
         assertEquals(0, inbox.getReadCount());
     }
 
+    /**
+     * Test applying sync changes updates the in-memory messages without reloading from the database.
+     */
+    @Test
+    public void testApplyMessageChanges() {
+        List<MessageEntity> inserted = new ArrayList<>();
+        Message newMessage = MessageCenterTestUtils.createMessage("16_message_id", null, false);
+        inserted.add(MessageEntity.createMessageFromPayload(newMessage.getMessageId(), newMessage.getRawMessageJson()));
+
+        Message expiredMessage = MessageCenterTestUtils.createMessage("17_message_id", null, true);
+        inserted.add(MessageEntity.createMessageFromPayload(expiredMessage.getMessageId(), expiredMessage.getRawMessageJson()));
+
+        inbox.applyMessageChanges(inserted, Arrays.asList("1_message_id", "2_message_id"));
+
+        assertEquals(9, inbox.getCount());
+        assertNotNull(inbox.getMessage("16_message_id"));
+        assertFalse(inbox.getMessageIds().contains("17_message_id"));
+        assertFalse(inbox.getMessageIds().contains("1_message_id"));
+        assertFalse(inbox.getMessageIds().contains("2_message_id"));
+        assertEquals(newMessage.getMessageId(), inbox.getMessageByUrl(newMessage.getMessageBodyUrl()).getMessageId());
+
+        verify(mockMessageDao, never()).getMessages();
+    }
+
     /**
      * Test mark messages are marked deleted in the database
      * and the inbox.
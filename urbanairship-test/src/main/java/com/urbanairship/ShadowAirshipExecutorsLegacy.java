@@ -22,4 +22,14 @@ public class ShadowAirshipExecutorsLegacy {
     public static Executor newSerialExecutor() {
         return EXECUTOR;
     }
+
+    @Implementation
+    public static ExecutorService threadPoolExecutor(int priority) {
+        return EXECUTOR;
+    }
+
+    @Implementation
+    public static Executor newSerialExecutor(int priority) {
+        return EXECUTOR;
+    }
 }
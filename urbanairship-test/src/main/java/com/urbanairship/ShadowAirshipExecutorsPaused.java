@@ -23,4 +23,14 @@ public class ShadowAirshipExecutorsPaused {
     public static Executor newSerialExecutor() {
         return EXECUTOR;
     }
+
+    @Implementation
+    public static ExecutorService threadPoolExecutor(int priority) {
+        return EXECUTOR;
+    }
+
+    @Implementation
+    public static Executor newSerialExecutor(int priority) {
+        return EXECUTOR;
+    }
 }
@@ -10,9 +10,13 @@ import com.urbanairship.http.Response;
 import com.urbanairship.http.ResponseParser;
 import com.urbanairship.util.Checks;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.net.URL;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -50,12 +54,28 @@ public class TestRequest extends Request {
     }
 
     /**
-     * Get the request body.
+     * Get the request body. Compressed bodies are decompressed.
      *
      * @return The request body.
      */
     public String getRequestBody() {
-        return body;
+        if (compressedBody == null) {
+            return body;
+        }
+
+        try {
+            GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(compressedBody));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int count;
+            while ((count = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, count);
+            }
+            inputStream.close();
+            return outputStream.toString("UTF-8");
+        } catch (IOException e) {
+            throw new IllegalStateException("Invalid compressed body", e);
+        }
     }
 
     /**